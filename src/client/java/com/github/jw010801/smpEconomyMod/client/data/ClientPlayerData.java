@@ -1,6 +1,7 @@
 package com.github.jw010801.smpeconomymod.client.data;
 
-import java.math.BigDecimal;
+import com.github.jw010801.smpeconomymod.economy.Money;
+
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 
@@ -13,8 +14,8 @@ public class ClientPlayerData {
     private static ClientPlayerData instance;
     
     // 경제 정보
-    private BigDecimal balance = BigDecimal.ZERO;
-    private BigDecimal dailyEarnings = BigDecimal.ZERO;
+    private Money balance = Money.ZERO;
+    private Money dailyEarnings = Money.ZERO;
     
     // 스킬 레벨 정보
     private int miningLevel = 1;
@@ -49,17 +50,17 @@ public class ClientPlayerData {
     /**
      * 서버에서 받은 경제 데이터로 업데이트
      */
-    public void updateEconomyData(BigDecimal newBalance, BigDecimal dailyEarnings) {
-        BigDecimal oldBalance = this.balance;
+    public void updateEconomyData(Money newBalance, Money dailyEarnings) {
+        Money oldBalance = this.balance;
         this.balance = newBalance;
         this.dailyEarnings = dailyEarnings;
         
         // 잔액 변화가 있으면 알림 표시
         if (oldBalance.compareTo(newBalance) != 0) {
-            BigDecimal change = newBalance.subtract(oldBalance);
-            if (change.compareTo(BigDecimal.ZERO) > 0) {
+            Money change = newBalance.subtract(oldBalance);
+            if (change.isPositive()) {
                 addNotification("💰 +" + formatMoney(change), 3000);
-            } else if (change.compareTo(BigDecimal.ZERO) < 0) {
+            } else if (change.isNegative()) {
                 addNotification("💸 " + formatMoney(change.abs()), 3000);
             }
         }
@@ -145,8 +146,8 @@ public class ClientPlayerData {
      * 클라이언트 데이터 초기화 (로그아웃시)
      */
     public void reset() {
-        balance = BigDecimal.ZERO;
-        dailyEarnings = BigDecimal.ZERO;
+        balance = Money.ZERO;
+        dailyEarnings = Money.ZERO;
         miningLevel = 1;
         farmingLevel = 1;
         fishingLevel = 1;
@@ -161,11 +162,11 @@ public class ClientPlayerData {
     }
     
     // Getters
-    public BigDecimal getBalance() {
+    public Money getBalance() {
         return balance;
     }
     
-    public BigDecimal getDailyEarnings() {
+    public Money getDailyEarnings() {
         return dailyEarnings;
     }
     
@@ -248,7 +249,7 @@ public class ClientPlayerData {
         return Math.min(1.0, (double) expInCurrentLevel / expNeededForNextLevel);
     }
     
-    private String formatMoney(BigDecimal amount) {
-        return String.format("%,d", amount.longValue());
+    private String formatMoney(Money amount) {
+        return String.format("%,d", amount.getWholeUnits());
     }
 }
@@ -7,8 +7,7 @@ import net.minecraft.client.gui.DrawContext;
 import net.minecraft.text.Text;
 
 import com.github.jw010801.smpeconomymod.client.data.ClientPlayerData;
-
-import java.math.BigDecimal;
+import com.github.jw010801.smpeconomymod.economy.Money;
 
 public class EconomyHud implements HudRenderCallback {
     
@@ -89,7 +88,7 @@ public class EconomyHud implements HudRenderCallback {
         
         // 현재 잔액 표시 (아이콘으로 최소화)
         ClientPlayerData playerData = ClientPlayerData.getInstance();
-        BigDecimal balance = playerData.getBalance();
+        Money balance = playerData.getBalance();
         
         // 💰 아이콘 + 잔액 (천 단위 구분 쉼표)
         String formattedBalance = formatBalance(balance);
@@ -117,14 +116,13 @@ public class EconomyHud implements HudRenderCallback {
         drawContext.drawText(textRenderer, farmingText, HUD_X + PADDING + 80, yOffset, textColor, true);
     }
     
-    private String formatBalance(BigDecimal balance) {
+    private String formatBalance(Money balance) {
         if (balance == null) {
             return "0";
         }
         
         // 천 단위 구분 쉼표 추가
-        long longValue = balance.longValue();
-        return String.format("%,d", longValue);
+        return String.format("%,d", balance.getWholeUnits());
     }
     
     /**
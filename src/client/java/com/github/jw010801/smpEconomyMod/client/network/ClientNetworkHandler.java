@@ -6,9 +6,10 @@ import net.minecraft.network.PacketByteBuf;
 
 import com.github.jw010801.smpeconomymod.SmpEconomyMod;
 import com.github.jw010801.smpeconomymod.client.data.ClientPlayerData;
+import com.github.jw010801.smpeconomymod.economy.Money;
 import com.github.jw010801.smpeconomymod.network.NetworkConstants;
 
-import java.math.BigDecimal;
+import java.util.UUID;
 
 public class ClientNetworkHandler {
     
@@ -25,8 +26,8 @@ public class ClientNetworkHandler {
         // 플레이어 데이터 전체 동기화 (로그인시)
         ClientPlayNetworking.registerGlobalReceiver(NetworkConstants.PLAYER_DATA_SYNC, (client, handler, buf, responseSender) -> {
             // 패킷 데이터 읽기
-            BigDecimal balance = new BigDecimal(buf.readString());
-            BigDecimal dailyEarnings = new BigDecimal(buf.readString());
+            Money balance = Money.ofCents(buf.readLong());
+            Money dailyEarnings = Money.ofCents(buf.readLong());
             
             int miningLevel = buf.readInt();
             long miningExp = buf.readLong();
@@ -52,8 +53,8 @@ public class ClientNetworkHandler {
         
         // 경제 정보 업데이트
         ClientPlayNetworking.registerGlobalReceiver(NetworkConstants.ECONOMY_UPDATE, (client, handler, buf, responseSender) -> {
-            BigDecimal newBalance = new BigDecimal(buf.readString());
-            BigDecimal dailyEarnings = new BigDecimal(buf.readString());
+            Money newBalance = Money.ofCents(buf.readLong());
+            Money dailyEarnings = Money.ofCents(buf.readLong());
             
             client.execute(() -> ClientPlayerData.getInstance().updateEconomyData(newBalance, dailyEarnings));
         });
@@ -106,8 +107,18 @@ public class ClientNetworkHandler {
     /**
      * 경제 명령어 실행 요청 (송금, 잔액 조회 등)
      */
-    public static void sendEconomyCommand(String command, String... args) {
+    public static UUID sendEconomyCommand(String command, String... args) {
+        UUID requestId = UUID.randomUUID();
+        sendEconomyCommand(requestId, command, args);
+        return requestId;
+    }
+    
+    /**
+     * 요청 id를 지정해 경제 명령어를 보냅니다. 응답이 없어 다시 보낼 때 같은 id를 쓰면 서버가 한 번만 처리한다.
+     */
+    public static void sendEconomyCommand(UUID requestId, String command, String... args) {
         PacketByteBuf buf = PacketByteBufs.create();
+        buf.writeUuid(requestId);
         buf.writeString(command);
         buf.writeInt(args.length);
         for (String arg : args) {
@@ -122,8 +133,15 @@ public class ClientNetworkHandler {
     /**
      * 서버에 채팅 메시지로 송금 요청
      */
-    public static void requestMoneyTransfer(String targetPlayer, BigDecimal amount) {
-        sendEconomyCommand("pay", targetPlayer, amount.toString());
+    public static UUID requestMoneyTransfer(String targetPlayer, Money amount) {
+        return sendEconomyCommand("pay", targetPlayer, amount.toString());
+    }
+    
+    /**
+     * 송금 요청 재전송 (처음 요청의 id를 그대로 사용)
+     */
+    public static void retryMoneyTransfer(UUID requestId, String targetPlayer, Money amount) {
+        sendEconomyCommand(requestId, "pay", targetPlayer, amount.toString());
     }
     
     /**
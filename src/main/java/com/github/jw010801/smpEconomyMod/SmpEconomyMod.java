@@ -1,35 +1,61 @@
 package com.github.jw010801.smpeconomymod;
 
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.loader.api.FabricLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.jw010801.smpeconomymod.concurrent.ExecutorRegistry;
+import com.github.jw010801.smpeconomymod.config.ModConfig;
 import com.github.jw010801.smpeconomymod.database.DatabaseManager;
 import com.github.jw010801.smpeconomymod.economy.EconomyManager;
+import com.github.jw010801.smpeconomymod.session.PlayerSessionLoader;
 import com.github.jw010801.smpeconomymod.territory.TerritoryManager;
 
+import java.nio.file.Path;
+
 public class SmpEconomyMod implements ModInitializer {
     
     public static final String MOD_ID = "smp-economy-mod";
     public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
     
+    public static ModConfig config;
+    public static ExecutorRegistry executors;
     public static DatabaseManager databaseManager;
     public static EconomyManager economyManager;
     public static TerritoryManager territoryManager;
+    public static PlayerSessionLoader sessionLoader;
 
     @Override
     public void onInitialize() {
         LOGGER.info("SMP Economy & Territory 모드를 초기화합니다...");
         
+        // 설정 파일 로드
+        config = ModConfig.load(FabricLoader.getInstance().getConfigDir().resolve(MOD_ID + ".json"));
+        
+        // 공용 작업 풀 (매니저들이 이름 붙은 풀을 하나씩 받아 쓴다)
+        executors = new ExecutorRegistry(config.concurrency);
+        
         // 데이터베이스 매니저 초기화
-        databaseManager = new DatabaseManager();
+        databaseManager = new DatabaseManager(config.database, getDataDirectory());
         
         // 경제 시스템 초기화
-        economyManager = new EconomyManager(databaseManager);
+        economyManager = new EconomyManager(databaseManager, executors, config);
         
         // 영토 시스템 초기화
-        territoryManager = new TerritoryManager(databaseManager);
+        territoryManager = new TerritoryManager(databaseManager, executors, config);
+        
+        // 접속 시 계정/클레임/멤버십을 한 번에 읽어 캐시를 채움
+        sessionLoader = new PlayerSessionLoader(databaseManager, economyManager, territoryManager, 
+                executors.pool("session-io", config.concurrency.sessionIoConcurrency));
         
         LOGGER.info("SMP Economy & Territory 모드 초기화 완료!");
     }
+    
+    /**
+     * 모드 로컬 데이터 디렉터리 (서버 디렉터리/smp-economy)
+     */
+    public static Path getDataDirectory() {
+        return FabricLoader.getInstance().getGameDir().resolve("smp-economy");
+    }
 }
@@ -0,0 +1,198 @@
+package com.github.jw010801.smpeconomymod.concurrent;
+
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.config.ModConfig;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 모드 전체가 함께 쓰는 작업 풀과 예약 작업 스케줄러
+ * 데이터베이스처럼 막히는 작업은 이름이 붙은 풀에서, 주기 작업은 스케줄러가 시간만 재고 대상 풀에 넘겨 실행한다.
+ * 그래서 오래 걸리는 정산이나 세금 징수가 스케줄러를 붙잡아 다른 주기 작업을 밀어내지 않는다.
+ */
+public class ExecutorRegistry {
+
+    public static final String MODE_PLATFORM = "platform";
+    public static final String MODE_VIRTUAL = "virtual";
+
+    private final String mode;
+    private final int queueCapacity;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, InstrumentedExecutor> pools = new LinkedHashMap<>();
+
+    public ExecutorRegistry(ModConfig.Concurrency config) {
+        this.queueCapacity = Math.max(1, config.queueCapacity);
+
+        String requested = config.executorMode.toLowerCase();
+        if (MODE_VIRTUAL.equals(requested) && !isVirtualThreadSupported()) {
+            SmpEconomyMod.LOGGER.warn("가상 스레드는 Java 21 이상에서만 사용할 수 있습니다. (현재 {}) 고정 크기 스레드 풀을 사용합니다.",
+                    Runtime.version().feature());
+            requested = MODE_PLATFORM;
+        } else if (!MODE_VIRTUAL.equals(requested) && !MODE_PLATFORM.equals(requested)) {
+            SmpEconomyMod.LOGGER.warn("알 수 없는 실행 모드: {} (platform 또는 virtual). 고정 크기 스레드 풀을 사용합니다.", config.executorMode);
+            requested = MODE_PLATFORM;
+        }
+        this.mode = requested;
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "smp-economy-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        SmpEconomyMod.LOGGER.info("작업 실행 모드: {}", mode);
+    }
+
+    /**
+     * 이름으로 작업 풀을 가져오거나 새로 만듭니다. concurrency는 동시에 실행할 최대 작업 수
+     */
+    public synchronized InstrumentedExecutor pool(String name, int concurrency) {
+        InstrumentedExecutor existing = pools.get(name);
+        if (existing != null) {
+            return existing;
+        }
+
+        int size = Math.max(1, concurrency);
+        InstrumentedExecutor pool = null;
+        if (MODE_VIRTUAL.equals(mode)) {
+            try {
+                pool = InstrumentedExecutor.virtual(name, size, queueCapacity, newVirtualThreadExecutor("smp-economy-" + name + "-"));
+            } catch (ReflectiveOperationException e) {
+                SmpEconomyMod.LOGGER.warn("{} 가상 스레드 풀을 만들지 못해 고정 크기 스레드 풀을 사용합니다: {}", name, e.getMessage());
+            }
+        }
+        if (pool == null) {
+            pool = InstrumentedExecutor.platform(name, size, queueCapacity);
+        }
+
+        pools.put(name, pool);
+        return pool;
+    }
+
+    /**
+     * delay가 지나면 대상 풀에서 한 번 실행합니다. 대기열이 가득 찼으면 delay 뒤 다시 넘기고, 대상 풀이 종료되면 실행하지 않는다.
+     */
+    public void schedule(Runnable task, long delay, TimeUnit unit, InstrumentedExecutor target) {
+        if (scheduler.isShutdown() || target.isShutdown()) {
+            return;
+        }
+
+        try {
+            scheduler.schedule(() -> {
+                try {
+                    target.execute(task);
+                } catch (RejectedExecutionException e) {
+                    schedule(task, delay, unit, target);
+                }
+            }, delay, unit);
+        } catch (RejectedExecutionException e) {
+            // 스케줄러 종료 중
+        }
+    }
+
+    /**
+     * 이전 실행이 끝난 뒤 delay가 지나면 다시 실행합니다. (실행이 겹치지 않음)
+     * 대상 풀이 종료되면 더 이상 예약하지 않는다.
+     */
+    public void scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit, InstrumentedExecutor target) {
+        scheduleNext(task, initialDelay, delay, unit, target);
+    }
+
+    private void scheduleNext(Runnable task, long nextDelay, long delay, TimeUnit unit, InstrumentedExecutor target) {
+        if (scheduler.isShutdown() || target.isShutdown()) {
+            return;
+        }
+
+        try {
+            scheduler.schedule(() -> {
+                try {
+                    target.execute(() -> {
+                        try {
+                            task.run();
+                        } finally {
+                            scheduleNext(task, delay, delay, unit, target);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // 대기열이 가득 찼으면 이번 주기는 건너뛰고 다음 주기에 다시 시도
+                    scheduleNext(task, delay, delay, unit, target);
+                }
+            }, nextDelay, unit);
+        } catch (RejectedExecutionException e) {
+            // 스케줄러 종료 중
+        }
+    }
+
+    /**
+     * 정해진 간격마다 실행합니다. 이전 실행이 아직 끝나지 않았으면 그 주기는 건너뛴다.
+     */
+    public void scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit, InstrumentedExecutor target) {
+        AtomicBoolean running = new AtomicBoolean(false);
+        scheduler.scheduleAtFixedRate(() -> {
+            if (target.isShutdown() || !running.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                target.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        running.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+            }
+        }, initialDelay, period, unit);
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public synchronized List<ExecutorStats> getStats() {
+        List<ExecutorStats> stats = new ArrayList<>(pools.size());
+        for (InstrumentedExecutor pool : pools.values()) {
+            stats.add(pool.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * 스케줄러를 멈추고 아직 종료되지 않은 풀을 모두 정리합니다. (매니저들이 각자 풀을 먼저 비운 뒤 호출)
+     */
+    public synchronized void shutdown() {
+        scheduler.shutdownNow();
+        for (InstrumentedExecutor pool : pools.values()) {
+            if (!pool.isShutdown()) {
+                pool.shutdown(10, TimeUnit.SECONDS);
+            }
+        }
+        SmpEconomyMod.LOGGER.info("작업 풀 종료됨");
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Java 21의 Thread.ofVirtual()로 작업마다 가상 스레드를 만드는 실행기 (Java 17 대상으로 컴파일하므로 리플렉션 사용)
+     */
+    private static ExecutorService newVirtualThreadExecutor(String namePrefix) throws ReflectiveOperationException {
+        Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+        ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+    }
+}
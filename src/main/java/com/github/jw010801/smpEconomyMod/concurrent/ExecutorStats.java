@@ -0,0 +1,117 @@
+package com.github.jw010801.smpeconomymod.concurrent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 작업 풀 통계 스냅샷
+ */
+public class ExecutorStats {
+
+    private final String name;
+    private final String mode;
+    private final int concurrency;
+    private final int queueDepth;
+    private final int activeCount;
+    private final long startedCount;
+    private final long completedCount;
+    private final long rejectedCount;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+
+    ExecutorStats(String name, String mode, int concurrency, int queueDepth, int activeCount,
+                  long startedCount, long completedCount, long rejectedCount, long totalWaitNanos, long maxWaitNanos) {
+        this.name = name;
+        this.mode = mode;
+        this.concurrency = concurrency;
+        this.queueDepth = queueDepth;
+        this.activeCount = activeCount;
+        this.startedCount = startedCount;
+        this.completedCount = completedCount;
+        this.rejectedCount = rejectedCount;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * platform 또는 virtual
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * 동시에 실행할 수 있는 최대 작업 수
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * 실행을 기다리는 작업 수
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public long getStartedCount() {
+        return startedCount;
+    }
+
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    /**
+     * 대기열이 가득 차서 거부된 작업 수
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * 작업이 제출된 뒤 실행을 시작하기까지 기다린 평균 시간 (ms)
+     */
+    public double getAverageWaitMillis() {
+        return startedCount == 0 ? 0.0 : totalWaitNanos / 1_000_000.0 / startedCount;
+    }
+
+    /**
+     * 지난 스냅샷 이후 가장 오래 기다린 시간 (ms)
+     */
+    public double getMaxWaitMillis() {
+        return maxWaitNanos / 1_000_000.0;
+    }
+
+    /**
+     * stats.json에 쓰는 형태
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", name);
+        map.put("mode", mode);
+        map.put("concurrency", concurrency);
+        map.put("queueDepth", queueDepth);
+        map.put("activeCount", activeCount);
+        map.put("startedCount", startedCount);
+        map.put("completedCount", completedCount);
+        map.put("rejectedCount", rejectedCount);
+        map.put("averageWaitMillis", getAverageWaitMillis());
+        map.put("maxWaitMillis", getMaxWaitMillis());
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ExecutorStats{%s(%s x%d), queued=%d, active=%d, completed=%d, rejected=%d, avgWait=%.2fms, maxWait=%.2fms}",
+                name, mode, concurrency, queueDepth, activeCount, completedCount, rejectedCount, getAverageWaitMillis(), getMaxWaitMillis());
+    }
+}
@@ -0,0 +1,169 @@
+package com.github.jw010801.smpeconomymod.concurrent;
+
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 이름이 붙은 작업 풀 (대기열 크기 제한 + 대기 시간 측정)
+ * platform 모드는 고정 크기 스레드 풀, virtual 모드는 작업마다 가상 스레드를 만들고 세마포어로 동시 실행 수를 제한한다.
+ * 어느 모드든 실행을 기다리는 작업이 queueCapacity를 넘으면 RejectedExecutionException으로 바로 거부한다.
+ * 비동기 결과가 필요한 호출은 supplyAsync/runAsync를 써서 거부를 실패한 future로 받는다.
+ */
+public final class InstrumentedExecutor implements Executor {
+
+    private final String name;
+    private final String mode;
+    private final int concurrency;
+    private final int queueCapacity;
+    private final ExecutorService delegate;
+    // virtual 모드에서만 사용 (platform 모드는 스레드 수가 곧 동시 실행 수)
+    private final Semaphore permits;
+
+    // 지표
+    private final AtomicInteger queued = new AtomicInteger(0);
+    private final AtomicInteger active = new AtomicInteger(0);
+    private final AtomicLong started = new AtomicLong(0);
+    private final AtomicLong completed = new AtomicLong(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+    private final AtomicLong totalWaitNanos = new AtomicLong(0);
+    private final AtomicLong maxWaitNanos = new AtomicLong(0);
+
+    private InstrumentedExecutor(String name, String mode, int concurrency, int queueCapacity,
+                                 ExecutorService delegate, Semaphore permits) {
+        this.name = name;
+        this.mode = mode;
+        this.concurrency = concurrency;
+        this.queueCapacity = queueCapacity;
+        this.delegate = delegate;
+        this.permits = permits;
+    }
+
+    static InstrumentedExecutor platform(String name, int concurrency, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "smp-economy-" + name + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // 대기열 크기는 execute에서 직접 제한하므로 내부 큐는 제한하지 않는다
+        ExecutorService delegate = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), factory);
+        return new InstrumentedExecutor(name, ExecutorRegistry.MODE_PLATFORM, concurrency, queueCapacity, delegate, null);
+    }
+
+    static InstrumentedExecutor virtual(String name, int concurrency, int queueCapacity, ExecutorService delegate) {
+        return new InstrumentedExecutor(name, ExecutorRegistry.MODE_VIRTUAL, concurrency, queueCapacity, delegate,
+                new Semaphore(concurrency, true));
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException(name + " 작업 대기열이 가득 찼습니다. (" + queueCapacity + ")");
+        }
+
+        long submittedAt = System.nanoTime();
+        try {
+            delegate.execute(() -> run(task, submittedAt));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * CompletableFuture.supplyAsync와 같지만, 대기열이 가득 차 거부되면 호출한 스레드에 예외를 던지지 않고 실패한 future를 돌려준다.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * CompletableFuture.runAsync와 같지만, 대기열이 가득 차 거부되면 실패한 future를 돌려준다.
+     */
+    public static CompletableFuture<Void> runAsync(Runnable task, Executor executor) {
+        try {
+            return CompletableFuture.runAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void run(Runnable task, long submittedAt) {
+        if (permits != null) {
+            permits.acquireUninterruptibly();
+        }
+        try {
+            long waitNanos = System.nanoTime() - submittedAt;
+            queued.decrementAndGet();
+            active.incrementAndGet();
+            started.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                SmpEconomyMod.LOGGER.error("{} 작업 실행 중 오류: {}", name, e.getMessage(), e);
+            }
+        } finally {
+            active.decrementAndGet();
+            completed.incrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    /**
+     * 새 작업을 받지 않고, 이미 받은 작업이 끝나기를 최대 timeout만큼 기다립니다.
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(timeout, unit)) {
+                SmpEconomyMod.LOGGER.warn("{} 작업 풀이 제시간에 끝나지 않아 중단합니다. (대기 {}개, 실행 중 {}개)",
+                        name, queued.get(), active.get());
+                delegate.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 현재 통계 (최대 대기 시간은 스냅샷마다 초기화)
+     */
+    public ExecutorStats getStats() {
+        return new ExecutorStats(name, mode, concurrency, queued.get(), active.get(), started.get(),
+                completed.get(), rejected.get(), totalWaitNanos.get(), maxWaitNanos.getAndSet(0));
+    }
+}
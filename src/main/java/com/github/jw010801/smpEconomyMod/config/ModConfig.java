@@ -0,0 +1,144 @@
+package com.github.jw010801.smpeconomymod.config;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * config/smp-economy-mod.json 설정
+ * 파일이 없으면 기본값으로 생성하고, 새로 추가된 항목은 기본값으로 채워 다시 저장한다.
+ */
+public class ModConfig {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    public Database database = new Database();
+    public Economy economy = new Economy();
+    public Concurrency concurrency = new Concurrency();
+
+    public static class Database {
+        // mysql: MySQL 서버, h2: 서버 디렉터리 안의 내장 파일 (smp-economy/<database>.mv.db)
+        public String type = "mysql";
+
+        public String host = "localhost";
+        public int port = 3306;
+        public String database = "smp_economy";
+        public String username = "smp_user";
+        public String password = "smp_password";
+
+        public int maximumPoolSize = 10;
+    }
+
+    public static class Economy {
+        // 잔액 저널을 디스크에 fsync 하는 주기 (0이면 변경이 생길 때마다 저널 실행기에서 바로 fsync)
+        public long journalFsyncIntervalMillis = 200;
+
+        // 저널 세그먼트 파일 하나의 크기 (MB)
+        public int journalSegmentSizeMb = 8;
+
+        // 메모리에 유지할 최대 계정 수 (접속 중인 플레이어 계정은 항상 유지)
+        public int balanceCacheMaximumSize = 10000;
+
+        // 거래 원장을 데이터베이스에 남겨둘 개월 수 (이전 달은 압축 파일로 보관 후 삭제)
+        public int ledgerHotMonths = 6;
+
+        // false면 오래된 거래 원장을 보관/삭제하지 않고 파티션만 관리
+        public boolean ledgerArchiveEnabled = true;
+
+        // 매일 정산에서 원장과 맞지 않는 계정을 현재 잔액 기준으로 다시 맞출지 (false면 보고만)
+        public boolean ledgerReconcileAutoRepair = false;
+    }
+
+    public static class Concurrency {
+        // platform: 고정 크기 스레드 풀, virtual: 작업마다 가상 스레드 (Java 21 이상, 아니면 platform 사용)
+        public String executorMode = "platform";
+
+        // 경제/영토 데이터베이스 작업을 동시에 실행할 최대 수
+        // 세션까지 세 풀의 합은 database.maximumPoolSize 이하여야 한다. (넘으면 시작할 때 비율대로 줄임)
+        public int economyIoConcurrency = 4;
+        public int territoryIoConcurrency = 3;
+
+        // 접속한 플레이어의 세션 데이터를 미리 읽는 작업의 동시 실행 수
+        public int sessionIoConcurrency = 3;
+
+        // 풀마다 실행을 기다릴 수 있는 최대 작업 수 (넘으면 요청을 바로 실패 처리)
+        public int queueCapacity = 10000;
+
+        public int getTotalIoConcurrency() {
+            return economyIoConcurrency + territoryIoConcurrency + sessionIoConcurrency;
+        }
+
+        /**
+         * 작업 풀 동시 실행 수의 합이 연결 풀 크기를 넘으면 비율대로 줄입니다. (풀마다 최소 1)
+         * 합이 더 크면 작업이 스레드를 잡은 채 연결을 기다려 대기 시간 지표에 잡히지 않고 연결 시간 초과로 실패한다.
+         */
+        public boolean fitTo(int maximumPoolSize) {
+            int total = getTotalIoConcurrency();
+            if (total <= maximumPoolSize) {
+                return false;
+            }
+
+            int limit = Math.max(1, maximumPoolSize);
+            economyIoConcurrency = Math.max(1, economyIoConcurrency * limit / total);
+            territoryIoConcurrency = Math.max(1, territoryIoConcurrency * limit / total);
+            sessionIoConcurrency = Math.max(1, sessionIoConcurrency * limit / total);
+            return true;
+        }
+    }
+
+    public static ModConfig load(Path path) {
+        ModConfig config = null;
+
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                config = GSON.fromJson(reader, ModConfig.class);
+            } catch (IOException | JsonParseException e) {
+                SmpEconomyMod.LOGGER.error("설정 파일을 읽지 못했습니다. 기본값을 사용합니다: {}", e.getMessage());
+                return new ModConfig();
+            }
+        }
+
+        if (config == null) {
+            config = new ModConfig();
+        }
+        if (config.database == null) {
+            config.database = new Database();
+        }
+        if (config.economy == null) {
+            config.economy = new Economy();
+        }
+        if (config.concurrency == null) {
+            config.concurrency = new Concurrency();
+        }
+
+        config.save(path);
+
+        // 설정 파일은 그대로 두고 이번 실행에서만 줄인다
+        int requested = config.concurrency.getTotalIoConcurrency();
+        if (config.concurrency.fitTo(config.database.maximumPoolSize)) {
+            SmpEconomyMod.LOGGER.warn("작업 풀 동시 실행 수 합({})이 database.maximumPoolSize({})보다 커서 줄입니다. (경제 {}, 영토 {}, 세션 {})",
+                    requested, config.database.maximumPoolSize, config.concurrency.economyIoConcurrency,
+                    config.concurrency.territoryIoConcurrency, config.concurrency.sessionIoConcurrency);
+        }
+        return config;
+    }
+
+    public void save(Path path) {
+        try {
+            Files.createDirectories(path.getParent());
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                GSON.toJson(this, writer);
+            }
+        } catch (IOException e) {
+            SmpEconomyMod.LOGGER.error("설정 파일을 저장하지 못했습니다: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.github.jw010801.smpeconomymod.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.config.ModConfig;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 내장 H2 파일 백엔드 (별도 데이터베이스 서버가 없는 소규모 서버, 테스트용)
+ * MySQL 호환 모드로 열어 매니저들의 ON DUPLICATE KEY UPDATE 등을 그대로 쓴다.
+ * 파티션이 없으므로 오래된 거래 원장 보관은 하지 않는다.
+ */
+public class H2StorageBackend implements StorageBackend {
+
+    public static final String NAME = "h2";
+
+    // H2는 결과를 서버 메모리 대신 디스크로 넘기므로 적당한 크기로 나눠 읽는다
+    private static final int STREAMING_FETCH_SIZE = 1000;
+
+    private final ModConfig.Database settings;
+    private final Path file;
+
+    public H2StorageBackend(ModConfig.Database settings, Path dataDirectory) {
+        this.settings = settings;
+        this.file = dataDirectory.resolve(settings.database).toAbsolutePath();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public HikariConfig createPoolConfig() {
+        HikariConfig config = new HikariConfig();
+
+        config.setDriverClassName("org.h2.Driver");
+        config.setJdbcUrl("jdbc:h2:file:" + file + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE");
+        config.setUsername(settings.username);
+        config.setPassword(settings.password);
+
+        // 같은 프로세스 안의 파일이므로 연결 수는 작게
+        config.setMaximumPoolSize(Math.min(4, settings.maximumPoolSize));
+        config.setMinimumIdle(1);
+        config.setConnectionTimeout(30000);
+
+        return config;
+    }
+
+    @Override
+    public void createSchema(Connection conn) throws SQLException {
+        SmpEconomyMod.LOGGER.info("내장 데이터베이스 테이블을 생성합니다... ({}.mv.db)", file);
+
+        String[] ddl = {
+            // 경제 시스템
+            """
+            CREATE TABLE IF NOT EXISTS balances (
+                player_uuid VARCHAR(36) PRIMARY KEY,
+                balance DECIMAL(15,2) DEFAULT 0.00,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_balance ON balances (balance)",
+            "CREATE INDEX IF NOT EXISTS idx_updated ON balances (updated_at)",
+            """
+            CREATE TABLE IF NOT EXISTS tx_ledger (
+                id BIGINT AUTO_INCREMENT,
+                from_uuid VARCHAR(36),
+                to_uuid VARCHAR(36),
+                amount DECIMAL(15,2) NOT NULL,
+                transaction_type VARCHAR(16) NOT NULL,
+                description VARCHAR(1000),
+                idempotency_key VARCHAR(100),
+                created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (id, created_at)
+            )
+            """,
+            "ALTER TABLE tx_ledger ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(100)",
+            "CREATE INDEX IF NOT EXISTS idx_from_time ON tx_ledger (from_uuid, created_at, id)",
+            "CREATE INDEX IF NOT EXISTS idx_to_time ON tx_ledger (to_uuid, created_at, id)",
+            "CREATE INDEX IF NOT EXISTS idx_created ON tx_ledger (created_at)",
+            """
+            CREATE TABLE IF NOT EXISTS ledger_checkpoints (
+                player_uuid VARCHAR(36) PRIMARY KEY,
+                opening_balance DECIMAL(15,2) NOT NULL,
+                ledger_sum DECIMAL(17,2) NOT NULL DEFAULT 0.00,
+                last_ledger_id BIGINT NOT NULL DEFAULT 0,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS ledger_reconcile_state (
+                id TINYINT PRIMARY KEY,
+                checkpointed_id BIGINT NOT NULL DEFAULT 0,
+                pending_upper_id BIGINT NOT NULL DEFAULT 0,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            )
+            """,
+
+            // 영토 시스템
+            """
+            CREATE TABLE IF NOT EXISTS claims (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                owner_uuid VARCHAR(36) NOT NULL,
+                world_name VARCHAR(50) NOT NULL,
+                min_x INT NOT NULL,
+                max_x INT NOT NULL,
+                min_z INT NOT NULL,
+                max_z INT NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                CONSTRAINT chunk_constraint UNIQUE (world_name, min_x, max_x, min_z, max_z)
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_owner ON claims (owner_uuid)",
+            "CREATE INDEX IF NOT EXISTS idx_coords ON claims (min_x, max_x, min_z, max_z)",
+            """
+            CREATE TABLE IF NOT EXISTS claim_members (
+                claim_id BIGINT,
+                member_uuid VARCHAR(36),
+                permission_level VARCHAR(10) DEFAULT 'member',
+                added_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (claim_id, member_uuid),
+                FOREIGN KEY (claim_id) REFERENCES claims(id) ON DELETE CASCADE
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_member_uuid ON claim_members (member_uuid)",
+            """
+            CREATE TABLE IF NOT EXISTS claim_tax (
+                claim_id BIGINT PRIMARY KEY,
+                daily_tax DECIMAL(10,2) DEFAULT 1.00,
+                last_tax_paid TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                tax_arrears DECIMAL(15,2) DEFAULT 0.00,
+                FOREIGN KEY (claim_id) REFERENCES claims(id) ON DELETE CASCADE
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_last_paid ON claim_tax (last_tax_paid)",
+            """
+            CREATE TABLE IF NOT EXISTS accruals (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                player_uuid VARCHAR(36) NOT NULL,
+                kind VARCHAR(16) NOT NULL,
+                source_id BIGINT NOT NULL DEFAULT 0,
+                amount DECIMAL(15,2) NOT NULL,
+                rate_bp INT NOT NULL DEFAULT 0,
+                period_seconds INT NOT NULL,
+                last_settled_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                arrears DECIMAL(15,2) NOT NULL DEFAULT 0.00
+            )
+            """,
+            "CREATE UNIQUE INDEX IF NOT EXISTS uk_source ON accruals (kind, source_id, player_uuid)",
+            "CREATE INDEX IF NOT EXISTS idx_accrual_player ON accruals (player_uuid)",
+            "CREATE INDEX IF NOT EXISTS idx_accrual_settled ON accruals (last_settled_at)",
+            """
+            INSERT INTO accruals (player_uuid, kind, source_id, amount, period_seconds, last_settled_at, arrears)
+            SELECT c.owner_uuid, 'claim_tax', ct.claim_id, ct.daily_tax, 86400, ct.last_tax_paid, ct.tax_arrears
+            FROM claim_tax ct
+            JOIN claims c ON c.id = ct.claim_id
+            WHERE NOT EXISTS (SELECT 1 FROM accruals a WHERE a.kind = 'claim_tax' AND a.source_id = ct.claim_id)
+            """
+        };
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String statement : ddl) {
+                stmt.execute(statement);
+            }
+        }
+
+        SmpEconomyMod.LOGGER.info("내장 데이터베이스 테이블 생성 완료");
+    }
+
+    @Override
+    public int getStreamingFetchSize() {
+        return STREAMING_FETCH_SIZE;
+    }
+
+    @Override
+    public boolean supportsPartitioning() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsMultiStatements() {
+        // 같은 프로세스 안이라 왕복 비용이 없으므로 문장을 차례로 실행한다
+        return false;
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.jw010801.smpeconomymod.database;
+
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * tx_ledger 월 단위 RANGE 파티션 관리
+ * 파티션 이름은 p + UTC 기준 연월(p202610), 경계는 다음 달 1일 0시의 UNIX 초이며
+ * 마지막에는 항상 비어 있는 pmax(MAXVALUE) 파티션을 둔다.
+ */
+public final class LedgerPartitions {
+
+    public static final String TABLE = "tx_ledger";
+    public static final String MAX_PARTITION = "pmax";
+
+    // 미리 만들어 둘 미래 파티션 수 (pmax에 행이 쌓여 재구성이 무거워지지 않게)
+    private static final int MONTHS_AHEAD = 2;
+
+    public static final class Partition {
+        private final String name;
+        private final long upperBoundEpochSecond;
+        private final long estimatedRows;
+
+        Partition(String name, long upperBoundEpochSecond, long estimatedRows) {
+            this.name = name;
+            this.upperBoundEpochSecond = upperBoundEpochSecond;
+            this.estimatedRows = estimatedRows;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 이 파티션에 들어가는 created_at의 상한 (UNIX 초, 미포함). pmax는 Long.MAX_VALUE
+         */
+        public long getUpperBoundEpochSecond() {
+            return upperBoundEpochSecond;
+        }
+
+        public long getEstimatedRows() {
+            return estimatedRows;
+        }
+
+        public boolean isMaxPartition() {
+            return MAX_PARTITION.equals(name);
+        }
+    }
+
+    private LedgerPartitions() {
+    }
+
+    public static String partitionName(YearMonth month) {
+        return String.format("p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    /**
+     * 해당 월 파티션의 상한 (다음 달 1일 0시 UTC)
+     */
+    public static long upperBound(YearMonth month) {
+        return month.plusMonths(1).atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * CREATE TABLE 뒤에 붙일 파티션 정의 (first월부터 현재 + MONTHS_AHEAD월까지, 그리고 pmax)
+     */
+    public static String partitionClause(YearMonth first) {
+        YearMonth last = YearMonth.now(ZoneOffset.UTC).plusMonths(MONTHS_AHEAD);
+        if (first.isAfter(last)) {
+            first = last;
+        }
+
+        StringBuilder clause = new StringBuilder("PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (");
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            clause.append(String.format("PARTITION %s VALUES LESS THAN (%d), ", partitionName(month), upperBound(month)));
+        }
+        clause.append("PARTITION ").append(MAX_PARTITION).append(" VALUES LESS THAN MAXVALUE)");
+        return clause.toString();
+    }
+
+    /**
+     * 파티션 목록 (경계 순서), 파티션되지 않은 테이블이면 빈 목록
+     */
+    public static List<Partition> listPartitions(Connection conn) throws SQLException {
+        String query = """
+            SELECT partition_name, partition_description, table_rows
+            FROM information_schema.partitions
+            WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL
+            ORDER BY partition_ordinal_position
+            """;
+
+        List<Partition> partitions = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, TABLE);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String description = rs.getString("partition_description");
+                    long upperBound = "MAXVALUE".equalsIgnoreCase(description) ? Long.MAX_VALUE : Long.parseLong(description);
+                    partitions.add(new Partition(rs.getString("partition_name"), upperBound, rs.getLong("table_rows")));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * 현재 + MONTHS_AHEAD월까지 파티션이 있도록 pmax를 나눕니다.
+     */
+    public static void ensureFuturePartitions(Connection conn) throws SQLException {
+        List<Partition> partitions = listPartitions(conn);
+        if (partitions.size() < 2) return;
+
+        long lastBound = partitions.get(partitions.size() - 2).getUpperBoundEpochSecond();
+        YearMonth target = YearMonth.now(ZoneOffset.UTC).plusMonths(MONTHS_AHEAD);
+        if (lastBound >= upperBound(target)) return;
+
+        // 마지막 경계 다음 달부터 목표 월까지
+        YearMonth month = YearMonth.from(LocalDateTime.ofEpochSecond(lastBound, 0, ZoneOffset.UTC));
+        StringBuilder ddl = new StringBuilder("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO (");
+        for (; !month.isAfter(target); month = month.plusMonths(1)) {
+            ddl.append(String.format("PARTITION %s VALUES LESS THAN (%d), ", partitionName(month), upperBound(month)));
+        }
+        ddl.append("PARTITION ").append(MAX_PARTITION).append(" VALUES LESS THAN MAXVALUE)");
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(ddl.toString());
+        }
+        SmpEconomyMod.LOGGER.info("거래 원장 파티션 추가 (~{})", partitionName(target));
+    }
+
+    public static void dropPartition(Connection conn, String partitionName) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partitionName);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.github.jw010801.smpeconomymod.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.config.ModConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * MySQL 서버 백엔드 (InnoDB, tx_ledger 월 단위 파티션)
+ */
+public class MySqlStorageBackend implements StorageBackend {
+    
+    public static final String NAME = "mysql";
+    
+    // tx_ledger.transaction_type 값 (EconomyManager.TransactionType의 소문자, 새 값은 끝에만 추가)
+    private static final String TRANSACTION_TYPES = "'transfer', 'earn', 'spend', 'tax', 'quest_reward', 'admin_set', 'starting_balance'";
+    
+    private final ModConfig.Database settings;
+    
+    public MySqlStorageBackend(ModConfig.Database settings) {
+        this.settings = settings;
+    }
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    @Override
+    public HikariConfig createPoolConfig() {
+        HikariConfig config = new HikariConfig();
+        
+        // 데이터베이스 연결 설정
+        config.setJdbcUrl(String.format("jdbc:mysql://%s:%d/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC", 
+                settings.host, settings.port, settings.database));
+        config.setUsername(settings.username);
+        config.setPassword(settings.password);
+        
+        // HikariCP 최적화 설정
+        config.setMaximumPoolSize(settings.maximumPoolSize);
+        config.setMinimumIdle(Math.min(5, settings.maximumPoolSize));
+        config.setConnectionTimeout(30000);
+        config.setIdleTimeout(600000);
+        config.setMaxLifetime(1800000);
+        config.setLeakDetectionThreshold(60000);
+        
+        // MySQL 최적화 설정
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("rewriteBatchedStatements", "true"); // 배치 insert를 다중 행 insert로 전송
+        config.addDataSourceProperty("allowMultiQueries", "true"); // 접속 시 세션 데이터를 한 번의 왕복으로 읽음
+        
+        return config;
+    }
+    
+    @Override
+    public void createSchema(Connection conn) throws SQLException {
+        createEconomyTables(conn);
+        createTerritoryTables(conn);
+    }
+    
+    @Override
+    public int getStreamingFetchSize() {
+        // MySQL 드라이버는 Integer.MIN_VALUE일 때만 결과를 한 행씩 스트리밍한다
+        return Integer.MIN_VALUE;
+    }
+    
+    @Override
+    public boolean supportsPartitioning() {
+        return true;
+    }
+    
+    @Override
+    public boolean supportsMultiStatements() {
+        return true;
+    }
+    
+    private void createEconomyTables(Connection conn) throws SQLException {
+        SmpEconomyMod.LOGGER.info("경제 시스템 테이블을 생성합니다...");
+        
+        // 잔액 테이블
+        String balancesTable = """
+            CREATE TABLE IF NOT EXISTS balances (
+                player_uuid VARCHAR(36) PRIMARY KEY,
+                balance DECIMAL(15,2) DEFAULT 0.00,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                INDEX idx_balance (balance),
+                INDEX idx_updated (updated_at)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        
+        // 거래 원장 테이블 (created_at 기준 월 단위 파티션, 파티션 열이 기본 키에 포함되어야 한다)
+        String txLedgerTable = """
+            CREATE TABLE IF NOT EXISTS tx_ledger (
+                id BIGINT AUTO_INCREMENT,
+                from_uuid VARCHAR(36),
+                to_uuid VARCHAR(36),
+                amount DECIMAL(15,2) NOT NULL,
+                transaction_type ENUM(%s) NOT NULL,
+                description TEXT,
+                idempotency_key VARCHAR(100),
+                created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (id, created_at),
+                INDEX idx_from_time (from_uuid, created_at, id),
+                INDEX idx_to_time (to_uuid, created_at, id),
+                INDEX idx_tx_type (transaction_type),
+                INDEX idx_created (created_at)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """.formatted(TRANSACTION_TYPES) + LedgerPartitions.partitionClause(YearMonth.now(ZoneOffset.UTC));
+        
+        // 계정별 정산 체크포인트 (시작 잔액 + last_ledger_id까지의 원장 합계)
+        String checkpointsTable = """
+            CREATE TABLE IF NOT EXISTS ledger_checkpoints (
+                player_uuid VARCHAR(36) PRIMARY KEY,
+                opening_balance DECIMAL(15,2) NOT NULL,
+                ledger_sum DECIMAL(17,2) NOT NULL DEFAULT 0.00,
+                last_ledger_id BIGINT NOT NULL DEFAULT 0,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        
+        // 정산 진행 상태 (단일 행)
+        String reconcileStateTable = """
+            CREATE TABLE IF NOT EXISTS ledger_reconcile_state (
+                id TINYINT PRIMARY KEY,
+                checkpointed_id BIGINT NOT NULL DEFAULT 0,
+                pending_upper_id BIGINT NOT NULL DEFAULT 0,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(balancesTable);
+            stmt.execute(txLedgerTable);
+            stmt.execute(checkpointsTable);
+            stmt.execute(reconcileStateTable);
+        }
+        
+        // 기존 테이블: 관리자 잔액 설정과 초기 잔액 기록이 ENUM에 없어 저장되지 않던 문제 수정 (끝에 추가하는 변경은 메타데이터만 바뀐다)
+        if (!columnTypeContains(conn, "tx_ledger", "transaction_type", "'starting_balance'")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE tx_ledger MODIFY transaction_type ENUM(" + TRANSACTION_TYPES + ") NOT NULL");
+            }
+            SmpEconomyMod.LOGGER.info("tx_ledger.transaction_type에 admin_set, starting_balance를 추가했습니다.");
+        }
+        
+        // 기존 테이블: 재시도 요청을 거르는 멱등 키
+        if (!columnExists(conn, "tx_ledger", "idempotency_key")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE tx_ledger ADD COLUMN idempotency_key VARCHAR(100) NULL AFTER description");
+            }
+            SmpEconomyMod.LOGGER.info("tx_ledger에 idempotency_key 열을 추가했습니다.");
+        }
+        
+        // 파티션 없이 만들어진 기존 원장은 한 번 재구성
+        if (LedgerPartitions.listPartitions(conn).isEmpty()) {
+            partitionExistingLedger(conn);
+        }
+        LedgerPartitions.ensureFuturePartitions(conn);
+        
+        // 기존 테이블: 거래 내역 keyset 조회용 복합 인덱스로 교체 (단일 컬럼 인덱스는 접두사가 같아 불필요)
+        ensureIndex(conn, "tx_ledger", "idx_from_time", "ALTER TABLE tx_ledger ADD INDEX idx_from_time (from_uuid, created_at, id)");
+        ensureIndex(conn, "tx_ledger", "idx_to_time", "ALTER TABLE tx_ledger ADD INDEX idx_to_time (to_uuid, created_at, id)");
+        dropIndexIfExists(conn, "tx_ledger", "idx_from_uuid");
+        dropIndexIfExists(conn, "tx_ledger", "idx_to_uuid");
+        
+        SmpEconomyMod.LOGGER.info("경제 시스템 테이블 생성 완료");
+    }
+    
+    private void createTerritoryTables(Connection conn) throws SQLException {
+        SmpEconomyMod.LOGGER.info("영토 시스템 테이블을 생성합니다...");
+        
+        // 영토 기본 정보 테이블
+        String claimsTable = """
+            CREATE TABLE IF NOT EXISTS claims (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                owner_uuid VARCHAR(36) NOT NULL,
+                world_name VARCHAR(50) NOT NULL,
+                min_x INT NOT NULL,
+                max_x INT NOT NULL,
+                min_z INT NOT NULL,
+                max_z INT NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                UNIQUE KEY chunk_constraint (world_name, min_x, max_x, min_z, max_z),
+                INDEX idx_owner (owner_uuid),
+                INDEX idx_world (world_name),
+                INDEX idx_coords (min_x, max_x, min_z, max_z)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        
+        // 영토 멤버 관리 테이블
+        String claimMembersTable = """
+            CREATE TABLE IF NOT EXISTS claim_members (
+                claim_id BIGINT,
+                member_uuid VARCHAR(36),
+                permission_level ENUM('guest', 'member', 'admin') DEFAULT 'member',
+                added_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (claim_id, member_uuid),
+                FOREIGN KEY (claim_id) REFERENCES claims(id) ON DELETE CASCADE,
+                INDEX idx_member_uuid (member_uuid),
+                INDEX idx_permission (permission_level)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        
+        // 영토 세금 시스템 테이블
+        String claimTaxTable = """
+            CREATE TABLE IF NOT EXISTS claim_tax (
+                claim_id BIGINT PRIMARY KEY,
+                daily_tax DECIMAL(10,2) DEFAULT 1.00,
+                last_tax_paid TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                tax_arrears DECIMAL(15,2) DEFAULT 0.00,
+                FOREIGN KEY (claim_id) REFERENCES claims(id) ON DELETE CASCADE,
+                INDEX idx_last_paid (last_tax_paid),
+                INDEX idx_arrears (tax_arrears)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        
+        // 시간 누적 항목 (영토 세금, 이자 등) - 기간당 금액과 마지막 정산 시각만 저장하고 조회/변경 시 정산
+        String accrualsTable = """
+            CREATE TABLE IF NOT EXISTS accruals (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                player_uuid VARCHAR(36) NOT NULL,
+                kind VARCHAR(16) NOT NULL,
+                source_id BIGINT NOT NULL DEFAULT 0,
+                amount DECIMAL(15,2) NOT NULL,
+                rate_bp INT NOT NULL DEFAULT 0,
+                period_seconds INT NOT NULL,
+                last_settled_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                arrears DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+                UNIQUE KEY uk_source (kind, source_id, player_uuid),
+                INDEX idx_player (player_uuid),
+                INDEX idx_settled (last_settled_at)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        
+        // 기존 claim_tax 행을 누적 항목으로 옮김 (이미 옮긴 클레임은 건너뜀, claim_tax는 그대로 남김)
+        String migrateClaimTax = """
+            INSERT INTO accruals (player_uuid, kind, source_id, amount, period_seconds, last_settled_at, arrears)
+            SELECT c.owner_uuid, 'claim_tax', ct.claim_id, ct.daily_tax, 86400, ct.last_tax_paid, ct.tax_arrears
+            FROM claim_tax ct
+            JOIN claims c ON c.id = ct.claim_id
+            WHERE NOT EXISTS (SELECT 1 FROM accruals a WHERE a.kind = 'claim_tax' AND a.source_id = ct.claim_id)
+            """;
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(claimsTable);
+            stmt.execute(claimMembersTable);
+            stmt.execute(claimTaxTable);
+            stmt.execute(accrualsTable);
+            
+            int migrated = stmt.executeUpdate(migrateClaimTax);
+            if (migrated > 0) {
+                SmpEconomyMod.LOGGER.info("claim_tax {}개를 accruals로 옮겼습니다.", migrated);
+            }
+        }
+        
+        SmpEconomyMod.LOGGER.info("영토 시스템 테이블 생성 완료");
+    }
+    
+    /**
+     * 기존 tx_ledger를 월 단위 파티션 테이블로 변환합니다. (테이블 전체를 다시 쓰므로 한 번만 수행)
+     */
+    private void partitionExistingLedger(Connection conn) throws SQLException {
+        YearMonth firstMonth = YearMonth.now(ZoneOffset.UTC);
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT UNIX_TIMESTAMP(MIN(created_at)) FROM tx_ledger")) {
+            if (rs.next() && rs.getObject(1) != null) {
+                firstMonth = YearMonth.from(LocalDateTime.ofEpochSecond(rs.getLong(1), 0, ZoneOffset.UTC));
+            }
+        }
+        
+        SmpEconomyMod.LOGGER.warn("tx_ledger를 월 단위 파티션 테이블로 변환합니다. 원장 크기에 따라 시간이 걸릴 수 있습니다...");
+        
+        String ddl = "ALTER TABLE tx_ledger "
+                + "MODIFY created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                + "DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at) "
+                + LedgerPartitions.partitionClause(firstMonth);
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(ddl);
+        }
+        
+        SmpEconomyMod.LOGGER.info("tx_ledger 파티션 변환 완료 ({}부터)", LedgerPartitions.partitionName(firstMonth));
+    }
+    
+    private boolean indexExists(Connection conn, String table, String indexName) throws SQLException {
+        String query = "SELECT 1 FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? LIMIT 1";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, table);
+            stmt.setString(2, indexName);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    private boolean columnTypeContains(Connection conn, String table, String column, String fragment) throws SQLException {
+        String query = "SELECT column_type FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, table);
+            stmt.setString(2, column);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getString(1).contains(fragment);
+            }
+        }
+    }
+    
+    private boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        String query = "SELECT 1 FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ? LIMIT 1";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, table);
+            stmt.setString(2, column);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    private void ensureIndex(Connection conn, String table, String indexName, String ddl) throws SQLException {
+        if (indexExists(conn, table, indexName)) return;
+        
+        SmpEconomyMod.LOGGER.info("{} 테이블에 인덱스 {}를 추가합니다...", table, indexName);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(ddl);
+        }
+    }
+    
+    private void dropIndexIfExists(Connection conn, String table, String indexName) throws SQLException {
+        if (!indexExists(conn, table, indexName)) return;
+        
+        SmpEconomyMod.LOGGER.info("{} 테이블의 인덱스 {}를 제거합니다...", table, indexName);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " DROP INDEX " + indexName);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.jw010801.smpeconomymod.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.github.jw010801.smpeconomymod.config.ModConfig;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 저장소 백엔드 (MySQL 서버 또는 내장 H2 파일)
+ * 연결 풀 설정, 스키마 생성과 마이그레이션, 엔진마다 다른 기능을 백엔드가 맡는다.
+ * 매니저들의 질의는 두 엔진이 모두 받는 SQL(H2는 MySQL 호환 모드)로만 작성한다.
+ */
+public interface StorageBackend {
+
+    /**
+     * 설정 파일에 쓰는 이름 (mysql, h2)
+     */
+    String getName();
+
+    HikariConfig createPoolConfig();
+
+    /**
+     * 테이블을 만들고, 이전 버전 스키마가 있으면 현재 버전으로 맞춥니다.
+     */
+    void createSchema(Connection conn) throws SQLException;
+
+    /**
+     * 큰 결과를 한 행씩 읽을 때 사용할 fetch size
+     */
+    int getStreamingFetchSize();
+
+    /**
+     * tx_ledger 월 단위 파티션 (오래된 원장 보관)을 지원하는지
+     */
+    boolean supportsPartitioning();
+
+    /**
+     * 세미콜론으로 이은 여러 문장을 한 번의 왕복으로 보내고 결과를 차례로 받을 수 있는지
+     */
+    boolean supportsMultiStatements();
+
+    static StorageBackend create(ModConfig.Database config, Path dataDirectory) {
+        return switch (config.type.toLowerCase()) {
+            case H2StorageBackend.NAME -> new H2StorageBackend(config, dataDirectory);
+            case MySqlStorageBackend.NAME -> new MySqlStorageBackend(config);
+            default -> throw new IllegalArgumentException("알 수 없는 데이터베이스 종류: " + config.type + " (mysql 또는 h2)");
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 캐시에 올라간 플레이어 계정 셀
+ * 잔액 변경은 반드시 이 계정의 잠금을 잡은 상태에서만 수행하고,
+ * 읽기는 잠금 없이 volatile 필드로 처리한다.
+ * 잔액은 센트 단위 long으로 보관해 변경 시 객체를 할당하지 않는다.
+ */
+final class Account {
+
+    private final UUID playerUuid;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile long balanceCents;
+
+    // 예약(hold)으로 묶인 금액, 잔액에는 포함되지만 사용할 수 없다
+    private volatile long heldCents = 0;
+
+    // 변경 횟수와 데이터베이스에 반영된 변경 횟수 (같으면 캐시에서 제거해도 안전)
+    private long version = 0;
+    private volatile long persistedVersion = 0;
+
+    // 캐시에서 제거된 셀 (이미 참조를 가진 작업은 다시 로드해야 한다)
+    private volatile boolean retired = false;
+
+    Account(UUID playerUuid, long balanceCents) {
+        this.playerUuid = playerUuid;
+        this.balanceCents = balanceCents;
+    }
+
+    UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    long getBalanceCents() {
+        return balanceCents;
+    }
+
+    Money getBalance() {
+        return Money.ofCents(balanceCents);
+    }
+
+    long getHeldCents() {
+        return heldCents;
+    }
+
+    /**
+     * 예약을 제외하고 사용할 수 있는 잔액
+     */
+    long getAvailableCents() {
+        return balanceCents - heldCents;
+    }
+
+    /**
+     * 잠금을 잡은 스레드만 호출해야 한다
+     */
+    void setHeldCents(long heldCents) {
+        this.heldCents = heldCents;
+    }
+
+    /**
+     * 잠금을 잡은 스레드만 호출해야 한다
+     */
+    void setBalanceCents(long balanceCents) {
+        this.balanceCents = balanceCents;
+        this.version++;
+    }
+
+    /**
+     * 잠금을 잡은 스레드만 호출해야 한다
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * 플러시가 기록한 시점의 변경 횟수를 반영
+     */
+    void markPersisted(long persistedVersion) {
+        if (persistedVersion > this.persistedVersion) {
+            this.persistedVersion = persistedVersion;
+        }
+    }
+
+    /**
+     * 잠금을 잡은 스레드만 호출해야 한다
+     */
+    boolean isPersisted() {
+        return version == persistedVersion;
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+
+    /**
+     * 잠금을 잡은 스레드만 호출해야 한다
+     */
+    void retire() {
+        this.retired = true;
+    }
+
+    void lock() {
+        lock.lock();
+    }
+
+    boolean tryLock() {
+        return lock.tryLock();
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * 두 계정을 UUID 순서대로 잠급니다.
+     * 모든 양자 거래가 같은 순서로 잠그기 때문에 교착 상태가 생기지 않는다.
+     */
+    static void lockBoth(Account first, Account second) {
+        if (first.playerUuid.compareTo(second.playerUuid) <= 0) {
+            first.lock();
+            second.lock();
+        } else {
+            second.lock();
+            first.lock();
+        }
+    }
+
+    static void unlockBoth(Account first, Account second) {
+        first.unlock();
+        second.unlock();
+    }
+}
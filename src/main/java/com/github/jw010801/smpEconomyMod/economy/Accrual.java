@@ -0,0 +1,55 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+/**
+ * 정산할 기간이 지난 accruals 행 하나
+ * 정산 결과(settledCents, arrearsCents)는 계정 잠금 안에서 채운다.
+ */
+final class Accrual {
+
+    final long id;
+    final AccrualKind kind;
+    final long sourceId;
+    // 기간마다 고정 금액 + 잔액의 rateBasisPoints/10000
+    final long amountCents;
+    final int rateBasisPoints;
+    // 이번에 정산할 기간 수 (0이면 밀린 금액만 다시 청구)
+    final long periods;
+    // 정산 전 마지막 정산 시각과 이번 정산으로 앞당긴 시각 (반영에 실패하면 되돌린다)
+    final long previousSettledAt;
+    final long settledAt;
+    // 이전까지 밀린 금액 (차감 항목만)
+    final long previousArrearsCents;
+
+    long settledCents = 0;
+    long arrearsCents;
+
+    Accrual(long id, AccrualKind kind, long sourceId, long amountCents, int rateBasisPoints, long periods,
+            long previousSettledAt, long settledAt, long previousArrearsCents) {
+        this.id = id;
+        this.kind = kind;
+        this.sourceId = sourceId;
+        this.amountCents = amountCents;
+        this.rateBasisPoints = rateBasisPoints;
+        this.periods = periods;
+        this.previousSettledAt = previousSettledAt;
+        this.settledAt = settledAt;
+        this.previousArrearsCents = previousArrearsCents;
+        this.arrearsCents = previousArrearsCents;
+    }
+
+    /**
+     * 잔액이 balanceCents일 때 이번에 쌓인 금액 (밀린 금액 제외)
+     */
+    long owedCents(long balanceCents) {
+        long interest = Math.multiplyExact(Math.max(0, balanceCents), (long) rateBasisPoints) / 10_000;
+        return Math.multiplyExact(Math.addExact(amountCents, interest), periods);
+    }
+
+    String describe() {
+        String source = sourceId != 0 ? ", ID: " + sourceId : "";
+        if (periods == 0) {
+            return String.format("%s (밀린 금액%s)", kind.getLabel(), source);
+        }
+        return String.format("%s (%d기간%s)", kind.getLabel(), periods, source);
+    }
+}
@@ -0,0 +1,310 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.database.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 시간에 따라 쌓이는 돈 (세금, 이자, 급여, 유지비)의 지연 정산
+ * 항목마다 기간당 금액과 마지막 정산 시각만 저장하고, 쌓인 금액은 그 계정을 읽거나 바꿀 때 계산해 정산한다.
+ * 메모리에는 플레이어별 다음 정산 시각만 두므로 정산할 것이 없는 조회는 데이터베이스를 거치지 않고,
+ * 틱이나 자정마다 전체 계정을 훑는 작업이 없다.
+ * 마지막 정산 시각은 지난 기간 수만큼만 앞당기므로 기간 중간의 남은 시간은 다음 정산으로 넘어간다.
+ */
+final class AccrualEngine {
+
+    private final DatabaseManager databaseManager;
+
+    // 플레이어 -> 가장 이른 다음 정산 시각 (accruals에 항목이 있는 플레이어만)
+    private final ConcurrentHashMap<UUID, Long> nextDueAt = new ConcurrentHashMap<>();
+    // 밀린 금액이 종류별 한도를 넘은 항목 ("종류:source_id") -> 플레이어
+    private final ConcurrentHashMap<String, UUID> overArrearsLimit = new ConcurrentHashMap<>();
+
+    AccrualEngine(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    boolean isDue(UUID playerUuid, long now) {
+        Long dueAt = nextDueAt.get(playerUuid);
+        return dueAt != null && dueAt <= now;
+    }
+
+    /**
+     * 다음 정산 시각이 before보다 이전인 플레이어 (오래 접속하지 않아 정산되지 않은 계정, 최대 limit명)
+     */
+    List<UUID> findStale(long before, int limit) {
+        List<UUID> stale = new ArrayList<>();
+        for (Map.Entry<UUID, Long> entry : nextDueAt.entrySet()) {
+            if (stale.size() >= limit) break;
+            if (entry.getValue() < before) {
+                stale.add(entry.getKey());
+            }
+        }
+        return stale;
+    }
+
+    int size() {
+        return nextDueAt.size();
+    }
+
+    /**
+     * 플레이어의 차감 항목 중 밀린 금액이 한도를 넘은 것이 있는지 (마지막으로 읽거나 정산한 값 기준)
+     */
+    boolean hasArrearsOverLimit(UUID playerUuid) {
+        return overArrearsLimit.containsValue(playerUuid);
+    }
+
+    private void trackArrears(UUID playerUuid, AccrualKind kind, long sourceId, long arrearsCents) {
+        long limitCents = kind.getArrearsLimit().getCents();
+        String key = kind.getKey() + ":" + sourceId;
+        if (limitCents > 0 && arrearsCents > limitCents) {
+            overArrearsLimit.put(key, playerUuid);
+        } else {
+            overArrearsLimit.remove(key);
+        }
+    }
+
+    /**
+     * 시작 시 플레이어별 다음 정산 시각과 밀린 금액이 한도를 넘은 항목을 채웁니다.
+     */
+    int loadIndex() throws SQLException {
+        String query = "SELECT player_uuid, kind, source_id, last_settled_at, period_seconds, arrears FROM accruals";
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setFetchSize(databaseManager.getBackend().getStreamingFetchSize());
+            int loaded = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    UUID playerUuid = UUID.fromString(rs.getString("player_uuid"));
+                    long dueAt = rs.getTimestamp("last_settled_at").getTime() + rs.getInt("period_seconds") * 1000L;
+                    nextDueAt.merge(playerUuid, dueAt, Math::min);
+                    trackArrears(playerUuid, AccrualKind.fromKey(rs.getString("kind")), rs.getLong("source_id"),
+                            Money.fromBigDecimal(rs.getBigDecimal("arrears")).getCents());
+                    loaded++;
+                }
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * 항목을 추가하거나 (같은 종류, 같은 source_id면) 금액을 바꿉니다. 정산은 지금부터 시작한다.
+     */
+    void upsert(UUID playerUuid, AccrualKind kind, long sourceId, Money amount, int rateBasisPoints, long periodSeconds) throws SQLException {
+        String query = """
+            INSERT INTO accruals (player_uuid, kind, source_id, amount, rate_bp, period_seconds, last_settled_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE amount = VALUES(amount), rate_bp = VALUES(rate_bp), period_seconds = VALUES(period_seconds)
+            """;
+
+        long now = System.currentTimeMillis();
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, playerUuid.toString());
+            stmt.setString(2, kind.getKey());
+            stmt.setLong(3, sourceId);
+            stmt.setBigDecimal(4, amount.toBigDecimal());
+            stmt.setInt(5, rateBasisPoints);
+            stmt.setLong(6, periodSeconds);
+            stmt.setTimestamp(7, new Timestamp(now));
+            stmt.executeUpdate();
+        }
+
+        nextDueAt.merge(playerUuid, now + periodSeconds * 1000L, Math::min);
+    }
+
+    /**
+     * 항목을 지웁니다. (다음 정산 시각은 그 플레이어의 다음 정산 때 다시 계산된다)
+     */
+    void delete(AccrualKind kind, long sourceId) throws SQLException {
+        String query = "DELETE FROM accruals WHERE kind = ? AND source_id = ?";
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, kind.getKey());
+            stmt.setLong(2, sourceId);
+            stmt.executeUpdate();
+        }
+        overArrearsLimit.remove(kind.getKey() + ":" + sourceId);
+    }
+
+    /**
+     * 정산할 기간이 지난 항목을 읽고 마지막 정산 시각을 그 기간만큼 앞당깁니다. (한 트랜잭션)
+     * 시각을 먼저 기록하므로 잔액 반영 전에 서버가 멈추면 그 정산은 한 번 빠질 뿐 두 번 반영되지 않는다.
+     * 잔액 반영이 실패하면 rewind로 시각을 되돌려 다음 정산에서 다시 계산한다.
+     * 기간이 지나지 않았어도 밀린 금액이 있는 차감 항목은 0기간으로 돌려줘 잔액이 생겼으면 밀린 금액을 낸다.
+     */
+    List<Accrual> advance(UUID playerUuid, long now) throws SQLException {
+        String selectQuery = """
+            SELECT id, kind, source_id, amount, rate_bp, period_seconds, last_settled_at, arrears
+            FROM accruals WHERE player_uuid = ? FOR UPDATE
+            """;
+        String updateQuery = "UPDATE accruals SET last_settled_at = ? WHERE id = ?";
+
+        List<Accrual> due = new ArrayList<>();
+        long earliestDueAt = Long.MAX_VALUE;
+        boolean any = false;
+        boolean advanced = false;
+
+        try (Connection conn = databaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement selectStmt = conn.prepareStatement(selectQuery);
+                 PreparedStatement updateStmt = conn.prepareStatement(updateQuery)) {
+
+                selectStmt.setString(1, playerUuid.toString());
+                try (ResultSet rs = selectStmt.executeQuery()) {
+                    while (rs.next()) {
+                        any = true;
+                        AccrualKind kind = AccrualKind.fromKey(rs.getString("kind"));
+                        long sourceId = rs.getLong("source_id");
+                        long arrearsCents = Money.fromBigDecimal(rs.getBigDecimal("arrears")).getCents();
+                        long periodMillis = rs.getInt("period_seconds") * 1000L;
+                        long lastSettledAt = rs.getTimestamp("last_settled_at").getTime();
+                        long periods = periodMillis > 0 ? (now - lastSettledAt) / periodMillis : 0;
+                        trackArrears(playerUuid, kind, sourceId, arrearsCents);
+
+                        if (periods <= 0) {
+                            earliestDueAt = Math.min(earliestDueAt, lastSettledAt + periodMillis);
+                            if (arrearsCents > 0) {
+                                // 정산 시각은 그대로 두고 밀린 금액만 다시 청구
+                                due.add(new Accrual(rs.getLong("id"), kind, sourceId, 0, 0, 0, lastSettledAt, lastSettledAt, arrearsCents));
+                            }
+                            continue;
+                        }
+
+                        long settledAt = lastSettledAt + periods * periodMillis;
+                        earliestDueAt = Math.min(earliestDueAt, settledAt + periodMillis);
+
+                        due.add(new Accrual(
+                            rs.getLong("id"),
+                            kind,
+                            sourceId,
+                            Money.fromBigDecimal(rs.getBigDecimal("amount")).getCents(),
+                            rs.getInt("rate_bp"),
+                            periods,
+                            lastSettledAt,
+                            settledAt,
+                            arrearsCents
+                        ));
+
+                        updateStmt.setTimestamp(1, new Timestamp(settledAt));
+                        updateStmt.setLong(2, rs.getLong("id"));
+                        updateStmt.addBatch();
+                        advanced = true;
+                    }
+                }
+
+                if (advanced) {
+                    updateStmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        if (any) {
+            nextDueAt.put(playerUuid, earliestDueAt);
+        } else {
+            nextDueAt.remove(playerUuid);
+        }
+        return due;
+    }
+
+    /**
+     * advance로 앞당긴 마지막 정산 시각을 되돌립니다. (잔액에 반영하지 못한 정산)
+     * 그 사이 다른 정산이 시각을 바꿨으면 그 항목은 건드리지 않는다.
+     */
+    void rewind(UUID playerUuid, List<Accrual> due) throws SQLException {
+        String query = "UPDATE accruals SET last_settled_at = ? WHERE id = ? AND last_settled_at = ?";
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            int batched = 0;
+            for (Accrual accrual : due) {
+                // 밀린 금액만 다시 청구한 항목은 앞당긴 시각이 없다
+                if (accrual.periods == 0) continue;
+                stmt.setTimestamp(1, new Timestamp(accrual.previousSettledAt));
+                stmt.setLong(2, accrual.id);
+                stmt.setTimestamp(3, new Timestamp(accrual.settledAt));
+                stmt.addBatch();
+                batched++;
+            }
+            if (batched == 0) {
+                return;
+            }
+            stmt.executeBatch();
+        }
+
+        // 되돌린 항목은 이미 정산할 때가 지났으므로 다음 조회에서 다시 정산
+        long earliestDueAt = Long.MAX_VALUE;
+        for (Accrual accrual : due) {
+            if (accrual.periods == 0) continue;
+            long periodMillis = (accrual.settledAt - accrual.previousSettledAt) / accrual.periods;
+            earliestDueAt = Math.min(earliestDueAt, accrual.previousSettledAt + periodMillis);
+        }
+        nextDueAt.merge(playerUuid, earliestDueAt, Math::min);
+    }
+
+    /**
+     * 정산 후 밀린 금액이 바뀐 항목을 기록합니다.
+     * 차감 항목의 밀린 금액이 종류별 한도를 넘으면 hasArrearsOverLimit이 true가 되고, 다 내면 풀린다.
+     */
+    void updateArrears(UUID playerUuid, List<Accrual> settled) throws SQLException {
+        String query = "UPDATE accruals SET arrears = ? WHERE id = ?";
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            int batched = 0;
+            for (Accrual accrual : settled) {
+                if (accrual.arrearsCents == accrual.previousArrearsCents) continue;
+
+                stmt.setBigDecimal(1, Money.ofCents(accrual.arrearsCents).toBigDecimal());
+                stmt.setLong(2, accrual.id);
+                stmt.addBatch();
+                batched++;
+
+                if (accrual.arrearsCents > accrual.previousArrearsCents) {
+                    SmpEconomyMod.LOGGER.warn("플레이어 {} {} 정산 실패 (잔액 부족). 밀린 금액: {}", 
+                            playerUuid, accrual.describe(), Money.ofCents(accrual.arrearsCents));
+                }
+
+                long limitCents = accrual.kind.getArrearsLimit().getCents();
+                if (limitCents > 0 && accrual.arrearsCents > limitCents && accrual.previousArrearsCents <= limitCents) {
+                    SmpEconomyMod.LOGGER.warn("플레이어 {} {} 밀린 금액이 한도 {}를 넘어 밀린 금액을 낼 때까지 제한됩니다: {}", 
+                            playerUuid, accrual.describe(), accrual.kind.getArrearsLimit(), Money.ofCents(accrual.arrearsCents));
+                }
+            }
+
+            if (batched > 0) {
+                stmt.executeBatch();
+            }
+        }
+
+        for (Accrual accrual : settled) {
+            if (accrual.arrearsCents != accrual.previousArrearsCents) {
+                trackArrears(playerUuid, accrual.kind, accrual.sourceId, accrual.arrearsCents);
+            }
+        }
+    }
+}
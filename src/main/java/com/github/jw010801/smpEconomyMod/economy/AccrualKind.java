@@ -0,0 +1,57 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+/**
+ * 시간에 따라 쌓이는 돈의 종류 (accruals.kind에는 소문자로 저장)
+ */
+public enum AccrualKind {
+    // 영토 일일 세금 (source_id = 클레임 ID), 밀린 세금이 100골드를 넘으면 다 낼 때까지 새 클레임 금지
+    CLAIM_TAX("영토 세금", EconomyManager.TransactionType.TAX, false, Money.ofUnits(100)),
+    // 잔액 이자
+    INTEREST("이자", EconomyManager.TransactionType.EARN, true, Money.ZERO),
+    // 정기 급여
+    WAGE("급여", EconomyManager.TransactionType.EARN, true, Money.ZERO),
+    // 유지비
+    UPKEEP("유지비", EconomyManager.TransactionType.SPEND, false, Money.ZERO);
+
+    private final String label;
+    private final EconomyManager.TransactionType transactionType;
+    private final boolean credit;
+    private final Money arrearsLimit;
+
+    AccrualKind(String label, EconomyManager.TransactionType transactionType, boolean credit, Money arrearsLimit) {
+        this.label = label;
+        this.transactionType = transactionType;
+        this.credit = credit;
+        this.arrearsLimit = arrearsLimit;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public EconomyManager.TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    /**
+     * true면 지급, false면 차감
+     */
+    public boolean isCredit() {
+        return credit;
+    }
+
+    /**
+     * 밀린 금액 한도 (0이면 한도 없음, 차감 항목만). 넘으면 EconomyManager.hasArrearsOverLimit이 true가 된다.
+     */
+    public Money getArrearsLimit() {
+        return arrearsLimit;
+    }
+
+    String getKey() {
+        return name().toLowerCase();
+    }
+
+    static AccrualKind fromKey(String key) {
+        return valueOf(key.toUpperCase());
+    }
+}
@@ -0,0 +1,245 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * 크기가 제한된 계정 캐시 (W-TinyLFU 방식)
+ * 새 계정은 작은 윈도우 LRU에 들어가고, 윈도우에서 밀려난 계정은 주 영역(SLRU)의
+ * 가장 오래된 계정과 접근 빈도를 비교해 더 자주 쓰인 쪽만 남는다.
+ * 고정(pin)된 계정, 아직 기록되지 않은 계정, 잠금이 잡힌 계정은 제거하지 않는다.
+ *
+ * 조회는 ConcurrentHashMap에서 잠금 없이 처리하고, 정책 갱신은 tryLock으로
+ * 경합 시 건너뛴다 (접근 기록 일부가 유실되어도 정확성에는 영향이 없다).
+ */
+final class BalanceCache {
+
+    private static final int MAX_VICTIM_ATTEMPTS = 8;
+
+    private final ConcurrentHashMap<UUID, Account> data = new ConcurrentHashMap<>();
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+    private final Predicate<Account> evictable;
+
+    // 정책 상태 (policyLock 보호)
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final LinkedHashMap<UUID, Account> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<UUID, Account> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<UUID, Account> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 통계
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong totalLoadTimeNanos = new AtomicLong();
+
+    BalanceCache(int maximumSize, Predicate<Account> evictable) {
+        this.maximumSize = Math.max(1, maximumSize);
+        this.windowMaximum = Math.max(1, this.maximumSize / 100);
+        this.protectedMaximum = (int) ((this.maximumSize - windowMaximum) * 0.8);
+        this.evictable = evictable;
+        this.sketch = new FrequencySketch(this.maximumSize);
+    }
+
+    /**
+     * 캐시 조회 (적중/실패 통계와 접근 빈도에 반영)
+     */
+    Account get(UUID playerUuid) {
+        Account account = data.get(playerUuid);
+        if (account == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+
+        hitCount.incrementAndGet();
+        if (policyLock.tryLock()) {
+            try {
+                onAccess(playerUuid);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+        return account;
+    }
+
+    /**
+     * 통계와 정책에 반영하지 않는 내부 조회
+     */
+    Account peek(UUID playerUuid) {
+        return data.get(playerUuid);
+    }
+
+    /**
+     * 계정을 넣습니다. 이미 있으면 기존 계정을 돌려준다.
+     */
+    Account putIfAbsent(UUID playerUuid, Account account) {
+        Account existing = data.putIfAbsent(playerUuid, account);
+        if (existing != null) {
+            return existing;
+        }
+
+        policyLock.lock();
+        try {
+            sketch.increment(playerUuid);
+            window.put(playerUuid, account);
+            evictIfNeeded(false);
+        } finally {
+            policyLock.unlock();
+        }
+        return account;
+    }
+
+    void recordLoad(long loadTimeNanos) {
+        loadCount.incrementAndGet();
+        totalLoadTimeNanos.addAndGet(loadTimeNanos);
+    }
+
+    /**
+     * 제거할 수 없어 초과된 계정을 모두 다시 확인해 정리 (플러시나 고정 해제 이후 호출)
+     */
+    void cleanUp() {
+        policyLock.lock();
+        try {
+            evictIfNeeded(true);
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    int size() {
+        return data.size();
+    }
+
+    int getMaximumSize() {
+        return maximumSize;
+    }
+
+    boolean isOverCapacity() {
+        return data.size() > maximumSize;
+    }
+
+    Collection<Account> values() {
+        return data.values();
+    }
+
+    CacheStats stats(int pinnedCount) {
+        return new CacheStats(data.size(), maximumSize, hitCount.get(), missCount.get(), evictionCount.get(),
+                loadCount.get(), totalLoadTimeNanos.get(), pinnedCount);
+    }
+
+    private void onAccess(UUID playerUuid) {
+        sketch.increment(playerUuid);
+
+        if (window.get(playerUuid) != null || protectedSegment.get(playerUuid) != null) {
+            return;
+        }
+
+        // 주 영역 수습 구간에서 다시 접근되면 보호 구간으로 승격
+        Account promoted = probation.remove(playerUuid);
+        if (promoted != null) {
+            protectedSegment.put(playerUuid, promoted);
+            if (protectedSegment.size() > protectedMaximum) {
+                Map.Entry<UUID, Account> demoted = eldest(protectedSegment);
+                protectedSegment.remove(demoted.getKey());
+                probation.put(demoted.getKey(), demoted.getValue());
+            }
+        }
+    }
+
+    private void evictIfNeeded(boolean full) {
+        // 윈도우에서 밀려난 계정은 주 영역 입장 후보가 된다
+        while (window.size() > windowMaximum) {
+            Map.Entry<UUID, Account> candidate = eldest(window);
+            window.remove(candidate.getKey());
+            admit(candidate.getKey(), candidate.getValue());
+        }
+
+        // 제거할 수 없어 초과된 계정 정리 (삽입 시에는 몇 개만 확인)
+        if (data.size() > maximumSize) {
+            evictFrom(probation, full ? Integer.MAX_VALUE : MAX_VICTIM_ATTEMPTS);
+            if (full) {
+                evictFrom(protectedSegment, Integer.MAX_VALUE);
+            }
+        }
+    }
+
+    private void evictFrom(LinkedHashMap<UUID, Account> segment, int maxAttempts) {
+        Iterator<Map.Entry<UUID, Account>> victims = segment.entrySet().iterator();
+        int attempts = 0;
+        while (data.size() > maximumSize && victims.hasNext() && attempts++ < maxAttempts) {
+            Map.Entry<UUID, Account> victim = victims.next();
+            if (tryEvict(victim.getKey(), victim.getValue())) {
+                victims.remove();
+            }
+        }
+    }
+
+    /**
+     * TinyLFU 입장 판정: 후보와 수습 구간의 가장 오래된 계정 중 빈도가 낮은 쪽을 제거
+     */
+    private void admit(UUID candidateKey, Account candidate) {
+        if (data.size() <= maximumSize) {
+            probation.put(candidateKey, candidate);
+            return;
+        }
+
+        Iterator<Map.Entry<UUID, Account>> victims = probation.entrySet().iterator();
+        int attempts = 0;
+        while (victims.hasNext() && attempts++ < MAX_VICTIM_ATTEMPTS) {
+            Map.Entry<UUID, Account> victim = victims.next();
+            if (!evictable.test(victim.getValue())) {
+                continue;
+            }
+
+            if (sketch.frequency(candidateKey) > sketch.frequency(victim.getKey())) {
+                if (tryEvict(victim.getKey(), victim.getValue())) {
+                    victims.remove();
+                    probation.put(candidateKey, candidate);
+                    return;
+                }
+            } else {
+                break;
+            }
+        }
+
+        // 후보의 빈도가 낮으면 후보를 제거, 제거할 수 없는 상태라면 일시적으로 초과 허용
+        if (!tryEvict(candidateKey, candidate)) {
+            probation.put(candidateKey, candidate);
+        }
+    }
+
+    /**
+     * 계정 잠금을 잡은 상태에서만 제거 (변경 중인 계정을 제거하지 않기 위함)
+     * 제거된 계정 셀은 retire 표시되어 이미 참조를 가진 작업이 다시 로드하도록 한다.
+     */
+    private boolean tryEvict(UUID playerUuid, Account account) {
+        if (!account.tryLock()) {
+            return false;
+        }
+        try {
+            if (!evictable.test(account)) {
+                return false;
+            }
+            account.retire();
+            data.remove(playerUuid, account);
+            evictionCount.incrementAndGet();
+            return true;
+        } finally {
+            account.unlock();
+        }
+    }
+
+    private static Map.Entry<UUID, Account> eldest(LinkedHashMap<UUID, Account> segment) {
+        return segment.entrySet().iterator().next();
+    }
+}
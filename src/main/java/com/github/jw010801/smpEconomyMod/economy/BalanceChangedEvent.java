@@ -0,0 +1,67 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.UUID;
+
+/**
+ * 잔액 변경 이벤트
+ * 묶어서 전달되는 경우 balance는 마지막 잔액, delta와 changeCount는 묶인 변경의 합이다.
+ */
+public class BalanceChangedEvent {
+
+    private final UUID playerUuid;
+    private final long balanceCents;
+    private final long deltaCents;
+    private final int changeCount;
+
+    BalanceChangedEvent(UUID playerUuid, long balanceCents, long deltaCents) {
+        this(playerUuid, balanceCents, deltaCents, 1);
+    }
+
+    private BalanceChangedEvent(UUID playerUuid, long balanceCents, long deltaCents, int changeCount) {
+        this.playerUuid = playerUuid;
+        this.balanceCents = balanceCents;
+        this.deltaCents = deltaCents;
+        this.changeCount = changeCount;
+    }
+
+    /**
+     * 같은 플레이어의 이후 이벤트를 합칩니다.
+     */
+    BalanceChangedEvent merge(BalanceChangedEvent later) {
+        return new BalanceChangedEvent(playerUuid, later.balanceCents, deltaCents + later.deltaCents,
+                changeCount + later.changeCount);
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    /**
+     * 변경 후 잔액
+     */
+    public Money getBalance() {
+        return Money.ofCents(balanceCents);
+    }
+
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    /**
+     * 잔액 증감 (음수면 감소)
+     */
+    public Money getDelta() {
+        return Money.ofCents(deltaCents);
+    }
+
+    public long getDeltaCents() {
+        return deltaCents;
+    }
+
+    /**
+     * 이 이벤트에 묶인 변경 수
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+}
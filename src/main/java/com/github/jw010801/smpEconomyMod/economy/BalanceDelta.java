@@ -0,0 +1,66 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.UUID;
+
+/**
+ * 일괄 처리({@link EconomyManager#applyBatch})의 한 항목: 한 계정에 대한 지급 또는 차감
+ */
+public class BalanceDelta {
+
+    public enum Result {
+        APPLIED,
+        INSUFFICIENT_FUNDS,
+        INVALID_AMOUNT,
+        FAILED
+    }
+
+    private final UUID playerUuid;
+    private final Money amount;
+    private final boolean credit;
+    private final EconomyManager.TransactionType type;
+    private final String reason;
+
+    private BalanceDelta(UUID playerUuid, Money amount, boolean credit, EconomyManager.TransactionType type, String reason) {
+        this.playerUuid = playerUuid;
+        this.amount = amount;
+        this.credit = credit;
+        this.type = type;
+        this.reason = reason;
+    }
+
+    public static BalanceDelta credit(UUID playerUuid, Money amount, String reason) {
+        return credit(playerUuid, amount, EconomyManager.TransactionType.EARN, reason);
+    }
+
+    public static BalanceDelta credit(UUID playerUuid, Money amount, EconomyManager.TransactionType type, String reason) {
+        return new BalanceDelta(playerUuid, amount, true, type, reason);
+    }
+
+    public static BalanceDelta debit(UUID playerUuid, Money amount, String reason) {
+        return debit(playerUuid, amount, EconomyManager.TransactionType.SPEND, reason);
+    }
+
+    public static BalanceDelta debit(UUID playerUuid, Money amount, EconomyManager.TransactionType type, String reason) {
+        return new BalanceDelta(playerUuid, amount, false, type, reason);
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public boolean isCredit() {
+        return credit;
+    }
+
+    public EconomyManager.TransactionType getType() {
+        return type;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,508 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * 잔액 변경 선행 기록(write-ahead) 저널
+ * 변경이 생길 때마다 계정의 새 잔액을 메모리 매핑된 세그먼트 파일에 덧붙이고,
+ * 설정된 주기마다 fsync 한다. 서버가 비정상 종료되면 시작 시 재생해
+ * 데이터베이스에 아직 기록되지 않은 잔액을 복구한다.
+ *
+ * 기록은 잠금 없이 세그먼트의 위치를 원자적으로 늘려 자리를 예약하고 그 자리에 쓴다.
+ * fsync, 다 찬 세그먼트 정리, 다음 세그먼트 준비는 관리 작업(maintenance 실행기)이 맡아
+ * 계정 잠금을 잡은 기록 경로는 디스크를 기다리지 않는다.
+ *
+ * 레코드 형식 (32바이트): UUID 상위 64비트, 하위 64비트, 잔액(센트), 체크섬
+ */
+final class BalanceJournal {
+
+    private static final int RECORD_SIZE = 32;
+    private static final long CHECKSUM_SEED = 0x534D_5045_434F_4E4FL;
+    private static final String SEGMENT_PREFIX = "balances-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Executor maintenance;
+
+    // fsync, 세그먼트 정리/교체는 이 잠금 아래에서만 한다 (기록 경로는 잡지 않음)
+    private final Object maintenanceLock = new Object();
+    // 다 찬 세그먼트를 다음 세그먼트로 바꾸는 짧은 구간
+    private final Object rollLock = new Object();
+    private final AtomicBoolean syncScheduled = new AtomicBoolean(false);
+
+    private volatile Segment current;
+    // 미리 매핑해 둔 다음 세그먼트 (rollLock)
+    private Segment standby;
+    private volatile boolean broken = false;
+
+    /**
+     * @param maintenance fsync와 세그먼트 정리를 실행할 곳 (한 번에 하나씩 실행되면 충분하다)
+     */
+    BalanceJournal(Path directory, int segmentSizeBytes, Executor maintenance) {
+        this.directory = directory;
+        // 레코드 단위로 정렬
+        this.segmentSize = Math.max(RECORD_SIZE, segmentSizeBytes - segmentSizeBytes % RECORD_SIZE);
+        this.maintenance = maintenance;
+    }
+
+    /**
+     * 체크포인트 이후의 세그먼트를 순서대로 읽어 계정별 마지막 잔액을 돌려주고,
+     * 새 세그먼트를 열어 기록을 시작합니다.
+     */
+    Map<UUID, Long> open() throws IOException {
+        synchronized (maintenanceLock) {
+            Files.createDirectories(directory);
+
+            long checkpoint = readCheckpoint();
+            List<Long> segments = listSegments();
+            Map<UUID, Long> balances = new HashMap<>();
+            long lastSegment = checkpoint - 1;
+
+            for (long segment : segments) {
+                lastSegment = Math.max(lastSegment, segment);
+                if (segment < checkpoint) {
+                    // 이미 데이터베이스에 반영된 세그먼트 (이전 삭제 실패분)
+                    Files.deleteIfExists(segmentPath(segment));
+                    continue;
+                }
+                replaySegment(segment, balances);
+            }
+
+            current = openSegment(lastSegment + 1);
+            scheduleMaintenance(this::prepareStandby);
+            return balances;
+        }
+    }
+
+    /**
+     * 세그먼트의 유효한 레코드를 순서대로 반영합니다.
+     * 자리는 잠금 없이 예약되므로 비정상 종료 시 앞 자리는 비어 있고 뒷 자리는 다 쓰였을 수 있다.
+     * 그래서 체크섬이 맞지 않는 자리(빈 자리, 찢어진 레코드)는 건너뛰고 세그먼트 끝까지 읽는다.
+     * 세그먼트는 0으로 채워진 새 파일이라 마지막 유효 레코드 뒤는 모두 빈 자리다.
+     */
+    private void replaySegment(long segment, Map<UUID, Long> balances) throws IOException {
+        Path path = segmentPath(segment);
+        try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer readBuffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            int records = 0;
+            // 마지막 유효 레코드 앞에 있는 잘못된 자리 수 (끝의 빈 자리는 세지 않는다)
+            int skipped = 0;
+            int invalidRun = 0;
+
+            while (readBuffer.remaining() >= RECORD_SIZE) {
+                long msb = readBuffer.getLong();
+                long lsb = readBuffer.getLong();
+                long cents = readBuffer.getLong();
+                long checksum = readBuffer.getLong();
+
+                if (checksum != checksum(msb, lsb, cents)) {
+                    invalidRun++;
+                    continue;
+                }
+
+                skipped += invalidRun;
+                invalidRun = 0;
+                balances.put(new UUID(msb, lsb), cents);
+                records++;
+            }
+
+            unmap(readBuffer);
+            if (skipped > 0) {
+                SmpEconomyMod.LOGGER.warn("잔액 저널 세그먼트 {} 재생: {}건 (손상되거나 쓰다 만 레코드 {}개 건너뜀)", segment, records, skipped);
+            } else {
+                SmpEconomyMod.LOGGER.info("잔액 저널 세그먼트 {} 재생: {}건", segment, records);
+            }
+        }
+    }
+
+    /**
+     * 계정의 새 잔액을 기록합니다. 계정 잠금을 잡은 상태에서 호출해 계정별 기록 순서를 보장한다.
+     * 잠금 없이 자리를 예약해 쓰므로 다른 계정의 기록이나 fsync를 기다리지 않는다.
+     */
+    void append(UUID playerUuid, long cents) {
+        long msb = playerUuid.getMostSignificantBits();
+        long lsb = playerUuid.getLeastSignificantBits();
+        long checksum = checksum(msb, lsb, cents);
+
+        while (true) {
+            Segment segment = current;
+            if (broken || segment == null) return;
+
+            if (segment.tryWrite(msb, lsb, cents, checksum)) {
+                return;
+            }
+            // 세그먼트가 다 찼거나 교체 중이면 다음 세그먼트로 넘어가 다시 시도
+            advance(segment);
+        }
+    }
+
+    /**
+     * 마지막 fsync 이후 기록이 있으면 디스크에 강제 반영
+     */
+    void sync() {
+        synchronized (maintenanceLock) {
+            Segment segment = current;
+            if (segment != null) {
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * 관리 실행기에서 곧 fsync 하도록 요청합니다. (이미 요청되어 있으면 무시)
+     * 변경마다 fsync 하는 설정에서 계정 잠금을 잡은 채 디스크를 기다리지 않도록 쓴다.
+     */
+    void requestSync() {
+        if (syncScheduled.compareAndSet(false, true)) {
+            scheduleMaintenance(() -> {
+                // fsync 전에 풀어야 그 사이 들어온 기록도 다음 요청으로 반영된다
+                syncScheduled.set(false);
+                sync();
+            });
+        }
+    }
+
+    /**
+     * 현재 세그먼트를 닫고 새 세그먼트를 엽니다.
+     * 돌려준 번호 이전의 세그먼트는 이후 플러시가 성공하면 {@link #checkpoint(long)}로 정리할 수 있다.
+     * 계정 잠금 밖(플러시 작업)에서 호출한다.
+     */
+    long rotate() {
+        synchronized (maintenanceLock) {
+            Segment old;
+            Segment next;
+            // current는 기록 경로에서도 넘어갈 수 있어, 같은 번호의 세그먼트를 두 번 열지 않도록 rollLock 안에서 읽는다
+            synchronized (rollLock) {
+                old = current;
+                if (old == null || broken) {
+                    return old == null ? 0 : old.number;
+                }
+                next = takeStandbyOrOpen(old.number + 1);
+                if (next == null) {
+                    return old.number;
+                }
+                current = next;
+            }
+            retire(old);
+            scheduleMaintenance(this::prepareStandby);
+            return next.number;
+        }
+    }
+
+    /**
+     * 주어진 번호 이전의 세그먼트가 모두 데이터베이스에 반영되었음을 기록하고 삭제합니다.
+     */
+    void checkpoint(long liveFromSegment) {
+        try {
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.writeString(temp, Long.toString(liveFromSegment), StandardCharsets.UTF_8);
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            for (long segment : listSegments()) {
+                if (segment < liveFromSegment) {
+                    Files.deleteIfExists(segmentPath(segment));
+                }
+            }
+        } catch (IOException e) {
+            // 체크포인트 파일이 남아 있으면 다음 시작 때 오래된 세그먼트는 무시된다
+            SmpEconomyMod.LOGGER.warn("잔액 저널 체크포인트 처리 실패: {}", e.getMessage());
+        }
+    }
+
+    void close() {
+        synchronized (maintenanceLock) {
+            Segment old;
+            Segment unused;
+            synchronized (rollLock) {
+                old = current;
+                unused = standby;
+                current = null;
+                standby = null;
+            }
+            if (old != null) {
+                retire(old);
+            }
+            if (unused != null) {
+                // 한 번도 쓰지 않은 세그먼트는 재생할 것이 없다
+                unused.close();
+                try {
+                    Files.deleteIfExists(segmentPath(unused.number));
+                } catch (IOException e) {
+                    SmpEconomyMod.LOGGER.debug("빈 잔액 저널 세그먼트 삭제 실패: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 다 찬(또는 교체된) 세그먼트에서 다음 세그먼트로 넘어갑니다.
+     * 보통은 미리 매핑해 둔 세그먼트로 참조만 바꾸고, 정리(fsync, 매핑 해제)는 관리 실행기에 맡긴다.
+     */
+    private void advance(Segment full) {
+        synchronized (rollLock) {
+            if (current != full) {
+                // 다른 스레드가 이미 넘겼거나 닫는 중
+                return;
+            }
+            Segment next = takeStandbyOrOpen(full.number + 1);
+            if (next == null) {
+                return;
+            }
+            current = next;
+        }
+
+        scheduleMaintenance(() -> {
+            synchronized (maintenanceLock) {
+                retire(full);
+            }
+            prepareStandby();
+        });
+    }
+
+    /**
+     * 준비된 다음 세그먼트를 꺼내고, 없으면 바로 엽니다. (rollLock 안에서, 실패하면 저널 기록을 중단)
+     */
+    private Segment takeStandbyOrOpen(long number) {
+        Segment next = standby;
+        standby = null;
+        if (next != null && next.number == number) {
+            return next;
+        }
+        if (next != null) {
+            next.close();
+        }
+
+        try {
+            // 관리 작업이 아직 다음 세그먼트를 준비하지 못한 드문 경우
+            return openSegment(number);
+        } catch (IOException e) {
+            broken = true;
+            SmpEconomyMod.LOGGER.error("잔액 저널 세그먼트 생성 실패. 저널 기록을 중단합니다: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 현재 세그먼트 다음 번호의 세그먼트를 미리 매핑해 둡니다. (관리 실행기에서)
+     */
+    private void prepareStandby() {
+        long number;
+        synchronized (rollLock) {
+            Segment segment = current;
+            if (broken || segment == null || standby != null) return;
+            number = segment.number + 1;
+        }
+
+        Segment prepared;
+        try {
+            prepared = openSegment(number);
+        } catch (IOException e) {
+            // 넘어갈 때 다시 열어 본다
+            SmpEconomyMod.LOGGER.warn("다음 잔액 저널 세그먼트 준비 실패: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (rollLock) {
+            Segment segment = current;
+            if (standby == null && segment != null && segment.number + 1 == number) {
+                standby = prepared;
+                return;
+            }
+        }
+        // 그 사이 세그먼트가 바뀌었으면 쓰지 않는다
+        prepared.close();
+    }
+
+    /**
+     * 더 이상 새 기록을 받지 않는 세그먼트를 닫습니다. (maintenanceLock 안에서)
+     * 이미 자리를 예약한 기록이 끝날 때까지 기다린 뒤 fsync 하고 매핑을 해제한다.
+     */
+    private void retire(Segment segment) {
+        segment.seal();
+        segment.awaitWriters();
+        segment.force();
+        segment.close();
+    }
+
+    private void scheduleMaintenance(Runnable task) {
+        try {
+            maintenance.execute(task);
+        } catch (RejectedExecutionException e) {
+            // 관리 실행기가 종료된 뒤(서버 종료 중)에는 정리가 빠지지 않도록 바로 실행
+            task.run();
+        }
+    }
+
+    private Segment openSegment(long number) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(number),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new Segment(number, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize), segmentSize);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(path, StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            SmpEconomyMod.LOGGER.warn("잔액 저널 체크포인트가 손상되어 모든 세그먼트를 재생합니다.");
+            return 0;
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException ignored) {
+                        // 관련 없는 파일
+                    }
+                }
+            });
+        }
+        segments.sort(Long::compare);
+        return segments;
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    static long checksum(long msb, long lsb, long cents) {
+        return Long.rotateLeft(msb, 7) ^ Long.rotateLeft(lsb, 29) ^ cents ^ CHECKSUM_SEED;
+    }
+
+    /**
+     * 매핑 해제 (Windows에서는 매핑이 남아 있으면 파일을 삭제할 수 없다)
+     */
+    private static void unmap(MappedByteBuffer mapped) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", java.nio.ByteBuffer.class);
+            invokeCleaner.invoke(field.get(null), mapped);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // 해제하지 못하면 GC가 정리할 때까지 매핑이 유지된다
+        }
+    }
+
+    /**
+     * 매핑된 세그먼트 하나
+     * reserved는 다음 기록 위치로 getAndAdd로 자리를 나눠 주고, 봉인하면 크기를 넘는 값으로 바꿔 이후 예약을 모두 실패시킨다.
+     * written은 실제로 다 쓴 바이트 수로, 정리할 때 예약된 기록이 모두 끝났는지 확인하는 데 쓴다.
+     */
+    private static final class Segment {
+        // 봉인 후 예약 값 (크기보다 충분히 커서 이후 getAndAdd가 넘쳐도 음수가 되지 않는다)
+        private static final long SEALED = Long.MAX_VALUE / 2;
+
+        final long number;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int size;
+        private final AtomicLong reserved = new AtomicLong(0);
+        private final AtomicLong written = new AtomicLong(0);
+        private volatile boolean dirty = false;
+        // 봉인 시점까지 유효하게 예약된 바이트 수
+        private long sealedAt = -1;
+
+        Segment(long number, FileChannel channel, MappedByteBuffer buffer, int size) {
+            this.number = number;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.size = size;
+        }
+
+        /**
+         * 자리를 예약해 레코드를 씁니다. 다 찼거나 봉인되었으면 false
+         */
+        boolean tryWrite(long msb, long lsb, long cents, long checksum) {
+            long offset = reserved.getAndAdd(RECORD_SIZE);
+            if (offset + RECORD_SIZE > size) {
+                return false;
+            }
+
+            // 위치를 바꾸지 않는 절대 위치 쓰기라 서로 다른 자리는 동시에 써도 된다
+            int position = (int) offset;
+            buffer.putLong(position, msb);
+            buffer.putLong(position + 8, lsb);
+            buffer.putLong(position + 16, cents);
+            buffer.putLong(position + 24, checksum);
+            dirty = true;
+            written.addAndGet(RECORD_SIZE);
+            return true;
+        }
+
+        void seal() {
+            if (sealedAt < 0) {
+                sealedAt = Math.min(reserved.getAndSet(SEALED), size);
+            }
+        }
+
+        /**
+         * 봉인 전에 자리를 예약한 기록이 모두 끝날 때까지 기다립니다. (기록은 putLong 네 번이라 아주 짧다)
+         */
+        void awaitWriters() {
+            int spins = 0;
+            while (written.get() < sealedAt) {
+                if (++spins < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+                }
+            }
+        }
+
+        void force() {
+            if (dirty) {
+                dirty = false;
+                buffer.force();
+            }
+        }
+
+        void close() {
+            unmap(buffer);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                SmpEconomyMod.LOGGER.warn("잔액 저널 세그먼트 닫기 실패: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 잔액 캐시 통계 스냅샷
+ */
+public class CacheStats {
+
+    private final long size;
+    private final long maximumSize;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long loadCount;
+    private final long totalLoadTimeNanos;
+    private final int pinnedCount;
+
+    CacheStats(long size, long maximumSize, long hitCount, long missCount, long evictionCount,
+               long loadCount, long totalLoadTimeNanos, int pinnedCount) {
+        this.size = size;
+        this.maximumSize = maximumSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.loadCount = loadCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.pinnedCount = pinnedCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    public int getPinnedCount() {
+        return pinnedCount;
+    }
+
+    /**
+     * 적중률 (0.0 ~ 1.0), 조회가 없었으면 1.0
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    /**
+     * 데이터베이스에서 계정을 읽어오는 데 걸린 평균 시간 (ms)
+     */
+    public double getAverageLoadMillis() {
+        return loadCount == 0 ? 0.0 : totalLoadTimeNanos / 1_000_000.0 / loadCount;
+    }
+
+    /**
+     * stats.json에 쓰는 형태
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("size", size);
+        map.put("maximumSize", maximumSize);
+        map.put("hitCount", hitCount);
+        map.put("missCount", missCount);
+        map.put("hitRate", getHitRate());
+        map.put("evictionCount", evictionCount);
+        map.put("loadCount", loadCount);
+        map.put("averageLoadMillis", getAverageLoadMillis());
+        map.put("pinnedCount", pinnedCount);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats{size=%d/%d, hitRate=%.3f, evictions=%d, loads=%d, avgLoad=%.2fms, pinned=%d}",
+                size, maximumSize, getHitRate(), evictionCount, loadCount, getAverageLoadMillis(), pinnedCount);
+    }
+}
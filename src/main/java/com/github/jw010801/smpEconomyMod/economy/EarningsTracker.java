@@ -0,0 +1,120 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 플레이어별 최근 순수익(지급 - 차감) 집계
+ * 최근 1시간은 분 단위 버킷 60개, 최근 24시간과 7일은 시간 단위 버킷 168개의
+ * 원형 버퍼로 관리하고 구간별 합계를 함께 유지해 기록과 조회가 O(1)이다.
+ * 일/주 구간은 시간 단위로 잘린다 (현재 시간 버킷 + 이전 23개/167개).
+ */
+final class EarningsTracker {
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private final ConcurrentHashMap<UUID, Window> windows = new ConcurrentHashMap<>();
+
+    void record(UUID playerUuid, long cents) {
+        if (cents == 0) return;
+        windows.computeIfAbsent(playerUuid, uuid -> new Window()).record(currentMinute(), cents);
+    }
+
+    long getNetCents(UUID playerUuid, EconomyManager.EarningsPeriod period) {
+        Window window = windows.get(playerUuid);
+        return window == null ? 0 : window.sum(currentMinute(), period);
+    }
+
+    /**
+     * 최근 7일 동안 변화가 없는 플레이어의 버퍼 정리
+     */
+    void prune() {
+        long minute = currentMinute();
+        windows.entrySet().removeIf(entry -> entry.getValue().isIdle(minute));
+    }
+
+    int size() {
+        return windows.size();
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / MILLIS_PER_MINUTE;
+    }
+
+    private static final class Window {
+        private static final int MINUTE_SLOTS = 60;
+        private static final int HOUR_SLOTS = 24 * 7;
+        private static final int DAY_HOURS = 24;
+
+        private final long[] minutes = new long[MINUTE_SLOTS];
+        private final long[] hours = new long[HOUR_SLOTS];
+        private long currentMinute = -1;
+        private long currentHour = -1;
+        private long hourSum;
+        private long daySum;
+        private long weekSum;
+        private long lastRecordedMinute;
+
+        synchronized void record(long nowMinute, long cents) {
+            advance(nowMinute);
+            minutes[(int) (nowMinute % MINUTE_SLOTS)] += cents;
+            hours[(int) (currentHour % HOUR_SLOTS)] += cents;
+            hourSum += cents;
+            daySum += cents;
+            weekSum += cents;
+            lastRecordedMinute = nowMinute;
+        }
+
+        synchronized long sum(long nowMinute, EconomyManager.EarningsPeriod period) {
+            advance(nowMinute);
+            return switch (period) {
+                case HOUR -> hourSum;
+                case DAY -> daySum;
+                case WEEK -> weekSum;
+            };
+        }
+
+        synchronized boolean isIdle(long nowMinute) {
+            return nowMinute - lastRecordedMinute >= (long) HOUR_SLOTS * 60;
+        }
+
+        /**
+         * 지나간 버킷을 비우고 구간 합계에서 빼기 (지난 시간만큼만 반복하므로 분할 상환 O(1))
+         */
+        private void advance(long nowMinute) {
+            if (nowMinute <= currentMinute) return;
+
+            if (currentMinute < 0 || nowMinute - currentMinute >= MINUTE_SLOTS) {
+                Arrays.fill(minutes, 0);
+                hourSum = 0;
+            } else {
+                for (long minute = currentMinute + 1; minute <= nowMinute; minute++) {
+                    int slot = (int) (minute % MINUTE_SLOTS);
+                    hourSum -= minutes[slot];
+                    minutes[slot] = 0;
+                }
+            }
+            currentMinute = nowMinute;
+
+            long nowHour = nowMinute / 60;
+            if (nowHour <= currentHour) return;
+
+            if (currentHour < 0 || nowHour - currentHour >= HOUR_SLOTS) {
+                Arrays.fill(hours, 0);
+                daySum = 0;
+                weekSum = 0;
+            } else {
+                for (long hour = currentHour + 1; hour <= nowHour; hour++) {
+                    // 일 구간에서 빠지는 버킷 (이번 반복에서 이미 비운 버킷이면 0)
+                    daySum -= hours[(int) ((hour - DAY_HOURS) % HOUR_SLOTS)];
+
+                    int slot = (int) (hour % HOUR_SLOTS);
+                    weekSum -= hours[slot];
+                    hours[slot] = 0;
+                }
+            }
+            currentHour = nowHour;
+        }
+    }
+}
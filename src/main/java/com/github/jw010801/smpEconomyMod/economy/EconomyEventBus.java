@@ -0,0 +1,108 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 잔액 변경 이벤트 버스
+ * 즉시 리스너는 변경한 스레드에서 계정 잠금을 잡은 채로 호출되므로 순서가 보장되지만 가벼운 작업만 해야 한다.
+ * 묶음 리스너는 drain()을 호출할 때 플레이어마다 마지막 상태 하나만 받는다. (HUD 동기화, 순위표처럼 최종 값만 필요한 경우)
+ * 서버는 틱마다 drain()을 호출하므로 한 틱 안의 연속 지급 50번은 HUD 갱신 한 번이 된다.
+ */
+public class EconomyEventBus {
+
+    @FunctionalInterface
+    public interface Listener {
+        void onBalanceChanged(BalanceChangedEvent event);
+    }
+
+    private final List<Listener> immediateListeners = new CopyOnWriteArrayList<>();
+    private final List<Listener> coalescedListeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<UUID, BalanceChangedEvent> pending = new ConcurrentHashMap<>();
+
+    // 지표
+    private final AtomicLong publishedCount = new AtomicLong(0);
+    private final AtomicLong deliveredCount = new AtomicLong(0);
+
+    /**
+     * 변경마다 바로 호출되는 리스너를 등록합니다. (계정 잠금 안에서 호출됨)
+     */
+    public void subscribe(Listener listener) {
+        immediateListeners.add(listener);
+    }
+
+    /**
+     * drain()마다 플레이어당 한 번 묶어서 호출되는 리스너를 등록합니다.
+     */
+    public void subscribeCoalesced(Listener listener) {
+        coalescedListeners.add(listener);
+    }
+
+    /**
+     * 같은 계정의 잠금을 잡은 상태에서 호출해야 계정별 이벤트 순서가 실제 변경 순서와 같다.
+     */
+    void publish(BalanceChangedEvent event) {
+        publishedCount.incrementAndGet();
+
+        for (Listener listener : immediateListeners) {
+            deliver(listener, event);
+        }
+
+        if (!coalescedListeners.isEmpty()) {
+            pending.merge(event.getPlayerUuid(), event, BalanceChangedEvent::merge);
+        }
+    }
+
+    /**
+     * 쌓인 변경을 플레이어마다 하나씩 묶음 리스너에 전달합니다. (서버 스레드에서 틱마다 호출)
+     */
+    public void drain() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        for (UUID playerUuid : pending.keySet()) {
+            BalanceChangedEvent event = pending.remove(playerUuid);
+            if (event == null) {
+                continue;
+            }
+
+            deliveredCount.incrementAndGet();
+            for (Listener listener : coalescedListeners) {
+                deliver(listener, event);
+            }
+        }
+    }
+
+    private void deliver(Listener listener, BalanceChangedEvent event) {
+        try {
+            listener.onBalanceChanged(event);
+        } catch (RuntimeException e) {
+            // 리스너 오류가 잔액 변경을 실패시키지 않도록
+            SmpEconomyMod.LOGGER.error("플레이어 {} 잔액 변경 이벤트 처리 중 오류: {}", event.getPlayerUuid(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 발행된 잔액 변경 수
+     */
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    /**
+     * 묶음 리스너에 전달된 이벤트 수 (발행 수와의 차이만큼 HUD 갱신이 줄었다)
+     */
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+}
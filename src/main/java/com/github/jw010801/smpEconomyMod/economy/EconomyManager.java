@@ -1,35 +1,192 @@
 package com.github.jw010801.smpeconomymod.economy;
 
 import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.concurrent.ExecutorRegistry;
+import com.github.jw010801.smpeconomymod.concurrent.ExecutorStats;
+import com.github.jw010801.smpeconomymod.concurrent.InstrumentedExecutor;
+import com.github.jw010801.smpeconomymod.config.ModConfig;
 import com.github.jw010801.smpeconomymod.database.DatabaseManager;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class EconomyManager {
     
     private final DatabaseManager databaseManager;
-    private final ScheduledExecutorService executor;
+    private final ExecutorRegistry executors;
+    private final InstrumentedExecutor executor;
+    private final LedgerWriter ledgerWriter;
+    private final TransactionHistory history;
+    private final BalanceJournal journal;
+    private final long journalFsyncIntervalMillis;
     
-    // 캐시: 플레이어 UUID -> 잔액
-    private final ConcurrentHashMap<UUID, BigDecimal> balanceCache = new ConcurrentHashMap<>();
+    // 캐시: 플레이어 UUID -> 계정 셀 (계정마다 개별 잠금, 크기 제한)
+    private final BalanceCache accountCache;
+    
+    // 접속 중인 플레이어 계정은 캐시에서 제거하지 않는다
+    private final Set<UUID> pinnedAccounts = ConcurrentHashMap.newKeySet();
+    
+    // 잔액 순위표 (모든 변경 시 갱신, 시작 시 한 번 데이터베이스에서 채움)
+    private final WealthLeaderboard leaderboard = new WealthLeaderboard();
+    
+    // 잔액 변경 알림 (순위표는 즉시, HUD 동기화는 틱마다 묶어서)
+    private final EconomyEventBus eventBus = new EconomyEventBus();
+    
+    // 플레이어별 최근 순수익 (HUD 표시용)
+    private final EarningsTracker earnings = new EarningsTracker();
+    
+    // 진행 중인 자금 예약 (확정/해제되지 않은 예약은 만료 시 자동 해제)
+    private final ConcurrentHashMap<Long, FundHold> activeHolds = new ConcurrentHashMap<>();
+    private final AtomicLong nextHoldId = new AtomicLong(1);
+    
+    // 잔액-원장 정산과 오래된 원장 보관
+    private final LedgerReconciler reconciler;
+    private final LedgerArchiver archiver;
+    private final boolean reconcileAutoRepair;
+    
+    // 최근 멱등 키 (재시도된 송금/지급이 두 번 반영되지 않게)
+    private final IdempotencyWindow idempotencyWindow = new IdempotencyWindow(IDEMPOTENCY_WINDOW_MILLIS, IDEMPOTENCY_MAX_KEYS);
+    
+    // 같은 계정의 동시 로드를 하나로 합침
+    private final ConcurrentHashMap<UUID, CompletableFuture<Account>> pendingLoads = new ConcurrentHashMap<>();
+    
+    // 시간 누적 항목 (세금, 이자 등), 같은 계정의 동시 정산은 하나로 합침
+    private final AccrualEngine accruals;
+    private final ConcurrentHashMap<UUID, CompletableFuture<Void>> pendingSettlements = new ConcurrentHashMap<>();
+    
+    // 통화량, 발행/소각, 송금 속도 집계 (데이터베이스를 읽지 않고 거래마다 갱신)
+    private final EconomyStats stats = new EconomyStats();
+    private final Path statsSnapshotPath;
+    // 작업 풀 통계는 읽을 때 최대 대기 시간이 초기화되므로 스냅샷을 쓸 때만 읽고 명령어는 그 결과를 보여준다
+    private volatile List<ExecutorStats> lastExecutorStats = List.of();
+    private static final CompletableFuture<Void> SETTLED = CompletableFuture.completedFuture(null);
+    
+    // Write-behind: 마지막 플러시 이후 잔액이 바뀐 계정들
+    private final Set<UUID> dirtyAccounts = ConcurrentHashMap.newKeySet();
+    private final AtomicLong oldestDirtyAt = new AtomicLong(0);
+    private final Object flushLock = new Object();
+    
+    // 플러시 지표
+    private volatile int lastFlushBatchSize = 0;
+    private volatile long lastFlushDurationMillis = 0;
+    private volatile long lastFlushLagMillis = 0;
+    private final AtomicLong totalFlushedAccounts = new AtomicLong(0);
     
     // 기본 설정값
-    public static final BigDecimal DEFAULT_STARTING_BALANCE = new BigDecimal("100.00");
-    public static final BigDecimal MINIMUM_BALANCE = new BigDecimal("0.00");
+    public static final Money DEFAULT_STARTING_BALANCE = Money.ofUnits(100);
+    public static final Money MINIMUM_BALANCE = Money.ZERO;
+    
+    // Write-behind 플러시 조건: 변경 계정 수 또는 가장 오래된 변경의 경과 시간
+    public static final int FLUSH_BATCH_THRESHOLD = 256;
+    public static final long FLUSH_MAX_AGE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long FLUSH_CHECK_INTERVAL_MILLIS = 1000;
+    
+    // 멱등 키를 기억하는 시간과 최대 개수 (이 시간 안의 재시도만 중복으로 걸러진다)
+    public static final long IDEMPOTENCY_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int IDEMPOTENCY_MAX_KEYS = 100_000;
+    
+    // 거래 내역에서 볼 수 있는 가장 깊은 페이지
+    public static final int HISTORY_MAX_PAGE = TransactionHistory.MAX_PAGE;
     
-    public EconomyManager(DatabaseManager databaseManager) {
+    // 확정/해제되지 않은 예약의 최대 유지 시간
+    public static final long HOLD_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long HOLD_SWEEP_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long EARNINGS_PRUNE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long LEDGER_MAINTENANCE_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final long LEDGER_MAINTENANCE_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    
+    // 이 시간 넘게 정산되지 않은 (접속하지 않은) 계정은 주기적으로 조금씩 정산
+    private static final long ACCRUAL_CHECKPOINT_AGE_MILLIS = TimeUnit.DAYS.toMillis(7);
+    private static final long ACCRUAL_CHECKPOINT_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final int ACCRUAL_CHECKPOINT_BATCH = 500;
+    
+    // 경제 집계 스냅샷 파일 (smp-economy/stats.json)
+    private static final long STATS_SNAPSHOT_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int STATS_TOP_COUNT = 5;
+    private static final Gson STATS_GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    
+    public EconomyManager(DatabaseManager databaseManager, ExecutorRegistry executors, ModConfig config) {
+        this(databaseManager, executors, config, SmpEconomyMod.getDataDirectory());
+    }
+    
+    /**
+     * @param dataDirectory 잔액 저널, 보관된 원장 묶음, 원장 압축 파일, stats.json을 둘 디렉터리
+     */
+    public EconomyManager(DatabaseManager databaseManager, ExecutorRegistry executors, ModConfig config, Path dataDirectory) {
         this.databaseManager = databaseManager;
-        this.executor = Executors.newScheduledThreadPool(2);
+        this.executors = executors;
+        this.executor = executors.pool("economy-io", config.concurrency.economyIoConcurrency);
+        this.ledgerWriter = new LedgerWriter(databaseManager, dataDirectory.resolve("ledger-spill"));
+        this.history = new TransactionHistory(databaseManager);
+        this.journalFsyncIntervalMillis = config.economy.journalFsyncIntervalMillis;
+        // 고정되지 않았고, 데이터베이스에 반영되었고, 예약이 없는 계정만 제거 대상
+        this.accountCache = new BalanceCache(config.economy.balanceCacheMaximumSize,
+                account -> !pinnedAccounts.contains(account.getPlayerUuid()) && account.isPersisted() 
+                        && account.getHeldCents() == 0);
+        // fsync와 세그먼트 정리는 기록 경로 밖의 전용 실행기에서
+        this.journal = new BalanceJournal(dataDirectory.resolve("journal"), 
+                config.economy.journalSegmentSizeMb * 1024 * 1024, executors.pool("balance-journal", 1));
+        
+        // 순위표는 틱마다 묶인 마지막 잔액으로 서버 스레드에서 갱신 (계정 잠금 안에서 순위표 잠금을 잡지 않는다)
+        // 묶음에는 계정 잠금 안에서 합친 최종 잔액이 들어 있어 같은 계정의 이전 잔액이 나중에 덮어쓰지 않는다
+        eventBus.subscribeCoalesced(event -> leaderboard.update(event.getPlayerUuid(), event.getBalanceCents()));
+        
+        // 캐시가 조회를 받기 전에 지난 실행에서 기록되지 못한 잔액 복구
+        replayJournal();
+        
+        if (journalFsyncIntervalMillis > 0) {
+            executors.scheduleWithFixedDelay(journal::sync, journalFsyncIntervalMillis, journalFsyncIntervalMillis, TimeUnit.MILLISECONDS, executor);
+        }
+        
+        // 1초마다 플러시 조건을 확인해 변경된 계정만 데이터베이스에 기록
+        executors.scheduleWithFixedDelay(this::flushIfDue, FLUSH_CHECK_INTERVAL_MILLIS, FLUSH_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS, executor);
+        
+        // 잊힌 예약이 잔액을 영원히 묶지 않도록 주기적으로 정리
+        executors.scheduleWithFixedDelay(this::releaseExpiredHolds, HOLD_SWEEP_INTERVAL_MILLIS, HOLD_SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS, executor);
+        executors.scheduleWithFixedDelay(earnings::prune, EARNINGS_PRUNE_INTERVAL_MILLIS, EARNINGS_PRUNE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS, executor);
+        
+        // 하루에 한 번 잔액을 원장과 정산하고, 다음 달 파티션을 준비하고, 보관 기간이 지난 거래 원장을 압축 보관
+        this.reconcileAutoRepair = config.economy.ledgerReconcileAutoRepair;
+        this.reconciler = new LedgerReconciler(databaseManager, dirtyAccounts::contains);
+        this.archiver = new LedgerArchiver(databaseManager, reconciler, dataDirectory.resolve("archive"), 
+                config.economy.ledgerHotMonths, config.economy.ledgerArchiveEnabled);
+        executors.scheduleWithFixedDelay(this::runLedgerMaintenance, LEDGER_MAINTENANCE_DELAY_MILLIS, LEDGER_MAINTENANCE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS, executor);
+        
+        // 세금/이자 등은 계정을 읽거나 바꿀 때 정산하고, 오래 건드리지 않은 계정만 체크포인트에서 정산
+        this.accruals = new AccrualEngine(databaseManager);
+        executors.scheduleWithFixedDelay(this::checkpointAccruals, ACCRUAL_CHECKPOINT_INTERVAL_MILLIS, ACCRUAL_CHECKPOINT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS, executor);
         
-        // 5분마다 캐시 데이터를 데이터베이스에 동기화
-        this.executor.scheduleAtFixedRate(this::syncCacheToDatabase, 5, 5, TimeUnit.MINUTES);
+        // 통화량 등 경제 집계는 거래마다 메모리에서 갱신하고 1분마다 파일로 남김
+        this.statsSnapshotPath = dataDirectory.resolve("stats.json");
+        executors.scheduleWithFixedDelay(this::writeStatsSnapshot, STATS_SNAPSHOT_INTERVAL_MILLIS, STATS_SNAPSHOT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS, executor);
         
         SmpEconomyMod.LOGGER.info("EconomyManager 초기화됨");
     }
@@ -37,26 +194,121 @@ public class EconomyManager {
     /**
      * 플레이어의 잔액을 조회합니다. (캐시 우선)
      */
-    public CompletableFuture<BigDecimal> getBalance(UUID playerUuid) {
-        // 캐시에 있으면 바로 반환
-        if (balanceCache.containsKey(playerUuid)) {
-            return CompletableFuture.completedFuture(balanceCache.get(playerUuid));
+    public CompletableFuture<Money> getBalance(UUID playerUuid) {
+        // 캐시에 있고 정산할 것이 없으면 바로 완료, 없으면 데이터베이스에서 조회
+        return settleAccrualsIfDue(playerUuid)
+            .thenCompose(settled -> loadAccount(playerUuid))
+            .thenApply(Account::getBalance)
+            .exceptionally(e -> {
+                SmpEconomyMod.LOGGER.error("플레이어 {} 잔액 조회 중 오류: {}", playerUuid, e.getMessage());
+                return Money.ZERO;
+            });
+    }
+    
+    /**
+     * 계정 셀을 캐시에서 가져오거나 데이터베이스에서 읽어 캐시에 올립니다.
+     * 캐시에 있으면 호출한 스레드에서 바로 완료되므로 변경 작업이 executor를 거치지 않는다.
+     */
+    private CompletableFuture<Account> loadAccount(UUID playerUuid) {
+        Account cached = accountCache.get(playerUuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
         }
         
-        // 캐시에 없으면 데이터베이스에서 조회
-        return CompletableFuture.supplyAsync(() -> {
+        // 진행 중인 로드가 있으면 합류 (로드 도중 다른 셀이 올라갔다 제거되어 오래된 값이 들어가는 것 방지)
+        CompletableFuture<Account> pending = pendingLoads.computeIfAbsent(playerUuid, uuid -> 
+            InstrumentedExecutor.supplyAsync(() -> {
+                Account existing = accountCache.peek(uuid);
+                if (existing != null) {
+                    return existing;
+                }
+                
+                try {
+                    long startedAt = System.nanoTime();
+                    Money balance = getBalanceFromDatabase(uuid);
+                    accountCache.recordLoad(System.nanoTime() - startedAt);
+                    
+                    // 동시에 로드된 경우 먼저 들어간 셀을 사용 (변경 내용 유실 방지)
+                    Account loaded = accountCache.putIfAbsent(uuid, new Account(uuid, balance.getCents()));
+                    leaderboard.seed(uuid, loaded.getBalanceCents());
+                    return loaded;
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        pending.whenComplete((account, e) -> pendingLoads.remove(playerUuid, pending));
+        return pending;
+    }
+    
+    /**
+     * 계정 잠금을 잡은 상태로 작업을 실행합니다.
+     * 잠금을 기다리는 사이 셀이 캐시에서 제거되었다면 다시 로드해 재시도한다.
+     */
+    private <T> CompletableFuture<T> withAccount(UUID playerUuid, Function<Account, T> action) {
+        return loadAccount(playerUuid).thenCompose(account -> {
+            account.lock();
             try {
-                BigDecimal balance = getBalanceFromDatabase(playerUuid);
-                balanceCache.put(playerUuid, balance);
-                return balance;
-            } catch (SQLException e) {
-                SmpEconomyMod.LOGGER.error("플레이어 {} 잔액 조회 중 오류: {}", playerUuid, e.getMessage());
-                return BigDecimal.ZERO;
+                if (!account.isRetired()) {
+                    return CompletableFuture.completedFuture(action.apply(account));
+                }
+            } finally {
+                account.unlock();
             }
-        }, executor);
+            return withAccount(playerUuid, action);
+        });
     }
     
-    private BigDecimal getBalanceFromDatabase(UUID playerUuid) throws SQLException {
+    /**
+     * 두 계정을 같은 순서로 잠근 상태로 작업을 실행합니다. (교착 상태 방지)
+     */
+    private <T> CompletableFuture<T> withAccounts(UUID firstUuid, UUID secondUuid, BiFunction<Account, Account, T> action) {
+        return loadAccount(firstUuid).thenCombine(loadAccount(secondUuid), (first, second) -> {
+            Account.lockBoth(first, second);
+            try {
+                if (!first.isRetired() && !second.isRetired()) {
+                    return CompletableFuture.completedFuture(action.apply(first, second));
+                }
+            } finally {
+                Account.unlockBoth(first, second);
+            }
+            return withAccounts(firstUuid, secondUuid, action);
+        }).thenCompose(Function.identity());
+    }
+    
+    /**
+     * 여러 계정을 UUID 순서대로 모두 잠근 상태로 작업을 실행합니다.
+     * 양자 거래와 같은 순서로 잠그므로 서로 교착 상태가 생기지 않는다.
+     */
+    private <T> CompletableFuture<T> withAllAccounts(TreeSet<UUID> playerUuids, Function<Map<UUID, Account>, T> action) {
+        List<CompletableFuture<Account>> loads = new ArrayList<>(playerUuids.size());
+        for (UUID playerUuid : playerUuids) {
+            loads.add(loadAccount(playerUuid));
+        }
+        
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])).thenCompose(ignored -> {
+            Map<UUID, Account> accounts = new HashMap<>();
+            List<Account> locked = new ArrayList<>(loads.size());
+            for (CompletableFuture<Account> load : loads) {
+                Account account = load.join();
+                account.lock();
+                locked.add(account);
+                accounts.put(account.getPlayerUuid(), account);
+            }
+            
+            try {
+                if (locked.stream().noneMatch(Account::isRetired)) {
+                    return CompletableFuture.completedFuture(action.apply(accounts));
+                }
+            } finally {
+                for (Account account : locked) {
+                    account.unlock();
+                }
+            }
+            return withAllAccounts(playerUuids, action);
+        });
+    }
+    
+    private Money getBalanceFromDatabase(UUID playerUuid) throws SQLException {
         String query = "SELECT balance FROM balances WHERE player_uuid = ?";
         
         try (Connection conn = databaseManager.getConnection();
@@ -66,7 +318,7 @@ public class EconomyManager {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getBigDecimal("balance");
+                    return Money.fromBigDecimal(rs.getBigDecimal("balance"));
                 } else {
                     // 새 플레이어인 경우 기본 잔액으로 계정 생성
                     createNewAccount(playerUuid);
@@ -79,232 +331,1108 @@ public class EconomyManager {
     /**
      * 플레이어 잔액을 설정합니다.
      */
-    public CompletableFuture<Boolean> setBalance(UUID playerUuid, BigDecimal amount, String reason) {
+    public CompletableFuture<Boolean> setBalance(UUID playerUuid, Money amount, String reason) {
         if (amount.compareTo(MINIMUM_BALANCE) < 0) {
             return CompletableFuture.completedFuture(false);
         }
         
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                BigDecimal oldBalance = balanceCache.getOrDefault(playerUuid, getBalanceFromDatabase(playerUuid));
-                
-                // 캐시 업데이트
-                balanceCache.put(playerUuid, amount);
-                
-                // 트랜잭션 로그 기록
-                logTransaction(null, playerUuid, amount.subtract(oldBalance), TransactionType.ADMIN_SET, reason);
-                
-                return true;
-            } catch (Exception e) {
-                SmpEconomyMod.LOGGER.error("플레이어 {} 잔액 설정 중 오류: {}", playerUuid, e.getMessage());
+        long newCents = amount.getCents();
+        return withAccount(playerUuid, account -> {
+            // 예약된 금액보다 적게 설정하면 예약 확정 시 잔액이 음수가 된다
+            if (newCents < account.getHeldCents()) {
+                return null;
+            }
+            
+            long oldCents = account.getBalanceCents();
+            account.setBalanceCents(newCents);
+            recordChange(account, newCents - oldCents);
+            return oldCents;
+        }).thenApply(oldCents -> {
+            if (oldCents == null) {
                 return false;
             }
-        }, executor);
+            
+            // 트랜잭션 로그 기록 (줄어든 경우 플레이어가 보낸 쪽이 되어 원장 합계가 잔액과 맞는다)
+            long deltaCents = newCents - oldCents;
+            if (deltaCents < 0) {
+                logTransaction(playerUuid, null, -deltaCents, TransactionType.ADMIN_SET, reason);
+            } else {
+                logTransaction(null, playerUuid, deltaCents, TransactionType.ADMIN_SET, reason);
+            }
+            
+            return true;
+        }).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("플레이어 {} 잔액 설정 중 오류: {}", playerUuid, e.getMessage());
+            return false;
+        });
     }
     
     /**
      * 플레이어 잔액을 증가시킵니다.
      */
-    public CompletableFuture<Boolean> addBalance(UUID playerUuid, BigDecimal amount, String reason) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public CompletableFuture<Boolean> addBalance(UUID playerUuid, Money amount, String reason) {
+        return addBalance(playerUuid, amount, reason, null);
+    }
+    
+    /**
+     * 멱등 키와 함께 잔액을 증가시킵니다. 같은 키로 다시 호출하면 다시 지급하지 않고 처음 결과를 돌려준다.
+     */
+    public CompletableFuture<Boolean> addBalance(UUID playerUuid, Money amount, String reason, String idempotencyKey) {
+        if (!amount.isPositive()) {
             return CompletableFuture.completedFuture(false);
         }
         
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                BigDecimal currentBalance = balanceCache.computeIfAbsent(playerUuid, 
-                    uuid -> {
-                        try {
-                            return getBalanceFromDatabase(uuid);
-                        } catch (SQLException e) {
-                            return DEFAULT_STARTING_BALANCE;
-                        }
-                    });
-                
-                BigDecimal newBalance = currentBalance.add(amount);
-                balanceCache.put(playerUuid, newBalance);
-                
-                // 트랜잭션 로그 기록
-                logTransaction(null, playerUuid, amount, TransactionType.EARN, reason);
-                
-                return true;
-            } catch (Exception e) {
-                SmpEconomyMod.LOGGER.error("플레이어 {} 잔액 증가 중 오류: {}", playerUuid, e.getMessage());
-                return false;
-            }
-        }, executor);
+        long cents = amount.getCents();
+        return deduplicate(idempotencyKey, () -> settleAccrualsIfDue(playerUuid).thenCompose(settled -> withAccount(playerUuid, account -> {
+            account.setBalanceCents(Math.addExact(account.getBalanceCents(), cents));
+            recordChange(account, cents);
+            return true;
+        })).thenApply(success -> {
+            // 트랜잭션 로그 기록
+            logTransaction(null, playerUuid, cents, TransactionType.EARN, reason, idempotencyKey);
+            
+            return success;
+        })).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("플레이어 {} 잔액 증가 중 오류: {}", playerUuid, e.getMessage());
+            return false;
+        });
     }
     
     /**
      * 플레이어 잔액을 감소시킵니다.
      */
-    public CompletableFuture<Boolean> subtractBalance(UUID playerUuid, BigDecimal amount, String reason) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public CompletableFuture<Boolean> subtractBalance(UUID playerUuid, Money amount, String reason) {
+        if (!amount.isPositive()) {
             return CompletableFuture.completedFuture(false);
         }
         
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                BigDecimal currentBalance = balanceCache.computeIfAbsent(playerUuid, 
-                    uuid -> {
-                        try {
-                            return getBalanceFromDatabase(uuid);
-                        } catch (SQLException e) {
-                            return DEFAULT_STARTING_BALANCE;
-                        }
-                    });
-                
-                BigDecimal newBalance = currentBalance.subtract(amount);
-                
-                // 잔액 부족 확인
-                if (newBalance.compareTo(MINIMUM_BALANCE) < 0) {
-                    return false;
-                }
-                
-                balanceCache.put(playerUuid, newBalance);
-                
-                // 트랜잭션 로그 기록
-                logTransaction(playerUuid, null, amount, TransactionType.SPEND, reason);
-                
-                return true;
-            } catch (Exception e) {
-                SmpEconomyMod.LOGGER.error("플레이어 {} 잔액 감소 중 오류: {}", playerUuid, e.getMessage());
+        long cents = amount.getCents();
+        return settleAccrualsIfDue(playerUuid).thenCompose(settled -> withAccount(playerUuid, account -> {
+            // 잔액 부족 확인 (잠금 안에서 확인해야 동시 차감이 모두 통과하지 않는다, 예약된 금액은 사용 불가)
+            if (account.getAvailableCents() - cents < MINIMUM_BALANCE.getCents()) {
                 return false;
             }
-        }, executor);
+            
+            account.setBalanceCents(account.getBalanceCents() - cents);
+            recordChange(account, -cents);
+            return true;
+        })).thenApply(success -> {
+            // 트랜잭션 로그 기록
+            if (success) {
+                logTransaction(playerUuid, null, cents, TransactionType.SPEND, reason);
+            }
+            
+            return success;
+        }).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("플레이어 {} 잔액 감소 중 오류: {}", playerUuid, e.getMessage());
+            return false;
+        });
     }
     
     /**
      * 플레이어 간 송금을 처리합니다.
      */
-    public CompletableFuture<Boolean> transferMoney(UUID fromPlayer, UUID toPlayer, BigDecimal amount, String reason) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0 || fromPlayer.equals(toPlayer)) {
+    public CompletableFuture<Boolean> transferMoney(UUID fromPlayer, UUID toPlayer, Money amount, String reason) {
+        return transferMoney(fromPlayer, toPlayer, amount, reason, null);
+    }
+    
+    /**
+     * 멱등 키와 함께 송금합니다. 같은 키로 다시 호출하면 다시 송금하지 않고 처음 결과를 돌려준다.
+     * 오류로 반영되지 못한 경우에만 키를 잊으므로 같은 키로 안전하게 재시도할 수 있다.
+     */
+    public CompletableFuture<Boolean> transferMoney(UUID fromPlayer, UUID toPlayer, Money amount, String reason, String idempotencyKey) {
+        if (!amount.isPositive() || fromPlayer.equals(toPlayer)) {
             return CompletableFuture.completedFuture(false);
         }
         
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // 송금자 잔액 확인
-                BigDecimal fromBalance = balanceCache.computeIfAbsent(fromPlayer, 
-                    uuid -> {
-                        try {
-                            return getBalanceFromDatabase(uuid);
-                        } catch (SQLException e) {
-                            return BigDecimal.ZERO;
-                        }
-                    });
+        long cents = amount.getCents();
+        return deduplicate(idempotencyKey, () -> settleAccrualsIfDue(fromPlayer, toPlayer).thenCompose(settled -> withAccounts(fromPlayer, toPlayer, (fromAccount, toAccount) -> {
+            // 송금자 잔액 확인 (예약된 금액 제외)
+            if (fromAccount.getAvailableCents() - cents < MINIMUM_BALANCE.getCents()) {
+                return false; // 잔액 부족
+            }
+            
+            // 송금 실행
+            fromAccount.setBalanceCents(fromAccount.getBalanceCents() - cents);
+            toAccount.setBalanceCents(Math.addExact(toAccount.getBalanceCents(), cents));
+            recordChange(fromAccount, -cents);
+            recordChange(toAccount, cents);
+            return true;
+        })).thenApply(success -> {
+            // 트랜잭션 로그 기록
+            if (success) {
+                logTransaction(fromPlayer, toPlayer, cents, TransactionType.TRANSFER, reason, idempotencyKey);
+            }
+            
+            return success;
+        })).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("송금 처리 중 오류 ({} -> {}): {}", fromPlayer, toPlayer, e.getMessage());
+            return false;
+        });
+    }
+    
+    /**
+     * 사용 가능한 잔액에서 금액을 예약합니다. 잔액은 바로 줄지 않지만 다른 차감에 쓸 수 없게 된다.
+     * 잔액이 부족하면 빈 Optional로 완료된다.
+     */
+    public CompletableFuture<Optional<FundHold>> reserveFunds(UUID playerUuid, Money amount, String reason) {
+        if (!amount.isPositive()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        
+        long cents = amount.getCents();
+        return settleAccrualsIfDue(playerUuid).thenCompose(settled -> withAccount(playerUuid, account -> {
+            if (account.getAvailableCents() - cents < MINIMUM_BALANCE.getCents()) {
+                return Optional.<FundHold>empty();
+            }
+            
+            account.setHeldCents(account.getHeldCents() + cents);
+            FundHold hold = new FundHold(nextHoldId.getAndIncrement(), playerUuid, amount, reason, 
+                    System.currentTimeMillis() + HOLD_TIMEOUT_MILLIS);
+            activeHolds.put(hold.getId(), hold);
+            return Optional.of(hold);
+        })).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("플레이어 {} 자금 예약 중 오류: {}", playerUuid, e.getMessage());
+            return Optional.empty();
+        });
+    }
+    
+    /**
+     * 예약한 금액을 실제로 차감합니다. 이미 확정/해제/만료된 예약이면 false
+     */
+    public CompletableFuture<Boolean> commitHold(FundHold hold) {
+        long cents = hold.getAmount().getCents();
+        return withAccount(hold.getPlayerUuid(), account -> {
+            if (!hold.finish(FundHold.State.COMMITTED)) {
+                return false;
+            }
+            
+            account.setHeldCents(account.getHeldCents() - cents);
+            account.setBalanceCents(account.getBalanceCents() - cents);
+            recordChange(account, -cents);
+            return true;
+        }).thenApply(success -> {
+            activeHolds.remove(hold.getId());
+            
+            // 트랜잭션 로그 기록
+            if (success) {
+                logTransaction(hold.getPlayerUuid(), null, cents, TransactionType.SPEND, hold.getReason());
+            }
+            
+            return success;
+        }).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("플레이어 {} 예약 확정 중 오류: {}", hold.getPlayerUuid(), e.getMessage());
+            return false;
+        });
+    }
+    
+    /**
+     * 예약을 해제해 금액을 다시 사용할 수 있게 합니다. 이미 확정/해제된 예약이면 false
+     */
+    public CompletableFuture<Boolean> releaseHold(FundHold hold) {
+        return withAccount(hold.getPlayerUuid(), account -> {
+            if (!hold.finish(FundHold.State.RELEASED)) {
+                return false;
+            }
+            
+            account.setHeldCents(account.getHeldCents() - hold.getAmount().getCents());
+            return true;
+        }).whenComplete((success, e) -> activeHolds.remove(hold.getId()))
+        .exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("플레이어 {} 예약 해제 중 오류: {}", hold.getPlayerUuid(), e.getMessage());
+            return false;
+        });
+    }
+    
+    private void releaseExpiredHolds() {
+        long now = System.currentTimeMillis();
+        for (FundHold hold : activeHolds.values()) {
+            if (hold.getExpiresAt() <= now) {
+                SmpEconomyMod.LOGGER.warn("만료된 자금 예약 해제: {} (플레이어: {}, 금액: {}, 사유: {})", 
+                        hold.getId(), hold.getPlayerUuid(), hold.getAmount(), hold.getReason());
+                releaseHold(hold);
+            }
+        }
+    }
+    
+    public int getActiveHoldCount() {
+        return activeHolds.size();
+    }
+    
+    /**
+     * 여러 계정의 지급/차감을 한 번에 처리합니다.
+     * 관련 계정을 모두 잠근 상태에서 항목 순서대로 검증하고 반영하며, 항목별 결과를 돌려준다.
+     * 잔액이 부족한 항목만 건너뛰고 나머지는 반영된다.
+     * 거래 로그는 한 번에 대기열에 넣어 같은 배치 insert로 기록되고,
+     * 잔액은 write-behind 플러시의 배치 upsert 한 번으로 기록된다.
+     */
+    public CompletableFuture<List<BalanceDelta.Result>> applyBatch(List<BalanceDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        
+        TreeSet<UUID> playerUuids = new TreeSet<>();
+        for (BalanceDelta delta : deltas) {
+            playerUuids.add(delta.getPlayerUuid());
+        }
+        
+        return settleAccrualsIfDue(playerUuids)
+                .thenCompose(settled -> withAllAccounts(playerUuids, accounts -> applyDeltas(deltas, accounts))).thenApply(results -> {
+            // 트랜잭션 로그 기록 (반영된 항목만)
+            for (int i = 0; i < deltas.size(); i++) {
+                if (results.get(i) != BalanceDelta.Result.APPLIED) continue;
                 
-                if (fromBalance.compareTo(amount) < 0) {
-                    return false; // 잔액 부족
+                BalanceDelta delta = deltas.get(i);
+                long cents = delta.getAmount().getCents();
+                if (delta.isCredit()) {
+                    logTransaction(null, delta.getPlayerUuid(), cents, delta.getType(), delta.getReason());
+                } else {
+                    logTransaction(delta.getPlayerUuid(), null, cents, delta.getType(), delta.getReason());
+                }
+            }
+            return results;
+        }).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("일괄 잔액 처리 중 오류 ({}건): {}", deltas.size(), e.getMessage());
+            return Collections.nCopies(deltas.size(), BalanceDelta.Result.FAILED);
+        });
+    }
+    
+    /**
+     * 모든 계정 잠금을 잡은 상태에서 호출
+     */
+    private List<BalanceDelta.Result> applyDeltas(List<BalanceDelta> deltas, Map<UUID, Account> accounts) {
+        List<BalanceDelta.Result> results = new ArrayList<>(deltas.size());
+        Map<Account, Long> changed = new LinkedHashMap<>();
+        
+        for (BalanceDelta delta : deltas) {
+            if (!delta.getAmount().isPositive()) {
+                results.add(BalanceDelta.Result.INVALID_AMOUNT);
+                continue;
+            }
+            
+            Account account = accounts.get(delta.getPlayerUuid());
+            long cents = delta.getAmount().getCents();
+            long newCents;
+            
+            if (delta.isCredit()) {
+                try {
+                    newCents = Math.addExact(account.getBalanceCents(), cents);
+                } catch (ArithmeticException e) {
+                    results.add(BalanceDelta.Result.INVALID_AMOUNT);
+                    continue;
+                }
+            } else {
+                newCents = account.getBalanceCents() - cents;
+                if (account.getAvailableCents() - cents < MINIMUM_BALANCE.getCents()) {
+                    results.add(BalanceDelta.Result.INSUFFICIENT_FUNDS);
+                    continue;
+                }
+            }
+            
+            changed.merge(account, newCents - account.getBalanceCents(), Long::sum);
+            account.setBalanceCents(newCents);
+            results.add(BalanceDelta.Result.APPLIED);
+        }
+        
+        // 한 계정에 여러 항목이 있어도 최종 잔액만 한 번 기록
+        for (Map.Entry<Account, Long> entry : changed.entrySet()) {
+            recordChange(entry.getKey(), entry.getValue());
+        }
+        return results;
+    }
+    
+    /**
+     * 시간 누적 항목을 추가하거나 금액을 바꿉니다. (같은 종류와 sourceId면 갱신, 정산은 지금부터)
+     * 데이터베이스에 바로 기록하므로 서버 스레드가 아닌 곳에서 호출해야 한다.
+     *
+     * @param amountPerPeriod 기간마다 지급/차감할 고정 금액
+     * @param rateBasisPoints 기간마다 잔액에 곱할 비율 (1 = 0.01%, 이자 등), 정산 시점의 잔액 기준
+     */
+    public void addAccrual(UUID playerUuid, AccrualKind kind, long sourceId, Money amountPerPeriod, 
+                           int rateBasisPoints, long periodSeconds) throws SQLException {
+        if (periodSeconds <= 0 || amountPerPeriod.isNegative() || rateBasisPoints < 0) {
+            throw new IllegalArgumentException("잘못된 누적 항목: " + kind + " " + amountPerPeriod + "/" + periodSeconds + "s");
+        }
+        accruals.upsert(playerUuid, kind, sourceId, amountPerPeriod, rateBasisPoints, periodSeconds);
+    }
+    
+    /**
+     * 시간 누적 항목을 지웁니다. 아직 정산되지 않은 기간은 버린다. (서버 스레드가 아닌 곳에서 호출)
+     */
+    public void removeAccrual(AccrualKind kind, long sourceId) throws SQLException {
+        accruals.delete(kind, sourceId);
+    }
+    
+    /**
+     * 플레이어의 시간 누적 항목 중 기간이 지난 것을 정산합니다.
+     */
+    public CompletableFuture<Void> settleAccruals(UUID playerUuid) {
+        CompletableFuture<Void> pending = pendingSettlements.computeIfAbsent(playerUuid, uuid -> 
+            InstrumentedExecutor.supplyAsync(() -> {
+                try {
+                    return accruals.advance(uuid, System.currentTimeMillis());
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
                 }
+            }, executor).thenCompose(due -> applyAccruals(uuid, due)).exceptionally(e -> {
+                SmpEconomyMod.LOGGER.error("플레이어 {} 누적 항목 정산 중 오류: {}", uuid, e.getMessage());
+                return null;
+            }));
+        pending.whenComplete((v, e) -> pendingSettlements.remove(playerUuid, pending));
+        return pending;
+    }
+    
+    /**
+     * 플레이어의 차감 항목(영토 세금 등) 중 밀린 금액이 종류별 한도를 넘은 것이 있는지
+     * 마지막 정산 결과 기준이므로 최신 상태가 필요하면 settleAccruals 뒤에 확인한다.
+     */
+    public boolean hasArrearsOverLimit(UUID playerUuid) {
+        return accruals.hasArrearsOverLimit(playerUuid);
+    }
+    
+    /**
+     * 정산할 기간이 지났을 때만 정산합니다. 대부분은 메모리의 다음 정산 시각만 보고 바로 완료된다.
+     */
+    private CompletableFuture<Void> settleAccrualsIfDue(UUID playerUuid) {
+        if (!accruals.isDue(playerUuid, System.currentTimeMillis())) {
+            return SETTLED;
+        }
+        return settleAccruals(playerUuid);
+    }
+    
+    private CompletableFuture<Void> settleAccrualsIfDue(UUID firstUuid, UUID secondUuid) {
+        return settleAccrualsIfDue(firstUuid).thenCombine(settleAccrualsIfDue(secondUuid), (first, second) -> null);
+    }
+    
+    private CompletableFuture<Void> settleAccrualsIfDue(Set<UUID> playerUuids) {
+        List<CompletableFuture<Void>> settlements = new ArrayList<>();
+        for (UUID playerUuid : playerUuids) {
+            CompletableFuture<Void> settlement = settleAccrualsIfDue(playerUuid);
+            if (settlement != SETTLED) {
+                settlements.add(settlement);
+            }
+        }
+        return settlements.isEmpty() ? SETTLED : CompletableFuture.allOf(settlements.toArray(new CompletableFuture[0]));
+    }
+    
+    /**
+     * 계정 잠금 안에서 쌓인 금액을 반영합니다.
+     * 차감 항목은 밀린 금액까지 한 번에 낼 수 있을 때만 차감하고, 아니면 밀린 금액에 더한다.
+     * 계정을 읽지 못하는 등 반영하지 못하면 advance가 앞당긴 정산 시각을 되돌려 금액이 사라지지 않게 한다.
+     */
+    private CompletableFuture<Void> applyAccruals(UUID playerUuid, List<Accrual> due) {
+        if (due.isEmpty()) {
+            return SETTLED;
+        }
+        
+        AtomicBoolean applied = new AtomicBoolean(false);
+        return withAccount(playerUuid, account -> {
+            // 모두 계산한 뒤에 한 번에 바꾼다 (중간에 실패하면 잔액은 그대로)
+            long balanceCents = account.getBalanceCents();
+            long heldCents = account.getHeldCents();
+            boolean changed = false;
+            
+            for (Accrual accrual : due) {
+                long owedCents = accrual.owedCents(balanceCents);
                 
-                // 수신자 잔액 조회
-                BigDecimal toBalance = balanceCache.computeIfAbsent(toPlayer, 
-                    uuid -> {
-                        try {
-                            return getBalanceFromDatabase(uuid);
-                        } catch (SQLException e) {
-                            return DEFAULT_STARTING_BALANCE;
-                        }
-                    });
+                if (accrual.kind.isCredit()) {
+                    if (owedCents == 0) continue;
+                    balanceCents = Math.addExact(balanceCents, owedCents);
+                    accrual.settledCents = owedCents;
+                } else {
+                    long totalCents = Math.addExact(owedCents, accrual.previousArrearsCents);
+                    if (totalCents == 0) continue;
+                    if (balanceCents - heldCents - totalCents < MINIMUM_BALANCE.getCents()) {
+                        accrual.arrearsCents = totalCents;
+                        continue;
+                    }
+                    balanceCents -= totalCents;
+                    accrual.settledCents = -totalCents;
+                    accrual.arrearsCents = 0;
+                }
+                changed = true;
+            }
+            
+            if (changed) {
+                long deltaCents = balanceCents - account.getBalanceCents();
+                applied.set(true);
+                account.setBalanceCents(balanceCents);
+                recordChange(account, deltaCents);
+            }
+            return due;
+        }).handleAsync((settled, error) -> {
+            if (error != null) {
+                // 잔액을 이미 바꾼 뒤의 실패는 되돌리면 두 번 반영되므로 그대로 둔다
+                if (!applied.get()) {
+                    rewindAccruals(playerUuid, due);
+                }
+                throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+            }
+            return settled;
+        }, executor).thenAcceptAsync(settled -> {
+            for (Accrual accrual : settled) {
+                if (accrual.settledCents > 0) {
+                    logTransaction(null, playerUuid, accrual.settledCents, accrual.kind.getTransactionType(), accrual.describe());
+                } else if (accrual.settledCents < 0) {
+                    logTransaction(playerUuid, null, -accrual.settledCents, accrual.kind.getTransactionType(), accrual.describe());
+                }
+            }
+            
+            try {
+                accruals.updateArrears(playerUuid, settled);
+            } catch (SQLException e) {
+                SmpEconomyMod.LOGGER.error("플레이어 {} 밀린 금액 기록 실패: {}", playerUuid, e.getMessage());
+            }
+        }, executor);
+    }
+    
+    /**
+     * 잔액에 반영하지 못한 정산의 정산 시각을 되돌립니다. 되돌리지도 못하면 빠진 금액을 알 수 있게 남긴다.
+     */
+    private void rewindAccruals(UUID playerUuid, List<Accrual> due) {
+        try {
+            accruals.rewind(playerUuid, due);
+            SmpEconomyMod.LOGGER.warn("플레이어 {} 누적 항목 {}개를 반영하지 못해 다음 정산으로 미뤘습니다.", playerUuid, due.size());
+        } catch (SQLException e) {
+            for (Accrual accrual : due) {
+                SmpEconomyMod.LOGGER.error("플레이어 {} {} 정산이 반영되지 않았고 정산 시각도 되돌리지 못했습니다 (항목 {}, {} -> {}): {}", 
+                        playerUuid, accrual.describe(), accrual.id, new Timestamp(accrual.settledAt), 
+                        new Timestamp(accrual.previousSettledAt), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 오래 정산되지 않은 계정을 조금씩 정산합니다. (전체 계정을 훑지 않고 메모리의 다음 정산 시각만 확인)
+     */
+    private void checkpointAccruals() {
+        if (!databaseManager.isInitialized()) return;
+        
+        List<UUID> stale = accruals.findStale(System.currentTimeMillis() - ACCRUAL_CHECKPOINT_AGE_MILLIS, ACCRUAL_CHECKPOINT_BATCH);
+        for (UUID playerUuid : stale) {
+            settleAccruals(playerUuid);
+        }
+        
+        if (!stale.isEmpty()) {
+            SmpEconomyMod.LOGGER.info("오래된 누적 항목 정산 {}명 (누적 항목이 있는 계정 {}명)", stale.size(), accruals.size());
+        }
+    }
+    
+    /**
+     * 시간 누적 항목의 다음 정산 시각을 읽어옵니다. (서버 시작 시 한 번)
+     */
+    public CompletableFuture<Void> loadAccrualIndex() {
+        return InstrumentedExecutor.runAsync(() -> {
+            try {
+                int loaded = accruals.loadIndex();
+                SmpEconomyMod.LOGGER.info("누적 항목 로드 완료 ({}개, 계정 {}명)", loaded, accruals.size());
+            } catch (SQLException e) {
+                SmpEconomyMod.LOGGER.error("누적 항목 로드 실패: {}", e.getMessage());
+            }
+        }, executor);
+    }
+    
+    /**
+     * 데이터베이스의 모든 잔액으로 순위표를 채웁니다. (서버 시작 시 한 번)
+     * 그 사이 메모리에서 바뀐 계정은 이미 순위표에 있으므로 덮어쓰지 않는다.
+     */
+    public CompletableFuture<Void> loadLeaderboard() {
+        return InstrumentedExecutor.runAsync(() -> {
+            String query = "SELECT player_uuid, balance FROM balances";
+            int loaded = 0;
+            
+            try (Connection conn = databaseManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
                 
-                // 송금 실행
-                balanceCache.put(fromPlayer, fromBalance.subtract(amount));
-                balanceCache.put(toPlayer, toBalance.add(amount));
+                stmt.setFetchSize(1000);
+                long supplyCents = 0;
                 
-                // 트랜잭션 로그 기록
-                logTransaction(fromPlayer, toPlayer, amount, TransactionType.TRANSFER, reason);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        UUID playerUuid = UUID.fromString(rs.getString("player_uuid"));
+                        long balanceCents = Money.fromBigDecimal(rs.getBigDecimal("balance")).getCents();
+                        leaderboard.seed(playerUuid, balanceCents);
+                        
+                        // 저널에서 복구되어 아직 기록되지 않은 잔액은 캐시 값이 최신이다
+                        Account cached = accountCache.peek(playerUuid);
+                        supplyCents += cached != null ? cached.getBalanceCents() : balanceCents;
+                        loaded++;
+                    }
+                }
                 
-                return true;
-            } catch (Exception e) {
-                SmpEconomyMod.LOGGER.error("송금 처리 중 오류 ({} -> {}): {}", fromPlayer, toPlayer, e.getMessage());
-                return false;
+                // 같은 순회에서 통화량 집계의 시작 값도 채운다
+                stats.seedSupply(supplyCents);
+                SmpEconomyMod.LOGGER.info("잔액 순위표 로드 완료 ({}명, 통화량 {})", loaded, Money.ofCents(supplyCents));
+            } catch (SQLException e) {
+                SmpEconomyMod.LOGGER.error("잔액 순위표 로드 실패: {}", e.getMessage());
+            }
+        }, executor);
+    }
+    
+    /**
+     * 잔액 순위 offset번째(0부터)부터 최대 limit명
+     */
+    public List<LeaderboardEntry> getTopBalances(int offset, int limit) {
+        return leaderboard.range(offset, limit);
+    }
+    
+    /**
+     * 플레이어의 잔액 순위 (1부터), 순위표에 없으면 0
+     */
+    public int getBalanceRank(UUID playerUuid) {
+        return leaderboard.rankOf(playerUuid);
+    }
+    
+    public int getLeaderboardSize() {
+        return leaderboard.size();
+    }
+    
+    /**
+     * 접속한 플레이어의 계정을 캐시에 고정하고 미리 로드합니다.
+     */
+    public CompletableFuture<Void> pinAccount(UUID playerUuid) {
+        pinnedAccounts.add(playerUuid);
+        return loadAccount(playerUuid).thenAccept(account -> {}).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("플레이어 {} 계정 로드 중 오류: {}", playerUuid, e.getMessage());
+            return null;
+        });
+    }
+    
+    /**
+     * 세션 로더가 잔액을 읽기 전에 계정을 고정합니다.
+     * 고정된 계정은 캐시에서 제거되지 않으므로, 읽는 동안 캐시에 올라온 계정이 있으면 warmAccount가 그 계정을 그대로 둔다.
+     */
+    public void pinAccountForSession(UUID playerUuid) {
+        pinnedAccounts.add(playerUuid);
+    }
+    
+    /**
+     * 세션 로더가 읽은 잔액으로 계정을 캐시에 올립니다. 이미 캐시에 있으면 (변경이 있었을 수 있으므로) 무시한다.
+     */
+    public void warmAccount(UUID playerUuid, Money balance) {
+        // 읽는 도중 고정이 풀렸다면 그 사이 제거되었다 다시 바뀌었을 수 있어 믿을 수 없다
+        if (!pinnedAccounts.contains(playerUuid) || accountCache.peek(playerUuid) != null) {
+            return;
+        }
+        
+        Account loaded = accountCache.putIfAbsent(playerUuid, new Account(playerUuid, balance.getCents()));
+        leaderboard.seed(playerUuid, loaded.getBalanceCents());
+    }
+    
+    /**
+     * 접속을 종료한 플레이어의 계정 고정을 해제합니다. (이후 일반 계정처럼 제거될 수 있다)
+     */
+    public void unpinAccount(UUID playerUuid) {
+        pinnedAccounts.remove(playerUuid);
+        history.forget(playerUuid);
+    }
+    
+    /**
+     * 플레이어의 거래 내역 페이지 (1부터 HISTORY_MAX_PAGE까지, 최신순)
+     * 페이지 경계를 기억해 다음 페이지도 인덱스에서 바로 이어 읽는다.
+     */
+    public CompletableFuture<HistoryPage> getTransactionHistory(UUID playerUuid, int page) {
+        return InstrumentedExecutor.supplyAsync(() -> {
+            try {
+                return history.getPage(playerUuid, page);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
             }
         }, executor);
     }
     
+    /**
+     * 잔액을 거래 원장과 정산합니다. (지난 정산 이후의 원장 행만 읽는다)
+     *
+     * @param repair true면 불일치 계정을 현재 잔액 기준으로 다시 맞춘다
+     */
+    public CompletableFuture<ReconciliationReport> reconcileLedger(boolean repair) {
+        return InstrumentedExecutor.supplyAsync(() -> {
+            try {
+                return reconciler.run(repair);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+    
+    private void runLedgerMaintenance() {
+        if (!databaseManager.isInitialized()) return;
+        
+        // 보관 중인 원장 행이 아직 기록되지 않았으면 잔액과 원장이 어긋나 보이므로 정산을 미룬다
+        if (ledgerWriter.getSpilledBatches() > 0) {
+            SmpEconomyMod.LOGGER.warn("기록되지 않은 트랜잭션 로그 묶음 {}개가 남아 있어 잔액 정산을 건너뜁니다.", ledgerWriter.getSpilledBatches());
+            return;
+        }
+        
+        // 정산이 먼저 끝나야 체크포인트에 반영된 파티션만 보관된다
+        try {
+            reconciler.run(reconcileAutoRepair);
+        } catch (SQLException e) {
+            SmpEconomyMod.LOGGER.error("잔액 정산 실패: {}", e.getMessage());
+        }
+        archiver.runMaintenance();
+    }
+    
     private void createNewAccount(UUID playerUuid) throws SQLException {
-        String insertQuery = "INSERT INTO balances (player_uuid, balance) VALUES (?, ?) ON DUPLICATE KEY UPDATE balance = balance";
+        // 다른 경로가 먼저 만들었으면 무시 (초기 잔액이 두 번 발행으로 잡히지 않게)
+        String insertQuery = "INSERT IGNORE INTO balances (player_uuid, balance) VALUES (?, ?)";
         
         try (Connection conn = databaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
             
             stmt.setString(1, playerUuid.toString());
-            stmt.setBigDecimal(2, DEFAULT_STARTING_BALANCE);
-            stmt.executeUpdate();
-            
-            SmpEconomyMod.LOGGER.info("새 계정 생성: {} (초기 잔액: {})", playerUuid, DEFAULT_STARTING_BALANCE);
+            stmt.setBigDecimal(2, DEFAULT_STARTING_BALANCE.toBigDecimal());
+            if (stmt.executeUpdate() > 0) {
+                recordStartingBalance(playerUuid);
+                SmpEconomyMod.LOGGER.info("새 계정 생성: {} (초기 잔액: {})", playerUuid, DEFAULT_STARTING_BALANCE);
+            }
         }
     }
     
-    private void logTransaction(UUID fromUuid, UUID toUuid, BigDecimal amount, TransactionType type, String description) {
-        executor.execute(() -> {
-            String insertQuery = "INSERT INTO tx_ledger (from_uuid, to_uuid, amount, transaction_type, description) VALUES (?, ?, ?, ?, ?)";
+    /**
+     * 새 계정에 준 초기 잔액을 발행으로 기록합니다. (balances 행을 실제로 만든 쪽에서 한 번만 호출)
+     * 통화량 집계와 원장에 남고, 정산은 이 행을 더하지 않고 시작 잔액으로 센다.
+     */
+    public void recordStartingBalance(UUID playerUuid) {
+        logTransaction(null, playerUuid, DEFAULT_STARTING_BALANCE.getCents(), TransactionType.STARTING_BALANCE, "초기 잔액");
+    }
+    
+    /**
+     * 멱등 키가 있으면 창 안의 같은 키 요청을 한 번만 실행합니다.
+     * 오류로 끝난 요청은 키를 지워 재시도가 다시 실행되게 한다. (잔액 부족 같은 거절은 결과로 기억)
+     */
+    private CompletableFuture<Boolean> deduplicate(String idempotencyKey, Supplier<CompletableFuture<Boolean>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > IdempotencyWindow.MAX_KEY_LENGTH) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("잘못된 멱등 키: " + idempotencyKey));
+        }
+        
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = idempotencyWindow.putIfAbsent(idempotencyKey, result);
+        if (existing != null) {
+            SmpEconomyMod.LOGGER.debug("중복 요청 무시 (멱등 키: {})", idempotencyKey);
+            return existing;
+        }
+        
+        CompletableFuture<Boolean> attempt;
+        try {
+            attempt = action.get();
+        } catch (RuntimeException e) {
+            attempt = CompletableFuture.failedFuture(e);
+        }
+        
+        attempt.whenComplete((success, e) -> {
+            if (e != null) {
+                idempotencyWindow.forget(idempotencyKey, result);
+                result.completeExceptionally(e);
+            } else {
+                result.complete(success);
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * 재시작 전 창 안에 반영된 멱등 키를 원장에서 다시 읽습니다. (데이터베이스 초기화 후 한 번)
+     */
+    public CompletableFuture<Void> loadRecentIdempotencyKeys() {
+        return InstrumentedExecutor.runAsync(() -> {
+            String query = "SELECT idempotency_key, created_at FROM tx_ledger WHERE created_at >= ? AND idempotency_key IS NOT NULL";
+            int loaded = 0;
             
             try (Connection conn = databaseManager.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
                 
-                stmt.setString(1, fromUuid != null ? fromUuid.toString() : null);
-                stmt.setString(2, toUuid != null ? toUuid.toString() : null);
-                stmt.setBigDecimal(3, amount);
-                stmt.setString(4, type.name().toLowerCase());
-                stmt.setString(5, description);
-                stmt.executeUpdate();
+                stmt.setTimestamp(1, new Timestamp(System.currentTimeMillis() - idempotencyWindow.getWindowMillis()));
                 
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        idempotencyWindow.recordApplied(rs.getString("idempotency_key"), rs.getTimestamp("created_at").getTime());
+                        loaded++;
+                    }
+                }
+                
+                SmpEconomyMod.LOGGER.info("최근 멱등 키 로드 완료 ({}개)", loaded);
             } catch (SQLException e) {
-                SmpEconomyMod.LOGGER.error("트랜잭션 로그 기록 실패: {}", e.getMessage());
+                SmpEconomyMod.LOGGER.error("최근 멱등 키 로드 실패: {}", e.getMessage());
             }
-        });
+        }, executor);
+    }
+    
+    private void logTransaction(UUID fromUuid, UUID toUuid, long amountCents, TransactionType type, String description) {
+        logTransaction(fromUuid, toUuid, amountCents, type, description, null);
+    }
+    
+    private void logTransaction(UUID fromUuid, UUID toUuid, long amountCents, TransactionType type, String description, String idempotencyKey) {
+        ledgerWriter.submit(new LedgerEntry(fromUuid, toUuid, amountCents, type, description, idempotencyKey));
+        stats.record(fromUuid, toUuid, amountCents, type, description);
+        
+        // 관리자 잔액 설정과 초기 잔액은 수익으로 보지 않는다
+        if (type != TransactionType.ADMIN_SET && type != TransactionType.STARTING_BALANCE) {
+            if (fromUuid != null) earnings.record(fromUuid, -amountCents);
+            if (toUuid != null) earnings.record(toUuid, amountCents);
+        }
     }
     
     /**
-     * 캐시된 잔액들을 데이터베이스에 동기화
+     * 지난 실행의 저널을 재생해 캐시에 올리고 다음 플러시 대상으로 표시합니다.
      */
-    private void syncCacheToDatabase() {
-        if (balanceCache.isEmpty()) return;
+    private void replayJournal() {
+        try {
+            Map<UUID, Long> recovered = journal.open();
+            
+            for (Map.Entry<UUID, Long> entry : recovered.entrySet()) {
+                // 데이터베이스에 아직 반영되지 않은 잔액이므로 변경으로 기록해 제거되지 않게 한다
+                Account account = accountCache.putIfAbsent(entry.getKey(), new Account(entry.getKey(), 0));
+                account.lock();
+                try {
+                    account.setBalanceCents(entry.getValue());
+                } finally {
+                    account.unlock();
+                }
+                markDirty(entry.getKey());
+                leaderboard.update(entry.getKey(), entry.getValue());
+            }
+            
+            if (!recovered.isEmpty()) {
+                SmpEconomyMod.LOGGER.warn("잔액 저널에서 기록되지 않은 잔액 {}건을 복구했습니다.", recovered.size());
+            }
+        } catch (IOException e) {
+            SmpEconomyMod.LOGGER.error("잔액 저널을 열지 못했습니다. 비정상 종료 시 최근 잔액이 유실될 수 있습니다: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 잔액 변경을 dirty 표시하고 저널에 기록한 뒤 변경 이벤트를 발행합니다.
+     * 계정 잠금 안에서 호출해야 저널의 계정별 순서가 실제 변경 순서와 같고,
+     * 저널 세그먼트를 교체한 뒤 시작한 플러시가 이 계정을 반드시 포함하게 된다.
+     */
+    private void recordChange(Account account, long deltaCents) {
+        markDirty(account.getPlayerUuid());
+        journal.append(account.getPlayerUuid(), account.getBalanceCents());
+        eventBus.publish(new BalanceChangedEvent(account.getPlayerUuid(), account.getBalanceCents(), deltaCents));
         
-        SmpEconomyMod.LOGGER.debug("잔액 캐시를 데이터베이스에 동기화 중... ({} 개의 계정)", balanceCache.size());
+        if (journalFsyncIntervalMillis <= 0) {
+            // 계정 잠금을 잡은 채 디스크를 기다리지 않도록 fsync는 저널 실행기에 맡긴다
+            journal.requestSync();
+        }
+    }
+    
+    /**
+     * 잔액이 바뀐 계정을 write-behind 대상으로 표시합니다.
+     * 반드시 잔액을 쓴 뒤에 호출해야 플러시가 이전 값을 가져가지 않는다.
+     */
+    private void markDirty(UUID playerUuid) {
+        if (dirtyAccounts.add(playerUuid)) {
+            oldestDirtyAt.compareAndSet(0, System.currentTimeMillis());
+            
+            if (dirtyAccounts.size() >= FLUSH_BATCH_THRESHOLD) {
+                try {
+                    executor.execute(this::flushIfDue);
+                } catch (RejectedExecutionException e) {
+                    // 잔액은 이미 바뀌었으므로 실패시키지 않고 1초 주기 플러시에 맡긴다
+                }
+            }
+        }
+    }
+    
+    /**
+     * 변경 계정 수나 경과 시간이 기준을 넘었을 때만 플러시
+     * 캐시가 최대 크기를 넘었다면 변경된 계정을 먼저 기록해 제거할 수 있게 만든다.
+     */
+    private void flushIfDue() {
+        // 저널에서 복구한 계정은 데이터베이스가 준비된 뒤(SERVER_STARTED) 기록한다
+        if (!databaseManager.isInitialized()) return;
         
-        String upsertQuery = "INSERT INTO balances (player_uuid, balance) VALUES (?, ?) ON DUPLICATE KEY UPDATE balance = VALUES(balance), updated_at = CURRENT_TIMESTAMP";
+        boolean overCapacity = accountCache.isOverCapacity();
         
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(upsertQuery)) {
+        if (!dirtyAccounts.isEmpty() && (overCapacity || dirtyAccounts.size() >= FLUSH_BATCH_THRESHOLD 
+                || getFlushLagMillis() >= FLUSH_MAX_AGE_MILLIS)) {
+            flushDirtyAccounts();
+        }
+        
+        if (overCapacity) {
+            accountCache.cleanUp();
+        }
+    }
+    
+    /**
+     * 변경된 계정의 잔액만 데이터베이스에 기록합니다.
+     * 한 계정에 여러 번 변경이 있었어도 현재 잔액으로 한 번만 upsert 한다.
+     */
+    private void flushDirtyAccounts() {
+        synchronized (flushLock) {
+            if (dirtyAccounts.isEmpty()) return;
             
-            conn.setAutoCommit(false);
+            long startedAt = System.currentTimeMillis();
+            long batchOldest = oldestDirtyAt.getAndSet(0);
             
-            for (var entry : balanceCache.entrySet()) {
-                stmt.setString(1, entry.getKey().toString());
-                stmt.setBigDecimal(2, entry.getValue());
-                stmt.addBatch();
+            // 새 저널 세그먼트로 넘긴 뒤 대상을 분리해야, 이전 세그먼트의 모든 변경이 이번 배치에 포함된다
+            long journalLiveFrom = journal.rotate();
+            
+            // 플러시 대상 분리 (이후 변경은 다시 dirty로 표시되어 다음 플러시에 포함)
+            List<Account> batch = new ArrayList<>();
+            Iterator<UUID> iterator = dirtyAccounts.iterator();
+            while (iterator.hasNext()) {
+                UUID playerUuid = iterator.next();
+                iterator.remove();
+                
+                // 기록되지 않은 계정은 캐시에서 제거되지 않으므로 항상 존재한다
+                Account account = accountCache.peek(playerUuid);
+                if (account != null) {
+                    batch.add(account);
+                }
             }
             
-            stmt.executeBatch();
-            conn.commit();
+            if (batch.isEmpty()) return;
             
-            SmpEconomyMod.LOGGER.debug("잔액 캐시 동기화 완료");
+            // 계정별 잔액과 변경 횟수를 함께 읽어, 기록 이후 바뀐 계정이 제거 대상이 되지 않게 한다
+            long[] balances = new long[batch.size()];
+            long[] versions = new long[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                Account account = batch.get(i);
+                account.lock();
+                try {
+                    balances[i] = account.getBalanceCents();
+                    versions[i] = account.getVersion();
+                } finally {
+                    account.unlock();
+                }
+            }
             
-        } catch (SQLException e) {
-            SmpEconomyMod.LOGGER.error("잔액 캐시 동기화 실패: {}", e.getMessage());
+            SmpEconomyMod.LOGGER.debug("변경된 잔액을 데이터베이스에 기록 중... ({} 개의 계정)", batch.size());
+            
+            String upsertQuery = "INSERT INTO balances (player_uuid, balance) VALUES (?, ?) ON DUPLICATE KEY UPDATE balance = VALUES(balance), updated_at = CURRENT_TIMESTAMP";
+            
+            try (Connection conn = databaseManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(upsertQuery)) {
+                
+                conn.setAutoCommit(false);
+                
+                for (int i = 0; i < batch.size(); i++) {
+                    stmt.setString(1, batch.get(i).getPlayerUuid().toString());
+                    stmt.setBigDecimal(2, Money.ofCents(balances[i]).toBigDecimal());
+                    stmt.addBatch();
+                }
+                
+                stmt.executeBatch();
+                conn.commit();
+                
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).markPersisted(versions[i]);
+                }
+                
+                long finishedAt = System.currentTimeMillis();
+                lastFlushBatchSize = batch.size();
+                lastFlushDurationMillis = finishedAt - startedAt;
+                lastFlushLagMillis = batchOldest > 0 ? finishedAt - batchOldest : 0;
+                totalFlushedAccounts.addAndGet(batch.size());
+                
+                // 데이터베이스에 반영된 저널 세그먼트 정리
+                journal.checkpoint(journalLiveFrom);
+                
+                SmpEconomyMod.LOGGER.debug("잔액 기록 완료 ({}개, {}ms, 지연 {}ms)", 
+                        lastFlushBatchSize, lastFlushDurationMillis, lastFlushLagMillis);
+                
+            } catch (SQLException e) {
+                SmpEconomyMod.LOGGER.error("잔액 기록 실패: {}", e.getMessage());
+                
+                // 실패한 계정은 다시 dirty로 돌려 다음 플러시에서 재시도
+                for (Account account : batch) {
+                    dirtyAccounts.add(account.getPlayerUuid());
+                }
+                oldestDirtyAt.accumulateAndGet(batchOldest, (current, failed) -> 
+                        current == 0 ? failed : Math.min(current, failed));
+            }
         }
     }
     
-    public void shutdown() {
-        // 종료 전 마지막 동기화
-        syncCacheToDatabase();
-        
-        executor.shutdown();
+    /**
+     * 아직 기록되지 않은 가장 오래된 변경의 경과 시간 (ms)
+     */
+    public long getFlushLagMillis() {
+        long oldest = oldestDirtyAt.get();
+        return oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+    }
+    
+    public int getDirtyAccountCount() {
+        return dirtyAccounts.size();
+    }
+    
+    public int getLastFlushBatchSize() {
+        return lastFlushBatchSize;
+    }
+    
+    public long getLastFlushDurationMillis() {
+        return lastFlushDurationMillis;
+    }
+    
+    /**
+     * 직전 플러시가 기록한 변경 중 가장 오래된 것이 기록되기까지 걸린 시간 (ms)
+     */
+    public long getLastFlushLagMillis() {
+        return lastFlushLagMillis;
+    }
+    
+    public long getTotalFlushedAccounts() {
+        return totalFlushedAccounts.get();
+    }
+    
+    public int getLedgerQueueDepth() {
+        return ledgerWriter.getQueueDepth();
+    }
+    
+    /**
+     * 멱등 키로 걸러진 중복 요청 수
+     */
+    public long getDuplicateRequestCount() {
+        return idempotencyWindow.getDuplicateHits();
+    }
+    
+    public long getLedgerBackpressureEvents() {
+        return ledgerWriter.getBackpressureEvents();
+    }
+    
+    /**
+     * 원장 대기열과 디스크 보관이 모두 막혀 기록하지 못한 거래 수
+     */
+    public long getLedgerDroppedEntries() {
+        return ledgerWriter.getDroppedEntries();
+    }
+    
+    /**
+     * 다시 기록할 수 없어 ledger-spill에 .rejected로 격리한 파일 수 (운영자가 확인해야 한다)
+     */
+    public long getLedgerQuarantinedFiles() {
+        return ledgerWriter.getQuarantinedFiles();
+    }
+    
+    public long getLedgerWrittenEntries() {
+        return ledgerWriter.getWrittenEntries();
+    }
+    
+    /**
+     * 데이터베이스에 기록하지 못해 디스크에 보관한 거래 수 (누적)와 아직 다시 기록되지 않은 묶음 수
+     */
+    public long getLedgerSpilledEntries() {
+        return ledgerWriter.getSpilledEntries();
+    }
+    
+    public int getLedgerSpilledBatches() {
+        return ledgerWriter.getSpilledBatches();
+    }
+    
+    /**
+     * 플레이어의 최근 순수익 (지급 - 차감, 관리자 설정 제외). 메모리 집계만 읽는다.
+     */
+    public Money getNetEarnings(UUID playerUuid, EarningsPeriod period) {
+        return Money.ofCents(earnings.getNetCents(playerUuid, period));
+    }
+    
+    /**
+     * 잔액 변경 이벤트 버스 (즉시 리스너와 틱마다 묶어 받는 리스너)
+     */
+    public EconomyEventBus getEventBus() {
+        return eventBus;
+    }
+    
+    /**
+     * 통화량, 발행/소각, 송금 속도 등 경제 전체 집계를 반환합니다. (메모리 값만 읽음)
+     */
+    public EconomySnapshot getEconomySnapshot() {
+        return stats.snapshot(STATS_TOP_COUNT);
+    }
+    
+    /**
+     * 잔액 플러시, 거래 원장 기록, 멱등 키 지표 (stats.json의 persistence 항목)
+     */
+    private Map<String, Object> getPersistenceMetrics() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("dirtyAccounts", getDirtyAccountCount());
+        map.put("flushLagMillis", getFlushLagMillis());
+        map.put("lastFlushBatchSize", getLastFlushBatchSize());
+        map.put("lastFlushDurationMillis", getLastFlushDurationMillis());
+        map.put("lastFlushLagMillis", getLastFlushLagMillis());
+        map.put("totalFlushedAccounts", getTotalFlushedAccounts());
+        map.put("ledgerQueueDepth", getLedgerQueueDepth());
+        map.put("ledgerBackpressureEvents", getLedgerBackpressureEvents());
+        map.put("ledgerWrittenEntries", getLedgerWrittenEntries());
+        map.put("ledgerSpilledEntries", getLedgerSpilledEntries());
+        map.put("ledgerSpilledBatches", getLedgerSpilledBatches());
+        map.put("ledgerDroppedEntries", getLedgerDroppedEntries());
+        map.put("ledgerQuarantinedFiles", getLedgerQuarantinedFiles());
+        map.put("duplicateRequests", getDuplicateRequestCount());
+        return map;
+    }
+    
+    /**
+     * 경제 집계를 stats.json에 씁니다. (임시 파일에 쓴 뒤 교체하므로 읽는 쪽이 반쯤 쓴 파일을 보지 않는다)
+     */
+    private void writeStatsSnapshot() {
+        Path temp = statsSnapshotPath.resolveSibling("stats.json.tmp");
         try {
-            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
+            Files.createDirectories(statsSnapshotPath.getParent());
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                Map<String, Object> snapshot = getEconomySnapshot().toMap();
+                snapshot.put("persistence", getPersistenceMetrics());
+                snapshot.put("balanceCache", getCacheStats().toMap());
+                
+                List<ExecutorStats> executorStats = executors.getStats();
+                lastExecutorStats = executorStats;
+                List<Map<String, Object>> pools = new ArrayList<>(executorStats.size());
+                for (ExecutorStats pool : executorStats) {
+                    pools.add(pool.toMap());
+                }
+                snapshot.put("executors", pools);
+                STATS_GSON.toJson(snapshot, writer);
             }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
+            Files.move(temp, statsSnapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            SmpEconomyMod.LOGGER.warn("경제 집계 스냅샷 저장 실패: {}", e.getMessage());
         }
+    }
+    
+    /**
+     * 직전 stats.json 스냅샷 때 읽은 작업 풀 통계 (최대 대기 시간은 그 전 스냅샷 이후 기준, 첫 스냅샷 전에는 비어 있음)
+     */
+    public List<ExecutorStats> getExecutorStats() {
+        return lastExecutorStats;
+    }
+    
+    /**
+     * 잔액 캐시 적중률, 제거 수, 로드 지연 등 통계
+     */
+    public CacheStats getCacheStats() {
+        return accountCache.stats(pinnedAccounts.size());
+    }
+    
+    public void shutdown() {
+        executor.shutdown(10, TimeUnit.SECONDS);
+        
+        // 진행 중이던 작업이 끝난 뒤 남은 변경과 거래 로그 모두 기록
+        flushDirtyAccounts();
+        ledgerWriter.shutdown();
+        
+        // 모두 기록되었으면 저널을 비우고, 실패했다면 다음 시작 때 재생되도록 남겨둔다
+        if (dirtyAccounts.isEmpty()) {
+            journal.checkpoint(journal.rotate());
+        }
+        journal.close();
+        writeStatsSnapshot();
         
         SmpEconomyMod.LOGGER.info("EconomyManager 종료됨");
     }
     
     public enum TransactionType {
-        TRANSFER, EARN, SPEND, TAX, QUEST_REWARD, ADMIN_SET
+        TRANSFER, EARN, SPEND, TAX, QUEST_REWARD, ADMIN_SET,
+        // 새 계정에 준 DEFAULT_STARTING_BALANCE (발행으로 집계, 정산에서는 시작 잔액으로 따로 센다)
+        STARTING_BALANCE
+    }
+    
+    public enum EarningsPeriod {
+        HOUR, DAY, WEEK
     }
 }
@@ -0,0 +1,188 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 경제 전체 집계 스냅샷 (/money stats, smp-economy/stats.json)
+ * 누적 값은 서버 시작 이후 기준이다.
+ */
+public class EconomySnapshot {
+
+    private final long takenAt;
+    private final long startedAt;
+    private final boolean supplySeeded;
+    private final long totalSupplyCents;
+    private final Map<EconomyManager.TransactionType, Long> mintedByType;
+    private final Map<EconomyManager.TransactionType, Long> burnedByType;
+    private final long transferCount;
+    private final long transferVolumeCents;
+    private final long transfersLastMinute;
+    private final long transfersLastHour;
+    private final long transferVolumeLastHourCents;
+    private final long mintedLastDayCents;
+    private final long burnedLastDayCents;
+    private final Map<String, Long> topSources;
+    private final Map<String, Long> topSinks;
+
+    EconomySnapshot(long takenAt, long startedAt, boolean supplySeeded, long totalSupplyCents,
+                    Map<EconomyManager.TransactionType, Long> mintedByType, Map<EconomyManager.TransactionType, Long> burnedByType,
+                    long transferCount, long transferVolumeCents, long transfersLastMinute, long transfersLastHour,
+                    long transferVolumeLastHourCents, long mintedLastDayCents, long burnedLastDayCents,
+                    Map<String, Long> topSources, Map<String, Long> topSinks) {
+        this.takenAt = takenAt;
+        this.startedAt = startedAt;
+        this.supplySeeded = supplySeeded;
+        this.totalSupplyCents = totalSupplyCents;
+        this.mintedByType = Collections.unmodifiableMap(mintedByType);
+        this.burnedByType = Collections.unmodifiableMap(burnedByType);
+        this.transferCount = transferCount;
+        this.transferVolumeCents = transferVolumeCents;
+        this.transfersLastMinute = transfersLastMinute;
+        this.transfersLastHour = transfersLastHour;
+        this.transferVolumeLastHourCents = transferVolumeLastHourCents;
+        this.mintedLastDayCents = mintedLastDayCents;
+        this.burnedLastDayCents = burnedLastDayCents;
+        this.topSources = Collections.unmodifiableMap(topSources);
+        this.topSinks = Collections.unmodifiableMap(topSinks);
+    }
+
+    public long getTakenAt() {
+        return takenAt;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * false면 시작 시 잔액 합계를 아직 읽지 못해 통화량이 시작 이후 변동분만 담고 있다.
+     */
+    public boolean isSupplySeeded() {
+        return supplySeeded;
+    }
+
+    /**
+     * 모든 계정 잔액의 합 (통화량)
+     */
+    public Money getTotalSupply() {
+        return Money.ofCents(totalSupplyCents);
+    }
+
+    /**
+     * 거래 종류별로 새로 생긴 돈 (시작 이후)
+     */
+    public Map<EconomyManager.TransactionType, Long> getMintedByTypeCents() {
+        return mintedByType;
+    }
+
+    /**
+     * 거래 종류별로 사라진 돈 (시작 이후)
+     */
+    public Map<EconomyManager.TransactionType, Long> getBurnedByTypeCents() {
+        return burnedByType;
+    }
+
+    public long getTransferCount() {
+        return transferCount;
+    }
+
+    public Money getTransferVolume() {
+        return Money.ofCents(transferVolumeCents);
+    }
+
+    /**
+     * 직전 1분 동안의 송금 수
+     */
+    public long getTransfersLastMinute() {
+        return transfersLastMinute;
+    }
+
+    /**
+     * 최근 1시간 평균 분당 송금 수
+     */
+    public double getTransfersPerMinute() {
+        return transfersLastHour / 60.0;
+    }
+
+    public Money getTransferVolumeLastHour() {
+        return Money.ofCents(transferVolumeLastHourCents);
+    }
+
+    /**
+     * 시간당 유통 속도 (최근 1시간 송금액 / 통화량)
+     */
+    public double getHourlyVelocity() {
+        return totalSupplyCents <= 0 ? 0.0 : (double) transferVolumeLastHourCents / totalSupplyCents;
+    }
+
+    /**
+     * 최근 24시간 순발행액 (발행 - 소각)
+     */
+    public Money getNetMintedLastDay() {
+        return Money.ofCents(mintedLastDayCents - burnedLastDayCents);
+    }
+
+    /**
+     * 최근 24시간 통화량 증가율 (%) - 24시간 전 통화량 대비
+     */
+    public double getDailyInflationPercent() {
+        long netCents = mintedLastDayCents - burnedLastDayCents;
+        long previousSupply = totalSupplyCents - netCents;
+        return previousSupply <= 0 ? 0.0 : netCents * 100.0 / previousSupply;
+    }
+
+    /**
+     * 돈이 가장 많이 생긴 사유 (큰 순서)
+     */
+    public Map<String, Long> getTopSourcesCents() {
+        return topSources;
+    }
+
+    /**
+     * 돈이 가장 많이 사라진 사유 (큰 순서)
+     */
+    public Map<String, Long> getTopSinksCents() {
+        return topSinks;
+    }
+
+    /**
+     * 스냅샷 파일용 구조 (금액은 모두 원 단위 문자열)
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("takenAt", Instant.ofEpochMilli(takenAt).toString());
+        map.put("startedAt", Instant.ofEpochMilli(startedAt).toString());
+        map.put("supplySeeded", supplySeeded);
+        map.put("totalSupply", getTotalSupply().toString());
+        map.put("mintedByType", formatAmounts(mintedByType));
+        map.put("burnedByType", formatAmounts(burnedByType));
+        map.put("transferCount", transferCount);
+        map.put("transferVolume", getTransferVolume().toString());
+        map.put("transfersLastMinute", transfersLastMinute);
+        map.put("transfersPerMinute", getTransfersPerMinute());
+        map.put("transferVolumeLastHour", getTransferVolumeLastHour().toString());
+        map.put("hourlyVelocity", getHourlyVelocity());
+        map.put("netMintedLastDay", getNetMintedLastDay().toString());
+        map.put("dailyInflationPercent", getDailyInflationPercent());
+        map.put("topSources", formatAmounts(topSources));
+        map.put("topSinks", formatAmounts(topSinks));
+        return map;
+    }
+
+    private static Map<String, String> formatAmounts(Map<?, Long> amounts) {
+        Map<String, String> formatted = new LinkedHashMap<>();
+        for (Map.Entry<?, Long> entry : amounts.entrySet()) {
+            formatted.put(String.valueOf(entry.getKey()).toLowerCase(), Money.ofCents(entry.getValue()).toString());
+        }
+        return formatted;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EconomySnapshot{supply=%s, transfers/min=%.1f, velocity=%.3f/h, inflation=%.2f%%/d}",
+                getTotalSupply(), getTransfersPerMinute(), getHourlyVelocity(), getDailyInflationPercent());
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 경제 전체 집계 (통화량, 거래 종류별 발행/소각, 송금 속도, 주요 유입/유출처)
+ * 모든 거래 기록마다 갱신되며, 여러 스레드가 동시에 더해도 경합하지 않도록 LongAdder(스트라이프 카운터)를 쓴다.
+ * 통화량은 시작 시 잔액 합계로 한 번 채운 뒤 발행(from 없음)과 소각(to 없음)만 더하고 뺀다.
+ * 송금처럼 플레이어 사이에서 오가는 돈은 통화량을 바꾸지 않는다.
+ */
+final class EconomyStats {
+
+    // 사유별 유입/유출은 이 개수까지만 따로 세고 나머지는 "기타"로 합친다 (설명이 자유 문자열이므로)
+    private static final int MAX_REASONS = 128;
+    private static final String OTHER_REASON = "기타";
+
+    private final long startedAt = System.currentTimeMillis();
+
+    // 통화량 = 시작 시 잔액 합계 + (그 이후 발행 - 소각)
+    private volatile long supplyBaseCents;
+    private volatile boolean supplySeeded;
+    private final LongAdder supplyDeltaCents = new LongAdder();
+
+    // 시작 이후 누적
+    private final Map<EconomyManager.TransactionType, LongAdder> mintedByType = new EnumMap<>(EconomyManager.TransactionType.class);
+    private final Map<EconomyManager.TransactionType, LongAdder> burnedByType = new EnumMap<>(EconomyManager.TransactionType.class);
+    private final ConcurrentHashMap<String, LongAdder> sources = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> sinks = new ConcurrentHashMap<>();
+    private final LongAdder transferCount = new LongAdder();
+    private final LongAdder transferVolumeCents = new LongAdder();
+
+    // 최근 60분 (분 단위)과 최근 24시간 (시간 단위)
+    private final RollingCounter transfersPerMinute = new RollingCounter(60_000L, 60);
+    private final RollingCounter transferVolumePerMinute = new RollingCounter(60_000L, 60);
+    private final RollingCounter mintedPerHour = new RollingCounter(3_600_000L, 24);
+    private final RollingCounter burnedPerHour = new RollingCounter(3_600_000L, 24);
+
+    EconomyStats() {
+        for (EconomyManager.TransactionType type : EconomyManager.TransactionType.values()) {
+            mintedByType.put(type, new LongAdder());
+            burnedByType.put(type, new LongAdder());
+        }
+    }
+
+    /**
+     * 원장에 남기는 거래 하나를 집계합니다. (거래 기록과 같은 자리에서 호출)
+     */
+    void record(UUID fromUuid, UUID toUuid, long amountCents, EconomyManager.TransactionType type, String description) {
+        if (amountCents == 0) return;
+        long now = System.currentTimeMillis();
+
+        if (fromUuid != null && toUuid != null) {
+            transferCount.increment();
+            transferVolumeCents.add(amountCents);
+            transfersPerMinute.add(now, 1);
+            transferVolumePerMinute.add(now, amountCents);
+        } else if (toUuid != null) {
+            supplyDeltaCents.add(amountCents);
+            mintedByType.get(type).add(amountCents);
+            mintedPerHour.add(now, amountCents);
+            reasonCounter(sources, description).add(amountCents);
+        } else if (fromUuid != null) {
+            supplyDeltaCents.add(-amountCents);
+            burnedByType.get(type).add(amountCents);
+            burnedPerHour.add(now, amountCents);
+            reasonCounter(sinks, description).add(amountCents);
+        }
+    }
+
+    /**
+     * 시작 시 읽은 전체 잔액 합계로 통화량을 맞춥니다. 이미 집계된 변동은 그 합계에 들어 있다고 본다.
+     */
+    void seedSupply(long totalCents) {
+        supplyBaseCents = totalCents - supplyDeltaCents.sum();
+        supplySeeded = true;
+    }
+
+    EconomySnapshot snapshot(int topCount) {
+        long now = System.currentTimeMillis();
+
+        Map<EconomyManager.TransactionType, Long> minted = new EnumMap<>(EconomyManager.TransactionType.class);
+        Map<EconomyManager.TransactionType, Long> burned = new EnumMap<>(EconomyManager.TransactionType.class);
+        for (EconomyManager.TransactionType type : EconomyManager.TransactionType.values()) {
+            minted.put(type, mintedByType.get(type).sum());
+            burned.put(type, burnedByType.get(type).sum());
+        }
+
+        return new EconomySnapshot(
+            now,
+            startedAt,
+            supplySeeded,
+            supplyBaseCents + supplyDeltaCents.sum(),
+            minted,
+            burned,
+            transferCount.sum(),
+            transferVolumeCents.sum(),
+            transfersPerMinute.last(now),
+            transfersPerMinute.sum(now),
+            transferVolumePerMinute.sum(now),
+            mintedPerHour.sum(now),
+            burnedPerHour.sum(now),
+            top(sources, topCount),
+            top(sinks, topCount)
+        );
+    }
+
+    private static LongAdder reasonCounter(ConcurrentHashMap<String, LongAdder> counters, String description) {
+        String reason = normalizeReason(description);
+        LongAdder counter = counters.get(reason);
+        if (counter != null) {
+            return counter;
+        }
+        if (counters.size() >= MAX_REASONS) {
+            return counters.computeIfAbsent(OTHER_REASON, key -> new LongAdder());
+        }
+        return counters.computeIfAbsent(reason, key -> new LongAdder());
+    }
+
+    /**
+     * "영토 세금 (3기간, ID: 12)"처럼 괄호 안 세부 정보와 숫자를 떼어 같은 사유끼리 묶는다.
+     */
+    private static String normalizeReason(String description) {
+        if (description == null || description.isBlank()) {
+            return OTHER_REASON;
+        }
+        String reason = description.replaceAll("\\(.*?\\)", "").replaceAll("[0-9]+", "").trim();
+        if (reason.isEmpty()) {
+            return OTHER_REASON;
+        }
+        return reason.length() > 40 ? reason.substring(0, 40) : reason;
+    }
+
+    private static Map<String, Long> top(ConcurrentHashMap<String, LongAdder> counters, int limit) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counters.entrySet().stream()
+            .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(limit)
+            .forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    /**
+     * 고정 길이 구간의 원형 버퍼. 슬롯마다 어느 구간의 값인지 기록해 두고 오래된 슬롯은 쓸 때 비운다.
+     * 슬롯을 비우는 순간 동시에 더해진 값은 빠질 수 있다. (통계용이므로 허용)
+     */
+    private static final class RollingCounter {
+        private final long slotMillis;
+        private final int slots;
+        private final AtomicLongArray slotPeriods;
+        private final LongAdder[] values;
+
+        RollingCounter(long slotMillis, int slots) {
+            this.slotMillis = slotMillis;
+            this.slots = slots;
+            this.slotPeriods = new AtomicLongArray(slots);
+            this.values = new LongAdder[slots];
+            for (int i = 0; i < slots; i++) {
+                values[i] = new LongAdder();
+            }
+        }
+
+        void add(long now, long amount) {
+            long period = now / slotMillis;
+            int slot = (int) (period % slots);
+            long slotPeriod = slotPeriods.get(slot);
+            if (slotPeriod != period && slotPeriods.compareAndSet(slot, slotPeriod, period)) {
+                values[slot].reset();
+            }
+            values[slot].add(amount);
+        }
+
+        /**
+         * 현재 구간을 포함한 최근 slots개 구간의 합
+         */
+        long sum(long now) {
+            long period = now / slotMillis;
+            long total = 0;
+            for (int i = 0; i < slots; i++) {
+                if (period - slotPeriods.get(i) < slots) {
+                    total += values[i].sum();
+                }
+            }
+            return total;
+        }
+
+        /**
+         * 직전에 끝난 구간의 값 (진행 중인 구간은 아직 덜 찼으므로)
+         */
+        long last(long now) {
+            long previous = now / slotMillis - 1;
+            int slot = (int) (previous % slots);
+            return slotPeriods.get(slot) == previous ? values[slot].sum() : 0;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+/**
+ * TinyLFU 입장 정책용 접근 빈도 추정기 (4비트 count-min sketch)
+ * long 하나에 4비트 카운터 16개를 담고, 행(깊이) 4개가 각각 4개씩 사용한다.
+ * 표본 수가 일정량을 넘으면 모든 카운터를 절반으로 줄여 오래된 빈도를 잊는다.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        int length = Integer.highestOneBit(Math.max(16, maximumSize) - 1) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = 10 * length;
+    }
+
+    /**
+     * 추정 접근 빈도 (0~15)
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = 15;
+        for (int depth = 0; depth < 4; depth++) {
+            long h = indexHash(hash, depth);
+            int index = (int) h & tableMask;
+            int shift = counterShift(h, depth);
+            frequency = Math.min(frequency, (int) ((table[index] >>> shift) & 0xfL));
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int depth = 0; depth < 4; depth++) {
+            long h = indexHash(hash, depth);
+            int index = (int) h & tableMask;
+            int shift = counterShift(h, depth);
+            if (((table[index] >>> shift) & 0xfL) != 0xfL) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private static long indexHash(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        return h + (h >>> 32);
+    }
+
+    private static int counterShift(long h, int depth) {
+        // 행마다 long 안의 서로 다른 4개 카운터 중 하나를 사용
+        int slot = (depth << 2) + (int) ((h >>> 40) & 3);
+        return slot << 2;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 계정에 예약(hold)된 금액
+ * {@link EconomyManager#reserveFunds}로 만들고, 작업이 끝나면
+ * {@link EconomyManager#commitHold}로 확정하거나 {@link EconomyManager#releaseHold}로 해제한다.
+ */
+public class FundHold {
+
+    public enum State {
+        ACTIVE,
+        COMMITTED,
+        RELEASED
+    }
+
+    private final long id;
+    private final UUID playerUuid;
+    private final Money amount;
+    private final String reason;
+    private final long expiresAt;
+    private final AtomicReference<State> state = new AtomicReference<>(State.ACTIVE);
+
+    FundHold(long id, UUID playerUuid, Money amount, String reason, long expiresAt) {
+        this.id = id;
+        this.playerUuid = playerUuid;
+        this.amount = amount;
+        this.reason = reason;
+        this.expiresAt = expiresAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * 활성 상태에서 한 번만 종료 상태로 바뀐다 (확정과 해제가 겹쳐도 하나만 성공)
+     */
+    boolean finish(State finalState) {
+        return state.compareAndSet(State.ACTIVE, finalState);
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.List;
+
+/**
+ * 거래 내역 한 페이지
+ */
+public class HistoryPage {
+
+    private final int page;
+    private final List<TransactionRecord> records;
+    private final boolean hasNext;
+
+    HistoryPage(int page, List<TransactionRecord> records, boolean hasNext) {
+        this.page = page;
+        this.records = records;
+        this.hasNext = hasNext;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public List<TransactionRecord> getRecords() {
+        return records;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+}
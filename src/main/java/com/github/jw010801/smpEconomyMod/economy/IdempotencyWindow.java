@@ -0,0 +1,120 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 최근 멱등 키와 그 결과 (시간 창 + 최대 개수 제한)
+ * 같은 키로 다시 들어온 요청은 처음 요청의 결과를 그대로 받으므로 시간 초과 후 재시도해도 두 번 반영되지 않는다.
+ * 키는 넣은 순서대로 큐에 쌓이고, 등록할 때마다 창이 지난 키와 최대 개수를 넘는 오래된 키를 앞에서부터 정리한다.
+ */
+final class IdempotencyWindow {
+
+    static final int MAX_KEY_LENGTH = 100;
+
+    private static final class Entry {
+        final String key;
+        final long createdAt;
+        final CompletableFuture<Boolean> result;
+
+        Entry(String key, long createdAt, CompletableFuture<Boolean> result) {
+            this.key = key;
+            this.createdAt = createdAt;
+            this.result = result;
+        }
+    }
+
+    private final long windowMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+
+    // 지표
+    private final AtomicLong duplicateHits = new AtomicLong(0);
+
+    IdempotencyWindow(long windowMillis, int maxEntries) {
+        this(windowMillis, maxEntries, System::currentTimeMillis);
+    }
+
+    /**
+     * clock은 현재 시각(밀리초)을 돌려준다. (테스트에서 시간을 직접 넘기기 위함)
+     */
+    IdempotencyWindow(long windowMillis, int maxEntries, LongSupplier clock) {
+        this.windowMillis = windowMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * 키를 등록합니다. 창 안에 같은 키가 있으면 그 결과를, 없으면 null을 돌려주고 result를 키의 결과로 기억한다.
+     */
+    CompletableFuture<Boolean> putIfAbsent(String key, CompletableFuture<Boolean> result) {
+        long now = clock.getAsLong();
+        expire(now);
+
+        Entry entry = new Entry(key, now, result);
+        Entry existing = entries.putIfAbsent(key, entry);
+        if (existing != null) {
+            if (now - existing.createdAt < windowMillis) {
+                duplicateHits.incrementAndGet();
+                return existing.result;
+            }
+            // 아직 정리되지 않은 만료 키는 새 요청으로 덮어쓴다
+            if (!entries.replace(key, existing, entry)) {
+                return putIfAbsent(key, result);
+            }
+        }
+
+        order.add(entry);
+        return null;
+    }
+
+    /**
+     * 이미 반영된 요청으로 기록합니다. (시작 시 원장에서 최근 키를 읽어올 때)
+     */
+    void recordApplied(String key, long createdAt) {
+        if (clock.getAsLong() - createdAt >= windowMillis) return;
+
+        Entry entry = new Entry(key, createdAt, CompletableFuture.completedFuture(true));
+        if (entries.putIfAbsent(key, entry) == null) {
+            order.add(entry);
+        }
+    }
+
+    /**
+     * 오류로 반영되지 못한 요청의 키를 지워 같은 키로 다시 시도할 수 있게 합니다.
+     */
+    void forget(String key, CompletableFuture<Boolean> result) {
+        entries.computeIfPresent(key, (k, entry) -> entry.result == result ? null : entry);
+    }
+
+    long getWindowMillis() {
+        return windowMillis;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long getDuplicateHits() {
+        return duplicateHits.get();
+    }
+
+    private void expire(long now) {
+        Entry head;
+        while ((head = order.peek()) != null) {
+            boolean expired = now - head.createdAt >= windowMillis;
+            if (!expired && entries.size() <= maxEntries) {
+                break;
+            }
+            if (order.remove(head)) {
+                // 같은 키가 새 요청으로 바뀌었으면 남겨둔다
+                entries.remove(head.key, head);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.UUID;
+
+/**
+ * 잔액 순위표의 한 줄
+ */
+public class LeaderboardEntry {
+
+    private final int rank;
+    private final UUID playerUuid;
+    private final Money balance;
+
+    LeaderboardEntry(int rank, UUID playerUuid, Money balance) {
+        this.rank = rank;
+        this.playerUuid = playerUuid;
+        this.balance = balance;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+}
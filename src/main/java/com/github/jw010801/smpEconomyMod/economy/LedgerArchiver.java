@@ -0,0 +1,248 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.database.DatabaseManager;
+import com.github.jw010801.smpeconomymod.database.LedgerPartitions;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 오래된 tx_ledger 파티션 보관
+ * 보관 기간이 지난 월 파티션을 한 행씩 스트리밍으로 읽어 gzip JSON Lines 파일로 쓰고,
+ * manifest.json에 파일 위치와 범위를 기록한 뒤 파티션을 삭제한다.
+ * 파일과 매니페스트가 모두 디스크에 반영된 뒤에만 삭제하므로 중간에 실패해도 원장이 유실되지 않는다.
+ */
+final class LedgerArchiver {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    private static final Gson LINE_GSON = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
+    private static final String MANIFEST_FILE = "manifest.json";
+
+    /**
+     * 매니페스트 항목: 보관된 파티션 하나
+     */
+    static final class ArchiveEntry {
+        String partition;
+        String file;
+        long rows;
+        long minId;
+        long maxId;
+        long createdBeforeEpochSecond;
+        String sha256;
+        long archivedAt;
+    }
+
+    private final DatabaseManager databaseManager;
+    private final LedgerReconciler reconciler;
+    private final Path directory;
+    private final int hotMonths;
+    private final boolean archiveEnabled;
+
+    LedgerArchiver(DatabaseManager databaseManager, LedgerReconciler reconciler, Path directory, int hotMonths, boolean archiveEnabled) {
+        this.databaseManager = databaseManager;
+        this.reconciler = reconciler;
+        this.directory = directory;
+        this.hotMonths = Math.max(1, hotMonths);
+        this.archiveEnabled = archiveEnabled;
+    }
+
+    /**
+     * 미래 파티션을 준비하고, 보관 기간이 지난 파티션을 보관 후 삭제합니다.
+     */
+    void runMaintenance() {
+        // 파티션이 없는 백엔드(내장 H2)는 보관하지 않는다
+        if (!databaseManager.isInitialized() || !databaseManager.getBackend().supportsPartitioning()) return;
+
+        try (Connection conn = databaseManager.getConnection()) {
+            LedgerPartitions.ensureFuturePartitions(conn);
+            if (!archiveEnabled) return;
+
+            // 이번 달을 포함해 hotMonths개월은 테이블에 남긴다
+            long cutoff = YearMonth.now(ZoneOffset.UTC).minusMonths(hotMonths - 1).atDay(1)
+                    .atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+
+            long checkpointedId = reconciler.getCheckpointedLedgerId(conn);
+
+            List<LedgerPartitions.Partition> partitions = LedgerPartitions.listPartitions(conn);
+            for (int i = 0; i < partitions.size() - 1; i++) {
+                LedgerPartitions.Partition partition = partitions.get(i);
+                if (partition.isMaxPartition() || partition.getUpperBoundEpochSecond() > cutoff) {
+                    break;
+                }
+
+                // 정산 체크포인트에 아직 반영되지 않은 행이 있으면 다음 정산 이후로 미룬다
+                if (maxId(conn, partition.getName()) > checkpointedId) {
+                    SmpEconomyMod.LOGGER.info("거래 원장 파티션 {}은 정산이 끝나지 않아 보관을 미룹니다", partition.getName());
+                    break;
+                }
+                archivePartition(conn, partition);
+            }
+        } catch (SQLException | IOException e) {
+            SmpEconomyMod.LOGGER.error("거래 원장 보관 작업 실패: {}", e.getMessage());
+        }
+    }
+
+    private void archivePartition(Connection conn, LedgerPartitions.Partition partition) throws SQLException, IOException {
+        Files.createDirectories(directory);
+
+        String fileName = LedgerPartitions.TABLE + "-" + partition.getName() + ".jsonl.gz";
+        Path target = directory.resolve(fileName);
+        Path temp = directory.resolve(fileName + ".tmp");
+
+        ArchiveEntry entry = new ArchiveEntry();
+        entry.partition = partition.getName();
+        entry.file = fileName;
+        entry.createdBeforeEpochSecond = partition.getUpperBoundEpochSecond();
+        entry.minId = Long.MAX_VALUE;
+        entry.maxId = Long.MIN_VALUE;
+
+        MessageDigest digest = newDigest();
+        String query = "SELECT id, from_uuid, to_uuid, amount, transaction_type, description, idempotency_key, created_at FROM "
+                + LedgerPartitions.TABLE + " PARTITION (" + partition.getName() + ") ORDER BY id";
+
+        try (OutputStream out = Files.newOutputStream(temp);
+             DigestOutputStream digestOut = new DigestOutputStream(out, digest);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(digestOut, 64 * 1024), StandardCharsets.UTF_8));
+             PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // 파티션 전체를 메모리에 올리지 않도록 한 행씩 스트리밍
+            stmt.setFetchSize(databaseManager.getBackend().getStreamingFetchSize());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong("id");
+                    JsonObject row = new JsonObject();
+                    row.addProperty("id", id);
+                    row.addProperty("from_uuid", rs.getString("from_uuid"));
+                    row.addProperty("to_uuid", rs.getString("to_uuid"));
+                    row.addProperty("amount", rs.getBigDecimal("amount").toPlainString());
+                    row.addProperty("transaction_type", rs.getString("transaction_type"));
+                    row.addProperty("description", rs.getString("description"));
+                    row.addProperty("idempotency_key", rs.getString("idempotency_key"));
+                    row.addProperty("created_at", rs.getTimestamp("created_at").getTime());
+
+                    writer.write(LINE_GSON.toJson(row));
+                    writer.write('\n');
+
+                    entry.rows++;
+                    entry.minId = Math.min(entry.minId, id);
+                    entry.maxId = Math.max(entry.maxId, id);
+                }
+            }
+        }
+
+        if (entry.rows == 0) {
+            entry.minId = 0;
+            entry.maxId = 0;
+        }
+
+        // 읽는 사이 행이 추가되지 않았는지 확인 (원장은 현재 시각으로만 기록되므로 정상이라면 같다)
+        long currentRows = countRows(conn, partition.getName());
+        if (currentRows != entry.rows) {
+            Files.deleteIfExists(temp);
+            SmpEconomyMod.LOGGER.warn("거래 원장 파티션 {} 행 수가 바뀌어 보관을 미룹니다 ({} -> {})",
+                    partition.getName(), entry.rows, currentRows);
+            return;
+        }
+
+        // 파일 내용을 디스크에 반영한 뒤 이름을 바꾼다
+        forceFile(temp);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        entry.sha256 = HexFormat.of().formatHex(digest.digest());
+        entry.archivedAt = System.currentTimeMillis();
+        appendToManifest(entry);
+
+        LedgerPartitions.dropPartition(conn, partition.getName());
+        SmpEconomyMod.LOGGER.info("거래 원장 파티션 {} 보관 완료: {}건 -> {}", partition.getName(), entry.rows, target);
+    }
+
+    private long maxId(Connection conn, String partitionName) throws SQLException {
+        String query = "SELECT COALESCE(MAX(id), 0) FROM " + LedgerPartitions.TABLE + " PARTITION (" + partitionName + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private long countRows(Connection conn, String partitionName) throws SQLException {
+        String query = "SELECT COUNT(*) FROM " + LedgerPartitions.TABLE + " PARTITION (" + partitionName + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * 보관된 파티션 목록 (보관 파일을 다시 찾을 때 사용)
+     */
+    List<ArchiveEntry> readManifest() throws IOException {
+        Path path = directory.resolve(MANIFEST_FILE);
+        if (!Files.exists(path)) {
+            return new ArrayList<>();
+        }
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<ArchiveEntry> entries = GSON.fromJson(reader, new TypeToken<List<ArchiveEntry>>() {}.getType());
+            return entries != null ? entries : new ArrayList<>();
+        } catch (JsonParseException e) {
+            throw new IOException("보관 매니페스트 손상: " + e.getMessage(), e);
+        }
+    }
+
+    private void appendToManifest(ArchiveEntry entry) throws IOException {
+        List<ArchiveEntry> entries = readManifest();
+        entries.removeIf(existing -> existing.partition.equals(entry.partition));
+        entries.add(entry);
+
+        Path temp = directory.resolve(MANIFEST_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            GSON.toJson(entries, writer);
+        }
+        forceFile(temp);
+        Files.move(temp, directory.resolve(MANIFEST_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void forceFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.UUID;
+
+/**
+ * tx_ledger에 기록될 거래 한 건
+ */
+final class LedgerEntry {
+
+    private final UUID fromUuid;
+    private final UUID toUuid;
+    private final long amountCents;
+    private final EconomyManager.TransactionType type;
+    private final String description;
+    private final String idempotencyKey;
+    private final long createdAt;
+
+    LedgerEntry(UUID fromUuid, UUID toUuid, long amountCents, EconomyManager.TransactionType type, String description, String idempotencyKey) {
+        this.fromUuid = fromUuid;
+        this.toUuid = toUuid;
+        this.amountCents = amountCents;
+        this.type = type;
+        this.description = description;
+        this.idempotencyKey = idempotencyKey;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    UUID getFromUuid() {
+        return fromUuid;
+    }
+
+    UUID getToUuid() {
+        return toUuid;
+    }
+
+    long getAmountCents() {
+        return amountCents;
+    }
+
+    EconomyManager.TransactionType getType() {
+        return type;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    /**
+     * 요청을 보낸 쪽의 멱등 키 (없으면 null)
+     */
+    String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+}
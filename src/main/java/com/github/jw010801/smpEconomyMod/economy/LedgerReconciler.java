@@ -0,0 +1,266 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.database.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * 잔액과 거래 원장의 증분 정산
+ * 계정별로 (시작 잔액, 원장 합계, 마지막 원장 id) 체크포인트를 두고, 실행마다
+ * 지난 체크포인트 이후의 원장 행만 스트리밍으로 읽어 합계를 이어간다.
+ * 그래서 정산 비용은 전체 이력이 아니라 새로 쌓인 행 수에 비례한다.
+ *
+ * AUTO_INCREMENT id는 커밋 순서와 다를 수 있으므로, 체크포인트에는 지난 실행에서 본
+ * 최대 id까지만 반영하고 그 이후 행(tail)은 이번 비교에만 더한다.
+ * 최근에 잔액이 기록되었거나 아직 기록되지 않은 계정은 원장 기록이 진행 중일 수 있어 다음 실행으로 미룬다.
+ */
+final class LedgerReconciler {
+
+    // 잔액 기록 후 이 시간이 지나야 비교 (그 사이의 원장 기록은 아직 커밋 전일 수 있다)
+    static final int SETTLE_SECONDS = 300;
+
+    // 로그에 남길 최대 불일치 계정 수
+    private static final int MAX_LOGGED_DISCREPANCIES = 20;
+
+    private static final String STATE_QUERY = "SELECT checkpointed_id, pending_upper_id FROM ledger_reconcile_state WHERE id = 1";
+    private static final String STATE_LOCK_QUERY = STATE_QUERY + " FOR UPDATE";
+
+    private static final String STATE_UPSERT = """
+        INSERT INTO ledger_reconcile_state (id, checkpointed_id, pending_upper_id) VALUES (1, ?, ?)
+        ON DUPLICATE KEY UPDATE checkpointed_id = VALUES(checkpointed_id), pending_upper_id = VALUES(pending_upper_id)
+        """;
+
+    // 초기 잔액 행은 opening_balance로 이미 세므로 합계에서 뺀다 (이 행이 생기기 전에 만든 계정에도 같은 기준이 맞는다)
+    private static final String SCAN_QUERY = "SELECT id, from_uuid, to_uuid, amount FROM tx_ledger WHERE id > ? AND transaction_type <> 'starting_balance' ORDER BY id";
+
+    private static final String CHECKPOINT_UPSERT = """
+        INSERT INTO ledger_checkpoints (player_uuid, opening_balance, ledger_sum, last_ledger_id) VALUES (?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE ledger_sum = ledger_sum + VALUES(ledger_sum), last_ledger_id = VALUES(last_ledger_id)
+        """;
+
+    // 불일치를 현재 잔액 기준으로 다시 맞춤 (시작 잔액에 차이를 더한다)
+    private static final String REBASE_UPSERT = """
+        INSERT INTO ledger_checkpoints (player_uuid, opening_balance, ledger_sum, last_ledger_id) VALUES (?, ?, 0, 0)
+        ON DUPLICATE KEY UPDATE opening_balance = opening_balance + ?
+        """;
+
+    private static final String COMPARE_QUERY = """
+        SELECT b.player_uuid, b.balance, c.opening_balance, c.ledger_sum
+        FROM balances b
+        LEFT JOIN ledger_checkpoints c ON c.player_uuid = b.player_uuid
+        WHERE b.updated_at < ?
+        """;
+
+    private final DatabaseManager databaseManager;
+    private final Predicate<UUID> inFlight;
+
+    /**
+     * @param inFlight 메모리에만 있고 아직 기록되지 않은 변경이 있는 계정
+     */
+    LedgerReconciler(DatabaseManager databaseManager, Predicate<UUID> inFlight) {
+        this.databaseManager = databaseManager;
+        this.inFlight = inFlight;
+    }
+
+    /**
+     * 새 원장 행을 체크포인트에 반영하고 모든 계정의 잔액을 비교합니다.
+     *
+     * @param repair true면 불일치 계정의 체크포인트를 현재 잔액 기준으로 다시 맞춘다
+     */
+    synchronized ReconciliationReport run(boolean repair) throws SQLException {
+        long startTime = System.currentTimeMillis();
+
+        long checkpointedId = 0;
+        long pendingUpperId = 0;
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(STATE_QUERY);
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                checkpointedId = rs.getLong("checkpointed_id");
+                pendingUpperId = rs.getLong("pending_upper_id");
+            }
+        }
+
+        // 지난 실행에서 본 최대 id까지는 체크포인트로, 그 이후는 이번 비교에만 사용
+        Map<UUID, Long> settled = new HashMap<>();
+        Map<UUID, Long> tail = new HashMap<>();
+        long maxSeenId = Math.max(checkpointedId, pendingUpperId);
+        long scannedRows = 0;
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SCAN_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // 결과를 한 행씩 스트리밍
+            stmt.setFetchSize(databaseManager.getBackend().getStreamingFetchSize());
+            stmt.setLong(1, checkpointedId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong("id");
+                    long cents = Money.fromBigDecimal(rs.getBigDecimal("amount")).getCents();
+                    Map<UUID, Long> target = id <= pendingUpperId ? settled : tail;
+
+                    String fromUuid = rs.getString("from_uuid");
+                    String toUuid = rs.getString("to_uuid");
+                    if (fromUuid != null) target.merge(UUID.fromString(fromUuid), -cents, Long::sum);
+                    if (toUuid != null) target.merge(UUID.fromString(toUuid), cents, Long::sum);
+
+                    maxSeenId = Math.max(maxSeenId, id);
+                    scannedRows++;
+                }
+            }
+        }
+
+        long newCheckpointedId = Math.max(checkpointedId, pendingUpperId);
+        saveCheckpoints(checkpointedId, newCheckpointedId, maxSeenId, settled);
+
+        // 체크포인트 + tail로 기대 잔액을 계산해 비교
+        List<ReconciliationReport.Discrepancy> discrepancies = new ArrayList<>();
+        long checkedAccounts = 0;
+        // 모든 계정은 DEFAULT_STARTING_BALANCE로 시작한다 (체크포인트가 없는 계정의 기대 잔액 = 초기 잔액 + 원장)
+        long startingCents = EconomyManager.DEFAULT_STARTING_BALANCE.getCents();
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(COMPARE_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(databaseManager.getBackend().getStreamingFetchSize());
+            stmt.setTimestamp(1, new Timestamp(System.currentTimeMillis() - SETTLE_SECONDS * 1000L));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    UUID playerUuid = UUID.fromString(rs.getString("player_uuid"));
+                    if (inFlight.test(playerUuid)) continue;
+
+                    long actualCents = Money.fromBigDecimal(rs.getBigDecimal("balance")).getCents();
+                    long expectedCents = rs.getBigDecimal("opening_balance") != null
+                            ? Money.fromBigDecimal(rs.getBigDecimal("opening_balance")).getCents()
+                              + Money.fromBigDecimal(rs.getBigDecimal("ledger_sum")).getCents()
+                            : startingCents;
+                    expectedCents += tail.getOrDefault(playerUuid, 0L);
+
+                    checkedAccounts++;
+                    if (actualCents != expectedCents) {
+                        discrepancies.add(new ReconciliationReport.Discrepancy(playerUuid, Money.ofCents(expectedCents), Money.ofCents(actualCents)));
+                    }
+                }
+            }
+        }
+
+        if (repair && !discrepancies.isEmpty()) {
+            rebase(discrepancies, startingCents);
+        }
+
+        ReconciliationReport report = new ReconciliationReport(scannedRows, checkedAccounts, newCheckpointedId,
+                discrepancies, repair && !discrepancies.isEmpty(), System.currentTimeMillis() - startTime);
+        logReport(report);
+        return report;
+    }
+
+    /**
+     * 이미 체크포인트에 반영된 마지막 원장 id (이 id 이하의 행은 보관 후 삭제해도 정산에 영향이 없다)
+     */
+    long getCheckpointedLedgerId(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(STATE_QUERY);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong("checkpointed_id") : 0;
+        }
+    }
+
+    /**
+     * 계정별 합계와 실행 상태를 한 트랜잭션으로 기록 (중간에 실패하면 다음 실행이 같은 구간을 다시 읽는다)
+     */
+    private void saveCheckpoints(long expectedCheckpointedId, long newCheckpointedId, long pendingUpperId,
+                                 Map<UUID, Long> settled) throws SQLException {
+        try (Connection conn = databaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(STATE_LOCK_QUERY);
+                     ResultSet rs = stmt.executeQuery()) {
+                    long current = rs.next() ? rs.getLong("checkpointed_id") : 0;
+                    if (current != expectedCheckpointedId) {
+                        // 다른 서버가 먼저 같은 구간을 반영했다
+                        conn.rollback();
+                        throw new SQLException("정산 체크포인트가 실행 중에 바뀌었습니다 (" + expectedCheckpointedId + " -> " + current + ")");
+                    }
+                }
+
+                if (!settled.isEmpty()) {
+                    try (PreparedStatement stmt = conn.prepareStatement(CHECKPOINT_UPSERT)) {
+                        for (Map.Entry<UUID, Long> entry : settled.entrySet()) {
+                            stmt.setString(1, entry.getKey().toString());
+                            stmt.setBigDecimal(2, EconomyManager.DEFAULT_STARTING_BALANCE.toBigDecimal());
+                            stmt.setBigDecimal(3, Money.ofCents(entry.getValue()).toBigDecimal());
+                            stmt.setLong(4, newCheckpointedId);
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(STATE_UPSERT)) {
+                    stmt.setLong(1, newCheckpointedId);
+                    stmt.setLong(2, pendingUpperId);
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void rebase(List<ReconciliationReport.Discrepancy> discrepancies, long startingCents) throws SQLException {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(REBASE_UPSERT)) {
+
+            conn.setAutoCommit(false);
+
+            try {
+                for (ReconciliationReport.Discrepancy discrepancy : discrepancies) {
+                    long driftCents = discrepancy.getDrift().getCents();
+                    stmt.setString(1, discrepancy.getPlayerUuid().toString());
+                    stmt.setBigDecimal(2, Money.ofCents(startingCents + driftCents).toBigDecimal());
+                    stmt.setBigDecimal(3, Money.ofCents(driftCents).toBigDecimal());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void logReport(ReconciliationReport report) {
+        List<ReconciliationReport.Discrepancy> discrepancies = report.getDiscrepancies();
+        if (discrepancies.isEmpty()) {
+            SmpEconomyMod.LOGGER.info("잔액 정산 완료: 원장 {}건, 계정 {}개 확인, 불일치 없음 ({}ms)",
+                    report.getScannedRows(), report.getCheckedAccounts(), report.getDurationMillis());
+            return;
+        }
+
+        SmpEconomyMod.LOGGER.warn("잔액 정산: 계정 {}개 중 {}개가 원장과 맞지 않습니다{} ({}ms)",
+                report.getCheckedAccounts(), discrepancies.size(),
+                report.isRepaired() ? " (현재 잔액 기준으로 다시 맞춤)" : "", report.getDurationMillis());
+        for (int i = 0; i < Math.min(discrepancies.size(), MAX_LOGGED_DISCREPANCIES); i++) {
+            ReconciliationReport.Discrepancy discrepancy = discrepancies.get(i);
+            SmpEconomyMod.LOGGER.warn("  {}: 잔액 {} / 원장 {} (차이 {})", discrepancy.getPlayerUuid(),
+                    discrepancy.getActual(), discrepancy.getExpected(), discrepancy.getDrift());
+        }
+    }
+}
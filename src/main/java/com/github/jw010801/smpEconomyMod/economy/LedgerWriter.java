@@ -0,0 +1,524 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.database.DatabaseManager;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLNonTransientException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * tx_ledger 그룹 커밋 기록기
+ * 거래는 제한된 큐에 쌓이고, 전용 스레드가 플러시 구간마다 모아서
+ * 하나의 트랜잭션으로 JDBC 배치 insert 한다.
+ * 거래를 넣는 쪽(대개 서버 스레드)은 보통 기다리지 않는다: 큐가 가득 차면 제한된 넘침 목록에 넣고 기록기가 먼저 비운다.
+ * 넘침 목록도 가득 차면 넣는 쪽이 넘침 목록과 함께 직접 디스크에 내려 두고, 그마저 실패하면 큐에 자리가 날 때까지 잠시 기다린다.
+ * 기록에 실패한 묶음은 간격을 늘려 가며 재시도하고, 그래도 실패하면 디스크에 내려 두었다가
+ * 데이터베이스가 돌아오면 (다음 시작 때도) 다시 기록한다.
+ * 다시 기록할 수 없는 파일이나 거래(깨진 파일, 데이터 오류)는 .rejected 파일로 격리해 나머지 기록을 막지 않는다.
+ */
+final class LedgerWriter {
+
+    static final int QUEUE_CAPACITY = 16384;
+    static final int MAX_BATCH_SIZE = 1000;
+    static final long FLUSH_WINDOW_MILLIS = 50;
+    static final int OVERFLOW_CAPACITY = 4 * MAX_BATCH_SIZE;
+    private static final long SUBMIT_BLOCK_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 200;
+    private static final long SPILL_RETRY_MIN_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final long SPILL_RETRY_MAX_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final String SPILL_PREFIX = "ledger-";
+    private static final String SPILL_SUFFIX = ".json";
+    private static final String QUARANTINE_SUFFIX = ".rejected";
+    private static final Gson GSON = new Gson();
+
+    private static final String INSERT_QUERY = "INSERT INTO tx_ledger (from_uuid, to_uuid, amount, transaction_type, description, idempotency_key, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final DatabaseManager databaseManager;
+    private final Path spillDirectory;
+    private final BlockingQueue<LedgerEntry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    // 큐가 가득 찼을 때 받은 거래 (기록기가 큐보다 먼저 비운다, 최대 OVERFLOW_CAPACITY건)
+    private final ConcurrentLinkedQueue<LedgerEntry> overflow = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger overflowSize = new AtomicInteger(0);
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    // 디스크에 내려 둔 묶음 (기록기 스레드, 종료 후에는 submit에서도 쓰므로 동기화)
+    private final AtomicInteger spilledBatches = new AtomicInteger(0);
+    private long spillSequence = 0;
+    private long nextSpillRetryAt = 0;
+    private long spillRetryDelayMillis = SPILL_RETRY_MIN_MILLIS;
+
+    // 지표
+    private final AtomicLong writtenEntries = new AtomicLong(0);
+    private final AtomicLong spilledEntries = new AtomicLong(0);
+    private final AtomicLong backpressureEvents = new AtomicLong(0);
+    private final AtomicLong droppedEntries = new AtomicLong(0);
+    private final AtomicLong quarantinedFiles = new AtomicLong(0);
+
+    LedgerWriter(DatabaseManager databaseManager, Path spillDirectory) {
+        this.databaseManager = databaseManager;
+        this.spillDirectory = spillDirectory;
+        // 지난 실행에서 내려 둔 묶음이 있으면 기록기가 곧바로 다시 기록한다
+        this.spilledBatches.set(listSpillFiles().size());
+        this.writerThread = new Thread(this::runWriterLoop, "smp-economy-ledger-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 거래를 기록 대기열에 넣습니다. 호출한 스레드는 데이터베이스에 접근하지 않는다.
+     * 큐와 넘침 목록이 모두 가득 찼을 때만 디스크에 쓰거나 기다린다.
+     */
+    void submit(LedgerEntry entry) {
+        if (!running) {
+            // 종료 이후 들어온 거래는 다음 시작 때 기록되도록 디스크에
+            if (!spill(List.of(entry))) {
+                SmpEconomyMod.LOGGER.error("종료 이후 들어온 트랜잭션 로그를 보관하지 못했습니다: {}", entry.getIdempotencyKey());
+            }
+            return;
+        }
+
+        if (queue.offer(entry)) {
+            return;
+        }
+
+        backpressureEvents.incrementAndGet();
+        if (overflowSize.incrementAndGet() <= OVERFLOW_CAPACITY) {
+            overflow.add(entry);
+            return;
+        }
+        overflowSize.decrementAndGet();
+        spillFromSubmitter(entry);
+    }
+
+    /**
+     * 넘침 목록까지 가득 찼을 때 넣는 쪽에서 넘침 목록을 비워 거래와 함께 디스크에 내려 둡니다.
+     * 디스크도 쓸 수 없으면 큐에 자리가 날 때까지 기다리고, 그래도 자리가 없으면 거래를 기록하지 못한다.
+     */
+    private void spillFromSubmitter(LedgerEntry entry) {
+        List<LedgerEntry> batch = new ArrayList<>(MAX_BATCH_SIZE + 1);
+        drainOverflow(batch);
+        batch.add(entry);
+        if (spill(batch)) {
+            return;
+        }
+
+        batch.remove(batch.size() - 1);
+        requeue(batch);
+        try {
+            if (queue.offer(entry, SUBMIT_BLOCK_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        droppedEntries.incrementAndGet();
+        SmpEconomyMod.LOGGER.error("트랜잭션 로그 대기열이 가득 차고 디스크에도 보관하지 못해 거래를 기록하지 못했습니다: {} {} ({})",
+                entry.getType(), Money.ofCents(entry.getAmountCents()), entry.getIdempotencyKey());
+    }
+
+    private void runWriterLoop() {
+        List<LedgerEntry> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
+        while (running) {
+            try {
+                replaySpillIfDue();
+
+                drainOverflow(batch);
+                if (batch.isEmpty()) {
+                    LedgerEntry first = queue.poll(FLUSH_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+
+                // 플러시 구간 동안 도착하는 거래를 같은 트랜잭션에 모은다
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_WINDOW_MILLIS);
+                while (batch.size() < MAX_BATCH_SIZE) {
+                    queue.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= MAX_BATCH_SIZE || remaining <= 0) {
+                        break;
+                    }
+                    LedgerEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                if (!writeOrSpill(batch)) {
+                    // 디스크도 쓸 수 없으면 메모리에 두고 다음 차례에 다시 시도
+                    requeue(batch);
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        // 루프를 빠져나오기 전에 모아둔 거래 기록
+        if (!batch.isEmpty()) {
+            requeue(batch);
+        }
+    }
+
+    /**
+     * 기록하지 못한 묶음을 넘침 목록으로 돌려놓습니다. 큐나 넘침 목록에서 꺼낸 것이므로 한도를 다시 검사하지 않는다.
+     */
+    private void requeue(List<LedgerEntry> batch) {
+        overflowSize.addAndGet(batch.size());
+        overflow.addAll(batch);
+    }
+
+    private void drainOverflow(List<LedgerEntry> batch) {
+        LedgerEntry entry;
+        while (batch.size() < MAX_BATCH_SIZE && (entry = overflow.poll()) != null) {
+            overflowSize.decrementAndGet();
+            batch.add(entry);
+        }
+    }
+
+    /**
+     * 묶음을 기록합니다. 실패하면 간격을 두 배로 늘려 가며 재시도하고, 끝내 실패하면 디스크에 내려 둔다.
+     * 기록도 보관도 하지 못했으면 false
+     */
+    private boolean writeOrSpill(List<LedgerEntry> batch) {
+        long backoff = RETRY_BACKOFF_MILLIS;
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try {
+                insertBatch(batch);
+                writtenEntries.addAndGet(batch.size());
+                return true;
+            } catch (SQLException e) {
+                SmpEconomyMod.LOGGER.warn("트랜잭션 로그 기록 실패 {}/{} ({}건): {}", attempt, MAX_WRITE_ATTEMPTS, batch.size(), e.getMessage());
+            }
+
+            if (attempt < MAX_WRITE_ATTEMPTS && !sleep(backoff)) {
+                break;
+            }
+            backoff *= 2;
+        }
+
+        return spill(batch);
+    }
+
+    /**
+     * 기록하지 못한 묶음을 파일 하나로 내려 둡니다. 파일도 쓰지 못하면 false
+     */
+    private synchronized boolean spill(List<LedgerEntry> batch) {
+        try {
+            Files.createDirectories(spillDirectory);
+            Path file = spillDirectory.resolve(String.format("%s%013d-%06d%s", SPILL_PREFIX, System.currentTimeMillis(), spillSequence++, SPILL_SUFFIX));
+            writeEntries(file, batch);
+
+            spilledBatches.incrementAndGet();
+            spilledEntries.addAndGet(batch.size());
+            if (nextSpillRetryAt == 0) {
+                nextSpillRetryAt = System.currentTimeMillis() + spillRetryDelayMillis;
+            }
+            SmpEconomyMod.LOGGER.error("트랜잭션 로그 {}건을 기록하지 못해 {}에 보관했습니다. 데이터베이스가 복구되면 다시 기록합니다.",
+                    batch.size(), file.getFileName());
+            return true;
+        } catch (IOException e) {
+            SmpEconomyMod.LOGGER.error("트랜잭션 로그 {}건을 파일로도 보관하지 못했습니다: {}", batch.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 내려 둔 묶음을 오래된 것부터 다시 기록합니다.
+     * 읽을 수 없는 파일과 데이터 오류로 거부된 거래는 격리하고 다음 파일로 넘어간다.
+     * 연결 실패 같은 일시적인 오류에서만 멈추고 간격을 늘려 나중에 다시 시도한다.
+     */
+    private synchronized void replaySpillIfDue() {
+        if (spilledBatches.get() == 0 || System.currentTimeMillis() < nextSpillRetryAt) {
+            return;
+        }
+
+        for (Path file : listSpillFiles()) {
+            LedgerEntry[] entries;
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                entries = GSON.fromJson(reader, LedgerEntry[].class);
+            } catch (IOException | JsonParseException e) {
+                SmpEconomyMod.LOGGER.error("보관된 트랜잭션 로그 {}를 읽지 못해 격리합니다: {}", file.getFileName(), e.getMessage());
+                quarantineFile(file);
+                continue;
+            }
+
+            List<LedgerEntry> pending = entries == null ? List.of() : Arrays.asList(entries);
+            try {
+                if (!replayFile(file, pending)) {
+                    backOffSpillRetry();
+                    return;
+                }
+            } catch (IOException e) {
+                SmpEconomyMod.LOGGER.warn("보관된 트랜잭션 로그 {}를 정리하지 못했습니다, {}초 뒤 다시 시도: {}", 
+                        file.getFileName(), spillRetryDelayMillis / 1000, e.getMessage());
+                backOffSpillRetry();
+                return;
+            }
+        }
+
+        // 격리하지 못한 파일이 남았으면 나중에 다시
+        spilledBatches.set(listSpillFiles().size());
+        if (spilledBatches.get() > 0) {
+            backOffSpillRetry();
+            return;
+        }
+        nextSpillRetryAt = 0;
+        spillRetryDelayMillis = SPILL_RETRY_MIN_MILLIS;
+    }
+
+    /**
+     * 보관 파일 하나를 다시 기록하고 지웁니다. 일시적인 오류로 멈췄으면 false (기록한 거래는 파일에서 빠진다)
+     * 묶음이 데이터 오류로 거부되면 한 건씩 나눠 기록하고, 거부된 거래만 격리 파일에 남긴다.
+     */
+    private boolean replayFile(Path file, List<LedgerEntry> entries) throws IOException {
+        List<LedgerEntry> valid = new ArrayList<>(entries.size());
+        List<LedgerEntry> rejected = new ArrayList<>();
+        for (LedgerEntry entry : entries) {
+            if (entry != null && entry.getType() != null) {
+                valid.add(entry);
+            } else {
+                rejected.add(entry);
+            }
+        }
+
+        try {
+            if (!valid.isEmpty()) {
+                insertBatch(valid);
+                writtenEntries.addAndGet(valid.size());
+            }
+        } catch (SQLException e) {
+            if (!isPermanentFailure(e)) {
+                SmpEconomyMod.LOGGER.warn("보관된 트랜잭션 로그 재기록 실패, {}초 뒤 다시 시도: {}", spillRetryDelayMillis / 1000, e.getMessage());
+                return false;
+            }
+
+            SmpEconomyMod.LOGGER.warn("보관된 트랜잭션 로그 {}가 거부되어 한 건씩 다시 기록합니다: {}", file.getFileName(), e.getMessage());
+            for (int i = 0; i < valid.size(); i++) {
+                LedgerEntry entry = valid.get(i);
+                try {
+                    insertBatch(List.of(entry));
+                    writtenEntries.incrementAndGet();
+                } catch (SQLException entryError) {
+                    if (isPermanentFailure(entryError)) {
+                        rejected.add(entry);
+                        continue;
+                    }
+                    // 기록한 거래는 빼고 남은 것만 파일에 다시 쓴다 (거부된 거래는 다음에 다시 판정)
+                    List<LedgerEntry> remaining = new ArrayList<>(rejected);
+                    remaining.addAll(valid.subList(i, valid.size()));
+                    writeEntries(file, remaining);
+                    SmpEconomyMod.LOGGER.warn("보관된 트랜잭션 로그 재기록 실패, {}초 뒤 다시 시도: {}", spillRetryDelayMillis / 1000, entryError.getMessage());
+                    return false;
+                }
+            }
+        }
+
+        if (!rejected.isEmpty()) {
+            writeEntries(file.resolveSibling(file.getFileName() + QUARANTINE_SUFFIX), rejected);
+            quarantinedFiles.incrementAndGet();
+            SmpEconomyMod.LOGGER.error("보관된 트랜잭션 로그 {}건을 기록할 수 없어 {}{}로 격리했습니다.", 
+                    rejected.size(), file.getFileName(), QUARANTINE_SUFFIX);
+        }
+        Files.deleteIfExists(file);
+        spilledBatches.decrementAndGet();
+        SmpEconomyMod.LOGGER.info("보관된 트랜잭션 로그 {}건을 기록했습니다 ({})", entries.size() - rejected.size(), file.getFileName());
+        return true;
+    }
+
+    /**
+     * 다시 기록할 수 없는 보관 파일을 .rejected로 옮겨 재기록 대상에서 뺍니다. (옮기지 못하면 다음에 다시 시도)
+     */
+    private void quarantineFile(Path file) {
+        try {
+            Files.move(file, file.resolveSibling(file.getFileName() + QUARANTINE_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+            quarantinedFiles.incrementAndGet();
+            spilledBatches.decrementAndGet();
+        } catch (IOException e) {
+            SmpEconomyMod.LOGGER.error("보관된 트랜잭션 로그 {}를 격리하지 못했습니다: {}", file.getFileName(), e.getMessage());
+        }
+    }
+
+    /**
+     * 다시 시도해도 같은 결과가 나올 오류인지 (잘못된 값, 제약 조건 위반 등)
+     * 연결 실패, 시간 초과처럼 상태가 없는 오류는 일시적인 것으로 본다.
+     */
+    static boolean isPermanentFailure(SQLException e) {
+        if (e instanceof SQLNonTransientConnectionException) {
+            return false;
+        }
+        if (e instanceof SQLNonTransientException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        // 22: 데이터 예외, 23: 무결성 제약 위반
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+
+    private static void writeEntries(Path file, List<LedgerEntry> entries) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, GSON.toJson(entries.toArray(new LedgerEntry[0])), StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void backOffSpillRetry() {
+        nextSpillRetryAt = System.currentTimeMillis() + spillRetryDelayMillis;
+        spillRetryDelayMillis = Math.min(spillRetryDelayMillis * 2, SPILL_RETRY_MAX_MILLIS);
+    }
+
+    private List<Path> listSpillFiles() {
+        if (!Files.isDirectory(spillDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SPILL_PREFIX) && name.endsWith(SPILL_SUFFIX);
+            }).sorted().toList();
+        } catch (IOException e) {
+            SmpEconomyMod.LOGGER.warn("보관된 트랜잭션 로그 목록을 읽지 못했습니다: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void insertBatch(List<LedgerEntry> batch) throws SQLException {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_QUERY)) {
+
+            conn.setAutoCommit(false);
+
+            try {
+                for (LedgerEntry entry : batch) {
+                    stmt.setString(1, entry.getFromUuid() != null ? entry.getFromUuid().toString() : null);
+                    stmt.setString(2, entry.getToUuid() != null ? entry.getToUuid().toString() : null);
+                    stmt.setBigDecimal(3, Money.ofCents(entry.getAmountCents()).toBigDecimal());
+                    stmt.setString(4, entry.getType().name().toLowerCase());
+                    stmt.setString(5, entry.getDescription());
+                    stmt.setString(6, entry.getIdempotencyKey());
+                    stmt.setTimestamp(7, new Timestamp(entry.getCreatedAt()));
+                    stmt.addBatch();
+                }
+
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 기록기 스레드를 멈추고 큐에 남은 거래를 모두 기록합니다. (기록하지 못한 것은 디스크에 남긴다)
+     */
+    void shutdown() {
+        running = false;
+
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // 데이터베이스가 살아 있으면 내려 둔 묶음도 지금 기록
+        nextSpillRetryAt = 0;
+        replaySpillIfDue();
+
+        List<LedgerEntry> remaining = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            drainOverflow(remaining);
+            queue.drainTo(remaining, MAX_BATCH_SIZE - remaining.size());
+            if (remaining.isEmpty()) {
+                break;
+            }
+            if (!writeOrSpill(remaining)) {
+                // 기록기가 멈춰 더 시도할 곳이 없다
+                SmpEconomyMod.LOGGER.error("종료 중 트랜잭션 로그 {}건(+대기 {}건)을 기록하지도 보관하지도 못했습니다.",
+                        remaining.size(), getQueueDepth());
+                break;
+            }
+            remaining.clear();
+        }
+
+        SmpEconomyMod.LOGGER.info("트랜잭션 로그 기록기 종료됨 (기록 {}건, 보관 {}건, 보관 중인 묶음 {}개)",
+                writtenEntries.get(), spilledEntries.get(), spilledBatches.get());
+    }
+
+    /**
+     * 기록을 기다리는 거래 수 (큐와 넘침 목록)
+     */
+    int getQueueDepth() {
+        return queue.size() + overflowSize.get();
+    }
+
+    /**
+     * 디스크에 보관 중이라 아직 tx_ledger에 없는 묶음 수
+     */
+    int getSpilledBatches() {
+        return spilledBatches.get();
+    }
+
+    long getWrittenEntries() {
+        return writtenEntries.get();
+    }
+
+    long getSpilledEntries() {
+        return spilledEntries.get();
+    }
+
+    long getBackpressureEvents() {
+        return backpressureEvents.get();
+    }
+
+    /**
+     * 큐와 넘침 목록이 가득 차고 디스크에도 보관하지 못해 기록하지 못한 거래 수
+     */
+    long getDroppedEntries() {
+        return droppedEntries.get();
+    }
+
+    /**
+     * 다시 기록할 수 없어 .rejected로 격리한 보관 파일 수
+     */
+    long getQuarantinedFiles() {
+        return quarantinedFiles.get();
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 소수점 2자리 고정소수점 금액 (내부적으로 센트 단위 long)
+ * 경제 로직, 캐시, 원장, 네트워크는 모두 이 타입을 사용하고
+ * BigDecimal 변환은 JDBC DECIMAL(15,2) 경계에서만 수행한다.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final long CENTS_PER_UNIT = 100L;
+
+    public static final Money ZERO = new Money(0L);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0L ? ZERO : new Money(cents);
+    }
+
+    public static Money ofUnits(long units) {
+        return ofCents(Math.multiplyExact(units, CENTS_PER_UNIT));
+    }
+
+    /**
+     * 명령어 인자(double)를 센트 단위로 반올림해 변환
+     */
+    public static Money fromDouble(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new ArithmeticException("유효하지 않은 금액: " + amount);
+        }
+        return ofCents(Math.round(amount * CENTS_PER_UNIT));
+    }
+
+    /**
+     * JDBC 경계 전용: DECIMAL 컬럼 값을 변환
+     */
+    public static Money fromBigDecimal(BigDecimal amount) {
+        if (amount == null) {
+            return ZERO;
+        }
+        return ofCents(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * 사용자 입력 문자열("12.5" 등)을 변환
+     */
+    public static Money parse(String text) {
+        return fromBigDecimal(new BigDecimal(text.trim()));
+    }
+
+    /**
+     * JDBC 경계 전용: DECIMAL(15,2) 컬럼에 바인딩할 값
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    /**
+     * 소수점 이하를 버린 정수 단위 금액
+     */
+    public long getWholeUnits() {
+        return cents / CENTS_PER_UNIT;
+    }
+
+    public Money add(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money subtract(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money multiply(long factor) {
+        return ofCents(Math.multiplyExact(cents, factor));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public Money abs() {
+        return cents < 0 ? negate() : this;
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return cents == ((Money) o).cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * "1234.50" 형식 (BigDecimal.toPlainString과 동일)
+     */
+    @Override
+    public String toString() {
+        long absCents = Math.abs(cents);
+        long fraction = absCents % CENTS_PER_UNIT;
+        return (cents < 0 ? "-" : "") + (absCents / CENTS_PER_UNIT) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
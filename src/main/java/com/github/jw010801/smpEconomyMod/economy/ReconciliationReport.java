@@ -0,0 +1,97 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 잔액-거래 원장 정산 결과
+ */
+public class ReconciliationReport {
+
+    /**
+     * 원장 합계와 맞지 않는 계정 하나
+     */
+    public static class Discrepancy {
+        private final UUID playerUuid;
+        private final Money expected;
+        private final Money actual;
+
+        Discrepancy(UUID playerUuid, Money expected, Money actual) {
+            this.playerUuid = playerUuid;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        public UUID getPlayerUuid() {
+            return playerUuid;
+        }
+
+        /**
+         * 원장으로 계산한 잔액
+         */
+        public Money getExpected() {
+            return expected;
+        }
+
+        /**
+         * balances 테이블의 잔액
+         */
+        public Money getActual() {
+            return actual;
+        }
+
+        public Money getDrift() {
+            return actual.subtract(expected);
+        }
+    }
+
+    private final long scannedRows;
+    private final long checkedAccounts;
+    private final long checkpointedLedgerId;
+    private final List<Discrepancy> discrepancies;
+    private final boolean repaired;
+    private final long durationMillis;
+
+    ReconciliationReport(long scannedRows, long checkedAccounts, long checkpointedLedgerId,
+                         List<Discrepancy> discrepancies, boolean repaired, long durationMillis) {
+        this.scannedRows = scannedRows;
+        this.checkedAccounts = checkedAccounts;
+        this.checkpointedLedgerId = checkpointedLedgerId;
+        this.discrepancies = discrepancies;
+        this.repaired = repaired;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * 이번 실행에서 읽은 원장 행 수 (지난 체크포인트 이후의 행만)
+     */
+    public long getScannedRows() {
+        return scannedRows;
+    }
+
+    public long getCheckedAccounts() {
+        return checkedAccounts;
+    }
+
+    /**
+     * 계정별 합계에 반영된 마지막 원장 id
+     */
+    public long getCheckpointedLedgerId() {
+        return checkpointedLedgerId;
+    }
+
+    public List<Discrepancy> getDiscrepancies() {
+        return discrepancies;
+    }
+
+    /**
+     * 불일치를 현재 잔액 기준으로 다시 맞췄는지
+     */
+    public boolean isRepaired() {
+        return repaired;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+}
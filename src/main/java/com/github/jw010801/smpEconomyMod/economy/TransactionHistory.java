@@ -0,0 +1,199 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import com.github.jw010801.smpeconomymod.database.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 거래 내역 조회 (keyset 페이지네이션)
+ * 보낸 거래와 받은 거래를 각각 (from_uuid|to_uuid, created_at, id) 복합 인덱스에서
+ * 커서 이후로 필요한 만큼만 읽어 합치므로, 알고 있는 경계 바로 다음 페이지는 첫 페이지와 같은 비용이다.
+ * 플레이어별로 페이지 경계 커서를 기억해 다음 페이지는 바로 이어서 읽고,
+ * 처음 가는 먼 페이지는 마지막 경계부터 인덱스의 키만 스트리밍으로 건너뛴다.
+ * 그래서 N페이지로 바로 가면 약 N×PAGE_SIZE개의 키를 읽으므로 페이지는 MAX_PAGE까지로 제한한다.
+ */
+final class TransactionHistory {
+
+    static final int PAGE_SIZE = 10;
+    // 처음 가는 먼 페이지가 건너뛰는 키는 최대 MAX_PAGE×PAGE_SIZE개
+    static final int MAX_PAGE = 1000;
+
+    // 커서 이후 조건 (created_at, id) < (?, ?)
+    private static final String AFTER_CURSOR = " AND (created_at < ? OR (created_at = ? AND id < ?))";
+
+    // 각 방향에서 키만 골라낸 뒤 기본 키로 필요한 행만 읽는다
+    private static final String PAGE_QUERY = """
+        SELECT l.id, l.from_uuid, l.to_uuid, l.amount, l.transaction_type, l.description, l.created_at
+        FROM (
+            (SELECT id, created_at FROM tx_ledger WHERE from_uuid = ?%1$s ORDER BY created_at DESC, id DESC LIMIT ?)
+            UNION ALL
+            (SELECT id, created_at FROM tx_ledger WHERE to_uuid = ?%1$s ORDER BY created_at DESC, id DESC LIMIT ?)
+        ) page
+        JOIN tx_ledger l ON l.id = page.id AND l.created_at = page.created_at
+        ORDER BY page.created_at DESC, page.id DESC
+        LIMIT ?
+        """;
+
+    private static final String KEY_QUERY = """
+        SELECT created_at, id
+        FROM (
+            (SELECT id, created_at FROM tx_ledger WHERE from_uuid = ?%1$s ORDER BY created_at DESC, id DESC LIMIT ?)
+            UNION ALL
+            (SELECT id, created_at FROM tx_ledger WHERE to_uuid = ?%1$s ORDER BY created_at DESC, id DESC LIMIT ?)
+        ) k
+        ORDER BY created_at DESC, id DESC
+        LIMIT ?
+        """;
+
+    private static final class Cursor {
+        final Timestamp createdAt;
+        final long id;
+
+        Cursor(Timestamp createdAt, long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+    }
+
+    private final DatabaseManager databaseManager;
+
+    // 플레이어별 페이지 경계: index k = (k+1)페이지의 마지막 거래
+    private final ConcurrentHashMap<UUID, List<Cursor>> pageCursors = new ConcurrentHashMap<>();
+
+    TransactionHistory(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * 1부터 시작하는 페이지를 읽습니다. 1페이지를 읽으면 기억한 커서를 새로 시작한다.
+     * MAX_PAGE보다 큰 페이지는 빈 페이지로 답한다.
+     */
+    HistoryPage getPage(UUID playerUuid, int page) throws SQLException {
+        if (page > MAX_PAGE) {
+            return new HistoryPage(page, List.of(), false);
+        }
+
+        List<Cursor> cursors = pageCursors.computeIfAbsent(playerUuid, uuid -> new ArrayList<>());
+
+        synchronized (cursors) {
+            if (page <= 1) {
+                page = 1;
+                cursors.clear();
+            }
+
+            Cursor start = null;
+            if (page > 1) {
+                if (cursors.size() < page - 1) {
+                    skipTo(playerUuid, cursors, page - 1);
+                }
+                if (cursors.size() < page - 1) {
+                    // 내역이 그만큼 없다
+                    return new HistoryPage(page, List.of(), false);
+                }
+                start = cursors.get(page - 2);
+            }
+
+            List<TransactionRecord> records = queryPage(playerUuid, start, PAGE_SIZE + 1);
+            boolean hasNext = records.size() > PAGE_SIZE && page < MAX_PAGE;
+            if (hasNext) {
+                records = new ArrayList<>(records.subList(0, PAGE_SIZE));
+            }
+
+            if (hasNext && !records.isEmpty()) {
+                TransactionRecord last = records.get(records.size() - 1);
+                Cursor end = new Cursor(new Timestamp(last.getCreatedAt()), last.getId());
+                if (cursors.size() >= page) {
+                    cursors.set(page - 1, end);
+                } else {
+                    cursors.add(end);
+                }
+            }
+
+            return new HistoryPage(page, records, hasNext);
+        }
+    }
+
+    /**
+     * 플레이어가 나가면 기억한 커서 정리
+     */
+    void forget(UUID playerUuid) {
+        pageCursors.remove(playerUuid);
+    }
+
+    private List<TransactionRecord> queryPage(UUID playerUuid, Cursor after, int limit) throws SQLException {
+        String query = String.format(PAGE_QUERY, after != null ? AFTER_CURSOR : "");
+        List<TransactionRecord> records = new ArrayList<>(limit);
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            bindLegs(stmt, playerUuid, after, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String fromUuid = rs.getString("from_uuid");
+                    String toUuid = rs.getString("to_uuid");
+                    records.add(new TransactionRecord(
+                        rs.getLong("id"),
+                        rs.getTimestamp("created_at").getTime(),
+                        fromUuid != null ? UUID.fromString(fromUuid) : null,
+                        toUuid != null ? UUID.fromString(toUuid) : null,
+                        Money.fromBigDecimal(rs.getBigDecimal("amount")),
+                        EconomyManager.TransactionType.valueOf(rs.getString("transaction_type").toUpperCase()),
+                        rs.getString("description")
+                    ));
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * 알고 있는 마지막 경계부터 인덱스 키만 스트리밍으로 읽으며 페이지 경계를 채운다.
+     */
+    private void skipTo(UUID playerUuid, List<Cursor> cursors, int boundaries) throws SQLException {
+        Cursor after = cursors.isEmpty() ? null : cursors.get(cursors.size() - 1);
+        // getPage가 MAX_PAGE로 제한하므로 int 범위를 넘지 않는다
+        int rowsToSkip = Math.multiplyExact(boundaries - cursors.size(), PAGE_SIZE);
+        String query = String.format(KEY_QUERY, after != null ? AFTER_CURSOR : "");
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // 결과를 한 행씩 스트리밍
+            stmt.setFetchSize(databaseManager.getBackend().getStreamingFetchSize());
+            bindLegs(stmt, playerUuid, after, rowsToSkip);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                int row = 0;
+                while (rs.next()) {
+                    if (++row % PAGE_SIZE == 0) {
+                        cursors.add(new Cursor(rs.getTimestamp("created_at"), rs.getLong("id")));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void bindLegs(PreparedStatement stmt, UUID playerUuid, Cursor after, int limit) throws SQLException {
+        int index = 1;
+        for (int leg = 0; leg < 2; leg++) {
+            stmt.setString(index++, playerUuid.toString());
+            if (after != null) {
+                stmt.setTimestamp(index++, after.createdAt);
+                stmt.setTimestamp(index++, after.createdAt);
+                stmt.setLong(index++, after.id);
+            }
+            stmt.setInt(index++, limit);
+        }
+        stmt.setInt(index, limit);
+    }
+}
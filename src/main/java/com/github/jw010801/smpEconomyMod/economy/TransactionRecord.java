@@ -0,0 +1,70 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.UUID;
+
+/**
+ * tx_ledger에서 읽은 거래 한 건
+ */
+public class TransactionRecord {
+
+    private final long id;
+    private final long createdAt;
+    private final UUID fromUuid;
+    private final UUID toUuid;
+    private final Money amount;
+    private final EconomyManager.TransactionType type;
+    private final String description;
+
+    TransactionRecord(long id, long createdAt, UUID fromUuid, UUID toUuid, Money amount,
+                      EconomyManager.TransactionType type, String description) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.fromUuid = fromUuid;
+        this.toUuid = toUuid;
+        this.amount = amount;
+        this.type = type;
+        this.description = description;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getFromUuid() {
+        return fromUuid;
+    }
+
+    public UUID getToUuid() {
+        return toUuid;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public EconomyManager.TransactionType getType() {
+        return type;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 해당 플레이어 입장에서의 금액 (받았으면 양수, 보냈으면 음수)
+     */
+    public Money getSignedAmount(UUID playerUuid) {
+        return playerUuid.equals(fromUuid) ? amount.negate() : amount;
+    }
+
+    /**
+     * 해당 플레이어 입장에서의 상대방 (없으면 null)
+     */
+    public UUID getCounterparty(UUID playerUuid) {
+        return playerUuid.equals(fromUuid) ? toUuid : fromUuid;
+    }
+}
@@ -0,0 +1,201 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 잔액 순위표 (구간 폭을 기록하는 skip list)
+ * 잔액 내림차순, 같은 잔액이면 UUID 오름차순으로 정렬한다.
+ * 갱신, 순위 조회, 특정 순위 위치 찾기가 모두 O(log n)이라
+ * 명령어 처리 중에 데이터베이스를 조회하지 않는다.
+ * 잔액 변경은 이벤트 버스의 묶음 전달(서버 틱)로 반영되므로 계정 잠금과 함께 잡히지 않고, 최대 한 틱 늦을 수 있다.
+ */
+final class WealthLeaderboard {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private static final class Node {
+        final UUID playerUuid;
+        final long balanceCents;
+        final Node[] next;
+        // next[i]까지 건너뛰는 노드 수
+        final int[] span;
+
+        Node(UUID playerUuid, long balanceCents, int level) {
+            this.playerUuid = playerUuid;
+            this.balanceCents = balanceCents;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    private final Node head = new Node(null, 0, MAX_LEVEL);
+    private final Map<UUID, Long> balances = new HashMap<>();
+    private int level = 1;
+
+    /**
+     * 계정의 현재 잔액을 반영합니다.
+     */
+    synchronized void update(UUID playerUuid, long balanceCents) {
+        Long previous = balances.put(playerUuid, balanceCents);
+        if (previous != null) {
+            if (previous == balanceCents) {
+                return;
+            }
+            delete(playerUuid, previous);
+        }
+        insert(playerUuid, balanceCents);
+    }
+
+    /**
+     * 아직 순위표에 없는 계정만 추가합니다.
+     * 시작 시 데이터베이스에서 읽은 값이 그 사이 바뀐 메모리 잔액을 덮어쓰지 않게 한다.
+     */
+    synchronized void seed(UUID playerUuid, long balanceCents) {
+        if (balances.putIfAbsent(playerUuid, balanceCents) == null) {
+            insert(playerUuid, balanceCents);
+        }
+    }
+
+    synchronized int size() {
+        return balances.size();
+    }
+
+    /**
+     * 1부터 시작하는 순위, 순위표에 없으면 0
+     */
+    synchronized int rankOf(UUID playerUuid) {
+        Long balanceCents = balances.get(playerUuid);
+        if (balanceCents == null) {
+            return 0;
+        }
+
+        int rank = 0;
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && compare(node.next[i], balanceCents, playerUuid) <= 0) {
+                rank += node.span[i];
+                node = node.next[i];
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * offset번째(0부터) 계정부터 최대 limit개의 순위 항목
+     */
+    synchronized List<LeaderboardEntry> range(int offset, int limit) {
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.max(0, Math.min(limit, balances.size() - offset)));
+        if (offset < 0 || limit <= 0 || offset >= balances.size()) {
+            return entries;
+        }
+
+        // offset + 1 순위 노드까지 상위 레벨로 건너뛰기
+        int traversed = 0;
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && traversed + node.span[i] <= offset + 1) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+        }
+
+        int rank = offset + 1;
+        while (node != null && entries.size() < limit) {
+            entries.add(new LeaderboardEntry(rank++, node.playerUuid, Money.ofCents(node.balanceCents)));
+            node = node.next[0];
+        }
+        return entries;
+    }
+
+    private void insert(UUID playerUuid, long balanceCents) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.next[i] != null && compare(node.next[i], balanceCents, playerUuid) < 0) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = balances.size() - 1;
+            }
+            level = newLevel;
+        }
+
+        Node inserted = new Node(playerUuid, balanceCents, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            inserted.next[i] = update[i].next[i];
+            update[i].next[i] = inserted;
+
+            inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+
+        // 새 노드보다 높은 레벨은 구간이 하나 늘어난다
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+    }
+
+    private void delete(UUID playerUuid, long balanceCents) {
+        Node[] update = new Node[MAX_LEVEL];
+
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && compare(node.next[i], balanceCents, playerUuid) < 0) {
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        Node target = node.next[0];
+        if (target == null || compare(target, balanceCents, playerUuid) != 0) {
+            return;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+    }
+
+    /**
+     * 노드가 (잔액, UUID)보다 앞 순위면 음수
+     */
+    private static int compare(Node node, long balanceCents, UUID playerUuid) {
+        int byBalance = Long.compare(balanceCents, node.balanceCents);
+        return byBalance != 0 ? byBalance : node.playerUuid.compareTo(playerUuid);
+    }
+
+    private static int randomLevel() {
+        int newLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (newLevel < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            newLevel++;
+        }
+        return newLevel;
+    }
+}
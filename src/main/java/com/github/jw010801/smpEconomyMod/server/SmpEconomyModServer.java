@@ -7,6 +7,7 @@ import com.github.jw010801.smpeconomymod.SmpEconomyMod;
 import com.github.jw010801.smpeconomymod.server.commands.EconomyCommands;
 import com.github.jw010801.smpeconomymod.server.commands.TerritoryCommands;
 import com.github.jw010801.smpeconomymod.server.network.ServerNetworkHandler;
+import com.github.jw010801.smpeconomymod.server.protection.ClaimProtection;
 
 public class SmpEconomyModServer implements DedicatedServerModInitializer {
 
@@ -21,6 +22,9 @@ public class SmpEconomyModServer implements DedicatedServerModInitializer {
         EconomyCommands.register();
         TerritoryCommands.register();
         
+        // 클레임 보호 (블록 파괴/설치/상호작용)
+        ClaimProtection.register();
+        
         // 서버 이벤트 리스너 등록
         registerServerEvents();
         
@@ -31,10 +35,27 @@ public class SmpEconomyModServer implements DedicatedServerModInitializer {
         ServerLifecycleEvents.SERVER_STARTED.register(server -> {
             SmpEconomyMod.LOGGER.info("서버가 시작되었습니다. 데이터베이스 연결을 초기화합니다...");
             SmpEconomyMod.databaseManager.initialize();
+            
+            // 부자 순위표는 시작 시 한 번만 데이터베이스에서 채우고 이후 메모리에서 갱신
+            SmpEconomyMod.economyManager.loadLeaderboard();
+            
+            // 재시작 직전에 처리된 요청이 재시도되어도 다시 반영되지 않도록 최근 멱등 키 복원
+            SmpEconomyMod.economyManager.loadRecentIdempotencyKeys();
+            
+            // 세금/이자 등 누적 항목은 플레이어별 다음 정산 시각만 메모리에 둔다
+            SmpEconomyMod.economyManager.loadAccrualIndex();
+            
+            // 보호 검사가 데이터베이스를 거치지 않도록 모든 클레임을 청크 색인에 올림
+            SmpEconomyMod.territoryManager.loadClaimIndex();
         });
         
         ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
             SmpEconomyMod.LOGGER.info("서버가 종료됩니다. 데이터베이스 연결을 정리합니다...");
+            
+            // 캐시된 잔액을 먼저 기록한 뒤 연결 종료
+            SmpEconomyMod.economyManager.shutdown();
+            SmpEconomyMod.territoryManager.shutdown();
+            SmpEconomyMod.executors.shutdown();
             SmpEconomyMod.databaseManager.shutdown();
         });
     }
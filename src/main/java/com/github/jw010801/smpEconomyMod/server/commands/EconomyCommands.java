@@ -1,7 +1,9 @@
 package com.github.jw010801.smpeconomymod.server.commands;
 
+import com.mojang.authlib.GameProfile;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
@@ -12,12 +14,27 @@ import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
+import net.minecraft.util.UserCache;
 
 import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.concurrent.ExecutorStats;
+import com.github.jw010801.smpeconomymod.economy.BalanceDelta;
+import com.github.jw010801.smpeconomymod.economy.CacheStats;
+import com.github.jw010801.smpeconomymod.economy.EconomyManager;
+import com.github.jw010801.smpeconomymod.economy.EconomySnapshot;
+import com.github.jw010801.smpeconomymod.economy.LeaderboardEntry;
+import com.github.jw010801.smpeconomymod.economy.Money;
+import com.github.jw010801.smpeconomymod.economy.ReconciliationReport;
+import com.github.jw010801.smpeconomymod.economy.TransactionRecord;
 import com.github.jw010801.smpeconomymod.server.network.ServerNetworkHandler;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static net.minecraft.server.command.CommandManager.argument;
@@ -25,6 +42,9 @@ import static net.minecraft.server.command.CommandManager.literal;
 
 public class EconomyCommands {
     
+    private static final int TOP_PAGE_SIZE = 10;
+    private static final DateTimeFormatter HISTORY_TIME_FORMAT = DateTimeFormatter.ofPattern("MM-dd HH:mm").withZone(ZoneId.systemDefault());
+    
     public static void register() {
         CommandRegistrationCallback.EVENT.register(EconomyCommands::registerCommands);
         SmpEconomyMod.LOGGER.info("경제 명령어 등록됨");
@@ -47,7 +67,7 @@ public class EconomyCommands {
             
             .then(literal("give")
                 .requires(source -> source.hasPermissionLevel(2))
-                .then(argument("player", EntityArgumentType.player())
+                .then(argument("players", EntityArgumentType.players())
                     .then(argument("amount", DoubleArgumentType.doubleArg(0.01))
                         .executes(EconomyCommands::executeGive)
                         .then(argument("reason", StringArgumentType.greedyString())
@@ -70,7 +90,24 @@ public class EconomyCommands {
                             .executes(EconomyCommands::executeSetWithReason)))))
             
             .then(literal("top")
-                .executes(EconomyCommands::executeTop))
+                .executes(EconomyCommands::executeTop)
+                .then(argument("page", IntegerArgumentType.integer(1))
+                    .executes(EconomyCommands::executeTopPage)))
+            
+            .then(literal("history")
+                .executes(EconomyCommands::executeHistory)
+                .then(argument("page", IntegerArgumentType.integer(1, EconomyManager.HISTORY_MAX_PAGE))
+                    .executes(EconomyCommands::executeHistoryPage)))
+            
+            .then(literal("audit")
+                .requires(source -> source.hasPermissionLevel(2))
+                .executes(context -> executeAudit(context, false))
+                .then(literal("repair")
+                    .executes(context -> executeAudit(context, true))))
+            
+            .then(literal("stats")
+                .requires(source -> source.hasPermissionLevel(2))
+                .executes(EconomyCommands::executeStats))
         );
         
         // 간단한 별칭 명령어들
@@ -96,7 +133,7 @@ public class EconomyCommands {
             
             .then(literal("지급")
                 .requires(source -> source.hasPermissionLevel(2))
-                .then(argument("player", EntityArgumentType.player())
+                .then(argument("players", EntityArgumentType.players())
                     .then(argument("amount", DoubleArgumentType.doubleArg(0.01))
                         .executes(EconomyCommands::executeGive)
                         .then(argument("reason", StringArgumentType.greedyString())
@@ -119,7 +156,24 @@ public class EconomyCommands {
                             .executes(EconomyCommands::executeSetWithReason)))))
             
             .then(literal("순위")
-                .executes(EconomyCommands::executeTop)));
+                .executes(EconomyCommands::executeTop)
+                .then(argument("page", IntegerArgumentType.integer(1))
+                    .executes(EconomyCommands::executeTopPage)))
+            
+            .then(literal("내역")
+                .executes(EconomyCommands::executeHistory)
+                .then(argument("page", IntegerArgumentType.integer(1, EconomyManager.HISTORY_MAX_PAGE))
+                    .executes(EconomyCommands::executeHistoryPage)))
+            
+            .then(literal("정산")
+                .requires(source -> source.hasPermissionLevel(2))
+                .executes(context -> executeAudit(context, false))
+                .then(literal("보정")
+                    .executes(context -> executeAudit(context, true))))
+            
+            .then(literal("통계")
+                .requires(source -> source.hasPermissionLevel(2))
+                .executes(EconomyCommands::executeStats)));
         
         // 추가 한국어 별칭들
         dispatcher.register(literal("잔액").executes(EconomyCommands::executeBalance));
@@ -140,7 +194,7 @@ public class EconomyCommands {
             player.sendMessage(Text.of(String.format("§6💰 현재 잔액: §e%s골드", formatMoney(balance))));
             
             // 클라이언트 HUD 즉시 업데이트
-            ServerNetworkHandler.syncEconomyDataToClient(player, balance, BigDecimal.ZERO);
+            ServerNetworkHandler.syncEconomyDataToClient(player, balance);
         });
         
         return 1;
@@ -168,7 +222,7 @@ public class EconomyCommands {
         ServerPlayerEntity targetPlayer = EntityArgumentType.getPlayer(context, "player");
         double amount = DoubleArgumentType.getDouble(context, "amount");
         
-        BigDecimal transferAmount = BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+        Money transferAmount = Money.fromDouble(amount);
         
         // 자기 자신에게 송금 방지
         if (player.getUuid().equals(targetPlayer.getUuid())) {
@@ -184,18 +238,11 @@ public class EconomyCommands {
             String.format("플레이어 송금: %s -> %s", player.getName().getString(), targetPlayer.getName().getString())
         ).thenAccept(success -> {
             if (success) {
-                // 송금 성공
+                // 송금 성공 (클라이언트 HUD는 잔액 변경 이벤트로 갱신된다)
                 player.sendMessage(Text.of(String.format("§a✅ %s에게 %s골드를 송금했습니다.", 
                         targetPlayer.getName().getString(), formatMoney(transferAmount))));
                 targetPlayer.sendMessage(Text.of(String.format("§a💰 %s로부터 %s골드를 받았습니다.", 
                         player.getName().getString(), formatMoney(transferAmount))));
-                
-                // 클라이언트 HUD 업데이트
-                SmpEconomyMod.economyManager.getBalance(player.getUuid()).thenAccept(balance -> 
-                    ServerNetworkHandler.syncEconomyDataToClient(player, balance, BigDecimal.ZERO));
-                SmpEconomyMod.economyManager.getBalance(targetPlayer.getUuid()).thenAccept(balance -> 
-                    ServerNetworkHandler.syncEconomyDataToClient(targetPlayer, balance, BigDecimal.ZERO));
-                
             } else {
                 // 송금 실패 (주로 잔액 부족)
                 player.sendMessage(Text.of("§c❌ 송금에 실패했습니다. 잔액이 부족하거나 오류가 발생했습니다."));
@@ -206,7 +253,7 @@ public class EconomyCommands {
     }
     
     /**
-     * /money give <player> <amount> [reason] - 관리자가 돈 지급
+     * /money give <players> <amount> [reason] - 관리자가 돈 지급 (@a 등 여러 명 가능)
      */
     private static int executeGive(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
         return executeGiveWithReason(context, "관리자 지급");
@@ -219,30 +266,49 @@ public class EconomyCommands {
     
     private static int executeGiveWithReason(CommandContext<ServerCommandSource> context, String reason) throws CommandSyntaxException {
         ServerCommandSource source = context.getSource();
-        ServerPlayerEntity targetPlayer = EntityArgumentType.getPlayer(context, "player");
+        List<ServerPlayerEntity> targetPlayers = new ArrayList<>(EntityArgumentType.getPlayers(context, "players"));
         double amount = DoubleArgumentType.getDouble(context, "amount");
         
-        BigDecimal giveAmount = BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+        Money giveAmount = Money.fromDouble(amount);
         
-        SmpEconomyMod.economyManager.addBalance(targetPlayer.getUuid(), giveAmount, reason).thenAccept(success -> {
-            if (success) {
-                source.sendFeedback(() -> Text.of(String.format("§a✅ %s에게 %s골드를 지급했습니다. (사유: %s)", 
-                        targetPlayer.getName().getString(), formatMoney(giveAmount), reason)), true);
+        // 대상이 여러 명이어도 한 번의 일괄 처리로 지급
+        List<BalanceDelta> deltas = new ArrayList<>(targetPlayers.size());
+        for (ServerPlayerEntity targetPlayer : targetPlayers) {
+            deltas.add(BalanceDelta.credit(targetPlayer.getUuid(), giveAmount, reason));
+        }
+        
+        SmpEconomyMod.economyManager.applyBatch(deltas).thenAccept(results -> {
+            int given = 0;
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) != BalanceDelta.Result.APPLIED) continue;
+                given++;
+                
+                ServerPlayerEntity targetPlayer = targetPlayers.get(i);
                 targetPlayer.sendMessage(Text.of(String.format("§a💰 %s골드를 받았습니다. (사유: %s)", 
                         formatMoney(giveAmount), reason)));
                 
-                // 클라이언트 HUD 업데이트
-                SmpEconomyMod.economyManager.getBalance(targetPlayer.getUuid()).thenAccept(balance -> {
-                    ServerNetworkHandler.syncEconomyDataToClient(targetPlayer, balance, BigDecimal.ZERO);
-                    ServerNetworkHandler.sendNotificationToClient(targetPlayer, 
-                        "💰 +" + formatMoney(giveAmount), 3000);
-                });
-            } else {
+                // 클라이언트 알림 (HUD 잔액은 잔액 변경 이벤트로 갱신된다)
+                ServerNetworkHandler.sendNotificationToClient(targetPlayer, 
+                    "💰 +" + formatMoney(giveAmount), 3000);
+            }
+            
+            if (given == 0) {
                 source.sendError(Text.of("§c❌ 돈 지급에 실패했습니다."));
+                return;
+            }
+            
+            String targetName = targetPlayers.size() == 1 
+                    ? targetPlayers.get(0).getName().getString() 
+                    : given + "명";
+            source.sendFeedback(() -> Text.of(String.format("§a✅ %s에게 %s골드를 지급했습니다. (사유: %s)", 
+                    targetName, formatMoney(giveAmount), reason)), true);
+            
+            if (given < targetPlayers.size()) {
+                source.sendError(Text.of(String.format("§c❌ %d명에게는 지급하지 못했습니다.", targetPlayers.size() - given)));
             }
         });
         
-        return 1;
+        return targetPlayers.size();
     }
     
     /**
@@ -262,7 +328,7 @@ public class EconomyCommands {
         ServerPlayerEntity targetPlayer = EntityArgumentType.getPlayer(context, "player");
         double amount = DoubleArgumentType.getDouble(context, "amount");
         
-        BigDecimal takeAmount = BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+        Money takeAmount = Money.fromDouble(amount);
         
         SmpEconomyMod.economyManager.subtractBalance(targetPlayer.getUuid(), takeAmount, reason).thenAccept(success -> {
             if (success) {
@@ -271,12 +337,9 @@ public class EconomyCommands {
                 targetPlayer.sendMessage(Text.of(String.format("§c💸 %s골드가 차감되었습니다. (사유: %s)", 
                         formatMoney(takeAmount), reason)));
                 
-                // 클라이언트 HUD 업데이트
-                SmpEconomyMod.economyManager.getBalance(targetPlayer.getUuid()).thenAccept(balance -> {
-                    ServerNetworkHandler.syncEconomyDataToClient(targetPlayer, balance, BigDecimal.ZERO);
-                    ServerNetworkHandler.sendNotificationToClient(targetPlayer, 
-                        "💸 -" + formatMoney(takeAmount), 3000);
-                });
+                // 클라이언트 알림 (HUD 잔액은 잔액 변경 이벤트로 갱신된다)
+                ServerNetworkHandler.sendNotificationToClient(targetPlayer, 
+                    "💸 -" + formatMoney(takeAmount), 3000);
             } else {
                 source.sendError(Text.of("§c❌ 돈 차감에 실패했습니다. (잔액 부족 가능성)"));
             }
@@ -302,7 +365,7 @@ public class EconomyCommands {
         ServerPlayerEntity targetPlayer = EntityArgumentType.getPlayer(context, "player");
         double amount = DoubleArgumentType.getDouble(context, "amount");
         
-        BigDecimal setAmount = BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+        Money setAmount = Money.fromDouble(amount);
         
         SmpEconomyMod.economyManager.setBalance(targetPlayer.getUuid(), setAmount, reason).thenAccept(success -> {
             if (success) {
@@ -310,9 +373,6 @@ public class EconomyCommands {
                         targetPlayer.getName().getString(), formatMoney(setAmount), reason)), true);
                 targetPlayer.sendMessage(Text.of(String.format("§6💰 잔액이 %s골드로 설정되었습니다. (사유: %s)", 
                         formatMoney(setAmount), reason)));
-                
-                // 클라이언트 HUD 업데이트
-                ServerNetworkHandler.syncEconomyDataToClient(targetPlayer, setAmount, BigDecimal.ZERO);
             } else {
                 source.sendError(Text.of("§c❌ 잔액 설정에 실패했습니다."));
             }
@@ -322,14 +382,252 @@ public class EconomyCommands {
     }
     
     /**
-     * /money top - 부자 순위 (TODO: 구현 예정)
+     * /money top [page] - 부자 순위 (메모리 순위표에서 바로 조회)
      */
     private static int executeTop(CommandContext<ServerCommandSource> context) {
-        context.getSource().sendFeedback(() -> Text.of("§c부자 순위 기능은 아직 구현되지 않았습니다."), false);
+        return executeTop(context, 1);
+    }
+    
+    private static int executeTopPage(CommandContext<ServerCommandSource> context) {
+        return executeTop(context, IntegerArgumentType.getInteger(context, "page"));
+    }
+    
+    private static int executeTop(CommandContext<ServerCommandSource> context, int page) {
+        ServerCommandSource source = context.getSource();
+        int total = SmpEconomyMod.economyManager.getLeaderboardSize();
+        int totalPages = Math.max(1, (total + TOP_PAGE_SIZE - 1) / TOP_PAGE_SIZE);
+        
+        if (page > totalPages) {
+            source.sendError(Text.of(String.format("§c페이지는 1~%d 사이여야 합니다.", totalPages)));
+            return 0;
+        }
+        
+        List<LeaderboardEntry> entries = SmpEconomyMod.economyManager.getTopBalances((page - 1) * TOP_PAGE_SIZE, TOP_PAGE_SIZE);
+        
+        StringBuilder message = new StringBuilder(String.format("§6🏆 부자 순위 (%d/%d 페이지)", page, totalPages));
+        for (LeaderboardEntry entry : entries) {
+            message.append(String.format("\n§e%d. §f%s §7- §e%s골드", 
+                    entry.getRank(), getPlayerName(source, entry.getPlayerUuid()), formatMoney(entry.getBalance())));
+        }
+        if (entries.isEmpty()) {
+            message.append("\n§7아직 순위에 오른 플레이어가 없습니다.");
+        }
+        
+        // 플레이어가 실행했다면 자신의 순위도 표시
+        ServerPlayerEntity player = source.getPlayer();
+        if (player != null) {
+            int rank = SmpEconomyMod.economyManager.getBalanceRank(player.getUuid());
+            if (rank > 0) {
+                message.append(String.format("\n§6내 순위: §e%d위 §7/ %d명", rank, total));
+            }
+        }
+        
+        source.sendFeedback(() -> Text.of(message.toString()), false);
+        return 1;
+    }
+    
+    /**
+     * /money history [page] - 자신의 거래 내역 (최신순)
+     */
+    private static int executeHistory(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        return executeHistory(context, 1);
+    }
+    
+    private static int executeHistoryPage(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        return executeHistory(context, IntegerArgumentType.getInteger(context, "page"));
+    }
+    
+    private static int executeHistory(CommandContext<ServerCommandSource> context, int page) throws CommandSyntaxException {
+        ServerCommandSource source = context.getSource();
+        ServerPlayerEntity player = source.getPlayerOrThrow();
+        UUID playerUuid = player.getUuid();
+        
+        SmpEconomyMod.economyManager.getTransactionHistory(playerUuid, page).thenAcceptAsync(history -> {
+            if (history.getRecords().isEmpty()) {
+                player.sendMessage(Text.of(page == 1 ? "§7거래 내역이 없습니다." : "§c해당 페이지에 거래 내역이 없습니다."));
+                return;
+            }
+            
+            StringBuilder message = new StringBuilder(String.format("§6📜 거래 내역 (%d페이지)", history.getPage()));
+            for (TransactionRecord record : history.getRecords()) {
+                Money signed = record.getSignedAmount(playerUuid);
+                UUID counterparty = record.getCounterparty(playerUuid);
+                
+                message.append(String.format("\n§7[%s] %s%s%s골드 §f%s", 
+                        HISTORY_TIME_FORMAT.format(Instant.ofEpochMilli(record.getCreatedAt())),
+                        signed.isNegative() ? "§c" : "§a",
+                        signed.isNegative() ? "-" : "+",
+                        formatMoney(signed.abs()),
+                        getTransactionLabel(record.getType())));
+                if (counterparty != null) {
+                    message.append(" §7(").append(getPlayerName(source, counterparty)).append(")");
+                }
+                if (record.getDescription() != null && !record.getDescription().isEmpty()) {
+                    message.append(" §8").append(record.getDescription());
+                }
+            }
+            if (history.hasNext()) {
+                message.append(String.format("\n§7다음 페이지: /money history %d", history.getPage() + 1));
+            }
+            
+            player.sendMessage(Text.of(message.toString()));
+        }, source.getServer()).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("플레이어 {} 거래 내역 조회 중 오류: {}", playerUuid, e.getMessage());
+            player.sendMessage(Text.of("§c❌ 거래 내역을 불러오지 못했습니다."));
+            return null;
+        });
+        
+        return 1;
+    }
+    
+    /**
+     * /money audit [repair] - 잔액을 거래 원장과 정산 (repair면 불일치를 현재 잔액 기준으로 다시 맞춤)
+     */
+    private static int executeAudit(CommandContext<ServerCommandSource> context, boolean repair) {
+        ServerCommandSource source = context.getSource();
+        source.sendFeedback(() -> Text.of("§7잔액 정산을 시작합니다..."), false);
+        
+        SmpEconomyMod.economyManager.reconcileLedger(repair).thenAcceptAsync(report -> {
+            StringBuilder message = new StringBuilder(String.format("§6🧾 잔액 정산: §f원장 %d건, 계정 %d개 확인 §7(%dms)", 
+                    report.getScannedRows(), report.getCheckedAccounts(), report.getDurationMillis()));
+            
+            List<ReconciliationReport.Discrepancy> discrepancies = report.getDiscrepancies();
+            if (discrepancies.isEmpty()) {
+                message.append("\n§a✅ 불일치 없음");
+            } else {
+                message.append(String.format("\n§c⚠ 불일치 %d개%s", discrepancies.size(), report.isRepaired() ? " §7(현재 잔액 기준으로 다시 맞춤)" : ""));
+                for (ReconciliationReport.Discrepancy discrepancy : discrepancies.subList(0, Math.min(discrepancies.size(), TOP_PAGE_SIZE))) {
+                    Money drift = discrepancy.getDrift();
+                    message.append(String.format("\n§7- §f%s §7잔액 §e%s §7/ 원장 §e%s §7(%s%s)", 
+                            getPlayerName(source, discrepancy.getPlayerUuid()),
+                            formatMoney(discrepancy.getActual()), formatMoney(discrepancy.getExpected()),
+                            drift.isNegative() ? "-" : "+", formatMoney(drift.abs())));
+                }
+                if (!report.isRepaired()) {
+                    message.append("\n§7보정하려면: /money audit repair");
+                }
+            }
+            
+            source.sendFeedback(() -> Text.of(message.toString()), true);
+        }, source.getServer()).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("잔액 정산 중 오류: {}", e.getMessage());
+            source.sendError(Text.of("§c❌ 잔액 정산에 실패했습니다."));
+            return null;
+        });
+        
         return 1;
     }
     
-    private static String formatMoney(BigDecimal amount) {
-        return String.format("%,d", amount.longValue());
+    /**
+     * /money stats - 통화량, 발행/소각, 송금 속도 등 경제 집계 (메모리 집계만 읽으므로 바로 응답)
+     */
+    private static int executeStats(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        EconomySnapshot snapshot = SmpEconomyMod.economyManager.getEconomySnapshot();
+        
+        StringBuilder message = new StringBuilder("§6📊 경제 통계");
+        message.append(String.format("\n§7통화량: §e%s골드%s", formatMoney(snapshot.getTotalSupply()), 
+                snapshot.isSupplySeeded() ? "" : " §8(시작 값 로드 전)"));
+        message.append(String.format("\n§724시간 순발행: %s%s골드 §7(%+.2f%%)", 
+                snapshot.getNetMintedLastDay().isNegative() ? "§c-" : "§a+",
+                formatMoney(snapshot.getNetMintedLastDay().abs()), snapshot.getDailyInflationPercent()));
+        message.append(String.format("\n§7송금: §f직전 1분 %d건, 분당 평균 %.1f건 §7/ 1시간 §e%s골드 §7(유통 속도 %.3f/h)", 
+                snapshot.getTransfersLastMinute(), snapshot.getTransfersPerMinute(),
+                formatMoney(snapshot.getTransferVolumeLastHour()), snapshot.getHourlyVelocity()));
+        
+        message.append("\n§7종류별 발행/소각 §8(시작 이후)");
+        for (EconomyManager.TransactionType type : EconomyManager.TransactionType.values()) {
+            long minted = snapshot.getMintedByTypeCents().getOrDefault(type, 0L);
+            long burned = snapshot.getBurnedByTypeCents().getOrDefault(type, 0L);
+            if (minted == 0 && burned == 0) continue;
+            message.append(String.format("\n§7- §f%s §a+%s §c-%s", getTransactionLabel(type), 
+                    formatMoney(Money.ofCents(minted)), formatMoney(Money.ofCents(burned))));
+        }
+        
+        appendTopReasons(message, "주요 유입", "§a+", snapshot.getTopSourcesCents());
+        appendTopReasons(message, "주요 유출", "§c-", snapshot.getTopSinksCents());
+        
+        EconomyManager economy = SmpEconomyMod.economyManager;
+        message.append("\n§7저장");
+        message.append(String.format("\n§7- §f미기록 계정 %d개 (가장 오래된 변경 %dms 전)", 
+                economy.getDirtyAccountCount(), economy.getFlushLagMillis()));
+        message.append(String.format("\n§7- §f직전 플러시 %d개, %dms (지연 %dms) / 누적 %d개", 
+                economy.getLastFlushBatchSize(), economy.getLastFlushDurationMillis(), 
+                economy.getLastFlushLagMillis(), economy.getTotalFlushedAccounts()));
+        message.append(String.format("\n§7- §f원장 대기 %d건, 큐 넘침 %d회, 기록 %d건", 
+                economy.getLedgerQueueDepth(), economy.getLedgerBackpressureEvents(), economy.getLedgerWrittenEntries()));
+        if (economy.getLedgerSpilledEntries() > 0) {
+            message.append(String.format("\n§7- §c디스크 보관 %d건 (재기록 대기 묶음 %d개)", 
+                    economy.getLedgerSpilledEntries(), economy.getLedgerSpilledBatches()));
+        }
+        if (economy.getLedgerDroppedEntries() > 0) {
+            message.append(String.format("\n§7- §c기록하지 못한 거래 %d건", economy.getLedgerDroppedEntries()));
+        }
+        if (economy.getLedgerQuarantinedFiles() > 0) {
+            message.append(String.format("\n§7- §c격리된 보관 파일 %d개 (ledger-spill/*.rejected)", economy.getLedgerQuarantinedFiles()));
+        }
+        message.append(String.format("\n§7- §f걸러진 중복 요청 %d건", economy.getDuplicateRequestCount()));
+        
+        CacheStats cache = economy.getCacheStats();
+        message.append(String.format("\n§7잔액 캐시: §f%d/%d개 (고정 %d), 적중률 %.1f%%, 제거 %d, 로드 %d회 평균 %.2fms", 
+                cache.getSize(), cache.getMaximumSize(), cache.getPinnedCount(), cache.getHitRate() * 100,
+                cache.getEvictionCount(), cache.getLoadCount(), cache.getAverageLoadMillis()));
+        
+        List<ExecutorStats> pools = economy.getExecutorStats();
+        if (!pools.isEmpty()) {
+            message.append(String.format("\n§7작업 풀 §8(%s, 직전 스냅샷)", SmpEconomyMod.executors.getMode()));
+            for (ExecutorStats pool : pools) {
+                message.append(String.format("\n§7- §f%s x%d: 대기 %d, 실행 중 %d, 완료 %d, 거부 %d, 평균 대기 %.2fms (최대 %.2fms)", 
+                        pool.getName(), pool.getConcurrency(), pool.getQueueDepth(), pool.getActiveCount(),
+                        pool.getCompletedCount(), pool.getRejectedCount(), pool.getAverageWaitMillis(), pool.getMaxWaitMillis()));
+            }
+        }
+        
+        source.sendFeedback(() -> Text.of(message.toString()), false);
+        return 1;
+    }
+    
+    private static void appendTopReasons(StringBuilder message, String title, String prefix, Map<String, Long> reasons) {
+        if (reasons.isEmpty()) return;
+        
+        message.append("\n§7").append(title);
+        for (Map.Entry<String, Long> entry : reasons.entrySet()) {
+            message.append(String.format("\n§7- §f%s %s%s", entry.getKey(), prefix, formatMoney(Money.ofCents(entry.getValue()))));
+        }
+    }
+    
+    private static String getTransactionLabel(EconomyManager.TransactionType type) {
+        return switch (type) {
+            case TRANSFER -> "송금";
+            case EARN -> "지급";
+            case SPEND -> "차감";
+            case TAX -> "세금";
+            case QUEST_REWARD -> "퀘스트 보상";
+            case ADMIN_SET -> "관리자 설정";
+            case STARTING_BALANCE -> "초기 잔액";
+        };
+    }
+    
+    /**
+     * 오프라인 플레이어도 서버 사용자 캐시에서 이름을 찾는다
+     */
+    private static String getPlayerName(ServerCommandSource source, UUID playerUuid) {
+        ServerPlayerEntity online = source.getServer().getPlayerManager().getPlayer(playerUuid);
+        if (online != null) {
+            return online.getName().getString();
+        }
+        
+        UserCache userCache = source.getServer().getUserCache();
+        if (userCache != null) {
+            Optional<GameProfile> profile = userCache.getByUuid(playerUuid);
+            if (profile.isPresent()) {
+                return profile.get().getName();
+            }
+        }
+        return playerUuid.toString().substring(0, 8);
+    }
+    
+    private static String formatMoney(Money amount) {
+        return String.format("%,d", amount.getWholeUnits());
     }
 }
@@ -16,17 +16,21 @@ import net.minecraft.text.Text;
 import net.minecraft.util.math.BlockPos;
 
 import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.economy.Money;
 import com.github.jw010801.smpeconomymod.territory.Claim;
 import com.github.jw010801.smpeconomymod.territory.ClaimMember;
 import com.github.jw010801.smpeconomymod.territory.TerritoryManager;
 
-import java.math.BigDecimal;
+import java.util.UUID;
 
 import static net.minecraft.server.command.CommandManager.argument;
 import static net.minecraft.server.command.CommandManager.literal;
 
 public class TerritoryCommands {
     
+    // /claim info에서 근처 클레임을 찾는 반경 (청크)
+    private static final int NEARBY_RADIUS = 8;
+    
     public static void register() {
         CommandRegistrationCallback.EVENT.register(TerritoryCommands::registerCommands);
         SmpEconomyMod.LOGGER.info("영토 명령어 등록됨");
@@ -164,8 +168,8 @@ public class TerritoryCommands {
         
         // 비용 계산 미리 표시
         int chunkCount = size * size;
-        BigDecimal totalCost = TerritoryManager.CLAIM_BASE_COST.add(
-            TerritoryManager.CLAIM_COST_PER_CHUNK.multiply(new BigDecimal(chunkCount))
+        Money totalCost = TerritoryManager.CLAIM_BASE_COST.add(
+            TerritoryManager.CLAIM_COST_PER_CHUNK.multiply(chunkCount)
         );
         
         player.sendMessage(Text.of(String.format("§6🏘️ %dx%d 영역 클레임을 생성합니다... (비용: %s골드)", 
@@ -239,6 +243,18 @@ public class TerritoryCommands {
                 
             } else {
                 player.sendMessage(Text.of("§7이 위치는 클레임되지 않은 영역입니다."));
+                
+                // 근처 클레임 안내 (메모리의 R-tree에서 반경 검색)
+                SmpEconomyMod.territoryManager.findClaimsNear(
+                    world.getRegistryKey().getValue().toString(), chunkX, chunkZ, NEARBY_RADIUS
+                ).thenAccept(nearby -> {
+                    if (!nearby.isEmpty()) {
+                        Claim nearest = nearby.get(0);
+                        player.sendMessage(Text.of(String.format("§7반경 %d청크 안에 클레임 %d개 (가장 가까운 클레임 ID: %d, 영역 (%d,%d) ~ (%d,%d))", 
+                                NEARBY_RADIUS, nearby.size(), nearest.getId(), 
+                                nearest.getMinX(), nearest.getMinZ(), nearest.getMaxX(), nearest.getMaxZ())));
+                    }
+                });
             }
         });
         
@@ -246,17 +262,46 @@ public class TerritoryCommands {
     }
     
     /**
-     * /claim list - 자신의 클레임 목록 조회
+     * /claim list - 자신의 클레임과 멤버로서 건설할 수 있는 클레임 목록 조회
      */
     private static int executeClaimList(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
         ServerPlayerEntity player = context.getSource().getPlayerOrThrow();
         
-        player.sendMessage(Text.of("§c클레임 목록 조회 기능은 아직 구현되지 않았습니다."));
-        // TODO: 플레이어의 클레임 목록 조회 구현
+        // 색인을 다 읽은 뒤에는 두 조회 모두 메모리에서 바로 완료된다
+        SmpEconomyMod.territoryManager.getOwnedClaims(player.getUuid()).thenCombine(
+            SmpEconomyMod.territoryManager.getMemberClaims(player.getUuid(), ClaimMember.ClaimAction.BUILD),
+            (owned, building) -> {
+                player.sendMessage(Text.of("§6🏘️ === 내 클레임 목록 ==="));
+                if (owned.isEmpty()) {
+                    player.sendMessage(Text.of("§7소유한 클레임이 없습니다."));
+                }
+                for (Claim claim : owned) {
+                    player.sendMessage(Text.of(formatClaimLine(claim)));
+                }
+                
+                if (!building.isEmpty()) {
+                    player.sendMessage(Text.of("§6🔨 건설할 수 있는 클레임"));
+                    for (Claim claim : building) {
+                        player.sendMessage(Text.of(formatClaimLine(claim)));
+                    }
+                }
+                return null;
+            }
+        ).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("클레임 목록 조회 중 오류: {}", e.getMessage());
+            player.sendMessage(Text.of("§c클레임 목록을 불러오지 못했습니다."));
+            return null;
+        });
         
         return 1;
     }
     
+    private static String formatClaimLine(Claim claim) {
+        return String.format("§f📍 ID §e%d §7%s §b(%d,%d) ~ (%d,%d) §d%d청크", 
+                claim.getId(), claim.getWorldName(), claim.getMinX(), claim.getMinZ(), claim.getMaxX(), claim.getMaxZ(), 
+                claim.getChunkCount());
+    }
+    
     /**
      * /claim delete - 현재 위치의 클레임 삭제
      */
@@ -366,8 +411,41 @@ public class TerritoryCommands {
         ServerPlayerEntity player = context.getSource().getPlayerOrThrow();
         ServerPlayerEntity targetPlayer = EntityArgumentType.getPlayer(context, "player");
         
-        player.sendMessage(Text.of("§c멤버 제거 기능은 아직 구현되지 않았습니다."));
-        // TODO: 클레임에서 멤버 제거 구현
+        BlockPos playerPos = player.getBlockPos();
+        ServerWorld world = player.getServerWorld();
+        int chunkX = playerPos.getX() >> 4;
+        int chunkZ = playerPos.getZ() >> 4;
+        
+        // 현재 위치의 클레임 확인
+        SmpEconomyMod.territoryManager.getClaimAt(
+            world.getRegistryKey().getValue().toString(), chunkX, chunkZ
+        ).thenAccept(claimOpt -> {
+            if (claimOpt.isEmpty()) {
+                player.sendMessage(Text.of("§c이 위치는 클레임된 영역이 아닙니다."));
+                return;
+            }
+            
+            Claim claim = claimOpt.get();
+            
+            // 소유자 권한 확인
+            if (!claim.getOwnerUuid().equals(player.getUuid()) && !player.hasPermissionLevel(2)) {
+                player.sendMessage(Text.of("§c이 클레임의 소유자만 멤버를 제거할 수 있습니다."));
+                return;
+            }
+            
+            // 멤버 제거
+            SmpEconomyMod.territoryManager.removeClaimMember(claim.getId(), targetPlayer.getUuid()).thenAccept(removed -> {
+                if (removed) {
+                    player.sendMessage(Text.of(String.format("§a✅ %s를 클레임에서 제거했습니다.", 
+                            targetPlayer.getName().getString())));
+                    targetPlayer.sendMessage(Text.of(String.format("§7🏘️ %s의 클레임에서 제거되었습니다.", 
+                            player.getName().getString())));
+                } else {
+                    player.sendMessage(Text.of(String.format("§c%s는 이 클레임의 멤버가 아닙니다.", 
+                            targetPlayer.getName().getString())));
+                }
+            });
+        });
         
         return 1;
     }
@@ -378,27 +456,117 @@ public class TerritoryCommands {
     private static int executeClaimMembers(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
         ServerPlayerEntity player = context.getSource().getPlayerOrThrow();
         
-        player.sendMessage(Text.of("§c멤버 목록 조회 기능은 아직 구현되지 않았습니다."));
-        // TODO: 클레임 멤버 목록 조회 구현
+        BlockPos playerPos = player.getBlockPos();
+        ServerWorld world = player.getServerWorld();
+        int chunkX = playerPos.getX() >> 4;
+        int chunkZ = playerPos.getZ() >> 4;
+        
+        SmpEconomyMod.territoryManager.getClaimAt(
+            world.getRegistryKey().getValue().toString(), chunkX, chunkZ
+        ).thenAccept(claimOpt -> {
+            if (claimOpt.isEmpty()) {
+                player.sendMessage(Text.of("§c이 위치는 클레임된 영역이 아닙니다."));
+                return;
+            }
+            
+            Claim claim = claimOpt.get();
+            
+            // 멤버 색인을 다 읽은 뒤에는 메모리에서 바로 완료된다
+            SmpEconomyMod.territoryManager.getClaimMembers(claim.getId()).thenAccept(members -> {
+                player.sendMessage(Text.of(String.format("§6👥 === 클레임 %d 멤버 (%d명) ===", claim.getId(), members.size())));
+                if (members.isEmpty()) {
+                    player.sendMessage(Text.of("§7멤버가 없습니다."));
+                }
+                for (ClaimMember member : members) {
+                    String levelName = switch (member.getPermissionLevel()) {
+                        case GUEST -> "§7게스트";
+                        case MEMBER -> "§a멤버";
+                        case ADMIN -> "§6관리자";
+                    };
+                    player.sendMessage(Text.of(String.format("§f- %s %s", getPlayerName(player, member.getMemberUuid()), levelName)));
+                }
+            }).exceptionally(e -> {
+                SmpEconomyMod.LOGGER.error("클레임 멤버 조회 중 오류: {}", e.getMessage());
+                player.sendMessage(Text.of("§c멤버 목록을 불러오지 못했습니다."));
+                return null;
+            });
+        });
         
         return 1;
     }
     
     /**
-     * /claim expand <direction> <amount> - 클레임 확장
+     * 접속 중이면 플레이어 이름, 아니면 UUID 앞부분
+     */
+    private static String getPlayerName(ServerPlayerEntity viewer, UUID playerUuid) {
+        ServerPlayerEntity online = viewer.getServer().getPlayerManager().getPlayer(playerUuid);
+        return online != null ? online.getName().getString() : playerUuid.toString().substring(0, 8) + "...";
+    }
+    
+    /**
+     * /claim expand <direction> <amount> - 클레임 확장 미리보기 (추가 청크, 비용, 겹치는 클레임)
      */
     private static int executeClaimExpand(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
         ServerPlayerEntity player = context.getSource().getPlayerOrThrow();
         String direction = StringArgumentType.getString(context, "direction").toLowerCase();
         int amount = IntegerArgumentType.getInteger(context, "amount");
         
-        player.sendMessage(Text.of("§c클레임 확장 기능은 아직 구현되지 않았습니다."));
-        // TODO: 클레임 확장 구현
+        BlockPos playerPos = player.getBlockPos();
+        String worldName = player.getServerWorld().getRegistryKey().getValue().toString();
+        int chunkX = playerPos.getX() >> 4;
+        int chunkZ = playerPos.getZ() >> 4;
+        
+        SmpEconomyMod.territoryManager.getClaimAt(worldName, chunkX, chunkZ).thenAccept(claimOpt -> {
+            if (claimOpt.isEmpty()) {
+                player.sendMessage(Text.of("§c이 위치는 클레임된 영역이 아닙니다."));
+                return;
+            }
+            
+            Claim claim = claimOpt.get();
+            if (!claim.getOwnerUuid().equals(player.getUuid()) && !player.hasPermissionLevel(2)) {
+                player.sendMessage(Text.of("§c이 클레임의 소유자만 확장할 수 있습니다."));
+                return;
+            }
+            
+            int minX = claim.getMinX();
+            int minZ = claim.getMinZ();
+            int maxX = claim.getMaxX();
+            int maxZ = claim.getMaxZ();
+            switch (direction) {
+                case "north", "북" -> minZ -= amount;
+                case "south", "남" -> maxZ += amount;
+                case "east", "동" -> maxX += amount;
+                case "west", "서" -> minX -= amount;
+                default -> {
+                    player.sendMessage(Text.of("§c잘못된 방향입니다. (north, south, east, west / 북, 남, 동, 서)"));
+                    return;
+                }
+            }
+            
+            int addedChunks = (maxX - minX + 1) * (maxZ - minZ + 1) - claim.getChunkCount();
+            Money cost = TerritoryManager.CLAIM_COST_PER_CHUNK.multiply(addedChunks);
+            int newMinX = minX, newMinZ = minZ, newMaxX = maxX, newMaxZ = maxZ;
+            
+            SmpEconomyMod.territoryManager.findOverlappingClaims(worldName, minX, minZ, maxX, maxZ).thenAccept(overlapping -> {
+                player.sendMessage(Text.of("§6🏘️ === 확장 미리보기 ==="));
+                player.sendMessage(Text.of(String.format("§f🗺️ 영역: §b(%d,%d) ~ (%d,%d) §7→ §b(%d,%d) ~ (%d,%d)", 
+                        claim.getMinX(), claim.getMinZ(), claim.getMaxX(), claim.getMaxZ(), newMinX, newMinZ, newMaxX, newMaxZ)));
+                player.sendMessage(Text.of(String.format("§f📦 추가 청크: §d%d §7| §f비용: §e%s골드", addedChunks, formatMoney(cost))));
+                
+                long conflicts = overlapping.stream().filter(other -> other.getId() != claim.getId()).count();
+                if (conflicts > 0) {
+                    player.sendMessage(Text.of(String.format("§c❌ 다른 클레임 %d개와 겹쳐 이 방향으로는 확장할 수 없습니다.", conflicts)));
+                } else {
+                    player.sendMessage(Text.of("§a✅ 겹치는 클레임이 없습니다."));
+                }
+                player.sendMessage(Text.of("§7확장 적용은 아직 지원되지 않습니다."));
+            });
+        });
         
         return 1;
     }
     
-    private static String formatMoney(BigDecimal amount) {
-        return String.format("%,d", amount.longValue());
+    private static String formatMoney(Money amount) {
+        return String.format("%,d", amount.getWholeUnits());
     }
 }
@@ -1,5 +1,7 @@
 package com.github.jw010801.smpeconomymod.server.network;
 
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
@@ -8,12 +10,15 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 
 import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.economy.EconomyManager;
+import com.github.jw010801.smpeconomymod.economy.Money;
 import com.github.jw010801.smpeconomymod.network.NetworkConstants;
 
-import java.math.BigDecimal;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class ServerNetworkHandler {
     
@@ -30,23 +35,37 @@ public class ServerNetworkHandler {
         // 클라이언트에서 오는 패킷들 처리
         registerIncomingPackets();
         
+        // 잔액 변경 시 HUD 갱신
+        registerBalanceEvents();
+        
         SmpEconomyMod.LOGGER.info("서버 네트워크 핸들러 초기화 완료");
     }
     
+    private static void registerBalanceEvents() {
+        // 잔액이 바뀐 접속 중인 플레이어에게 틱마다 한 번만 HUD 갱신 전송 (연속 지급은 마지막 잔액으로 묶임)
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> 
+            SmpEconomyMod.economyManager.getEventBus().subscribeCoalesced(event -> {
+                ServerPlayerEntity player = server.getPlayerManager().getPlayer(event.getPlayerUuid());
+                if (player != null) {
+                    syncEconomyDataToClient(player, event.getBalance());
+                }
+            }));
+        
+        ServerTickEvents.END_SERVER_TICK.register(server -> 
+            SmpEconomyMod.economyManager.getEventBus().drain());
+    }
+    
     private static void registerConnectionEvents() {
         // 플레이어 접속시 데이터 동기화
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
             ServerPlayerEntity player = handler.getPlayer();
             
-            // 접속 후 1초 뒤에 데이터 동기화 (클라이언트 초기화 대기)
-            server.execute(() -> {
-                try {
-                    Thread.sleep(1000);
-                    syncPlayerDataToClient(player);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            });
+            // 접속 중에는 계정을 캐시에 고정하고, 잔액/클레임을 한 번에 읽어 캐시를 채움
+            CompletableFuture<Void> preload = SmpEconomyMod.sessionLoader.preload(player.getUuid());
+            
+            // 캐시가 채워지고 1초 뒤에 데이터 동기화 (클라이언트 초기화 대기, 서버 스레드를 멈추지 않음)
+            preload.thenRunAsync(() -> syncPlayerDataToClient(player), 
+                    CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS, server));
             
             SmpEconomyMod.LOGGER.info("플레이어 {} 접속 - 데이터 동기화 예약", player.getName().getString());
         });
@@ -55,6 +74,7 @@ public class ServerNetworkHandler {
         ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
             UUID playerUuid = handler.getPlayer().getUuid();
             lastSyncTime.remove(playerUuid);
+            SmpEconomyMod.economyManager.unpinAccount(playerUuid);
             
             SmpEconomyMod.LOGGER.debug("플레이어 {} 퇴장 - 동기화 데이터 정리", playerUuid);
         });
@@ -66,9 +86,10 @@ public class ServerNetworkHandler {
             (server, player, handler, buf, responseSender) -> 
                 server.execute(() -> syncPlayerDataToClient(player)));
         
-        // 경제 명령어 처리
+        // 경제 명령어 처리 (요청 id는 클라이언트가 재전송해도 같으므로 멱등 키로 사용)
         ServerPlayNetworking.registerGlobalReceiver(NetworkConstants.ECONOMY_COMMAND,
             (server, player, handler, buf, responseSender) -> {
+                UUID requestId = buf.readUuid();
                 String command = buf.readString();
                 int argsLength = buf.readInt();
                 String[] args = new String[argsLength];
@@ -76,7 +97,7 @@ public class ServerNetworkHandler {
                     args[i] = buf.readString();
                 }
                 
-                server.execute(() -> handleEconomyCommand(player, command, args));
+                server.execute(() -> handleEconomyCommand(player, requestId, command, args));
         });
     }
     
@@ -93,48 +114,60 @@ public class ServerNetworkHandler {
             return;
         }
         
-        try {
-            // 경제 데이터 조회
-            BigDecimal balance = SmpEconomyMod.economyManager.getBalance(playerUuid).get();
-            BigDecimal dailyEarnings = BigDecimal.ZERO; // TODO: 일일 수익 계산
-            
-            // 스킬 데이터 조회 (TODO: 실제 스킬 시스템 구현시 수정)
-            PlayerSkillData skillData = getPlayerSkillData(playerUuid);
-            
-            PacketByteBuf buf = PacketByteBufs.create();
-            
-            // 경제 정보
-            buf.writeString(balance.toString());
-            buf.writeString(dailyEarnings.toString());
-            
-            // 스킬 정보
-            buf.writeInt(skillData.miningLevel);
-            buf.writeLong(skillData.miningExp);
-            buf.writeInt(skillData.farmingLevel);
-            buf.writeLong(skillData.farmingExp);
-            buf.writeInt(skillData.fishingLevel);
-            buf.writeLong(skillData.fishingExp);
-            buf.writeInt(skillData.lumberjackLevel);
-            buf.writeLong(skillData.lumberjackExp);
-            
-            ServerPlayNetworking.send(player, NetworkConstants.PLAYER_DATA_SYNC, buf);
-            
-            lastSyncTime.put(playerUuid, currentTime);
-            
-            SmpEconomyMod.LOGGER.debug("플레이어 {} 데이터 동기화 완료", player.getName().getString());
-            
-        } catch (Exception e) {
-            SmpEconomyMod.LOGGER.error("플레이어 {} 데이터 동기화 실패: {}", player.getName().getString(), e.getMessage());
-        }
+        lastSyncTime.put(playerUuid, currentTime);
+        
+        // 경제 데이터 조회 후 서버 스레드에서 전송 (조회를 기다리며 틱을 멈추지 않음)
+        SmpEconomyMod.economyManager.getBalance(playerUuid).thenAcceptAsync(balance -> {
+            try {
+                Money dailyEarnings = getDailyEarnings(playerUuid);
+                
+                // 스킬 데이터 조회 (TODO: 실제 스킬 시스템 구현시 수정)
+                PlayerSkillData skillData = getPlayerSkillData(playerUuid);
+                
+                PacketByteBuf buf = PacketByteBufs.create();
+                
+                // 경제 정보 (센트 단위)
+                buf.writeLong(balance.getCents());
+                buf.writeLong(dailyEarnings.getCents());
+                
+                // 스킬 정보
+                buf.writeInt(skillData.miningLevel);
+                buf.writeLong(skillData.miningExp);
+                buf.writeInt(skillData.farmingLevel);
+                buf.writeLong(skillData.farmingExp);
+                buf.writeInt(skillData.fishingLevel);
+                buf.writeLong(skillData.fishingExp);
+                buf.writeInt(skillData.lumberjackLevel);
+                buf.writeLong(skillData.lumberjackExp);
+                
+                ServerPlayNetworking.send(player, NetworkConstants.PLAYER_DATA_SYNC, buf);
+                
+                SmpEconomyMod.LOGGER.debug("플레이어 {} 데이터 동기화 완료", player.getName().getString());
+                
+            } catch (Exception e) {
+                SmpEconomyMod.LOGGER.error("플레이어 {} 데이터 동기화 실패: {}", player.getName().getString(), e.getMessage());
+            }
+        }, player.getServer());
+    }
+    
+    /**
+     * 경제 정보만 업데이트 (최근 24시간 순수익은 메모리 집계에서 채움)
+     */
+    public static void syncEconomyDataToClient(ServerPlayerEntity player, Money newBalance) {
+        syncEconomyDataToClient(player, newBalance, getDailyEarnings(player.getUuid()));
+    }
+    
+    private static Money getDailyEarnings(UUID playerUuid) {
+        return SmpEconomyMod.economyManager.getNetEarnings(playerUuid, EconomyManager.EarningsPeriod.DAY);
     }
     
     /**
      * 경제 정보만 업데이트
      */
-    public static void syncEconomyDataToClient(ServerPlayerEntity player, BigDecimal newBalance, BigDecimal dailyEarnings) {
+    public static void syncEconomyDataToClient(ServerPlayerEntity player, Money newBalance, Money dailyEarnings) {
         PacketByteBuf buf = PacketByteBufs.create();
-        buf.writeString(newBalance.toString());
-        buf.writeString(dailyEarnings.toString());
+        buf.writeLong(newBalance.getCents());
+        buf.writeLong(dailyEarnings.getCents());
         
         ServerPlayNetworking.send(player, NetworkConstants.ECONOMY_UPDATE, buf);
         
@@ -183,7 +216,7 @@ public class ServerNetworkHandler {
         ServerPlayNetworking.send(player, NetworkConstants.NOTIFICATION, buf);
     }
     
-    private static void handleEconomyCommand(ServerPlayerEntity player, String command, String[] args) {
+    private static void handleEconomyCommand(ServerPlayerEntity player, UUID requestId, String command, String[] args) {
         UUID playerUuid = player.getUuid();
         
         switch (command) {
@@ -208,17 +241,26 @@ public class ServerNetworkHandler {
                 if (args.length >= 2) {
                     String targetName = args[0];
                     try {
-                        BigDecimal amount = new BigDecimal(args[1]);
+                        Money amount = Money.parse(args[1]);
                         
-                        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                        if (!amount.isPositive()) {
                             player.sendMessage(Text.of("§c송금 금액은 0보다 커야 합니다."));
                             return;
                         }
                         
-                        // TODO: 플레이어 이름으로 UUID 찾기 및 송금 처리
-                        player.sendMessage(Text.of("§c송금 기능은 아직 구현되지 않았습니다."));
+                        ServerPlayerEntity targetPlayer = player.getServer().getPlayerManager().getPlayer(targetName);
+                        if (targetPlayer == null) {
+                            player.sendMessage(Text.of("§c접속 중인 플레이어를 찾을 수 없습니다: " + targetName));
+                            return;
+                        }
+                        if (targetPlayer.getUuid().equals(playerUuid)) {
+                            player.sendMessage(Text.of("§c자기 자신에게는 송금할 수 없습니다."));
+                            return;
+                        }
                         
-                    } catch (NumberFormatException e) {
+                        handlePay(player, targetPlayer, amount, requestId);
+                        
+                    } catch (NumberFormatException | ArithmeticException e) {
                         player.sendMessage(Text.of("§c잘못된 금액입니다: " + args[1]));
                     }
                 } else {
@@ -230,14 +272,40 @@ public class ServerNetworkHandler {
         }
     }
     
+    /**
+     * 패킷 송금 처리. 같은 요청 id로 다시 온 패킷은 송금하지 않고 처음 결과만 다시 알린다.
+     */
+    private static void handlePay(ServerPlayerEntity player, ServerPlayerEntity targetPlayer, Money amount, UUID requestId) {
+        // 다른 플레이어의 요청 id와 겹치지 않도록 보낸 사람으로 구분
+        String idempotencyKey = "pay:" + player.getUuid() + ":" + requestId;
+        
+        SmpEconomyMod.economyManager.transferMoney(
+            player.getUuid(),
+            targetPlayer.getUuid(),
+            amount,
+            String.format("플레이어 송금: %s -> %s", player.getName().getString(), targetPlayer.getName().getString()),
+            idempotencyKey
+        ).thenAcceptAsync(success -> {
+            if (success) {
+                // HUD는 잔액 변경 이벤트로 갱신된다
+                player.sendMessage(Text.of(String.format("§a✅ %s에게 %s골드를 송금했습니다.", 
+                        targetPlayer.getName().getString(), formatMoney(amount))));
+                targetPlayer.sendMessage(Text.of(String.format("§a💰 %s로부터 %s골드를 받았습니다.", 
+                        player.getName().getString(), formatMoney(amount))));
+            } else {
+                player.sendMessage(Text.of("§c❌ 송금에 실패했습니다. 잔액이 부족하거나 오류가 발생했습니다."));
+            }
+        }, player.getServer());
+    }
+    
     private static PlayerSkillData getPlayerSkillData(UUID playerUuid) {
         // TODO: 실제 스킬 시스템 구현시 데이터베이스에서 조회
         // 현재는 더미 데이터 반환
         return new PlayerSkillData();
     }
     
-    private static String formatMoney(BigDecimal amount) {
-        return String.format("%,d", amount.longValue());
+    private static String formatMoney(Money amount) {
+        return String.format("%,d", amount.getWholeUnits());
     }
     
     /**
@@ -0,0 +1,77 @@
+package com.github.jw010801.smpeconomymod.server.protection;
+
+import net.fabricmc.fabric.api.event.player.PlayerBlockBreakEvents;
+import net.fabricmc.fabric.api.event.player.UseBlockCallback;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.BlockItem;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.text.Text;
+import net.minecraft.util.ActionResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.World;
+
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.territory.ClaimMember;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 클레임 보호: 블록 파괴, 설치, 상호작용을 서버 스레드에서 바로 검사한다.
+ * TerritoryManager.canPerform은 메모리만 보므로 이벤트마다 데이터베이스를 거치지 않는다.
+ * 관리자(권한 레벨 2 이상)는 검사하지 않는다.
+ */
+public class ClaimProtection {
+
+    // 월드 키 -> 클레임에 저장된 월드 이름 (이벤트마다 Identifier 문자열을 만들지 않도록)
+    private static final Map<RegistryKey<World>, String> worldNames = new ConcurrentHashMap<>();
+
+    public static void register() {
+        PlayerBlockBreakEvents.BEFORE.register((world, player, pos, state, blockEntity) -> {
+            if (world.isClient()) return true;
+            return check(player, world, pos.getX() >> 4, pos.getZ() >> 4, ClaimMember.ClaimAction.DESTROY);
+        });
+
+        UseBlockCallback.EVENT.register((player, world, hand, hitResult) -> {
+            if (world.isClient()) return ActionResult.PASS;
+
+            BlockPos pos = hitResult.getBlockPos();
+            boolean allowed;
+            if (player.getStackInHand(hand).getItem() instanceof BlockItem) {
+                // 블록은 맞은 면 바깥쪽에 놓이므로 그 칸의 청크로 검사
+                Direction side = hitResult.getSide();
+                allowed = check(player, world, (pos.getX() + side.getOffsetX()) >> 4, (pos.getZ() + side.getOffsetZ()) >> 4,
+                        ClaimMember.ClaimAction.BUILD);
+            } else {
+                allowed = check(player, world, pos.getX() >> 4, pos.getZ() >> 4, ClaimMember.ClaimAction.INTERACT);
+            }
+            return allowed ? ActionResult.PASS : ActionResult.FAIL;
+        });
+
+        SmpEconomyMod.LOGGER.info("클레임 보호 이벤트 등록됨");
+    }
+
+    private static boolean check(PlayerEntity player, World world, int chunkX, int chunkZ, ClaimMember.ClaimAction action) {
+        if (player.hasPermissionLevel(2)) {
+            return true;
+        }
+
+        String worldName = worldNames.computeIfAbsent(world.getRegistryKey(), key -> key.getValue().toString());
+        if (SmpEconomyMod.territoryManager.canPerform(player.getUuid(), worldName, chunkX, chunkZ, action)) {
+            return true;
+        }
+
+        player.sendMessage(Text.of(getDeniedMessage(action)), true);
+        return false;
+    }
+
+    private static String getDeniedMessage(ClaimMember.ClaimAction action) {
+        return switch (action) {
+            case BUILD -> "§c이 영토에 블록을 설치할 권한이 없습니다.";
+            case DESTROY -> "§c이 영토의 블록을 파괴할 권한이 없습니다.";
+            case USE_ITEMS, INTERACT -> "§c이 영토에서 상호작용할 권한이 없습니다.";
+            case MANAGE_MEMBERS, DELETE_CLAIM -> "§c이 영토에 대한 권한이 없습니다.";
+        };
+    }
+}
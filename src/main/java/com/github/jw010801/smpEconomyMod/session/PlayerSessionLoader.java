@@ -0,0 +1,144 @@
+package com.github.jw010801.smpeconomymod.session;
+
+import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.concurrent.InstrumentedExecutor;
+import com.github.jw010801.smpeconomymod.database.DatabaseManager;
+import com.github.jw010801.smpeconomymod.economy.EconomyManager;
+import com.github.jw010801.smpeconomymod.economy.Money;
+import com.github.jw010801.smpeconomymod.territory.Claim;
+import com.github.jw010801.smpeconomymod.territory.TerritoryManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * 접속한 플레이어의 계정과 소유 클레임을 한 번에 읽어 캐시를 채운다.
+ * 다중 문장을 지원하는 백엔드(MySQL)는 세 문장을 한 번의 왕복으로 보내고, 아니면 같은 연결에서 차례로 실행한다.
+ * 클레임 멤버는 TerritoryManager가 시작 시 모두 읽어 두므로 여기서 읽지 않는다.
+ * 계정이 없으면 같은 왕복 안에서 기본 잔액으로 만든다.
+ */
+public class PlayerSessionLoader {
+
+    // 순서대로 실행되고 결과도 이 순서로 읽는다 (모두 첫 번째 매개변수가 플레이어 UUID)
+    private static final String UPSERT_ACCOUNT = "INSERT IGNORE INTO balances (player_uuid, balance) VALUES (?, ?)";
+    private static final String SELECT_BALANCE = "SELECT balance FROM balances WHERE player_uuid = ?";
+    private static final String SELECT_OWNED_CLAIMS = "SELECT * FROM claims WHERE owner_uuid = ?";
+
+    private final DatabaseManager databaseManager;
+    private final EconomyManager economyManager;
+    private final TerritoryManager territoryManager;
+    private final Executor executor;
+
+    public PlayerSessionLoader(DatabaseManager databaseManager, EconomyManager economyManager,
+                               TerritoryManager territoryManager, Executor executor) {
+        this.databaseManager = databaseManager;
+        this.economyManager = economyManager;
+        this.territoryManager = territoryManager;
+        this.executor = executor;
+    }
+
+    /**
+     * 플레이어 세션 데이터를 미리 읽어 잔액과 클레임 캐시를 채웁니다.
+     * 실패해도 각 매니저가 필요할 때 따로 읽으므로 접속은 막지 않는다.
+     */
+    public CompletableFuture<Void> preload(UUID playerUuid) {
+        // 읽기 전에 고정해야 읽는 사이 계정이 캐시에서 제거되어 오래된 잔액이 들어가지 않는다
+        economyManager.pinAccountForSession(playerUuid);
+
+        return InstrumentedExecutor.runAsync(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                Session session = load(playerUuid);
+
+                economyManager.warmAccount(playerUuid, session.balance);
+                territoryManager.warmPlayerClaims(session.ownedClaims);
+
+                if (session.created) {
+                    economyManager.recordStartingBalance(playerUuid);
+                    SmpEconomyMod.LOGGER.info("새 계정 생성: {} (초기 잔액: {})", playerUuid, EconomyManager.DEFAULT_STARTING_BALANCE);
+                }
+                SmpEconomyMod.LOGGER.debug("플레이어 {} 세션 로드 완료 (클레임 {}개, {}ms)", playerUuid,
+                        session.ownedClaims.size(), (System.nanoTime() - startedAt) / 1_000_000);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("플레이어 {} 세션 로드 중 오류: {}", playerUuid, e.getMessage());
+            return null;
+        });
+    }
+
+    private Session load(UUID playerUuid) throws SQLException {
+        Session session = new Session();
+        String uuid = playerUuid.toString();
+
+        try (Connection conn = databaseManager.getConnection()) {
+            if (databaseManager.getBackend().supportsMultiStatements()) {
+                String sql = String.join(";\n", UPSERT_ACCOUNT, SELECT_BALANCE, SELECT_OWNED_CLAIMS);
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, uuid);
+                    stmt.setBigDecimal(2, EconomyManager.DEFAULT_STARTING_BALANCE.toBigDecimal());
+                    stmt.setString(3, uuid);
+                    stmt.setString(4, uuid);
+
+                    stmt.execute();
+                    session.created = stmt.getUpdateCount() > 0;
+
+                    stmt.getMoreResults();
+                    try (ResultSet rs = stmt.getResultSet()) {
+                        readBalance(rs, session);
+                    }
+                    stmt.getMoreResults();
+                    try (ResultSet rs = stmt.getResultSet()) {
+                        readOwnedClaims(rs, session);
+                    }
+                }
+            } else {
+                try (PreparedStatement stmt = conn.prepareStatement(UPSERT_ACCOUNT)) {
+                    stmt.setString(1, uuid);
+                    stmt.setBigDecimal(2, EconomyManager.DEFAULT_STARTING_BALANCE.toBigDecimal());
+                    session.created = stmt.executeUpdate() > 0;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(SELECT_BALANCE)) {
+                    stmt.setString(1, uuid);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        readBalance(rs, session);
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(SELECT_OWNED_CLAIMS)) {
+                    stmt.setString(1, uuid);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        readOwnedClaims(rs, session);
+                    }
+                }
+            }
+        }
+
+        return session;
+    }
+
+    private static void readBalance(ResultSet rs, Session session) throws SQLException {
+        session.balance = rs.next() ? Money.fromBigDecimal(rs.getBigDecimal("balance")) : EconomyManager.DEFAULT_STARTING_BALANCE;
+    }
+
+    private static void readOwnedClaims(ResultSet rs, Session session) throws SQLException {
+        while (rs.next()) {
+            session.ownedClaims.add(TerritoryManager.readClaim(rs));
+        }
+    }
+
+    private static final class Session {
+        boolean created;
+        Money balance;
+        final List<Claim> ownedClaims = new ArrayList<>();
+    }
+}
@@ -0,0 +1,293 @@
+package com.github.jw010801.smpeconomymod.territory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 월드별 청크 -> 클레임 색인
+ * 청크 좌표를 long 하나로 합친 키의 오픈 어드레싱(선형 탐사) 해시 테이블이라 조회는 박싱이나 문자열 생성 없이 배열 탐사 한 번이다.
+ * 클레임 수와 관계없이 같은 비용이 들므로 보호 검사처럼 자주 불리는 곳에서 써도 된다.
+ * 쓰기(클레임 추가)는 드물어 잠금을 잡고, 읽기는 낙관적 읽기로 잠금 없이 하다가 도중에 쓰기가 있었을 때만 읽기 잠금으로 다시 읽는다.
+ * 해시 테이블 앞에는 32x32 청크 영역별 점유 비트맵이 있어, 대부분인 야생 청크는 작은 영역 테이블만 보고 바로 없다고 답한다.
+ */
+final class ChunkClaimIndex {
+
+    private final ConcurrentHashMap<String, ChunkTable> worlds = new ConcurrentHashMap<>();
+
+    /**
+     * 청크를 포함하는 클레임 (없으면 null)
+     */
+    Claim get(String worldName, int chunkX, int chunkZ) {
+        ChunkTable table = worlds.get(worldName);
+        return table == null ? null : table.get(chunkX, chunkZ);
+    }
+
+    /**
+     * 클레임의 모든 청크를 등록합니다. 같은 클레임을 다시 등록해도 된다.
+     */
+    void add(Claim claim) {
+        ChunkTable table = worlds.computeIfAbsent(claim.getWorldName(), world -> new ChunkTable());
+        table.putAll(claim);
+    }
+
+    /**
+     * 등록된 청크 수 (모든 월드 합계)
+     */
+    int size() {
+        int size = 0;
+        for (ChunkTable table : worlds.values()) {
+            size += table.size();
+        }
+        return size;
+    }
+
+    /**
+     * 클레임이 하나라도 있는 영역 수 (모든 월드 합계)
+     */
+    int regionCount() {
+        int count = 0;
+        for (ChunkTable table : worlds.values()) {
+            count += table.regionCount();
+        }
+        return count;
+    }
+    
+    static long pack(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        // murmur3 fmix64
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * 한 월드의 테이블. 빈 칸은 claims[i] == null로 표시하므로 키에 예약 값이 없다.
+     * 채움률이 절반을 넘으면 두 배로 키운다.
+     */
+    private static final class ChunkTable {
+        private static final int INITIAL_CAPACITY = 256;
+
+        private final StampedLock lock = new StampedLock();
+        // 키와 값 배열은 항상 함께 바뀌도록 한 객체로 묶는다
+        private volatile Slots slots = new Slots(INITIAL_CAPACITY);
+        private int size;
+        // 같은 잠금 아래에서 해시 테이블과 함께 바뀐다
+        private final RegionBitmap occupied = new RegionBitmap();
+
+        Claim get(int chunkX, int chunkZ) {
+            long stamp = lock.tryOptimisticRead();
+            Claim claim = occupied.contains(chunkX, chunkZ) ? probe(slots, pack(chunkX, chunkZ)) : null;
+            if (lock.validate(stamp)) {
+                return claim;
+            }
+
+            stamp = lock.readLock();
+            try {
+                return occupied.contains(chunkX, chunkZ) ? probe(slots, pack(chunkX, chunkZ)) : null;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void putAll(Claim claim) {
+            long stamp = lock.writeLock();
+            try {
+                for (int x = claim.getMinX(); x <= claim.getMaxX(); x++) {
+                    for (int z = claim.getMinZ(); z <= claim.getMaxZ(); z++) {
+                        put(pack(x, z), claim);
+                        occupied.set(x, z);
+                    }
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int regionCount() {
+            long stamp = lock.readLock();
+            try {
+                return occupied.regionCount();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private static Claim probe(Slots slots, long key) {
+            int mask = slots.keys.length - 1;
+            int index = hash(key) & mask;
+            // 낙관적 읽기 중 테이블이 바뀌어도 끝나도록 용량만큼만 탐사 (결과는 validate에서 버려진다)
+            for (int i = 0; i <= mask; i++) {
+                Claim claim = slots.claims[index];
+                if (claim == null) {
+                    return null;
+                }
+                if (slots.keys[index] == key) {
+                    return claim;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        private void put(long key, Claim claim) {
+            if ((size + 1) * 2 > slots.keys.length) {
+                resize();
+            }
+
+            Slots current = slots;
+            int mask = current.keys.length - 1;
+            int index = hash(key) & mask;
+            while (current.claims[index] != null) {
+                if (current.keys[index] == key) {
+                    current.claims[index] = claim;
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            current.keys[index] = key;
+            current.claims[index] = claim;
+            size++;
+        }
+
+        private void resize() {
+            Slots old = slots;
+            Slots grown = new Slots(old.keys.length * 2);
+            int mask = grown.keys.length - 1;
+
+            for (int i = 0; i < old.keys.length; i++) {
+                if (old.claims[i] == null) continue;
+
+                int index = hash(old.keys[i]) & mask;
+                while (grown.claims[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                grown.keys[index] = old.keys[i];
+                grown.claims[index] = old.claims[i];
+            }
+            slots = grown;
+        }
+    }
+
+    /**
+     * 32x32 청크 영역마다 1024비트(long 16개)짜리 점유 비트맵. 클레임이 없는 영역은 테이블에 없다.
+     * 클레임은 겹치지 않으므로 비트는 정확하다 (거짓 양성 없음).
+     * 스레드 안전하지 않다: ChunkTable 잠금 아래에서 쓰고, 읽기는 ChunkTable이 낙관적 읽기로 한 뒤 검증한다.
+     */
+    private static final class RegionBitmap {
+        private static final int REGION_SHIFT = 5;
+        private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+        private static final int WORDS_PER_REGION = (1 << (2 * REGION_SHIFT)) / Long.SIZE;
+        private static final int INITIAL_CAPACITY = 16;
+
+        // 키와 비트맵 배열도 항상 함께 바뀌도록 한 객체로 묶는다
+        private volatile Regions regions = new Regions(INITIAL_CAPACITY);
+        private int count;
+
+        boolean contains(int chunkX, int chunkZ) {
+            long[] region = find(regions, pack(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT));
+            if (region == null) {
+                return false;
+            }
+            int bit = bitIndex(chunkX, chunkZ);
+            return (region[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        void set(int chunkX, int chunkZ) {
+            long key = pack(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+            long[] region = find(regions, key);
+            if (region == null) {
+                region = insert(key);
+            }
+            int bit = bitIndex(chunkX, chunkZ);
+            region[bit >>> 6] |= 1L << bit;
+        }
+
+        int regionCount() {
+            return count;
+        }
+
+        private static int bitIndex(int chunkX, int chunkZ) {
+            return ((chunkZ & REGION_MASK) << REGION_SHIFT) | (chunkX & REGION_MASK);
+        }
+
+        private static long[] find(Regions regions, long key) {
+            int mask = regions.keys.length - 1;
+            int index = hash(key) & mask;
+            // 낙관적 읽기 중 테이블이 바뀌어도 끝나도록 용량만큼만 탐사
+            for (int i = 0; i <= mask; i++) {
+                long[] region = regions.bits[index];
+                if (region == null) {
+                    return null;
+                }
+                if (regions.keys[index] == key) {
+                    return region;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        private long[] insert(long key) {
+            if ((count + 1) * 2 > regions.keys.length) {
+                Regions old = regions;
+                Regions grown = new Regions(old.keys.length * 2);
+                for (int i = 0; i < old.keys.length; i++) {
+                    if (old.bits[i] != null) {
+                        grown.place(old.keys[i], old.bits[i]);
+                    }
+                }
+                regions = grown;
+            }
+
+            long[] region = new long[WORDS_PER_REGION];
+            regions.place(key, region);
+            count++;
+            return region;
+        }
+    }
+
+    private static final class Regions {
+        final long[] keys;
+        final long[][] bits;
+
+        Regions(int capacity) {
+            this.keys = new long[capacity];
+            this.bits = new long[capacity][];
+        }
+
+        void place(long key, long[] region) {
+            int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (bits[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            bits[index] = region;
+        }
+    }
+
+    private static final class Slots {
+        final long[] keys;
+        final Claim[] claims;
+
+        Slots(int capacity) {
+            this.keys = new long[capacity];
+            this.claims = new Claim[capacity];
+        }
+    }
+}
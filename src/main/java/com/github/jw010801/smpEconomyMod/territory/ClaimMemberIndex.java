@@ -0,0 +1,143 @@
+package com.github.jw010801.smpeconomymod.territory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 모든 클레임 멤버 (시작 시 한 번 읽고 이후에는 신뢰/불신뢰 때 함께 갱신)
+ * 클레임 -> 멤버 배열과 멤버 -> 소속 클레임(PlayerMemberships) 두 방향으로 둔다.
+ * 권한 검사는 멤버 쪽 색인에서 이진 탐색 한 번이라 데이터베이스도 할당도 없다.
+ * 쓰기는 드물어 한 잠금으로 두 방향을 함께 바꾸고, 읽기는 잠금 없이 교체된 불변 배열을 본다.
+ */
+final class ClaimMemberIndex {
+
+    private static final ClaimMember[] NO_MEMBERS = new ClaimMember[0];
+
+    // 클레임 -> 멤버 (클레임당 멤버가 몇 명 안 되어 배열로 둔다)
+    private final ConcurrentHashMap<Long, ClaimMember[]> byClaim = new ConcurrentHashMap<>();
+    // 멤버 -> 소속 클레임 (없는 플레이어는 어느 클레임의 멤버도 아님)
+    private final ConcurrentHashMap<UUID, PlayerMemberships> byMember = new ConcurrentHashMap<>();
+    // 멤버가 바뀔 때마다 증가 (시작 시 읽는 사이 바뀌었으면 읽은 결과를 버리고 다시 읽는다)
+    private long version;
+    private volatile boolean loaded;
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 플레이어의 클레임 멤버 정보 (멤버가 아니면 null)
+     */
+    ClaimMember get(UUID memberUuid, long claimId) {
+        PlayerMemberships memberships = byMember.get(memberUuid);
+        return memberships == null ? null : memberships.get(claimId);
+    }
+
+    List<ClaimMember> membersOf(long claimId) {
+        return List.of(byClaim.getOrDefault(claimId, NO_MEMBERS));
+    }
+
+    List<ClaimMember> claimsOf(UUID memberUuid) {
+        return byMember.getOrDefault(memberUuid, PlayerMemberships.EMPTY).toList();
+    }
+
+    /**
+     * 멤버를 추가하거나 권한을 바꿉니다.
+     */
+    synchronized void put(ClaimMember member) {
+        version++;
+        byMember.merge(member.getMemberUuid(), PlayerMemberships.EMPTY.with(member), (old, added) -> old.with(member));
+
+        ClaimMember[] members = byClaim.getOrDefault(member.getClaimId(), NO_MEMBERS);
+        int index = indexOf(members, member.getMemberUuid());
+        ClaimMember[] updated;
+        if (index >= 0) {
+            updated = members.clone();
+        } else {
+            updated = new ClaimMember[members.length + 1];
+            System.arraycopy(members, 0, updated, 0, members.length);
+            index = members.length;
+        }
+        updated[index] = member;
+        byClaim.put(member.getClaimId(), updated);
+    }
+
+    /**
+     * 멤버를 제거합니다.
+     */
+    synchronized void remove(long claimId, UUID memberUuid) {
+        version++;
+        byMember.computeIfPresent(memberUuid, (uuid, memberships) -> {
+            PlayerMemberships remaining = memberships.without(claimId);
+            return remaining.size() == 0 ? null : remaining;
+        });
+
+        ClaimMember[] members = byClaim.get(claimId);
+        int index = members == null ? -1 : indexOf(members, memberUuid);
+        if (index < 0) {
+            return;
+        }
+        if (members.length == 1) {
+            byClaim.remove(claimId);
+            return;
+        }
+
+        ClaimMember[] shrunk = new ClaimMember[members.length - 1];
+        System.arraycopy(members, 0, shrunk, 0, index);
+        System.arraycopy(members, index + 1, shrunk, index, members.length - index - 1);
+        byClaim.put(claimId, shrunk);
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    /**
+     * 데이터베이스에서 읽은 전체 멤버로 색인을 채웁니다.
+     * 읽기 전에 받은 version() 이후 바뀐 것이 있으면 채우지 않고 false를 반환한다.
+     */
+    synchronized boolean install(Collection<ClaimMember> all, long versionBeforeLoad) {
+        if (version != versionBeforeLoad) {
+            return false;
+        }
+
+        Map<Long, List<ClaimMember>> claims = new HashMap<>();
+        Map<UUID, List<ClaimMember>> members = new HashMap<>();
+        for (ClaimMember member : all) {
+            claims.computeIfAbsent(member.getClaimId(), id -> new ArrayList<>()).add(member);
+            members.computeIfAbsent(member.getMemberUuid(), uuid -> new ArrayList<>()).add(member);
+        }
+
+        byClaim.clear();
+        byMember.clear();
+        claims.forEach((claimId, list) -> byClaim.put(claimId, list.toArray(NO_MEMBERS)));
+        members.forEach((uuid, list) -> byMember.put(uuid, PlayerMemberships.of(list)));
+        loaded = true;
+        return true;
+    }
+
+    /**
+     * 멤버 관계 수
+     */
+    int size() {
+        int size = 0;
+        for (ClaimMember[] members : byClaim.values()) {
+            size += members.length;
+        }
+        return size;
+    }
+
+    private static int indexOf(ClaimMember[] members, UUID memberUuid) {
+        for (int i = 0; i < members.length; i++) {
+            if (members[i].getMemberUuid().equals(memberUuid)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,365 @@
+package com.github.jw010801.smpeconomymod.territory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 월드별 클레임 사각형 R-tree (청크 좌표)
+ * 겹침 검사, 확장 미리보기, 반경 검색을 메모리에서 O(log n)으로 처리한다.
+ * 생성 중인 클레임의 영역은 예약 목록에 따로 두어, 동시에 들어온 겹치는 생성 요청 중 하나만 통과시킨다.
+ * 데이터베이스의 unique 제약은 마지막 안전장치로 그대로 둔다.
+ */
+final class ClaimSpatialIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, RTree> worlds = new HashMap<>();
+    private final Set<Long> indexedIds = new HashSet<>();
+    private final List<Reservation> reservations = new ArrayList<>();
+
+    /**
+     * 클레임을 등록합니다. 이미 등록된 클레임은 무시한다.
+     */
+    void add(Claim claim) {
+        lock.writeLock().lock();
+        try {
+            if (indexedIds.add(claim.getId())) {
+                worlds.computeIfAbsent(claim.getWorldName(), world -> new RTree()).insert(claim);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 영역과 겹치는 클레임
+     */
+    List<Claim> findOverlapping(String worldName, int minX, int minZ, int maxX, int maxZ) {
+        List<Claim> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            RTree tree = worlds.get(worldName);
+            if (tree != null) {
+                tree.search(minX, minZ, maxX, maxZ, result);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * 청크 (chunkX, chunkZ)에서 radius 청크 안에 있는 클레임 (가까운 순서)
+     */
+    List<Claim> findNear(String worldName, int chunkX, int chunkZ, int radius) {
+        List<Claim> candidates = findOverlapping(worldName, chunkX - radius, chunkZ - radius, chunkX + radius, chunkZ + radius);
+
+        long radiusSquared = (long) radius * radius;
+        List<Claim> result = new ArrayList<>();
+        for (Claim claim : candidates) {
+            if (distanceSquared(claim, chunkX, chunkZ) <= radiusSquared) {
+                result.add(claim);
+            }
+        }
+        result.sort(Comparator.comparingLong(claim -> distanceSquared(claim, chunkX, chunkZ)));
+        return result;
+    }
+
+    /**
+     * 등록된 클레임과 생성 중인 다른 영역 모두와 겹치지 않으면 영역을 예약합니다.
+     */
+    Optional<Reservation> tryReserve(String worldName, int minX, int minZ, int maxX, int maxZ) {
+        lock.writeLock().lock();
+        try {
+            for (Reservation reservation : reservations) {
+                if (reservation.worldName.equals(worldName) && intersects(reservation.minX, reservation.minZ, reservation.maxX, reservation.maxZ, minX, minZ, maxX, maxZ)) {
+                    return Optional.empty();
+                }
+            }
+
+            RTree tree = worlds.get(worldName);
+            if (tree != null && tree.intersectsAny(minX, minZ, maxX, maxZ)) {
+                return Optional.empty();
+            }
+
+            Reservation reservation = new Reservation(worldName, minX, minZ, maxX, maxZ);
+            reservations.add(reservation);
+            return Optional.of(reservation);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 예약을 해제합니다. 클레임이 만들어졌다면 그 전에 add()로 등록되어 있어야 빈틈이 없다.
+     */
+    void release(Reservation reservation) {
+        lock.writeLock().lock();
+        try {
+            reservations.remove(reservation);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return indexedIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long distanceSquared(Claim claim, int chunkX, int chunkZ) {
+        long dx = Math.max(0, Math.max(claim.getMinX() - chunkX, chunkX - claim.getMaxX()));
+        long dz = Math.max(0, Math.max(claim.getMinZ() - chunkZ, chunkZ - claim.getMaxZ()));
+        return dx * dx + dz * dz;
+    }
+
+    private static boolean intersects(int aMinX, int aMinZ, int aMaxX, int aMaxZ, int bMinX, int bMinZ, int bMaxX, int bMaxZ) {
+        return aMinX <= bMaxX && aMaxX >= bMinX && aMinZ <= bMaxZ && aMaxZ >= bMinZ;
+    }
+
+    /**
+     * 생성 중인 클레임 영역
+     */
+    static final class Reservation {
+        private final String worldName;
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+
+        private Reservation(String worldName, int minX, int minZ, int maxX, int maxZ) {
+            this.worldName = worldName;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+        }
+    }
+
+    /**
+     * Guttman R-tree (quadratic split). 삭제는 아직 필요 없어 삽입과 검색만 지원한다.
+     */
+    private static final class RTree {
+        private static final int MAX_ENTRIES = 8;
+        private static final int MIN_ENTRIES = 3;
+
+        private Node root = new Node(true);
+
+        void insert(Claim claim) {
+            Node split = insert(root, Node.entry(claim));
+            if (split != null) {
+                Node newRoot = new Node(false);
+                newRoot.add(root);
+                newRoot.add(split);
+                root = newRoot;
+            }
+        }
+
+        void search(int minX, int minZ, int maxX, int maxZ, List<Claim> result) {
+            search(root, minX, minZ, maxX, maxZ, result);
+        }
+
+        boolean intersectsAny(int minX, int minZ, int maxX, int maxZ) {
+            return intersectsAny(root, minX, minZ, maxX, maxZ);
+        }
+
+        private static Node insert(Node node, Node entry) {
+            if (node.leaf) {
+                node.add(entry);
+            } else {
+                Node child = chooseSubtree(node, entry);
+                Node split = insert(child, entry);
+                node.include(entry);
+                if (split != null) {
+                    node.add(split);
+                }
+            }
+            return node.children.size() > MAX_ENTRIES ? split(node) : null;
+        }
+
+        private static Node chooseSubtree(Node node, Node entry) {
+            Node best = null;
+            long bestEnlargement = Long.MAX_VALUE;
+            long bestArea = Long.MAX_VALUE;
+
+            for (Node child : node.children) {
+                long area = child.area();
+                long enlargement = child.areaWith(entry) - area;
+                if (enlargement < bestEnlargement || (enlargement == bestEnlargement && area < bestArea)) {
+                    best = child;
+                    bestEnlargement = enlargement;
+                    bestArea = area;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * 넘친 노드를 둘로 나눠 node에 첫 그룹을 남기고 둘째 그룹을 새 노드로 반환합니다.
+         */
+        private static Node split(Node node) {
+            List<Node> remaining = new ArrayList<>(node.children);
+
+            // 함께 두면 가장 낭비가 큰 두 항목을 각 그룹의 시작으로
+            int seedA = 0;
+            int seedB = 1;
+            long worstWaste = Long.MIN_VALUE;
+            for (int i = 0; i < remaining.size(); i++) {
+                for (int j = i + 1; j < remaining.size(); j++) {
+                    Node a = remaining.get(i);
+                    Node b = remaining.get(j);
+                    long waste = a.areaWith(b) - a.area() - b.area();
+                    if (waste > worstWaste) {
+                        worstWaste = waste;
+                        seedA = i;
+                        seedB = j;
+                    }
+                }
+            }
+
+            Node groupA = new Node(node.leaf);
+            Node groupB = new Node(node.leaf);
+            groupA.add(remaining.get(seedA));
+            groupB.add(remaining.get(seedB));
+            remaining.remove(seedB);
+            remaining.remove(seedA);
+
+            while (!remaining.isEmpty()) {
+                // 한 그룹이 최소 개수를 채우려면 남은 것을 모두 받아야 하는 경우
+                if (groupA.children.size() + remaining.size() <= MIN_ENTRIES) {
+                    remaining.forEach(groupA::add);
+                    break;
+                }
+                if (groupB.children.size() + remaining.size() <= MIN_ENTRIES) {
+                    remaining.forEach(groupB::add);
+                    break;
+                }
+
+                // 어느 그룹에 넣느냐에 따라 차이가 가장 큰 항목부터 배정
+                int pick = 0;
+                long maxDifference = -1;
+                for (int i = 0; i < remaining.size(); i++) {
+                    Node candidate = remaining.get(i);
+                    long difference = Math.abs((groupA.areaWith(candidate) - groupA.area()) - (groupB.areaWith(candidate) - groupB.area()));
+                    if (difference > maxDifference) {
+                        maxDifference = difference;
+                        pick = i;
+                    }
+                }
+
+                Node candidate = remaining.remove(pick);
+                long enlargementA = groupA.areaWith(candidate) - groupA.area();
+                long enlargementB = groupB.areaWith(candidate) - groupB.area();
+                boolean toA = enlargementA != enlargementB ? enlargementA < enlargementB
+                        : groupA.area() != groupB.area() ? groupA.area() < groupB.area()
+                        : groupA.children.size() <= groupB.children.size();
+                (toA ? groupA : groupB).add(candidate);
+            }
+
+            node.children.clear();
+            node.resetBounds();
+            groupA.children.forEach(node::add);
+            return groupB;
+        }
+
+        private static void search(Node node, int minX, int minZ, int maxX, int maxZ, List<Claim> result) {
+            for (Node child : node.children) {
+                if (!child.intersects(minX, minZ, maxX, maxZ)) continue;
+
+                if (child.claim != null) {
+                    result.add(child.claim);
+                } else {
+                    search(child, minX, minZ, maxX, maxZ, result);
+                }
+            }
+        }
+
+        private static boolean intersectsAny(Node node, int minX, int minZ, int maxX, int maxZ) {
+            for (Node child : node.children) {
+                if (!child.intersects(minX, minZ, maxX, maxZ)) continue;
+
+                if (child.claim != null || intersectsAny(child, minX, minZ, maxX, maxZ)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 내부 노드, 리프 노드, 또는 클레임 항목 (claim != null)
+     */
+    private static final class Node {
+        final boolean leaf;
+        final List<Node> children;
+        final Claim claim;
+        int minX;
+        int minZ;
+        int maxX;
+        int maxZ;
+
+        Node(boolean leaf) {
+            this.leaf = leaf;
+            this.children = new ArrayList<>(RTree.MAX_ENTRIES + 1);
+            this.claim = null;
+            resetBounds();
+        }
+
+        private Node(Claim claim) {
+            this.leaf = false;
+            this.children = List.of();
+            this.claim = claim;
+            this.minX = claim.getMinX();
+            this.minZ = claim.getMinZ();
+            this.maxX = claim.getMaxX();
+            this.maxZ = claim.getMaxZ();
+        }
+
+        static Node entry(Claim claim) {
+            return new Node(claim);
+        }
+
+        void add(Node child) {
+            children.add(child);
+            include(child);
+        }
+
+        void include(Node other) {
+            minX = Math.min(minX, other.minX);
+            minZ = Math.min(minZ, other.minZ);
+            maxX = Math.max(maxX, other.maxX);
+            maxZ = Math.max(maxZ, other.maxZ);
+        }
+
+        void resetBounds() {
+            minX = Integer.MAX_VALUE;
+            minZ = Integer.MAX_VALUE;
+            maxX = Integer.MIN_VALUE;
+            maxZ = Integer.MIN_VALUE;
+        }
+
+        boolean intersects(int otherMinX, int otherMinZ, int otherMaxX, int otherMaxZ) {
+            return ClaimSpatialIndex.intersects(minX, minZ, maxX, maxZ, otherMinX, otherMinZ, otherMaxX, otherMaxZ);
+        }
+
+        long area() {
+            return ((long) maxX - minX + 1) * ((long) maxZ - minZ + 1);
+        }
+
+        long areaWith(Node other) {
+            long width = (long) Math.max(maxX, other.maxX) - Math.min(minX, other.minX) + 1;
+            long depth = (long) Math.max(maxZ, other.maxZ) - Math.min(minZ, other.minZ) + 1;
+            return width * depth;
+        }
+    }
+}
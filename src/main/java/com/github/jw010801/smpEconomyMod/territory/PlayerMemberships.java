@@ -0,0 +1,91 @@
+package com.github.jw010801.smpeconomymod.territory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 플레이어 한 명이 멤버로 속한 클레임 (클레임 ID 순으로 정렬된 배열)
+ * 조회는 이진 탐색 한 번이라 박싱 없이 할당이 없다. 바뀔 때는 새 객체를 만들어 통째로 교체한다.
+ */
+final class PlayerMemberships {
+
+    static final PlayerMemberships EMPTY = new PlayerMemberships(new long[0], new ClaimMember[0]);
+
+    private final long[] claimIds;
+    private final ClaimMember[] members;
+
+    private PlayerMemberships(long[] claimIds, ClaimMember[] members) {
+        this.claimIds = claimIds;
+        this.members = members;
+    }
+
+    static PlayerMemberships of(Collection<ClaimMember> memberships) {
+        ClaimMember[] members = memberships.toArray(new ClaimMember[0]);
+        Arrays.sort(members, Comparator.comparingLong(ClaimMember::getClaimId));
+
+        long[] claimIds = new long[members.length];
+        for (int i = 0; i < members.length; i++) {
+            claimIds[i] = members[i].getClaimId();
+        }
+        return new PlayerMemberships(claimIds, members);
+    }
+
+    /**
+     * 클레임의 멤버 정보 (멤버가 아니면 null)
+     */
+    ClaimMember get(long claimId) {
+        int index = Arrays.binarySearch(claimIds, claimId);
+        return index >= 0 ? members[index] : null;
+    }
+
+    /**
+     * member를 추가하거나 같은 클레임의 기존 멤버 정보를 바꾼 새 멤버십
+     */
+    PlayerMemberships with(ClaimMember member) {
+        int index = Arrays.binarySearch(claimIds, member.getClaimId());
+        if (index >= 0) {
+            ClaimMember[] updated = members.clone();
+            updated[index] = member;
+            return new PlayerMemberships(claimIds, updated);
+        }
+
+        int insertAt = -index - 1;
+        long[] grownIds = new long[claimIds.length + 1];
+        ClaimMember[] grownMembers = new ClaimMember[members.length + 1];
+        System.arraycopy(claimIds, 0, grownIds, 0, insertAt);
+        System.arraycopy(members, 0, grownMembers, 0, insertAt);
+        grownIds[insertAt] = member.getClaimId();
+        grownMembers[insertAt] = member;
+        System.arraycopy(claimIds, insertAt, grownIds, insertAt + 1, claimIds.length - insertAt);
+        System.arraycopy(members, insertAt, grownMembers, insertAt + 1, members.length - insertAt);
+        return new PlayerMemberships(grownIds, grownMembers);
+    }
+
+    /**
+     * 클레임을 뺀 새 멤버십 (멤버가 아니었으면 this)
+     */
+    PlayerMemberships without(long claimId) {
+        int index = Arrays.binarySearch(claimIds, claimId);
+        if (index < 0) {
+            return this;
+        }
+
+        long[] shrunkIds = new long[claimIds.length - 1];
+        ClaimMember[] shrunkMembers = new ClaimMember[members.length - 1];
+        System.arraycopy(claimIds, 0, shrunkIds, 0, index);
+        System.arraycopy(members, 0, shrunkMembers, 0, index);
+        System.arraycopy(claimIds, index + 1, shrunkIds, index, claimIds.length - index - 1);
+        System.arraycopy(members, index + 1, shrunkMembers, index, members.length - index - 1);
+        return new PlayerMemberships(shrunkIds, shrunkMembers);
+    }
+
+    List<ClaimMember> toList() {
+        return List.of(members);
+    }
+
+    int size() {
+        return claimIds.length;
+    }
+}
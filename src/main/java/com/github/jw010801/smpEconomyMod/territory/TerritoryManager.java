@@ -1,104 +1,178 @@
 package com.github.jw010801.smpeconomymod.territory;
 
 import com.github.jw010801.smpeconomymod.SmpEconomyMod;
+import com.github.jw010801.smpeconomymod.concurrent.ExecutorRegistry;
+import com.github.jw010801.smpeconomymod.concurrent.InstrumentedExecutor;
+import com.github.jw010801.smpeconomymod.config.ModConfig;
 import com.github.jw010801.smpeconomymod.database.DatabaseManager;
+import com.github.jw010801.smpeconomymod.economy.AccrualKind;
+import com.github.jw010801.smpeconomymod.economy.EconomyManager;
+import com.github.jw010801.smpeconomymod.economy.FundHold;
+import com.github.jw010801.smpeconomymod.economy.Money;
 
-import java.math.BigDecimal;
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 public class TerritoryManager {
     
     private final DatabaseManager databaseManager;
-    private final ScheduledExecutorService executor;
+    private final ExecutorRegistry executors;
+    private final InstrumentedExecutor executor;
     
-    // 캐시: (월드명, 청크좌표) -> 클레임 정보
-    private final ConcurrentHashMap<String, Claim> claimCache = new ConcurrentHashMap<>();
+    // 청크 -> 클레임 색인. 시작 시 모든 클레임을 읽은 뒤에는 색인에 없는 청크는 클레임되지 않은 청크다
+    private final ChunkClaimIndex claimIndex = new ChunkClaimIndex();
+    // 클레임 사각형 R-tree (겹침 검사, 반경 검색) 와 생성 중인 영역 예약
+    private final ClaimSpatialIndex claimAreas = new ClaimSpatialIndex();
+    private volatile boolean claimIndexLoaded = false;
+    // 색인을 다 읽기 전에 보호 검사가 들어온 청크 -> 데이터베이스 확인 결과 (true: 클레임 없음, false: 확인 중)
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Long, Boolean>> startupChunkChecks = new ConcurrentHashMap<>();
+    
+    // 모든 클레임 멤버 (클레임 -> 멤버, 멤버 -> 소속 클레임)
+    private final ClaimMemberIndex claimMembers = new ClaimMemberIndex();
+    // 클레임 ID -> 클레임, 소유자 -> 소유한 클레임 (/claim list 등 목록 조회용)
+    private final ConcurrentHashMap<Long, Claim> claimsById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Set<Claim>> claimsByOwner = new ConcurrentHashMap<>();
     
     // 경제 설정
-    public static final BigDecimal CLAIM_BASE_COST = new BigDecimal("100.00");
-    public static final BigDecimal CLAIM_COST_PER_CHUNK = new BigDecimal("10.00");
-    public static final BigDecimal DAILY_TAX_PER_CHUNK = new BigDecimal("1.00");
+    public static final Money CLAIM_BASE_COST = Money.ofUnits(100);
+    public static final Money CLAIM_COST_PER_CHUNK = Money.ofUnits(10);
+    public static final Money DAILY_TAX_PER_CHUNK = Money.ofUnits(1);
+    private static final long CLAIM_TAX_PERIOD_SECONDS = TimeUnit.DAYS.toSeconds(1);
+    private static final int MEMBER_LOAD_ATTEMPTS = 3;
+    // 색인 로드가 실패하면 이 간격부터 두 배씩 늘려 가며 다시 읽는다
+    private static final long INDEX_RETRY_MIN_SECONDS = 5;
+    private static final long INDEX_RETRY_MAX_SECONDS = TimeUnit.MINUTES.toSeconds(5);
     
-    public TerritoryManager(DatabaseManager databaseManager) {
+    public TerritoryManager(DatabaseManager databaseManager, ExecutorRegistry executors, ModConfig config) {
         this.databaseManager = databaseManager;
-        this.executor = Executors.newScheduledThreadPool(2);
-        
-        // 매일 자정에 세금 징수
-        scheduleDaily(this::collectDailyTaxes);
+        this.executors = executors;
+        this.executor = executors.pool("territory-io", config.concurrency.territoryIoConcurrency);
         
         // 30분마다 캐시 동기화
-        this.executor.scheduleAtFixedRate(this::syncCacheToDatabase, 30, 30, TimeUnit.MINUTES);
+        executors.scheduleAtFixedRate(this::syncCacheToDatabase, 30, 30, TimeUnit.MINUTES, executor);
         
         SmpEconomyMod.LOGGER.info("TerritoryManager 초기화됨");
     }
     
     /**
      * 새로운 영토를 클레임합니다.
+     * 영역과 비용을 먼저 예약하고 데이터베이스 작업이 끝나면 확정, 실패하면 예약을 해제한다.
+     * 영역 예약 덕분에 동시에 들어온 겹치는 생성 요청은 하나만 통과한다.
+     * 밀린 영토 세금이 한도(AccrualKind.CLAIM_TAX)를 넘은 플레이어는 세금을 정산해 다 낼 때까지 새로 클레임할 수 없다.
+     * 어느 단계도 다른 스레드 풀의 결과를 기다리며 멈추지 않는다.
      */
     public CompletableFuture<ClaimResult> createClaim(UUID ownerUuid, String worldName, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // 영역 유효성 검사
-                if (minChunkX > maxChunkX || minChunkZ > maxChunkZ) {
-                    return ClaimResult.failure("잘못된 영역 좌표입니다.");
-                }
-                
-                // 겹치는 클레임 확인
-                if (hasOverlappingClaim(worldName, minChunkX, minChunkZ, maxChunkX, maxChunkZ)) {
-                    return ClaimResult.failure("이미 클레임된 영역과 겹칩니다.");
-                }
-                
-                // 비용 계산
-                int chunkCount = (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
-                BigDecimal totalCost = CLAIM_BASE_COST.add(CLAIM_COST_PER_CHUNK.multiply(new BigDecimal(chunkCount)));
-                
-                // 잔액 확인 및 차감
-                if (!SmpEconomyMod.economyManager.subtractBalance(ownerUuid, totalCost, "영토 클레임 비용").get()) {
-                    return ClaimResult.failure("잔액이 부족합니다. 필요 금액: " + totalCost);
-                }
-                
-                // 데이터베이스에 클레임 생성
-                long claimId = createClaimInDatabase(ownerUuid, worldName, minChunkX, minChunkZ, maxChunkX, maxChunkZ);
-                
-                // 세금 정보 생성
-                createClaimTax(claimId, DAILY_TAX_PER_CHUNK.multiply(new BigDecimal(chunkCount)));
-                
-                // 캐시 업데이트
-                Claim newClaim = new Claim(claimId, ownerUuid, worldName, minChunkX, minChunkZ, maxChunkX, maxChunkZ, System.currentTimeMillis());
-                addClaimToCache(newClaim);
-                
-                SmpEconomyMod.LOGGER.info("새 클레임 생성: {} (소유자: {}, 청크: {}개)", claimId, ownerUuid, chunkCount);
-                
-                return ClaimResult.success(newClaim, "영토가 성공적으로 클레임되었습니다! 비용: " + totalCost);
-                
-            } catch (Exception e) {
-                SmpEconomyMod.LOGGER.error("클레임 생성 중 오류: {}", e.getMessage(), e);
-                return ClaimResult.failure("클레임 생성 중 오류가 발생했습니다.");
+        // 영역 유효성 검사
+        if (minChunkX > maxChunkX || minChunkZ > maxChunkZ) {
+            return CompletableFuture.completedFuture(ClaimResult.failure("잘못된 영역 좌표입니다."));
+        }
+        
+        // 비용 계산
+        int chunkCount = (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+        Money totalCost = CLAIM_BASE_COST.add(CLAIM_COST_PER_CHUNK.multiply(chunkCount));
+        
+        // 밀린 세금을 먼저 정산 (잔액이 있으면 이때 낸다)
+        EconomyManager economy = SmpEconomyMod.economyManager;
+        return economy.settleAccruals(ownerUuid).thenCompose(settled -> {
+            if (economy.hasArrearsOverLimit(ownerUuid)) {
+                return CompletableFuture.completedFuture(ClaimResult.failure(
+                        "밀린 영토 세금이 " + AccrualKind.CLAIM_TAX.getArrearsLimit() + "을 넘어 새 영토를 클레임할 수 없습니다. 잔액을 채우면 세금이 정산됩니다."));
             }
+            return reserveAndCreateClaim(ownerUuid, worldName, minChunkX, minChunkZ, maxChunkX, maxChunkZ, chunkCount, totalCost);
+        });
+    }
+    
+    private CompletableFuture<ClaimResult> reserveAndCreateClaim(UUID ownerUuid, String worldName, int minChunkX, int minChunkZ, 
+                                                                 int maxChunkX, int maxChunkZ, int chunkCount, Money totalCost) {
+        // 겹치는 클레임 확인 및 영역 예약
+        return reserveArea(worldName, minChunkX, minChunkZ, maxChunkX, maxChunkZ).thenCompose(area -> {
+            if (area.isEmpty()) {
+                return CompletableFuture.completedFuture(ClaimResult.failure("이미 클레임된 영역과 겹칩니다."));
+            }
+            
+            // 잔액 확인 및 예약
+            return SmpEconomyMod.economyManager.reserveFunds(ownerUuid, totalCost, "영토 클레임 비용")
+                .thenComposeAsync(hold -> {
+                    if (hold.isEmpty()) {
+                        return CompletableFuture.completedFuture(ClaimResult.failure("잔액이 부족합니다. 필요 금액: " + totalCost));
+                    }
+                    return createReservedClaim(hold.get(), ownerUuid, worldName, minChunkX, minChunkZ, maxChunkX, maxChunkZ, chunkCount, totalCost);
+                }, executor)
+                // 성공했으면 클레임이 이미 색인에 들어 있다
+                .whenComplete((result, e) -> claimAreas.release(area.get()));
+        }).exceptionally(e -> {
+            SmpEconomyMod.LOGGER.error("클레임 생성 중 오류: {}", e.getMessage(), e);
+            return ClaimResult.failure("클레임 생성 중 오류가 발생했습니다.");
+        });
+    }
+    
+    /**
+     * 비용이 예약된 상태에서 클레임을 기록하고 예약을 확정합니다.
+     */
+    private CompletableFuture<ClaimResult> createReservedClaim(FundHold hold, UUID ownerUuid, String worldName, 
+                                                               int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ,
+                                                               int chunkCount, Money totalCost) {
+        long claimId;
+        try {
+            // 데이터베이스에 클레임 생성
+            claimId = createClaimInDatabase(ownerUuid, worldName, minChunkX, minChunkZ, maxChunkX, maxChunkZ);
+            
+            // 세금은 누적 항목으로 등록 (소유자 계정을 조회하거나 바꿀 때 지난 날짜만큼 정산)
+            createClaimTax(claimId, ownerUuid, DAILY_TAX_PER_CHUNK.multiply(chunkCount));
+        } catch (SQLException e) {
+            SmpEconomyMod.LOGGER.error("클레임 생성 중 오류: {}", e.getMessage(), e);
+            return SmpEconomyMod.economyManager.releaseHold(hold)
+                .thenApply(released -> ClaimResult.failure("클레임 생성 중 오류가 발생했습니다."));
+        }
+        
+        return SmpEconomyMod.economyManager.commitHold(hold).thenApplyAsync(committed -> {
+            if (!committed) {
+                // 예약이 만료되는 등 비용을 받지 못했으면 클레임을 되돌린다
+                deleteClaimFromDatabase(claimId);
+                return ClaimResult.failure("비용 처리에 실패해 클레임을 취소했습니다.");
+            }
+            
+            // 캐시 업데이트
+            Claim newClaim = new Claim(claimId, ownerUuid, worldName, minChunkX, minChunkZ, maxChunkX, maxChunkZ, System.currentTimeMillis());
+            addClaimToCache(newClaim);
+            
+            SmpEconomyMod.LOGGER.info("새 클레임 생성: {} (소유자: {}, 청크: {}개)", claimId, ownerUuid, chunkCount);
+            
+            return ClaimResult.success(newClaim, "영토가 성공적으로 클레임되었습니다! 비용: " + totalCost);
         }, executor);
     }
     
+    private void deleteClaimFromDatabase(long claimId) {
+        String deleteQuery = "DELETE FROM claims WHERE id = ?";
+        
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(deleteQuery)) {
+            
+            stmt.setLong(1, claimId);
+            stmt.executeUpdate();
+            SmpEconomyMod.economyManager.removeAccrual(AccrualKind.CLAIM_TAX, claimId);
+        } catch (SQLException e) {
+            SmpEconomyMod.LOGGER.error("클레임 {} 취소 실패: {}", claimId, e.getMessage());
+        }
+    }
+    
     /**
      * 특정 위치의 클레임 정보를 조회합니다.
+     * 색인을 다 읽은 뒤에는 데이터베이스를 거치지 않고 바로 완료된다.
      */
     public CompletableFuture<Optional<Claim>> getClaimAt(String worldName, int chunkX, int chunkZ) {
-        return CompletableFuture.supplyAsync(() -> {
+        Claim indexed = claimIndex.get(worldName, chunkX, chunkZ);
+        if (indexed != null || claimIndexLoaded) {
+            return CompletableFuture.completedFuture(Optional.ofNullable(indexed));
+        }
+        
+        return InstrumentedExecutor.supplyAsync(() -> {
             try {
-                // 캐시에서 먼저 찾기
-                String cacheKey = getCacheKey(worldName, chunkX, chunkZ);
-                for (Claim claim : claimCache.values()) {
-                    if (claim.contains(worldName, chunkX, chunkZ)) {
-                        return Optional.of(claim);
-                    }
-                }
-                
-                // 데이터베이스에서 조회
+                // 색인을 읽는 중이면 데이터베이스에서 조회
                 return getClaimFromDatabase(worldName, chunkX, chunkZ);
                 
             } catch (Exception e) {
@@ -108,6 +182,162 @@ public class TerritoryManager {
         }, executor);
     }
     
+    /**
+     * 색인에서 청크를 포함하는 클레임을 찾습니다. (없으면 null, 할당 없음)
+     * 클레임이 없는 영역의 청크는 영역 비트맵만 보고 바로 null을 반환하므로 몹 스폰, 폭발, 이동 같은 야생 검사에 써도 된다.
+     * 시작 시 색인을 다 읽기 전에는 아직 읽지 않은 클레임을 놓칠 수 있다. (isClaimIndexLoaded 참고)
+     */
+    public Claim findClaimAt(String worldName, int chunkX, int chunkZ) {
+        return claimIndex.get(worldName, chunkX, chunkZ);
+    }
+    
+    public boolean isClaimIndexLoaded() {
+        return claimIndexLoaded;
+    }
+    
+    /**
+     * 모든 클레임을 읽어 청크 색인을 채우고, 이어서 모든 클레임 멤버를 읽습니다. (서버 시작 시 한 번)
+     * 반환된 작업은 첫 시도가 끝나면 완료된다. 실패한 쪽은 간격을 늘려 가며 다 읽을 때까지 다시 시도한다.
+     */
+    public CompletableFuture<Void> loadClaimIndex() {
+        return InstrumentedExecutor.runAsync(() -> loadClaimIndex(INDEX_RETRY_MIN_SECONDS), executor);
+    }
+    
+    private void loadClaimIndex(long retryDelaySeconds) {
+        boolean claimsLoaded = claimIndexLoaded || loadClaims();
+        boolean membersLoaded = claimMembers.isLoaded() || loadClaimMembers();
+        if (claimsLoaded && membersLoaded) {
+            return;
+        }
+        
+        long nextDelaySeconds = Math.min(retryDelaySeconds * 2, INDEX_RETRY_MAX_SECONDS);
+        SmpEconomyMod.LOGGER.warn("클레임 색인을 다 읽지 못해 {}초 뒤 다시 시도합니다. (클레임: {}, 멤버: {})", 
+                retryDelaySeconds, claimsLoaded ? "완료" : "실패", membersLoaded ? "완료" : "실패");
+        executors.schedule(() -> loadClaimIndex(nextDelaySeconds), retryDelaySeconds, TimeUnit.SECONDS, executor);
+    }
+    
+    /**
+     * 모든 클레임을 읽어 청크 색인을 채웁니다. 실패하면 false (읽은 만큼은 색인에 남고, 다시 읽어도 중복되지 않는다)
+     */
+    private boolean loadClaims() {
+        String query = "SELECT * FROM claims";
+        
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            stmt.setFetchSize(databaseManager.getBackend().getStreamingFetchSize());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    addClaimToCache(readClaim(rs));
+                }
+            }
+            
+            claimIndexLoaded = true;
+            startupChunkChecks.clear();
+            SmpEconomyMod.LOGGER.info("클레임 색인 로드 완료 (클레임 {}개, 청크 {}개, 영역 {}개)", 
+                    claimAreas.size(), claimIndex.size(), claimIndex.regionCount());
+            return true;
+        } catch (SQLException e) {
+            // 색인이 완전하지 않은 동안 getClaimAt은 데이터베이스로 조회한다
+            SmpEconomyMod.LOGGER.error("클레임 색인 로드 실패: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 모든 클레임 멤버를 읽어 멤버 색인을 채웁니다. 실패하면 false
+     * 읽는 사이 신뢰/불신뢰가 있었으면 읽은 결과가 오래되었을 수 있어 다시 읽는다.
+     */
+    private boolean loadClaimMembers() {
+        String query = "SELECT claim_id, member_uuid, permission_level, added_at FROM claim_members";
+        
+        for (int attempt = 1; attempt <= MEMBER_LOAD_ATTEMPTS; attempt++) {
+            long versionBeforeLoad = claimMembers.version();
+            List<ClaimMember> members = new ArrayList<>();
+            
+            try (Connection conn = databaseManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                
+                stmt.setFetchSize(databaseManager.getBackend().getStreamingFetchSize());
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        members.add(readClaimMember(rs, rs.getLong("claim_id"), UUID.fromString(rs.getString("member_uuid"))));
+                    }
+                }
+            } catch (SQLException e) {
+                // 멤버 색인이 없으면 남의 클레임에서는 거부하고, 멤버 조회는 데이터베이스로 한다
+                SmpEconomyMod.LOGGER.error("클레임 멤버 로드 실패: {}", e.getMessage());
+                return false;
+            }
+            
+            if (claimMembers.install(members, versionBeforeLoad)) {
+                SmpEconomyMod.LOGGER.info("클레임 멤버 로드 완료 (멤버 {}명)", members.size());
+                return true;
+            }
+        }
+        
+        SmpEconomyMod.LOGGER.error("클레임 멤버 로드 실패: 읽는 동안 멤버가 계속 바뀜 ({}회 시도)", MEMBER_LOAD_ATTEMPTS);
+        return false;
+    }
+    
+    /**
+     * 플레이어가 청크에서 action을 할 수 있는지 바로 확인합니다. (블록 설치/파괴 등 서버 스레드의 월드 이벤트용)
+     * 색인을 다 읽은 뒤에는 메모리의 청크 색인과 멤버 색인만 보므로 데이터베이스를 거치지 않고 할당도 없다.
+     * 클레임 색인을 다 읽기 전에는 색인에 없는 청크를 거부하고 데이터베이스 확인을 비동기로 시작한다.
+     * 확인이 끝나 클레임이 없는 청크로 밝혀지면 그때부터 허용하고, 멤버 색인을 다 읽기 전에는 남의 클레임을 거부한다.
+     */
+    public boolean canPerform(UUID playerUuid, String worldName, int chunkX, int chunkZ, ClaimMember.ClaimAction action) {
+        Claim claim = claimIndex.get(worldName, chunkX, chunkZ);
+        if (claim == null) {
+            return claimIndexLoaded || isCheckedWilderness(worldName, chunkX, chunkZ);
+        }
+        if (claim.getOwnerUuid().equals(playerUuid)) {
+            return true;
+        }
+        
+        if (!claimMembers.isLoaded()) {
+            return false;
+        }
+        
+        ClaimMember member = claimMembers.get(playerUuid, claim.getId());
+        return member != null && member.canPerformAction(action);
+    }
+    
+    /**
+     * 색인을 다 읽기 전, 색인에 없는 청크가 데이터베이스에서 클레임 없음으로 확인되었는지 (처음 묻는 청크면 확인을 시작한다)
+     * 확인하는 사이 새로 생긴 클레임은 색인에 먼저 들어가므로 여기까지 오지 않는다.
+     */
+    private boolean isCheckedWilderness(String worldName, int chunkX, int chunkZ) {
+        ConcurrentHashMap<Long, Boolean> checks = startupChunkChecks.computeIfAbsent(worldName, world -> new ConcurrentHashMap<>());
+        long key = ChunkClaimIndex.pack(chunkX, chunkZ);
+        Boolean checked = checks.putIfAbsent(key, Boolean.FALSE);
+        if (checked != null) {
+            return checked;
+        }
+        
+        InstrumentedExecutor.runAsync(() -> {
+            try {
+                Optional<Claim> found = getClaimFromDatabase(worldName, chunkX, chunkZ);
+                if (found.isPresent()) {
+                    addClaimToCache(found.get());
+                    checks.remove(key);
+                } else if (!claimIndexLoaded) {
+                    checks.put(key, Boolean.TRUE);
+                }
+            } catch (SQLException e) {
+                // 다음 검사 때 다시 확인한다
+                checks.remove(key);
+                SmpEconomyMod.LOGGER.debug("청크 {} ({}, {}) 클레임 확인 실패: {}", worldName, chunkX, chunkZ, e.getMessage());
+            }
+        }, executor).exceptionally(e -> {
+            checks.remove(key);
+            return null;
+        });
+        return false;
+    }
+    
     /**
      * 플레이어의 클레임 권한을 확인합니다.
      */
@@ -142,7 +372,7 @@ public class TerritoryManager {
      * 클레임에 멤버를 추가합니다.
      */
     public CompletableFuture<Boolean> addClaimMember(long claimId, UUID memberUuid, ClaimMember.PermissionLevel level) {
-        return CompletableFuture.supplyAsync(() -> {
+        return InstrumentedExecutor.supplyAsync(() -> {
             try {
                 String insertQuery = "INSERT INTO claim_members (claim_id, member_uuid, permission_level) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE permission_level = VALUES(permission_level)";
                 
@@ -154,6 +384,12 @@ public class TerritoryManager {
                     stmt.setString(3, level.name().toLowerCase());
                     
                     int rowsAffected = stmt.executeUpdate();
+                    if (rowsAffected > 0) {
+                        // 기존 멤버의 권한만 바뀐 경우에도 추가된 시각은 유지
+                        ClaimMember existing = claimMembers.get(memberUuid, claimId);
+                        long addedAt = existing != null ? existing.getAddedAt() : System.currentTimeMillis();
+                        claimMembers.put(new ClaimMember(claimId, memberUuid, level, addedAt));
+                    }
                     return rowsAffected > 0;
                 }
                 
@@ -165,15 +401,203 @@ public class TerritoryManager {
     }
     
     /**
-     * 겹치는 클레임이 있는지 확인
+     * 클레임에서 멤버를 제거합니다. (멤버가 아니었으면 false)
      */
-    private boolean hasOverlappingClaim(String worldName, int minX, int minZ, int maxX, int maxZ) {
+    public CompletableFuture<Boolean> removeClaimMember(long claimId, UUID memberUuid) {
+        return InstrumentedExecutor.supplyAsync(() -> {
+            String deleteQuery = "DELETE FROM claim_members WHERE claim_id = ? AND member_uuid = ?";
+            
+            try (Connection conn = databaseManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(deleteQuery)) {
+                
+                stmt.setLong(1, claimId);
+                stmt.setString(2, memberUuid.toString());
+                
+                int rowsAffected = stmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    claimMembers.remove(claimId, memberUuid);
+                }
+                return rowsAffected > 0;
+                
+            } catch (SQLException e) {
+                SmpEconomyMod.LOGGER.error("클레임 멤버 제거 실패: {}", e.getMessage());
+                return false;
+            }
+        }, executor);
+    }
+    
+    /**
+     * 클레임의 멤버 목록 (추가된 순서)
+     * 멤버 색인을 다 읽은 뒤에는 데이터베이스를 거치지 않고 바로 완료된다.
+     */
+    public CompletableFuture<List<ClaimMember>> getClaimMembers(long claimId) {
+        if (claimMembers.isLoaded()) {
+            List<ClaimMember> members = new ArrayList<>(claimMembers.membersOf(claimId));
+            members.sort(Comparator.comparingLong(ClaimMember::getAddedAt));
+            return CompletableFuture.completedFuture(members);
+        }
+        
+        return InstrumentedExecutor.supplyAsync(() -> {
+            String query = "SELECT * FROM claim_members WHERE claim_id = ? ORDER BY added_at";
+            List<ClaimMember> members = new ArrayList<>();
+            
+            try (Connection conn = databaseManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                
+                stmt.setLong(1, claimId);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        members.add(readClaimMember(rs, claimId, UUID.fromString(rs.getString("member_uuid"))));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+            return members;
+        }, executor);
+    }
+    
+    /**
+     * 플레이어가 소유한 클레임 (ID 순서)
+     */
+    public CompletableFuture<List<Claim>> getOwnedClaims(UUID ownerUuid) {
+        if (claimIndexLoaded) {
+            List<Claim> claims = new ArrayList<>(claimsByOwner.getOrDefault(ownerUuid, Set.of()));
+            claims.sort(Comparator.comparingLong(Claim::getId));
+            return CompletableFuture.completedFuture(claims);
+        }
+        
+        return InstrumentedExecutor.supplyAsync(() -> {
+            String query = "SELECT * FROM claims WHERE owner_uuid = ? ORDER BY id";
+            List<Claim> claims = new ArrayList<>();
+            
+            try (Connection conn = databaseManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                
+                stmt.setString(1, ownerUuid.toString());
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        claims.add(readClaim(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+            return claims;
+        }, executor);
+    }
+    
+    /**
+     * 플레이어가 멤버로서 action을 할 수 있는 다른 사람의 클레임 (ID 순서, 예: BUILD면 건설할 수 있는 클레임)
+     * 클레임 색인과 멤버 색인을 다 읽은 뒤에는 데이터베이스를 거치지 않고 바로 완료된다.
+     */
+    public CompletableFuture<List<Claim>> getMemberClaims(UUID memberUuid, ClaimMember.ClaimAction action) {
+        if (claimIndexLoaded && claimMembers.isLoaded()) {
+            List<Claim> claims = new ArrayList<>();
+            for (ClaimMember member : claimMembers.claimsOf(memberUuid)) {
+                Claim claim = claimsById.get(member.getClaimId());
+                if (claim != null && member.canPerformAction(action)) {
+                    claims.add(claim);
+                }
+            }
+            return CompletableFuture.completedFuture(claims);
+        }
+        
+        return InstrumentedExecutor.supplyAsync(() -> {
+            String query = """
+                SELECT c.*, cm.permission_level
+                FROM claim_members cm
+                JOIN claims c ON c.id = cm.claim_id
+                WHERE cm.member_uuid = ?
+                ORDER BY c.id
+                """;
+            List<Claim> claims = new ArrayList<>();
+            
+            try (Connection conn = databaseManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                
+                stmt.setString(1, memberUuid.toString());
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ClaimMember.PermissionLevel level = ClaimMember.PermissionLevel.valueOf(rs.getString("permission_level").toUpperCase());
+                        if (new ClaimMember(rs.getLong("id"), memberUuid, level, 0).canPerformAction(action)) {
+                            claims.add(readClaim(rs));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+            return claims;
+        }, executor);
+    }
+    
+    /**
+     * 등록된 클레임과 생성 중인 영역 모두와 겹치지 않으면 영역을 예약합니다. (겹치면 빈 값)
+     * 색인을 다 읽기 전에는 아직 색인에 없는 클레임이 있을 수 있어 데이터베이스로도 확인한다.
+     */
+    private CompletableFuture<Optional<ClaimSpatialIndex.Reservation>> reserveArea(String worldName, int minX, int minZ, int maxX, int maxZ) {
+        if (claimIndexLoaded) {
+            return CompletableFuture.completedFuture(claimAreas.tryReserve(worldName, minX, minZ, maxX, maxZ));
+        }
+        
+        return InstrumentedExecutor.supplyAsync(() -> {
+            try {
+                if (!selectClaimsInArea(worldName, minX, minZ, maxX, maxZ).isEmpty()) {
+                    return Optional.empty();
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+            return claimAreas.tryReserve(worldName, minX, minZ, maxX, maxZ);
+        }, executor);
+    }
+    
+    /**
+     * 영역과 겹치는 클레임을 찾습니다. (확장 미리보기 등)
+     * 색인을 다 읽은 뒤에는 메모리의 R-tree에서 바로 완료된다.
+     */
+    public CompletableFuture<List<Claim>> findOverlappingClaims(String worldName, int minX, int minZ, int maxX, int maxZ) {
+        if (claimIndexLoaded) {
+            return CompletableFuture.completedFuture(claimAreas.findOverlapping(worldName, minX, minZ, maxX, maxZ));
+        }
+        
+        return InstrumentedExecutor.supplyAsync(() -> {
+            try {
+                return selectClaimsInArea(worldName, minX, minZ, maxX, maxZ);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+    
+    /**
+     * 청크에서 radius 청크 안에 있는 클레임을 가까운 순서로 찾습니다.
+     */
+    public CompletableFuture<List<Claim>> findClaimsNear(String worldName, int chunkX, int chunkZ, int radius) {
+        if (claimIndexLoaded) {
+            return CompletableFuture.completedFuture(claimAreas.findNear(worldName, chunkX, chunkZ, radius));
+        }
+        
+        // 색인을 읽는 중에는 사각형 범위를 데이터베이스에서 읽어 색인에 넣은 뒤 같은 방식으로 거른다
+        return findOverlappingClaims(worldName, chunkX - radius, chunkZ - radius, chunkX + radius, chunkZ + radius)
+            .thenApply(claims -> {
+                claims.forEach(this::addClaimToCache);
+                return claimAreas.findNear(worldName, chunkX, chunkZ, radius);
+            });
+    }
+    
+    private List<Claim> selectClaimsInArea(String worldName, int minX, int minZ, int maxX, int maxZ) throws SQLException {
         String query = """
-            SELECT COUNT(*) FROM claims
+            SELECT * FROM claims
             WHERE world_name = ?
             AND NOT (max_x < ? OR min_x > ? OR max_z < ? OR min_z > ?)
             """;
         
+        List<Claim> claims = new ArrayList<>();
         try (Connection conn = databaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
@@ -184,15 +608,12 @@ public class TerritoryManager {
             stmt.setInt(5, maxZ);
             
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
+                while (rs.next()) {
+                    claims.add(readClaim(rs));
                 }
             }
-        } catch (SQLException e) {
-            SmpEconomyMod.LOGGER.error("겹치는 클레임 확인 중 오류: {}", e.getMessage());
         }
-        
-        return false;
+        return claims;
     }
     
     private long createClaimInDatabase(UUID ownerUuid, String worldName, int minX, int minZ, int maxX, int maxZ) throws SQLException {
@@ -220,16 +641,8 @@ public class TerritoryManager {
         }
     }
     
-    private void createClaimTax(long claimId, BigDecimal dailyTax) throws SQLException {
-        String insertQuery = "INSERT INTO claim_tax (claim_id, daily_tax) VALUES (?, ?)";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
-            
-            stmt.setLong(1, claimId);
-            stmt.setBigDecimal(2, dailyTax);
-            stmt.executeUpdate();
-        }
+    private void createClaimTax(long claimId, UUID ownerUuid, Money dailyTax) throws SQLException {
+        SmpEconomyMod.economyManager.addAccrual(ownerUuid, AccrualKind.CLAIM_TAX, claimId, dailyTax, 0, CLAIM_TAX_PERIOD_SECONDS);
     }
     
     private Optional<Claim> getClaimFromDatabase(String worldName, int chunkX, int chunkZ) throws SQLException {
@@ -246,16 +659,7 @@ public class TerritoryManager {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Claim claim = new Claim(
-                        rs.getLong("id"),
-                        UUID.fromString(rs.getString("owner_uuid")),
-                        rs.getString("world_name"),
-                        rs.getInt("min_x"),
-                        rs.getInt("min_z"),
-                        rs.getInt("max_x"),
-                        rs.getInt("max_z"),
-                        rs.getTimestamp("created_at").getTime()
-                    );
+                    Claim claim = readClaim(rs);
                     
                     // 캐시에 추가
                     addClaimToCache(claim);
@@ -268,9 +672,28 @@ public class TerritoryManager {
         return Optional.empty();
     }
     
+    /**
+     * claims 테이블의 현재 행을 Claim으로 읽습니다. (세션 로더도 같은 매핑을 쓴다)
+     */
+    public static Claim readClaim(ResultSet rs) throws SQLException {
+        return new Claim(
+            rs.getLong("id"),
+            UUID.fromString(rs.getString("owner_uuid")),
+            rs.getString("world_name"),
+            rs.getInt("min_x"),
+            rs.getInt("min_z"),
+            rs.getInt("max_x"),
+            rs.getInt("max_z"),
+            rs.getTimestamp("created_at").getTime()
+        );
+    }
+    
     private ClaimMember getClaimMember(long claimId, UUID memberUuid) {
-        // TODO: 캐싱된 멤버 정보 조회 구현
-        // 현재는 간단히 데이터베이스에서 직접 조회
+        if (claimMembers.isLoaded()) {
+            return claimMembers.get(memberUuid, claimId);
+        }
+        
+        // 멤버 색인을 읽는 중이면 데이터베이스에서 직접 조회
         String query = "SELECT * FROM claim_members WHERE claim_id = ? AND member_uuid = ?";
         
         try (Connection conn = databaseManager.getConnection();
@@ -281,12 +704,7 @@ public class TerritoryManager {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new ClaimMember(
-                        claimId,
-                        memberUuid,
-                        ClaimMember.PermissionLevel.valueOf(rs.getString("permission_level").toUpperCase()),
-                        rs.getTimestamp("added_at").getTime()
-                    );
+                    return readClaimMember(rs, claimId, memberUuid);
                 }
             }
         } catch (SQLException e) {
@@ -296,124 +714,40 @@ public class TerritoryManager {
         return null;
     }
     
-    private void addClaimToCache(Claim claim) {
-        String key = String.format("%s:%d-%d-%d-%d", claim.getWorldName(), claim.getMinX(), claim.getMinZ(), claim.getMaxX(), claim.getMaxZ());
-        claimCache.put(key, claim);
-    }
-    
-    private String getCacheKey(String worldName, int chunkX, int chunkZ) {
-        return String.format("%s:%d:%d", worldName, chunkX, chunkZ);
+    private static ClaimMember readClaimMember(ResultSet rs, long claimId, UUID memberUuid) throws SQLException {
+        return new ClaimMember(
+            claimId,
+            memberUuid,
+            ClaimMember.PermissionLevel.valueOf(rs.getString("permission_level").toUpperCase()),
+            rs.getTimestamp("added_at").getTime()
+        );
     }
     
     /**
-     * 매일 세금 징수
+     * 세션 로더가 읽은 소유 클레임으로 색인을 채웁니다. (클레임 색인을 다 읽기 전에 접속한 경우 도움이 된다)
      */
-    private void collectDailyTaxes() {
-        SmpEconomyMod.LOGGER.info("일일 영토 세금 징수를 시작합니다...");
-        
-        String query = """
-            SELECT ct.claim_id, ct.daily_tax, c.owner_uuid, ct.tax_arrears
-            FROM claim_tax ct
-            JOIN claims c ON ct.claim_id = c.id
-            WHERE DATEDIFF(NOW(), ct.last_tax_paid) >= 1
-            """;
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    long claimId = rs.getLong("claim_id");
-                    BigDecimal dailyTax = rs.getBigDecimal("daily_tax");
-                    UUID ownerUuid = UUID.fromString(rs.getString("owner_uuid"));
-                    BigDecimal currentArrears = rs.getBigDecimal("tax_arrears");
-                    
-                    // 세금 징수 시도
-                    boolean paidSuccessfully = SmpEconomyMod.economyManager.subtractBalance(
-                        ownerUuid, dailyTax, "영토 일일 세금 (클레임 ID: " + claimId + ")"
-                    ).get();
-                    
-                    if (paidSuccessfully) {
-                        // 성공적으로 징수된 경우
-                        updateTaxPaid(claimId);
-                        SmpEconomyMod.LOGGER.debug("영토 {} 세금 징수 완료: {}", claimId, dailyTax);
-                    } else {
-                        // 징수 실패 - 연체료 누적
-                        BigDecimal newArrears = currentArrears.add(dailyTax);
-                        updateTaxArrears(claimId, newArrears);
-                        SmpEconomyMod.LOGGER.warn("영토 {} 세금 징수 실패. 연체료 누적: {}", claimId, newArrears);
-                        
-                        // 연체료가 일정 금액 이상이면 클레임 보호 해제 (TODO)
-                        if (newArrears.compareTo(new BigDecimal("100.00")) > 0) {
-                            SmpEconomyMod.LOGGER.warn("영토 {} 연체료 과다로 보호 해제 예정", claimId);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            SmpEconomyMod.LOGGER.error("일일 세금 징수 중 오류: {}", e.getMessage(), e);
+    public void warmPlayerClaims(List<Claim> ownedClaims) {
+        for (Claim claim : ownedClaims) {
+            addClaimToCache(claim);
         }
-        
-        SmpEconomyMod.LOGGER.info("일일 영토 세금 징수 완료");
     }
     
-    private void updateTaxPaid(long claimId) throws SQLException {
-        String updateQuery = "UPDATE claim_tax SET last_tax_paid = NOW(), tax_arrears = 0 WHERE claim_id = ?";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(updateQuery)) {
-            
-            stmt.setLong(1, claimId);
-            stmt.executeUpdate();
-        }
-    }
-    
-    private void updateTaxArrears(long claimId, BigDecimal arrears) throws SQLException {
-        String updateQuery = "UPDATE claim_tax SET tax_arrears = ? WHERE claim_id = ?";
-        
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(updateQuery)) {
-            
-            stmt.setBigDecimal(1, arrears);
-            stmt.setLong(2, claimId);
-            stmt.executeUpdate();
-        }
-    }
-    
-    private void scheduleDaily(Runnable task) {
-        Calendar now = Calendar.getInstance();
-        Calendar nextRun = Calendar.getInstance();
-        nextRun.set(Calendar.HOUR_OF_DAY, 0); // 자정
-        nextRun.set(Calendar.MINUTE, 0);
-        nextRun.set(Calendar.SECOND, 0);
-        nextRun.set(Calendar.MILLISECOND, 0);
-        
-        if (nextRun.before(now)) {
-            nextRun.add(Calendar.DATE, 1);
-        }
-        
-        long initialDelay = nextRun.getTimeInMillis() - now.getTimeInMillis();
-        long period = 24 * 60 * 60 * 1000; // 24시간
-        
-        executor.scheduleAtFixedRate(task, initialDelay, period, TimeUnit.MILLISECONDS);
+    private void addClaimToCache(Claim claim) {
+        claimIndex.add(claim);
+        claimAreas.add(claim);
+        claimsById.put(claim.getId(), claim);
+        claimsByOwner.computeIfAbsent(claim.getOwnerUuid(), owner -> ConcurrentHashMap.newKeySet()).add(claim);
     }
     
     private void syncCacheToDatabase() {
         // TODO: 필요시 캐시 동기화 구현
-        SmpEconomyMod.LOGGER.debug("영토 캐시 동기화 (현재 캐시 크기: {})", claimCache.size());
+        SmpEconomyMod.LOGGER.debug("영토 캐시 동기화 (색인된 청크: {})", claimIndex.size());
     }
     
     public void shutdown() {
         syncCacheToDatabase();
         
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-        }
+        executor.shutdown(10, TimeUnit.SECONDS);
         
         SmpEconomyMod.LOGGER.info("TerritoryManager 종료됨");
     }
@@ -0,0 +1,74 @@
+package com.github.jw010801.smpeconomymod.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 대기열이 가득 찬 작업 풀의 거부 처리 테스트
+ */
+class InstrumentedExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final InstrumentedExecutor executor = InstrumentedExecutor.platform("test", 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void rejectedSupplyBecomesFailedFuture() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = InstrumentedExecutor.runAsync(() -> {
+            running.countDown();
+            awaitRelease();
+        }, executor);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // 실행 중인 작업 1개 + 대기 1개로 대기열이 가득 찬다
+        CompletableFuture<Integer> waiting = InstrumentedExecutor.supplyAsync(() -> 1, executor);
+        CompletableFuture<Integer> rejected = InstrumentedExecutor.supplyAsync(() -> 2, executor);
+
+        assertTrue(rejected.isCompletedExceptionally());
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(1, executor.getStats().getRejectedCount());
+
+        release.countDown();
+        blocker.join();
+        assertEquals(1, waiting.join());
+    }
+
+    @Test
+    void executeStillThrowsForFireAndForgetCallers() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            awaitRelease();
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> { });
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.jw010801.smpeconomymod.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 작업 풀 동시 실행 수와 연결 풀 크기 검증 테스트
+ */
+class ModConfigTest {
+
+    @Test
+    void defaultsFitDefaultConnectionPool() {
+        ModConfig config = new ModConfig();
+        assertTrue(config.concurrency.getTotalIoConcurrency() <= config.database.maximumPoolSize);
+        assertFalse(config.concurrency.fitTo(config.database.maximumPoolSize));
+    }
+
+    @Test
+    void oversizedPoolsAreScaledDown() {
+        ModConfig.Concurrency concurrency = new ModConfig.Concurrency();
+        concurrency.economyIoConcurrency = 6;
+        concurrency.territoryIoConcurrency = 4;
+        concurrency.sessionIoConcurrency = 4;
+
+        assertTrue(concurrency.fitTo(10));
+        assertEquals(4, concurrency.economyIoConcurrency);
+        assertEquals(2, concurrency.territoryIoConcurrency);
+        assertEquals(2, concurrency.sessionIoConcurrency);
+        assertTrue(concurrency.getTotalIoConcurrency() <= 10);
+    }
+
+    @Test
+    void everyPoolKeepsAtLeastOneThread() {
+        ModConfig.Concurrency concurrency = new ModConfig.Concurrency();
+        assertTrue(concurrency.fitTo(2));
+        assertEquals(1, concurrency.economyIoConcurrency);
+        assertEquals(1, concurrency.territoryIoConcurrency);
+        assertEquals(1, concurrency.sessionIoConcurrency);
+    }
+}
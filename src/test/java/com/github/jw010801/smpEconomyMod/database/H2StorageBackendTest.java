@@ -0,0 +1,216 @@
+package com.github.jw010801.smpeconomymod.database;
+
+import com.github.jw010801.smpeconomymod.concurrent.ExecutorRegistry;
+import com.github.jw010801.smpeconomymod.config.ModConfig;
+import com.github.jw010801.smpeconomymod.economy.AccrualKind;
+import com.github.jw010801.smpeconomymod.economy.EconomyManager;
+import com.github.jw010801.smpeconomymod.economy.Money;
+import com.github.jw010801.smpeconomymod.economy.ReconciliationReport;
+import com.github.jw010801.smpeconomymod.session.PlayerSessionLoader;
+import com.github.jw010801.smpeconomymod.territory.ClaimMember;
+import com.github.jw010801.smpeconomymod.territory.TerritoryManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 매니저들의 MySQL 문법 질의(INSERT IGNORE, ON DUPLICATE KEY UPDATE ... VALUES())가
+ * 내장 H2(MySQL 호환 모드)에서도 그대로 동작하는지 확인하는 통합 테스트
+ */
+class H2StorageBackendTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    @TempDir
+    Path directory;
+
+    private ModConfig config;
+    private DatabaseManager databaseManager;
+    private final List<ExecutorRegistry> registries = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        config = new ModConfig();
+        config.database.type = "h2";
+        databaseManager = new DatabaseManager(config.database, directory);
+        databaseManager.initialize();
+        assertTrue(databaseManager.isInitialized());
+    }
+
+    @AfterEach
+    void tearDown() {
+        registries.forEach(ExecutorRegistry::shutdown);
+        databaseManager.shutdown();
+    }
+
+    @Test
+    void accountCreationAndFlushUpsert() throws SQLException {
+        EconomyManager economy = newEconomyManager();
+        // 계정이 없으면 INSERT IGNORE로 초기 잔액 계정을 만든다
+        assertEquals(EconomyManager.DEFAULT_STARTING_BALANCE, economy.getBalance(ALICE).join());
+        assertTrue(economy.addBalance(ALICE, Money.ofUnits(50), "테스트 지급").join());
+        // 종료 시 변경된 계정을 ON DUPLICATE KEY UPDATE로 기록
+        economy.shutdown();
+
+        assertEquals(Money.ofUnits(150), storedBalance(ALICE));
+        assertEquals(1, countRows("SELECT COUNT(*) FROM tx_ledger WHERE transaction_type = 'starting_balance'"));
+
+        EconomyManager restarted = newEconomyManager();
+        assertEquals(Money.ofUnits(150), restarted.getBalance(ALICE).join());
+        restarted.shutdown();
+    }
+
+    @Test
+    void accrualUpsertUpdatesExistingRow() throws SQLException {
+        EconomyManager economy = newEconomyManager();
+        economy.addAccrual(ALICE, AccrualKind.CLAIM_TAX, 7, Money.ofUnits(1), 0, 86400);
+        economy.addAccrual(ALICE, AccrualKind.CLAIM_TAX, 7, Money.ofUnits(3), 0, 86400);
+        economy.shutdown();
+
+        assertEquals(1, countRows("SELECT COUNT(*) FROM accruals WHERE kind = 'claim_tax' AND source_id = 7"));
+        assertEquals(0, new BigDecimal("3.00").compareTo(
+                queryDecimal("SELECT amount FROM accruals WHERE kind = 'claim_tax' AND source_id = 7")));
+    }
+
+    @Test
+    void reconciliationCheckpointsAndRepairs() throws SQLException {
+        EconomyManager first = newEconomyManager();
+        first.getBalance(ALICE).join();
+        first.addBalance(ALICE, Money.ofUnits(50), "테스트 지급").join();
+        first.shutdown();
+
+        // 첫 실행은 원장 행을 tail로만 보고, 두 번째 실행이 체크포인트 행을 만든다
+        EconomyManager second = newEconomyManager();
+        backdateBalances();
+        assertBalanced(second.reconcileLedger(false).join(), 1);
+        assertBalanced(second.reconcileLedger(false).join(), 1);
+        assertEquals(1, countRows("SELECT COUNT(*) FROM ledger_checkpoints"));
+        second.addBalance(ALICE, Money.ofUnits(25), "테스트 지급").join();
+        second.shutdown();
+
+        // 기존 체크포인트 행에 합계를 더하는 갱신 경로
+        EconomyManager third = newEconomyManager();
+        backdateBalances();
+        assertBalanced(third.reconcileLedger(false).join(), 1);
+        assertBalanced(third.reconcileLedger(false).join(), 1);
+        assertEquals(0, new BigDecimal("75.00").compareTo(
+                queryDecimal("SELECT ledger_sum FROM ledger_checkpoints WHERE player_uuid = '" + ALICE + "'")));
+
+        // 원장을 거치지 않은 잔액 변경은 불일치로 잡히고, 보정하면 다음 실행부터 맞는다
+        execute("UPDATE balances SET balance = 500.00, updated_at = TIMESTAMP '2000-01-01 00:00:00'");
+        ReconciliationReport drifted = third.reconcileLedger(true).join();
+        assertEquals(1, drifted.getDiscrepancies().size());
+        assertTrue(drifted.isRepaired());
+        assertBalanced(third.reconcileLedger(false).join(), 1);
+        third.shutdown();
+    }
+
+    @Test
+    void sessionPreloadCreatesAccountOnce() throws SQLException {
+        ExecutorRegistry executors = newRegistry();
+        EconomyManager economy = new EconomyManager(databaseManager, executors, config, directory);
+        TerritoryManager territory = new TerritoryManager(databaseManager, executors, config);
+        PlayerSessionLoader loader = new PlayerSessionLoader(databaseManager, economy, territory, executors.pool("session-io", 2));
+
+        loader.preload(BOB).join();
+        loader.preload(BOB).join();
+        assertEquals(EconomyManager.DEFAULT_STARTING_BALANCE, economy.getBalance(BOB).join());
+        territory.shutdown();
+        economy.shutdown();
+
+        assertEquals(1, countRows("SELECT COUNT(*) FROM balances WHERE player_uuid = '" + BOB + "'"));
+        assertEquals(1, countRows("SELECT COUNT(*) FROM tx_ledger WHERE transaction_type = 'starting_balance'"));
+    }
+
+    @Test
+    void claimMemberUpsertChangesPermission() throws SQLException {
+        ExecutorRegistry executors = newRegistry();
+        TerritoryManager territory = new TerritoryManager(databaseManager, executors, config);
+        execute("INSERT INTO claims (id, owner_uuid, world_name, min_x, max_x, min_z, max_z) VALUES (1, '" + ALICE + "', 'minecraft:overworld', 0, 1, 0, 1)");
+
+        assertTrue(territory.addClaimMember(1, BOB, ClaimMember.PermissionLevel.MEMBER).join());
+        assertTrue(territory.addClaimMember(1, BOB, ClaimMember.PermissionLevel.ADMIN).join());
+        territory.shutdown();
+
+        assertEquals(1, countRows("SELECT COUNT(*) FROM claim_members WHERE claim_id = 1"));
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT permission_level FROM claim_members WHERE claim_id = 1")) {
+            assertTrue(rs.next());
+            assertEquals("admin", rs.getString(1));
+        }
+    }
+
+    private ExecutorRegistry newRegistry() {
+        // 매니저의 종료는 이름 붙은 풀도 닫으므로 다시 시작할 때마다 새 레지스트리를 쓴다
+        ExecutorRegistry executors = new ExecutorRegistry(config.concurrency);
+        registries.add(executors);
+        return executors;
+    }
+
+    private EconomyManager newEconomyManager() {
+        return new EconomyManager(databaseManager, newRegistry(), config, directory);
+    }
+
+    private static void assertBalanced(ReconciliationReport report, long checkedAccounts) {
+        assertEquals(checkedAccounts, report.getCheckedAccounts());
+        assertTrue(report.getDiscrepancies().isEmpty(), () -> "불일치: " + report.getDiscrepancies().size());
+    }
+
+    /**
+     * 정산은 최근 SETTLE_SECONDS 안에 기록된 계정을 건너뛰므로 기록 시각을 과거로 옮긴다
+     */
+    private void backdateBalances() throws SQLException {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE balances SET updated_at = ?")) {
+            stmt.setTimestamp(1, Timestamp.valueOf("2000-01-01 00:00:00"));
+            stmt.executeUpdate();
+        }
+    }
+
+    private Money storedBalance(UUID playerUuid) throws SQLException {
+        return Money.fromBigDecimal(queryDecimal("SELECT balance FROM balances WHERE player_uuid = '" + playerUuid + "'"));
+    }
+
+    private BigDecimal queryDecimal(String query) throws SQLException {
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            assertTrue(rs.next());
+            return rs.getBigDecimal(1);
+        }
+    }
+
+    private long countRows(String query) throws SQLException {
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
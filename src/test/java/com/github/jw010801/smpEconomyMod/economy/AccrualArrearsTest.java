@@ -0,0 +1,95 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import com.github.jw010801.smpeconomymod.concurrent.ExecutorRegistry;
+import com.github.jw010801.smpeconomymod.config.ModConfig;
+import com.github.jw010801.smpeconomymod.database.DatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 차감 항목의 밀린 금액 한도 (넘으면 제한, 잔액이 생기면 다음 정산에서 내고 풀림) 테스트 (내장 H2 파일 저장소)
+ */
+class AccrualArrearsTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final long DAY_SECONDS = TimeUnit.DAYS.toSeconds(1);
+
+    @TempDir
+    Path directory;
+
+    private DatabaseManager databaseManager;
+    private ExecutorRegistry executors;
+    private EconomyManager economy;
+
+    @BeforeEach
+    void setUp() {
+        ModConfig config = new ModConfig();
+        config.database.type = "h2";
+        databaseManager = new DatabaseManager(config.database, directory);
+        databaseManager.initialize();
+        executors = new ExecutorRegistry(config.concurrency);
+        economy = new EconomyManager(databaseManager, executors, config, directory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        economy.shutdown();
+        executors.shutdown();
+        databaseManager.shutdown();
+    }
+
+    @Test
+    void arrearsOverLimitAreEnforcedUntilPaid() throws SQLException {
+        // 초기 잔액 100골드로는 하루치 세금 150골드를 낼 수 없다
+        assertEquals(EconomyManager.DEFAULT_STARTING_BALANCE, economy.getBalance(ALICE).join());
+        economy.addAccrual(ALICE, AccrualKind.CLAIM_TAX, 1, Money.ofUnits(150), 0, DAY_SECONDS);
+        backdateAccruals(DAY_SECONDS + 60);
+
+        economy.settleAccruals(ALICE).join();
+        assertTrue(economy.hasArrearsOverLimit(ALICE));
+        assertEquals(EconomyManager.DEFAULT_STARTING_BALANCE, economy.getBalance(ALICE).join());
+
+        // 다음 기간 전이라도 잔액이 생기면 밀린 금액을 내고 제한이 풀린다
+        assertTrue(economy.addBalance(ALICE, Money.ofUnits(100), "테스트 지급").join());
+        economy.settleAccruals(ALICE).join();
+        assertFalse(economy.hasArrearsOverLimit(ALICE));
+        assertEquals(Money.ofUnits(50), economy.getBalance(ALICE).join());
+    }
+
+    @Test
+    void arrearsUnderLimitAreNotEnforced() throws SQLException {
+        economy.getBalance(ALICE).join();
+        economy.addAccrual(ALICE, AccrualKind.CLAIM_TAX, 1, Money.ofUnits(101), 0, DAY_SECONDS);
+        assertTrue(economy.subtractBalance(ALICE, Money.ofUnits(50), "테스트 차감").join());
+        backdateAccruals(DAY_SECONDS + 60);
+
+        // 밀린 금액 101골드는 한도 100골드를 넘는다
+        economy.settleAccruals(ALICE).join();
+        assertTrue(economy.hasArrearsOverLimit(ALICE));
+
+        economy.removeAccrual(AccrualKind.CLAIM_TAX, 1);
+        assertFalse(economy.hasArrearsOverLimit(ALICE));
+    }
+
+    private void backdateAccruals(long seconds) throws SQLException {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE accruals SET last_settled_at = ?")) {
+            stmt.setTimestamp(1, new Timestamp(System.currentTimeMillis() - seconds * 1000));
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 잔액 캐시 W-TinyLFU 제거 정책 테스트
+ * 최대 10개 = 윈도우 1개 + 주 영역 9개 (보호 구간 7개)
+ */
+class BalanceCacheTest {
+
+    private static final int MAXIMUM_SIZE = 10;
+
+    @Test
+    void oneTimeScanDoesNotFlushResidentAccounts() {
+        BalanceCache cache = new BalanceCache(MAXIMUM_SIZE, account -> true);
+        fill(cache, "resident", MAXIMUM_SIZE);
+        // 자주 쓰는 계정은 보호 구간으로 승격된다
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(cache.get(key("resident", 0)));
+        }
+
+        // 한 번씩만 쓰이는 계정이 계속 들어와도 빈도가 같거나 높은 주 영역 계정은 밀려나지 않는다
+        fill(cache, "scan", 20);
+
+        for (int i = 0; i < MAXIMUM_SIZE - 1; i++) {
+            assertNotNull(cache.peek(key("resident", i)), "resident " + i);
+        }
+        assertNotNull(cache.peek(key("scan", 19)));
+        assertEquals(MAXIMUM_SIZE, cache.size());
+        assertEquals(20, cache.stats(0).getEvictionCount());
+    }
+
+    @Test
+    void frequentNewcomerReplacesColdestProbationAccount() {
+        BalanceCache cache = new BalanceCache(MAXIMUM_SIZE, account -> true);
+        fill(cache, "resident", MAXIMUM_SIZE);
+        Account windowed = cache.peek(key("resident", MAXIMUM_SIZE - 1));
+
+        // 윈도우에 있는 동안 여러 번 쓰인 계정은 주 영역 입장 경쟁에서 이긴다
+        cache.putIfAbsent(key("hot", 0), new Account(key("hot", 0), 0));
+        for (int i = 0; i < 3; i++) {
+            cache.get(key("hot", 0));
+        }
+        cache.putIfAbsent(key("next", 0), new Account(key("next", 0), 0));
+
+        assertNotNull(cache.peek(key("hot", 0)));
+        assertNotNull(cache.peek(key("next", 0)));
+        assertNull(cache.peek(key("resident", 0)));
+        assertNull(cache.peek(key("resident", MAXIMUM_SIZE - 1)));
+        assertTrue(windowed.isRetired());
+        assertEquals(MAXIMUM_SIZE, cache.size());
+    }
+
+    @Test
+    void pinnedAccountsOverflowUntilReleased() {
+        Set<UUID> pinned = new HashSet<>();
+        BalanceCache cache = new BalanceCache(MAXIMUM_SIZE, account -> !pinned.contains(account.getPlayerUuid()));
+        for (int i = 0; i < MAXIMUM_SIZE + 5; i++) {
+            pinned.add(key("online", i));
+        }
+
+        fill(cache, "online", MAXIMUM_SIZE + 5);
+        assertEquals(MAXIMUM_SIZE + 5, cache.size());
+        assertTrue(cache.isOverCapacity());
+        assertEquals(0, cache.stats(pinned.size()).getEvictionCount());
+
+        pinned.clear();
+        cache.cleanUp();
+        assertEquals(MAXIMUM_SIZE, cache.size());
+        assertFalse(cache.isOverCapacity());
+    }
+
+    @Test
+    void lockedAccountIsNotEvicted() throws InterruptedException {
+        BalanceCache cache = new BalanceCache(MAXIMUM_SIZE, account -> true);
+        fill(cache, "resident", MAXIMUM_SIZE);
+        Account busy = cache.peek(key("resident", MAXIMUM_SIZE - 1));
+
+        // 다른 스레드가 잠금을 잡은 윈도우 계정은 입장 경쟁에서 져도 제거되지 않고, 대신 수습 구간의 다른 계정이 제거된다
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            busy.lock();
+            try {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                busy.unlock();
+            }
+        });
+        holder.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        cache.putIfAbsent(key("scan", 0), new Account(key("scan", 0), 0));
+        assertNotNull(cache.peek(key("resident", MAXIMUM_SIZE - 1)));
+        assertFalse(busy.isRetired());
+        assertNull(cache.peek(key("resident", 0)));
+        assertEquals(MAXIMUM_SIZE, cache.size());
+
+        release.countDown();
+        holder.join();
+    }
+
+    @Test
+    void hitsAndMissesAreCounted() {
+        BalanceCache cache = new BalanceCache(MAXIMUM_SIZE, account -> true);
+        cache.putIfAbsent(key("a", 0), new Account(key("a", 0), 0));
+
+        cache.get(key("a", 0));
+        cache.get(key("a", 0));
+        cache.get(key("missing", 0));
+        cache.peek(key("missing", 0));
+
+        CacheStats stats = cache.stats(0);
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    private static void fill(BalanceCache cache, String prefix, int count) {
+        for (int i = 0; i < count; i++) {
+            UUID uuid = key(prefix, i);
+            cache.putIfAbsent(uuid, new Account(uuid, 0));
+        }
+    }
+
+    private static UUID key(String prefix, int index) {
+        return UUID.nameUUIDFromBytes((prefix + "-" + index).getBytes());
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 잔액 저널 재생(체크섬 검사, 세그먼트 순서, 체크포인트) 테스트
+ */
+class BalanceJournalTest {
+
+    private static final int RECORD_SIZE = 32;
+    // 관리 작업을 호출한 스레드에서 바로 실행해 결과를 결정적으로 만든다
+    private static final Executor INLINE = Runnable::run;
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysLastBalancePerAccount() throws IOException {
+        BalanceJournal journal = new BalanceJournal(directory, 1024, INLINE);
+        assertTrue(journal.open().isEmpty());
+        journal.append(ALICE, 100);
+        journal.append(BOB, 200);
+        journal.append(ALICE, 150);
+        journal.close();
+
+        Map<UUID, Long> recovered = new BalanceJournal(directory, 1024, INLINE).open();
+        assertEquals(Map.of(ALICE, 150L, BOB, 200L), recovered);
+    }
+
+    @Test
+    void replaysAcrossSegmentsInOrder() throws IOException {
+        // 세그먼트 하나에 레코드 두 개
+        BalanceJournal journal = new BalanceJournal(directory, 2 * RECORD_SIZE, INLINE);
+        journal.open();
+        for (long cents = 1; cents <= 7; cents++) {
+            journal.append(ALICE, cents);
+        }
+        journal.append(BOB, 42);
+        journal.close();
+
+        assertTrue(segmentFiles().size() >= 4);
+
+        Map<UUID, Long> recovered = new BalanceJournal(directory, 2 * RECORD_SIZE, INLINE).open();
+        assertEquals(Map.of(ALICE, 7L, BOB, 42L), recovered);
+    }
+
+    @Test
+    void skipsCorruptedRecordAndKeepsLaterOnes() throws IOException {
+        BalanceJournal journal = new BalanceJournal(directory, 1024, INLINE);
+        journal.open();
+        journal.append(ALICE, 100);
+        journal.append(ALICE, 999);
+        journal.append(BOB, 300);
+        journal.close();
+
+        // 두 번째 레코드의 잔액을 바꿔 체크섬이 맞지 않게 한다 (찢어진 쓰기)
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, 12345), RECORD_SIZE + 16);
+        }
+
+        Map<UUID, Long> recovered = new BalanceJournal(directory, 1024, INLINE).open();
+        assertEquals(Map.of(ALICE, 100L, BOB, 300L), recovered);
+    }
+
+    @Test
+    void recoversRecordsAfterUnwrittenSlot() throws IOException {
+        BalanceJournal journal = new BalanceJournal(directory, 1024, INLINE);
+        journal.open();
+        journal.append(ALICE, 100);
+        journal.append(BOB, 200);
+        journal.append(ALICE, 150);
+        journal.close();
+
+        // 자리는 예약했지만 쓰기 전에 멈춘 두 번째 레코드 (0으로 남은 자리)
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(RECORD_SIZE), RECORD_SIZE);
+        }
+
+        Map<UUID, Long> recovered = new BalanceJournal(directory, 1024, INLINE).open();
+        assertEquals(Map.of(ALICE, 150L), recovered);
+    }
+
+    @Test
+    void ignoresZeroFilledTail() throws IOException {
+        BalanceJournal journal = new BalanceJournal(directory, 1024, INLINE);
+        journal.open();
+        journal.append(ALICE, 0);
+        journal.close();
+
+        // 매핑된 세그먼트의 나머지는 0으로 채워져 있고, 0 레코드는 체크섬이 맞지 않는다
+        assertEquals(1024, Files.size(segmentFiles().get(0)));
+        assertFalse(BalanceJournal.checksum(0, 0, 0) == 0);
+
+        Map<UUID, Long> recovered = new BalanceJournal(directory, 1024, INLINE).open();
+        assertEquals(Map.of(ALICE, 0L), recovered);
+    }
+
+    @Test
+    void skipsAndDeletesCheckpointedSegments() throws IOException {
+        BalanceJournal journal = new BalanceJournal(directory, 1024, INLINE);
+        journal.open();
+        journal.append(ALICE, 100);
+        long liveFrom = journal.rotate();
+        journal.append(BOB, 200);
+        journal.checkpoint(liveFrom);
+        journal.close();
+
+        Map<UUID, Long> recovered = new BalanceJournal(directory, 1024, INLINE).open();
+        assertEquals(Map.of(BOB, 200L), recovered);
+    }
+
+    @Test
+    void replaysEverythingWhenCheckpointIsCorrupted() throws IOException {
+        BalanceJournal journal = new BalanceJournal(directory, 1024, INLINE);
+        journal.open();
+        journal.append(ALICE, 100);
+        journal.rotate();
+        journal.append(BOB, 200);
+        journal.close();
+
+        Files.writeString(directory.resolve("checkpoint"), "not a number", StandardCharsets.UTF_8);
+
+        Map<UUID, Long> recovered = new BalanceJournal(directory, 1024, INLINE).open();
+        assertEquals(Map.of(ALICE, 100L, BOB, 200L), recovered);
+    }
+
+    @Test
+    void concurrentAppendsAreAllRecovered() throws Exception {
+        assertConcurrentAppendsRecovered(INLINE);
+    }
+
+    @Test
+    void concurrentAppendsWithBackgroundMaintenance() throws Exception {
+        ExecutorService maintenance = Executors.newSingleThreadExecutor();
+        try {
+            assertConcurrentAppendsRecovered(maintenance);
+        } finally {
+            maintenance.shutdown();
+            assertTrue(maintenance.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private void assertConcurrentAppendsRecovered(Executor maintenance) throws Exception {
+        int segmentSize = 64 * RECORD_SIZE;
+        BalanceJournal journal = new BalanceJournal(directory, segmentSize, maintenance);
+        journal.open();
+
+        int threads = 8;
+        int perThread = 500;
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            UUID account = new UUID(1, t);
+            writers[t] = new Thread(() -> {
+                for (long cents = 1; cents <= perThread; cents++) {
+                    journal.append(account, cents);
+                }
+            });
+            writers[t].start();
+        }
+        // 기록 도중 플러시가 세그먼트를 넘기는 경우도 섞는다
+        journal.rotate();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        journal.sync();
+        journal.close();
+
+        Map<UUID, Long> recovered = new BalanceJournal(directory, segmentSize, INLINE).open();
+        assertEquals(threads, recovered.size());
+        for (int t = 0; t < threads; t++) {
+            assertEquals((long) perThread, recovered.get(new UUID(1, t)));
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+}
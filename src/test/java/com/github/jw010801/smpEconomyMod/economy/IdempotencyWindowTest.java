@@ -0,0 +1,109 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 멱등 키 창의 만료, 개수 제한, 오류 시 키 해제 테스트 (시각은 직접 넘긴다)
+ */
+class IdempotencyWindowTest {
+
+    private static final long WINDOW_MILLIS = 1000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    void duplicateWithinWindowGetsFirstResult() {
+        IdempotencyWindow window = new IdempotencyWindow(WINDOW_MILLIS, 100, now::get);
+        CompletableFuture<Boolean> first = new CompletableFuture<>();
+
+        assertNull(window.putIfAbsent("key", first));
+        now.addAndGet(WINDOW_MILLIS - 1);
+        assertSame(first, window.putIfAbsent("key", new CompletableFuture<>()));
+        assertEquals(1, window.getDuplicateHits());
+    }
+
+    @Test
+    void keyExpiresAfterWindow() {
+        IdempotencyWindow window = new IdempotencyWindow(WINDOW_MILLIS, 100, now::get);
+        assertNull(window.putIfAbsent("key", new CompletableFuture<>()));
+
+        now.addAndGet(WINDOW_MILLIS);
+        CompletableFuture<Boolean> retry = new CompletableFuture<>();
+        assertNull(window.putIfAbsent("key", retry));
+        assertEquals(1, window.size());
+        assertEquals(0, window.getDuplicateHits());
+
+        // 다시 등록된 키는 새 시각부터 창이 시작된다
+        now.addAndGet(WINDOW_MILLIS - 1);
+        assertSame(retry, window.putIfAbsent("key", new CompletableFuture<>()));
+    }
+
+    @Test
+    void expiredKeysArePrunedOnRegister() {
+        IdempotencyWindow window = new IdempotencyWindow(WINDOW_MILLIS, 100, now::get);
+        window.putIfAbsent("a", new CompletableFuture<>());
+        now.addAndGet(WINDOW_MILLIS / 2);
+        window.putIfAbsent("b", new CompletableFuture<>());
+
+        now.addAndGet(WINDOW_MILLIS / 2);
+        window.putIfAbsent("c", new CompletableFuture<>());
+        assertEquals(2, window.size());
+    }
+
+    @Test
+    void oldestKeysAreDroppedOverMaximum() {
+        IdempotencyWindow window = new IdempotencyWindow(WINDOW_MILLIS, 2, now::get);
+        CompletableFuture<Boolean> first = new CompletableFuture<>();
+        window.putIfAbsent("a", first);
+        window.putIfAbsent("b", new CompletableFuture<>());
+        window.putIfAbsent("c", new CompletableFuture<>());
+        window.putIfAbsent("d", new CompletableFuture<>());
+
+        // 창 안이라도 최대 개수를 넘은 가장 오래된 키는 잊는다
+        assertEquals(3, window.size());
+        assertNull(window.putIfAbsent("a", new CompletableFuture<>()));
+    }
+
+    @Test
+    void forgetAllowsRetryWithSameKey() {
+        IdempotencyWindow window = new IdempotencyWindow(WINDOW_MILLIS, 100, now::get);
+        CompletableFuture<Boolean> failed = new CompletableFuture<>();
+        window.putIfAbsent("key", failed);
+
+        window.forget("key", failed);
+        assertEquals(0, window.size());
+
+        CompletableFuture<Boolean> retry = new CompletableFuture<>();
+        assertNull(window.putIfAbsent("key", retry));
+        assertSame(retry, window.putIfAbsent("key", new CompletableFuture<>()));
+    }
+
+    @Test
+    void forgetIgnoresOtherRequestsResult() {
+        IdempotencyWindow window = new IdempotencyWindow(WINDOW_MILLIS, 100, now::get);
+        CompletableFuture<Boolean> current = new CompletableFuture<>();
+        window.putIfAbsent("key", current);
+
+        // 만료 후 다시 등록된 키는 이전 요청의 오류로 지워지지 않는다
+        window.forget("key", new CompletableFuture<>());
+        assertSame(current, window.putIfAbsent("key", new CompletableFuture<>()));
+    }
+
+    @Test
+    void recordedKeysOutsideWindowAreIgnored() {
+        IdempotencyWindow window = new IdempotencyWindow(WINDOW_MILLIS, 100, now::get);
+        window.recordApplied("old", now.get() - WINDOW_MILLIS);
+        window.recordApplied("recent", now.get() - WINDOW_MILLIS + 1);
+
+        assertEquals(1, window.size());
+        assertNull(window.putIfAbsent("old", new CompletableFuture<>()));
+        assertEquals(true, window.putIfAbsent("recent", new CompletableFuture<>()).join());
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import com.github.jw010801.smpeconomymod.config.ModConfig;
+import com.github.jw010801.smpeconomymod.database.DatabaseManager;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 디스크에 보관한 원장 묶음 재기록(격리, 나눠 기록, 일시적 오류) 테스트 (내장 H2 파일 저장소)
+ */
+class LedgerWriterTest {
+
+    private static final Gson GSON = new Gson();
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+
+    @TempDir
+    Path directory;
+
+    private Path spillDirectory;
+    private DatabaseManager databaseManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ModConfig.Database config = new ModConfig().database;
+        config.type = "h2";
+        databaseManager = new DatabaseManager(config, directory);
+        spillDirectory = Files.createDirectories(directory.resolve("ledger-spill"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.shutdown();
+    }
+
+    @Test
+    void unreadableFileIsQuarantinedAndLaterFilesReplay() throws IOException, SQLException {
+        databaseManager.initialize();
+        Files.writeString(spillDirectory.resolve("ledger-0000000000001-000000.json"), "[{\"amountCents\": 1", StandardCharsets.UTF_8);
+        writeSpill("ledger-0000000000002-000000.json", entry(100, "첫 번째"), entry(200, "두 번째"));
+
+        LedgerWriter writer = new LedgerWriter(databaseManager, spillDirectory);
+        writer.shutdown();
+
+        assertEquals(2, countLedgerRows());
+        assertEquals(0, writer.getSpilledBatches());
+        assertEquals(1, writer.getQuarantinedFiles());
+        assertTrue(Files.exists(spillDirectory.resolve("ledger-0000000000001-000000.json.rejected")));
+        assertFalse(Files.exists(spillDirectory.resolve("ledger-0000000000002-000000.json")));
+    }
+
+    @Test
+    void rejectedEntryIsSplitOutOfItsBatch() throws IOException, SQLException {
+        databaseManager.initialize();
+        // description 열(1000자)보다 길어 데이터 오류로 거부된다
+        writeSpill("ledger-0000000000001-000000.json", entry(100, "정상"), entry(200, "x".repeat(2000)), entry(300, "정상"));
+
+        LedgerWriter writer = new LedgerWriter(databaseManager, spillDirectory);
+        writer.shutdown();
+
+        assertEquals(2, countLedgerRows());
+        assertEquals(0, writer.getSpilledBatches());
+        Path rejected = spillDirectory.resolve("ledger-0000000000001-000000.json.rejected");
+        assertEquals(1, GSON.fromJson(Files.readString(rejected, StandardCharsets.UTF_8), LedgerEntry[].class).length);
+    }
+
+    @Test
+    void transientFailureKeepsFilesForLaterReplay() throws IOException {
+        // 데이터베이스가 초기화되지 않아 연결을 얻지 못한다
+        writeSpill("ledger-0000000000001-000000.json", entry(100, "첫 번째"));
+        writeSpill("ledger-0000000000002-000000.json", entry(200, "두 번째"));
+
+        LedgerWriter writer = new LedgerWriter(databaseManager, spillDirectory);
+        writer.shutdown();
+
+        assertEquals(2, writer.getSpilledBatches());
+        assertEquals(0, writer.getQuarantinedFiles());
+        assertTrue(Files.exists(spillDirectory.resolve("ledger-0000000000001-000000.json")));
+    }
+
+    private static LedgerEntry entry(long cents, String description) {
+        return new LedgerEntry(null, ALICE, cents, EconomyManager.TransactionType.EARN, description, null);
+    }
+
+    private void writeSpill(String name, LedgerEntry... entries) throws IOException {
+        Files.writeString(spillDirectory.resolve(name), GSON.toJson(entries), StandardCharsets.UTF_8);
+    }
+
+    private long countLedgerRows() throws SQLException {
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM tx_ledger")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
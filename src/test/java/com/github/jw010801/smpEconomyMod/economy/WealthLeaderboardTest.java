@@ -0,0 +1,128 @@
+package com.github.jw010801.smpeconomymod.economy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 잔액 순위표 순위/구간 조회 테스트
+ * skip list 레벨은 무작위지만 결과는 레벨과 무관해야 하므로, 고정 시드로 만든 갱신 순서를 정렬 결과와 비교한다.
+ */
+class WealthLeaderboardTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    private static final UUID CAROL = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+
+    @Test
+    void ordersByBalanceThenUuid() {
+        WealthLeaderboard leaderboard = new WealthLeaderboard();
+        leaderboard.update(CAROL, 500);
+        leaderboard.update(BOB, 1000);
+        leaderboard.update(ALICE, 500);
+
+        assertEquals(1, leaderboard.rankOf(BOB));
+        assertEquals(2, leaderboard.rankOf(ALICE));
+        assertEquals(3, leaderboard.rankOf(CAROL));
+        assertEquals(0, leaderboard.rankOf(UUID.randomUUID()));
+
+        List<LeaderboardEntry> top = leaderboard.range(0, 10);
+        assertEquals(List.of(BOB, ALICE, CAROL), top.stream().map(LeaderboardEntry::getPlayerUuid).toList());
+        assertEquals(List.of(1, 2, 3), top.stream().map(LeaderboardEntry::getRank).toList());
+        assertEquals(Money.ofCents(1000), top.get(0).getBalance());
+    }
+
+    @Test
+    void updateMovesExistingEntry() {
+        WealthLeaderboard leaderboard = new WealthLeaderboard();
+        leaderboard.update(ALICE, 100);
+        leaderboard.update(BOB, 200);
+        leaderboard.update(ALICE, 300);
+        leaderboard.update(BOB, 200);
+
+        assertEquals(2, leaderboard.size());
+        assertEquals(1, leaderboard.rankOf(ALICE));
+        assertEquals(2, leaderboard.rankOf(BOB));
+    }
+
+    @Test
+    void seedDoesNotOverwriteNewerBalance() {
+        WealthLeaderboard leaderboard = new WealthLeaderboard();
+        leaderboard.update(ALICE, 700);
+        leaderboard.seed(ALICE, 100);
+        leaderboard.seed(BOB, 400);
+
+        List<LeaderboardEntry> top = leaderboard.range(0, 10);
+        assertEquals(2, top.size());
+        assertEquals(Money.ofCents(700), top.get(0).getBalance());
+        assertEquals(BOB, top.get(1).getPlayerUuid());
+    }
+
+    @Test
+    void rangeHandlesBounds() {
+        WealthLeaderboard leaderboard = new WealthLeaderboard();
+        assertTrue(leaderboard.range(0, 10).isEmpty());
+
+        leaderboard.update(ALICE, 100);
+        leaderboard.update(BOB, 200);
+        assertTrue(leaderboard.range(2, 10).isEmpty());
+        assertTrue(leaderboard.range(-1, 10).isEmpty());
+        assertTrue(leaderboard.range(0, 0).isEmpty());
+        assertEquals(List.of(ALICE), leaderboard.range(1, 10).stream().map(LeaderboardEntry::getPlayerUuid).toList());
+    }
+
+    @Test
+    void matchesSortedModelAfterRandomUpdates() {
+        WealthLeaderboard leaderboard = new WealthLeaderboard();
+        Map<UUID, Long> model = new HashMap<>();
+        Random random = new Random(42);
+
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            players.add(new UUID(0, i));
+        }
+
+        for (int step = 0; step < 5000; step++) {
+            UUID player = players.get(random.nextInt(players.size()));
+            // 같은 잔액이 자주 나오도록 범위를 좁게
+            long balance = random.nextInt(50) * 100L;
+            leaderboard.update(player, balance);
+            model.put(player, balance);
+
+            if (step % 500 == 0) {
+                assertMatches(leaderboard, model);
+            }
+        }
+        assertMatches(leaderboard, model);
+    }
+
+    private static void assertMatches(WealthLeaderboard leaderboard, Map<UUID, Long> model) {
+        List<UUID> expected = new ArrayList<>(model.keySet());
+        expected.sort(Comparator.comparing((UUID uuid) -> model.get(uuid)).reversed().thenComparing(Comparator.naturalOrder()));
+
+        assertEquals(expected.size(), leaderboard.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i + 1, leaderboard.rankOf(expected.get(i)));
+        }
+
+        // 여러 위치에서 시작하는 페이지가 정렬 결과의 같은 구간과 일치해야 한다
+        for (int offset = 0; offset < expected.size(); offset += 7) {
+            List<LeaderboardEntry> page = leaderboard.range(offset, 10);
+            int end = Math.min(expected.size(), offset + 10);
+            assertEquals(expected.subList(offset, end), page.stream().map(LeaderboardEntry::getPlayerUuid).toList());
+            for (int i = 0; i < page.size(); i++) {
+                assertEquals(offset + i + 1, page.get(i).getRank());
+                assertEquals(Money.ofCents(model.get(page.get(i).getPlayerUuid())), page.get(i).getBalance());
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.jw010801.smpeconomymod.territory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 클레임 R-tree 삽입/검색과 생성 예약 테스트
+ */
+class ClaimSpatialIndexTest {
+
+    private static final String OVERWORLD = "minecraft:overworld";
+    private static final String NETHER = "minecraft:the_nether";
+    private static final UUID OWNER = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+
+    @Test
+    void searchMatchesBruteForceAfterManySplits() {
+        ClaimSpatialIndex index = new ClaimSpatialIndex();
+        List<Claim> claims = new ArrayList<>();
+
+        // 4x4 청크 간격의 격자에 크기가 다른 클레임 (노드가 여러 번 나뉘도록 충분히 많이)
+        Random random = new Random(7);
+        long id = 1;
+        for (int gridX = -15; gridX < 15; gridX++) {
+            for (int gridZ = -15; gridZ < 15; gridZ++) {
+                int minX = gridX * 4;
+                int minZ = gridZ * 4;
+                Claim claim = claim(id++, OVERWORLD, minX, minZ, minX + random.nextInt(3), minZ + random.nextInt(3));
+                claims.add(claim);
+                index.add(claim);
+            }
+        }
+        assertEquals(claims.size(), index.size());
+
+        for (int query = 0; query < 500; query++) {
+            int minX = random.nextInt(140) - 70;
+            int minZ = random.nextInt(140) - 70;
+            int maxX = minX + random.nextInt(12);
+            int maxZ = minZ + random.nextInt(12);
+
+            List<Long> expected = new ArrayList<>();
+            for (Claim claim : claims) {
+                if (claim.getMinX() <= maxX && claim.getMaxX() >= minX && claim.getMinZ() <= maxZ && claim.getMaxZ() >= minZ) {
+                    expected.add(claim.getId());
+                }
+            }
+            assertEquals(expected, ids(index.findOverlapping(OVERWORLD, minX, minZ, maxX, maxZ)),
+                    "(" + minX + ", " + minZ + ") ~ (" + maxX + ", " + maxZ + ")");
+        }
+    }
+
+    @Test
+    void worldsAreIndexedSeparately() {
+        ClaimSpatialIndex index = new ClaimSpatialIndex();
+        index.add(claim(1, OVERWORLD, 0, 0, 2, 2));
+
+        assertTrue(index.findOverlapping(NETHER, 0, 0, 2, 2).isEmpty());
+        assertEquals(List.of(1L), ids(index.findOverlapping(OVERWORLD, 2, 2, 5, 5)));
+        assertTrue(index.findOverlapping(OVERWORLD, 3, 0, 5, 5).isEmpty());
+    }
+
+    @Test
+    void duplicateAddIsIgnored() {
+        ClaimSpatialIndex index = new ClaimSpatialIndex();
+        Claim claim = claim(1, OVERWORLD, 0, 0, 0, 0);
+        index.add(claim);
+        index.add(claim);
+
+        assertEquals(1, index.size());
+        assertEquals(1, index.findOverlapping(OVERWORLD, 0, 0, 0, 0).size());
+    }
+
+    @Test
+    void findNearSortsByDistanceWithinRadius() {
+        ClaimSpatialIndex index = new ClaimSpatialIndex();
+        index.add(claim(1, OVERWORLD, 6, 0, 7, 1));
+        index.add(claim(2, OVERWORLD, 2, 2, 3, 3));
+        index.add(claim(3, OVERWORLD, -1, -1, 1, 1));
+        // 사각 범위 안이지만 모서리라 반경 밖
+        index.add(claim(4, OVERWORLD, 7, 7, 8, 8));
+
+        assertEquals(List.of(3L, 2L, 1L), index.findNear(OVERWORLD, 0, 0, 8).stream().map(Claim::getId).toList());
+    }
+
+    @Test
+    void reservationBlocksOverlappingReservationsAndClaims() {
+        ClaimSpatialIndex index = new ClaimSpatialIndex();
+        index.add(claim(1, OVERWORLD, 0, 0, 2, 2));
+
+        assertFalse(index.tryReserve(OVERWORLD, 2, 2, 4, 4).isPresent());
+
+        Optional<ClaimSpatialIndex.Reservation> first = index.tryReserve(OVERWORLD, 3, 0, 5, 2);
+        assertTrue(first.isPresent());
+        assertFalse(index.tryReserve(OVERWORLD, 5, 2, 6, 3).isPresent());
+        // 다른 월드나 붙어 있기만 한 영역은 예약할 수 있다
+        assertTrue(index.tryReserve(NETHER, 3, 0, 5, 2).isPresent());
+        assertTrue(index.tryReserve(OVERWORLD, 6, 0, 7, 2).isPresent());
+
+        // 생성이 실패해 예약을 풀면 같은 영역을 다시 예약할 수 있다
+        index.release(first.get());
+        Optional<ClaimSpatialIndex.Reservation> retry = index.tryReserve(OVERWORLD, 3, 0, 5, 2);
+        assertTrue(retry.isPresent());
+
+        // 생성에 성공하면 등록한 뒤 예약을 풀어도 계속 막힌다
+        index.add(claim(2, OVERWORLD, 3, 0, 5, 2));
+        index.release(retry.get());
+        assertFalse(index.tryReserve(OVERWORLD, 4, 1, 4, 1).isPresent());
+    }
+
+    private static Claim claim(long id, String world, int minX, int minZ, int maxX, int maxZ) {
+        return new Claim(id, OWNER, world, minX, minZ, maxX, maxZ, 0L);
+    }
+
+    private static List<Long> ids(List<Claim> claims) {
+        return claims.stream().map(Claim::getId).sorted(Comparator.naturalOrder()).toList();
+    }
+}
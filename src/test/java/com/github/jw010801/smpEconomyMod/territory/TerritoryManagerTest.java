@@ -0,0 +1,127 @@
+package com.github.jw010801.smpeconomymod.territory;
+
+import com.github.jw010801.smpeconomymod.concurrent.ExecutorRegistry;
+import com.github.jw010801.smpeconomymod.config.ModConfig;
+import com.github.jw010801.smpeconomymod.database.DatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 클레임 색인을 다 읽기 전 보호 검사(canPerform) 테스트 (내장 H2 파일 저장소)
+ */
+class TerritoryManagerTest {
+
+    private static final String WORLD = "minecraft:overworld";
+    private static final UUID OWNER = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID STRANGER = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    private static final long WAIT_MILLIS = 5000;
+
+    @TempDir
+    Path directory;
+
+    private ModConfig config;
+    private ExecutorRegistry executors;
+    private DatabaseManager databaseManager;
+    private TerritoryManager territoryManager;
+
+    @BeforeEach
+    void setUp() {
+        config = new ModConfig();
+        config.database.type = "h2";
+        executors = new ExecutorRegistry(config.concurrency);
+        databaseManager = new DatabaseManager(config.database, directory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (territoryManager != null) {
+            territoryManager.shutdown();
+        }
+        executors.shutdown();
+        databaseManager.shutdown();
+    }
+
+    @Test
+    void deniesUnindexedChunkUntilDatabaseConfirmsWilderness() throws InterruptedException {
+        databaseManager.initialize();
+        territoryManager = new TerritoryManager(databaseManager, executors, config);
+
+        assertFalse(territoryManager.isClaimIndexLoaded());
+        assertFalse(territoryManager.canPerform(STRANGER, WORLD, 10, 10, ClaimMember.ClaimAction.BUILD));
+        assertTrue(waitFor(() -> territoryManager.canPerform(STRANGER, WORLD, 10, 10, ClaimMember.ClaimAction.BUILD)));
+    }
+
+    @Test
+    void unreadClaimIsIndexedInsteadOfLookingLikeWilderness() throws SQLException, InterruptedException {
+        databaseManager.initialize();
+        insertClaim(OWNER, 0, 0, 1, 1);
+        territoryManager = new TerritoryManager(databaseManager, executors, config);
+
+        assertFalse(territoryManager.canPerform(STRANGER, WORLD, 0, 0, ClaimMember.ClaimAction.BUILD));
+        assertTrue(waitFor(() -> territoryManager.findClaimAt(WORLD, 1, 1) != null));
+
+        // 멤버 색인을 아직 읽지 않았으므로 남의 클레임은 계속 거부, 소유자는 허용
+        assertFalse(territoryManager.canPerform(STRANGER, WORLD, 1, 1, ClaimMember.ClaimAction.BUILD));
+        assertTrue(territoryManager.canPerform(OWNER, WORLD, 1, 1, ClaimMember.ClaimAction.BUILD));
+    }
+
+    @Test
+    void keepsDenyingWhileDatabaseIsUnavailable() throws InterruptedException {
+        // 데이터베이스가 초기화되지 않아 확인이 계속 실패한다
+        territoryManager = new TerritoryManager(databaseManager, executors, config);
+
+        for (int i = 0; i < 5; i++) {
+            assertFalse(territoryManager.canPerform(STRANGER, WORLD, 10, 10, ClaimMember.ClaimAction.BUILD));
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void warmedOwnClaimIsAllowedBeforeIndexLoads() {
+        territoryManager = new TerritoryManager(databaseManager, executors, config);
+        territoryManager.warmPlayerClaims(List.of(new Claim(7, OWNER, WORLD, 4, 4, 5, 5, 0)));
+
+        assertNotNull(territoryManager.findClaimAt(WORLD, 5, 5));
+        assertTrue(territoryManager.canPerform(OWNER, WORLD, 5, 5, ClaimMember.ClaimAction.BUILD));
+        assertFalse(territoryManager.canPerform(STRANGER, WORLD, 5, 5, ClaimMember.ClaimAction.BUILD));
+    }
+
+    private void insertClaim(UUID owner, int minX, int minZ, int maxX, int maxZ) throws SQLException {
+        String insert = "INSERT INTO claims (owner_uuid, world_name, min_x, max_x, min_z, max_z) VALUES (?, ?, ?, ?, ?, ?)";
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(insert)) {
+            stmt.setString(1, owner.toString());
+            stmt.setString(2, WORLD);
+            stmt.setInt(3, minX);
+            stmt.setInt(4, maxX);
+            stmt.setInt(5, minZ);
+            stmt.setInt(6, maxZ);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return condition.getAsBoolean();
+    }
+}